@@ -0,0 +1,96 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.siberika.idea.pascal.jps.compiler.CompilerMessager;
+import org.jetbrains.jps.incremental.messages.BuildMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiler messager which passes messages of a target in batches so that messages of targets compiled
+ * concurrently are not interleaved within a batch. A batch is passed when it reaches BATCH_SIZE messages,
+ * when BATCH_INTERVAL_MS passed since the previous batch or on flush().
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+class BufferedCompilerMessager implements CompilerMessager {
+
+    private static final Object FLUSH_LOCK = new Object();
+    private static final int BATCH_SIZE = 256;
+    private static final long BATCH_INTERVAL_MS = 300;
+
+    private final CompilerMessager delegate;
+    private final List<Message> messages = new ArrayList<Message>();
+    private boolean hasErrors;
+    private long lastFlush = System.currentTimeMillis();
+
+    BufferedCompilerMessager(CompilerMessager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void info(String msg, String path, long line, long column) {
+        add(new Message(BuildMessage.Kind.INFO, msg, path, line, column));
+    }
+
+    @Override
+    public synchronized void warning(String msg, String path, long line, long column) {
+        add(new Message(BuildMessage.Kind.WARNING, msg, path, line, column));
+    }
+
+    @Override
+    public synchronized void error(String msg, String path, long line, long column) {
+        add(new Message(BuildMessage.Kind.ERROR, msg, path, line, column));
+    }
+
+    synchronized boolean hasErrors() {
+        return hasErrors;
+    }
+
+    private void add(Message message) {
+        messages.add(message);
+        hasErrors |= message.kind == BuildMessage.Kind.ERROR;
+        if ((messages.size() >= BATCH_SIZE) || (System.currentTimeMillis() - lastFlush >= BATCH_INTERVAL_MS)) {
+            flush();
+        }
+    }
+
+    /**
+     * Passes all accumulated messages to the underlying messager as one uninterrupted batch
+     */
+    void flush() {
+        List<Message> toFlush;
+        synchronized (this) {
+            toFlush = new ArrayList<Message>(messages);
+            messages.clear();
+            lastFlush = System.currentTimeMillis();
+        }
+        synchronized (FLUSH_LOCK) {
+            for (Message message : toFlush) {
+                if (message.kind == BuildMessage.Kind.ERROR) {
+                    delegate.error(message.msg, message.path, message.line, message.column);
+                } else if (message.kind == BuildMessage.Kind.WARNING) {
+                    delegate.warning(message.msg, message.path, message.line, message.column);
+                } else {
+                    delegate.info(message.msg, message.path, message.line, message.column);
+                }
+            }
+        }
+    }
+
+    private static class Message {
+        private final BuildMessage.Kind kind;
+        private final String msg;
+        private final String path;
+        private final long line;
+        private final long column;
+
+        private Message(BuildMessage.Kind kind, String msg, String path, long line, long column) {
+            this.kind = kind;
+            this.msg = msg;
+            this.path = path;
+            this.line = line;
+            this.column = column;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.siberika.idea.pascal.jps.compiler.CompilerMessager;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Single pass parser of compiler output lines.
+ * FPC messages have form "file(line,column) Kind: message" and Delphi ones "file(line) Kind: message"
+ * where location is optional. Location is the first "(line,column)" or "(line)" group of a line.
+ * Error and Fatal messages are errors. FPC reports compilation errors with location so its Error and Fatal messages
+ * without location (e.g. "Fatal: Compilation aborted") are warnings. Warning messages are warnings, other lines are informational.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+class CompilerOutputParser {
+
+    enum Format {
+        FPC(true, true, "Error", "Fatal", "Warning", "warning"),
+        DELPHI(false, false, "Error", "Fatal", "Warning", "warning", "Hint");
+
+        private final boolean hasColumn;
+        // Error and Fatal messages without location are reported as warnings
+        private final boolean errorNeedsLocation;
+        private final String[] keywords;
+
+        Format(boolean hasColumn, boolean errorNeedsLocation, String... keywords) {
+            this.hasColumn = hasColumn;
+            this.errorNeedsLocation = errorNeedsLocation;
+            this.keywords = keywords;
+        }
+    }
+
+    private final Format format;
+
+    // Parsed location of the current line
+    private int locStart;
+    private int locEnd;
+    private int lineNum;
+    private int colNum;
+
+    CompilerOutputParser(@NotNull Format format) {
+        this.format = format;
+    }
+
+    void parse(@NotNull String line, @NotNull CompilerMessager messager) {
+        int end = line.length();
+        while ((end > 0) && ((line.charAt(end - 1) == '\n') || (line.charAt(end - 1) == '\r'))) {
+            end--;
+        }
+        boolean hasLocation = findLocation(line, end);
+        int pos = hasLocation ? skipSpaces(line, locEnd, end) : skipSpaces(line, 0, end);
+        String path = hasLocation ? line.substring(0, locStart) : null;
+
+        int keyword = matchKeyword(line, pos, end);
+        if (keyword >= 0) {
+            int msgStart = skipSpaces(line, pos + format.keywords[keyword].length() + 1, end);
+            report(getCategory(keyword, hasLocation), line.substring(msgStart, end), path, hasLocation, messager);
+            return;
+        }
+        // Keyword which is not preceded by location can be anywhere in the line
+        for (int i = pos; i < end; i++) {
+            if (line.charAt(i) == ':') {
+                keyword = matchKeywordBefore(line, i);
+                if (keyword >= 0) {
+                    report(getCategory(keyword, false), line.substring(skipSpaces(line, i + 1, end), end), null, false, messager);
+                    return;
+                }
+            }
+        }
+        if (hasLocation) {
+            report(CompilerMessageCategory.INFO, line.substring(pos, end), path, true, messager);
+        } else if (format == Format.FPC) {
+            report(CompilerMessageCategory.INFO, line.substring(pos, end), null, false, messager);
+        } else {
+            PascalCompilerMessager.createMessage(CompilerMessageCategory.INFO, line, "", -1, -1, messager);
+        }
+    }
+
+    private void report(CompilerMessageCategory category, String message, String path, boolean hasLocation, CompilerMessager messager) {
+        PascalCompilerMessager.createMessage(category, message, path, hasLocation ? lineNum : -1, hasLocation ? colNum : -1, messager);
+    }
+
+    private CompilerMessageCategory getCategory(int keyword, boolean hasLocation) {
+        String kw = format.keywords[keyword];
+        if ("Hint".equals(kw)) {
+            return CompilerMessageCategory.INFO;
+        } else if (("Error".equals(kw) || "Fatal".equals(kw)) && (hasLocation || !format.errorNeedsLocation)) {
+            return CompilerMessageCategory.ERROR;
+        } else {
+            return CompilerMessageCategory.WARNING;
+        }
+    }
+
+    // Finds first "(digits,digits)" (FPC) or "(digits)" (Delphi) group
+    private boolean findLocation(String line, int end) {
+        for (int i = 0; i < end; i++) {
+            if (line.charAt(i) == '(') {
+                int pos = i + 1;
+                int lineStart = pos;
+                int ln = 0;
+                while ((pos < end) && isDigit(line.charAt(pos))) {
+                    ln = ln * 10 + (line.charAt(pos++) - '0');
+                }
+                if (pos == lineStart) {
+                    continue;
+                }
+                int col = -1;
+                if (format.hasColumn) {
+                    if ((pos >= end) || (line.charAt(pos) != ',')) {
+                        continue;
+                    }
+                    int colStart = ++pos;
+                    col = 0;
+                    while ((pos < end) && isDigit(line.charAt(pos))) {
+                        col = col * 10 + (line.charAt(pos++) - '0');
+                    }
+                    if (pos == colStart) {
+                        continue;
+                    }
+                }
+                if ((pos < end) && (line.charAt(pos) == ')')) {
+                    locStart = i;
+                    locEnd = pos + 1;
+                    lineNum = ln;
+                    colNum = col;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Returns index of keyword followed by ':' at the position or -1
+    private int matchKeyword(String line, int pos, int end) {
+        for (int k = 0; k < format.keywords.length; k++) {
+            String kw = format.keywords[k];
+            int colon = pos + kw.length();
+            if ((colon < end) && (line.charAt(colon) == ':') && line.startsWith(kw, pos)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    // Returns index of keyword which ends right before the colon position or -1
+    private int matchKeywordBefore(String line, int colon) {
+        for (int k = 0; k < format.keywords.length; k++) {
+            String kw = format.keywords[k];
+            int start = colon - kw.length();
+            if ((start >= 0) && line.startsWith(kw, start)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipSpaces(String line, int pos, int end) {
+        while ((pos < end) && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isDigit(char c) {
+        return (c >= '0') && (c <= '9');
+    }
+}
@@ -0,0 +1,354 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jps.incremental.CompileContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Local content addressed cache of compiled units.
+ * Key of a unit is a hash of the unit source and included files, interface hashes of used units, compiler version
+ * and effective compiler command line. Interface hash of a unit covers its interface section and interface hashes of
+ * units used in the interface section, so a change in implementation section of a unit doesn't invalidate units using it.
+ * Key of a main file covers all sources reachable from it.
+ * Enabled when CACHE_DIR_PROPERTY builder parameter or system property is set. Least recently used entries are evicted
+ * when total size of the cache exceeds CACHE_SIZE_PROPERTY megabytes.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+class PascalBuildCache {
+
+    private static final Logger LOG = Logger.getInstance(PascalBuildCache.class);
+
+    static final String CACHE_DIR_PROPERTY = "pascal.build.cache.dir";
+    static final String CACHE_SIZE_PROPERTY = "pascal.build.cache.size";
+    private static final long DEFAULT_CACHE_SIZE_MB = 1024;
+
+    // Command line options which don't affect compiled files
+    private static final Set<String> IGNORED_OPTIONS = new HashSet<String>(Arrays.asList("-B", "-M"));
+    static final List<String> MAIN_OUTPUT_EXTS = Arrays.asList("", ".exe", ".dll", ".so", ".dylib", ".bpl");
+    private static final String TEMP_PREFIX = "tmp-";
+
+    private static final Object EVICTION_LOCK = new Object();
+
+    private final File cacheDir;
+    private final long maxSize;
+
+    private int hits;
+    private int misses;
+
+    PascalBuildCache(@NotNull File cacheDir, long maxSize) {
+        this.cacheDir = cacheDir;
+        this.maxSize = maxSize;
+    }
+
+    // Returns null if the cache is not enabled
+    @Nullable
+    static PascalBuildCache getInstance(@NotNull CompileContext context) {
+        String dir = getParameter(context, CACHE_DIR_PROPERTY);
+        if (StringUtil.isEmpty(dir)) {
+            return null;
+        }
+        long size = DEFAULT_CACHE_SIZE_MB;
+        String sizeStr = getParameter(context, CACHE_SIZE_PROPERTY);
+        if (sizeStr != null) {
+            try {
+                size = Long.parseLong(sizeStr);
+            } catch (NumberFormatException e) {
+                LOG.info("Invalid value of " + CACHE_SIZE_PROPERTY + ": " + sizeStr);
+            }
+        }
+        return new PascalBuildCache(new File(dir), size * 1024 * 1024);
+    }
+
+    /**
+     * Computes cache keys for the main file and all units from the dependency graph which was built by PascalDependencyStorage.collect()
+     */
+    @NotNull
+    Map<File, String> computeKeys(@NotNull File mainFile, @NotNull Map<File, UnitDependencies> graph, @NotNull Map<String, File> unitFiles,
+                                  @NotNull String[] cmdLine, @Nullable String compilerVersion) throws IOException {
+        KeyCalculator calc = new KeyCalculator(graph, unitFiles, getEnvironment(cmdLine, compilerVersion));
+        Map<File, String> res = new LinkedHashMap<File, String>();
+        for (File file : graph.keySet()) {
+            if (!file.equals(mainFile) && PascalDependencyStorage.isUnitSource(file)) {
+                res.put(file, calc.getUnitKey(file));
+            }
+        }
+        res.put(mainFile, calc.getMainKey());
+        return res;
+    }
+
+    /**
+     * Restores outputs of all cached units to the output directory. Returns true if all units and the main file were found in cache.
+     */
+    boolean restore(@NotNull File mainFile, @NotNull Map<File, String> keys, @NotNull File outputDir, @NotNull File exeOutputDir) {
+        boolean all = true;
+        for (Map.Entry<File, String> entry : keys.entrySet()) {
+            if (!entry.getKey().equals(mainFile)) {
+                all &= restoreEntry(entry.getValue(), outputDir);
+            }
+        }
+        // Main file outputs are needed only if compiler invocation can be skipped
+        return all && restoreEntry(keys.get(mainFile), exeOutputDir);
+    }
+
+    /**
+     * Stores outputs of the main file and all units after successful compilation and evicts least recently used entries
+     */
+    void store(@NotNull File mainFile, @NotNull Map<File, String> keys, @NotNull File outputDir, @NotNull File exeOutputDir, @NotNull String[] unitExts) {
+        for (Map.Entry<File, String> entry : keys.entrySet()) {
+            List<File> outputs = new ArrayList<File>();
+            String name = FileUtil.getNameWithoutExtension(entry.getKey());
+            if (entry.getKey().equals(mainFile)) {
+                for (String ext : MAIN_OUTPUT_EXTS) {
+                    addIfExists(outputs, new File(exeOutputDir, name + ext));
+                }
+            } else {
+                for (String ext : unitExts) {
+                    addIfExists(outputs, new File(outputDir, name + ext));
+                }
+            }
+            if (!outputs.isEmpty()) {
+                storeEntry(entry.getValue(), outputs);
+            }
+        }
+        evict();
+    }
+
+    int getHits() {
+        return hits;
+    }
+
+    int getMisses() {
+        return misses;
+    }
+
+    private boolean restoreEntry(String key, File targetDir) {
+        File entryDir = new File(cacheDir, key);
+        File[] files = entryDir.listFiles();
+        if ((null == files) || (files.length == 0)) {
+            misses++;
+            return false;
+        }
+        try {
+            for (File file : files) {
+                File target = new File(targetDir, file.getName());
+                FileUtil.copy(file, target);
+                // Restored files should be newer than sources for the compiler to treat them up to date
+                target.setLastModified(System.currentTimeMillis());
+            }
+            entryDir.setLastModified(System.currentTimeMillis());
+            hits++;
+            return true;
+        } catch (IOException e) {
+            LOG.info("Error restoring cache entry " + key + ": " + e.getMessage());
+            misses++;
+            return false;
+        }
+    }
+
+    private void storeEntry(String key, List<File> outputs) {
+        File entryDir = new File(cacheDir, key);
+        if (entryDir.isDirectory()) {
+            entryDir.setLastModified(System.currentTimeMillis());
+            return;
+        }
+        // Entry is prepared in a temporary directory and renamed so that concurrently running builds never see partial entries
+        File tempDir = new File(cacheDir, TEMP_PREFIX + key + "-" + Thread.currentThread().getId());
+        try {
+            for (File output : outputs) {
+                FileUtil.copy(output, new File(tempDir, output.getName()));
+            }
+            if (!tempDir.renameTo(entryDir)) {
+                FileUtil.delete(tempDir);
+            }
+        } catch (IOException e) {
+            LOG.info("Error storing cache entry " + key + ": " + e.getMessage());
+            FileUtil.delete(tempDir);
+        }
+    }
+
+    private void evict() {
+        synchronized (EVICTION_LOCK) {
+            File[] entries = cacheDir.listFiles();
+            if (null == entries) {
+                return;
+            }
+            final Map<File, Long> stamps = new HashMap<File, Long>();
+            long total = 0;
+            List<File> candidates = new ArrayList<File>();
+            for (File entry : entries) {
+                if (entry.isDirectory() && !entry.getName().startsWith(TEMP_PREFIX)) {
+                    stamps.put(entry, entry.lastModified());
+                    total += getSize(entry);
+                    candidates.add(entry);
+                }
+            }
+            if (total <= maxSize) {
+                return;
+            }
+            Collections.sort(candidates, Comparator.comparing(stamps::get));
+            for (File entry : candidates) {
+                if (total <= maxSize) {
+                    break;
+                }
+                long size = getSize(entry);
+                if (FileUtil.delete(entry)) {
+                    total -= size;
+                }
+            }
+        }
+    }
+
+    private static long getSize(File entry) {
+        long res = 0;
+        File[] files = entry.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                res += file.length();
+            }
+        }
+        return res;
+    }
+
+    private static void addIfExists(List<File> outputs, File file) {
+        if (file.isFile()) {
+            outputs.add(file);
+        }
+    }
+
+    /**
+     * Returns hash of compiler version and command line options which affect compiled files
+     */
+    @NotNull
+    static String getEnvironmentHash(@NotNull String[] cmdLine, @Nullable String compilerVersion) {
+        return hash(getEnvironment(cmdLine, compilerVersion).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String getEnvironment(String[] cmdLine, String compilerVersion) {
+        StringBuilder sb = new StringBuilder(compilerVersion != null ? compilerVersion : "");
+        // The last argument is the main file
+        for (int i = 0; i < cmdLine.length - 1; i++) {
+            if (!IGNORED_OPTIONS.contains(cmdLine[i])) {
+                sb.append('\n').append(cmdLine[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String getParameter(CompileContext context, String name) {
+        String value = context.getBuilderParameter(name);
+        return value != null ? value : System.getProperty(name);
+    }
+
+    private static class KeyCalculator {
+        private final Map<File, UnitDependencies> graph;
+        private final Map<String, File> unitFiles;
+        private final String environment;
+        private final Map<File, String> contentHashes = new HashMap<File, String>();
+        private final Map<File, String> interfaceHashes = new HashMap<File, String>();
+
+        private KeyCalculator(Map<File, UnitDependencies> graph, Map<String, File> unitFiles, String environment) {
+            this.graph = graph;
+            this.unitFiles = unitFiles;
+            this.environment = environment;
+        }
+
+        private String getUnitKey(File unit) throws IOException {
+            UnitDependencies deps = graph.get(unit);
+            StringBuilder sb = new StringBuilder(environment);
+            sb.append('\n').append(getContentHash(unit));
+            appendIncludes(sb, deps);
+            for (String usedHash : getUsedHashes(deps.interfaceUses, deps.implementationUses)) {
+                sb.append('\n').append(usedHash);
+            }
+            return hash(sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private String getMainKey() throws IOException {
+            StringBuilder sb = new StringBuilder(environment);
+            for (File file : graph.keySet()) {
+                sb.append('\n').append(getContentHash(file));
+            }
+            return hash(sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private String getInterfaceHash(File unit) throws IOException {
+            String res = interfaceHashes.get(unit);
+            if (res != null) {
+                return res;
+            }
+            interfaceHashes.put(unit, "");                          // guards against circular interface uses
+            UnitDependencies deps = graph.get(unit);
+            String text = FileUtil.loadFile(unit);
+            StringBuilder sb = new StringBuilder(text.substring(0, UsesClauseScanner.getImplementationStart(text)));
+            appendIncludes(sb, deps);
+            for (String usedHash : getUsedHashes(deps.interfaceUses, Collections.<String>emptyList())) {
+                sb.append('\n').append(usedHash);
+            }
+            res = hash(sb.toString().getBytes(StandardCharsets.UTF_8));
+            interfaceHashes.put(unit, res);
+            return res;
+        }
+
+        // Sorted interface hashes of used units which are tracked
+        private Set<String> getUsedHashes(List<String> interfaceUses, List<String> implementationUses) throws IOException {
+            Set<String> res = new TreeSet<String>();
+            for (List<String> uses : Arrays.asList(interfaceUses, implementationUses)) {
+                for (String name : uses) {
+                    File used = PascalDependencyStorage.resolveUnit(unitFiles, name);
+                    if ((used != null) && graph.containsKey(used)) {
+                        res.add(getInterfaceHash(used));
+                    }
+                }
+            }
+            return res;
+        }
+
+        private void appendIncludes(StringBuilder sb, UnitDependencies deps) throws IOException {
+            for (String path : deps.files) {
+                File file = new File(path);
+                if (file.isFile()) {
+                    sb.append('\n').append(getContentHash(file));
+                }
+            }
+        }
+
+        private String getContentHash(File file) throws IOException {
+            String res = contentHashes.get(file);
+            if (null == res) {
+                res = hash(FileUtil.loadFileBytes(file));
+                contentHashes.put(file, res);
+            }
+            return res;
+        }
+    }
+
+    static String hash(byte[] data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return StringUtil.toHexString(digest.digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.io.FileUtil;
+import com.siberika.idea.pascal.jps.compiler.CompilerMessager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jps.incremental.CompileContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Build performance report. Collects timings of all targets compiled in a build and writes them as JSON
+ * to REPORT_FILE within build data directory.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+class PascalBuildReport {
+
+    private static final Logger LOG = Logger.getInstance(PascalBuildReport.class);
+
+    static final String REPORT_FILE = "pascal-build-report.json";
+    private static final int SLOWEST_UNITS = 20;
+
+    private static final Key<PascalBuildReport> KEY = Key.create("PASCAL_BUILD_REPORT");
+
+    private final long start = System.currentTimeMillis();
+    private final List<TargetTiming> targets = new ArrayList<TargetTiming>();
+
+    @NotNull
+    static PascalBuildReport getInstance(@NotNull CompileContext context) {
+        synchronized (KEY) {
+            PascalBuildReport report = context.getUserData(KEY);
+            if (null == report) {
+                report = new PascalBuildReport();
+                context.putUserData(KEY, report);
+            }
+            return report;
+        }
+    }
+
+    /**
+     * Writes the report of the build if any target was compiled. Returns the report file.
+     */
+    @Nullable
+    static File write(@NotNull CompileContext context) {
+        PascalBuildReport report;
+        synchronized (KEY) {
+            report = context.getUserData(KEY);
+            context.putUserData(KEY, null);
+        }
+        if ((null == report) || report.targets.isEmpty()) {
+            return null;
+        }
+        File file = new File(context.getProjectDescriptor().dataManager.getDataPaths().getDataStorageRoot(), REPORT_FILE);
+        try {
+            FileUtil.writeToFile(file, report.toJson());
+            return file;
+        } catch (IOException e) {
+            LOG.warn("Error writing build report to " + file, e);
+            return null;
+        }
+    }
+
+    @NotNull
+    synchronized TargetTiming startTarget(@NotNull String targetId, @NotNull CompilerMessager messager) {
+        TargetTiming timing = new TargetTiming(targetId, messager);
+        targets.add(timing);
+        return timing;
+    }
+
+    synchronized String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"buildStart\": ").append(start);
+        sb.append(",\n  \"buildWallMs\": ").append(System.currentTimeMillis() - start);
+        sb.append(",\n  \"targets\": [");
+        for (int i = 0; i < targets.size(); i++) {
+            TargetTiming timing = targets.get(i);
+            sb.append(i > 0 ? "," : "").append("\n    {");
+            sb.append("\n      \"id\": ").append(quote(timing.getTargetId()));
+            sb.append(",\n      \"exitCode\": ").append(timing.getExitCode());
+            sb.append(",\n      \"wallMs\": ").append(timing.getWallMs());
+            sb.append(",\n      \"cpuMs\": ").append(timing.getCpuMs());
+            sb.append(",\n      \"lines\": ").append(timing.getLines());
+            sb.append(",\n      \"linesPerSecond\": ").append(timing.getLinesPerSecond());
+            sb.append(",\n      \"slowestUnits\": [");
+            List<Map.Entry<String, Long>> units = timing.getSlowestUnits(SLOWEST_UNITS);
+            for (int u = 0; u < units.size(); u++) {
+                sb.append(u > 0 ? "," : "").append("\n        {\"unit\": ").append(quote(units.get(u).getKey()))
+                        .append(", \"ms\": ").append(units.get(u).getValue()).append("}");
+            }
+            sb.append(units.isEmpty() ? "]" : "\n      ]");
+            sb.append("\n    }");
+        }
+        sb.append(targets.isEmpty() ? "]" : "\n  ]").append("\n}\n");
+        return sb.toString();
+    }
+
+    static String quote(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if ((c == '"') || (c == '\\')) {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
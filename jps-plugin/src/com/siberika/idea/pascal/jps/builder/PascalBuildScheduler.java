@@ -0,0 +1,166 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.Key;
+import com.intellij.util.ConcurrencyUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jps.builders.BuildTarget;
+import org.jetbrains.jps.builders.BuildTargetIndex;
+import org.jetbrains.jps.incremental.CompileContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs compilers of independent Pascal targets concurrently.
+ * Compilation of a target starts after compilation of all its dependencies (see PascalTarget.computeDependencies())
+ * scheduled within the same build is finished and is skipped if any of them failed. Number of simultaneously running compilers is limited by
+ * PARALLELISM_PROPERTY build parameter or system property which defaults to number of available processors.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+class PascalBuildScheduler {
+
+    private static final Logger LOG = Logger.getInstance(PascalBuildScheduler.class);
+
+    static final String PARALLELISM_PROPERTY = "pascal.build.parallelism";
+
+    private static final Key<PascalBuildScheduler> KEY = Key.create("PASCAL_BUILD_SCHEDULER");
+
+    interface CompileTask {
+        // Returns true if compilation succeeded
+        boolean compile() throws Exception;
+    }
+
+    private final ExecutorService executor;
+    private final Map<BuildTarget<?>, Future<Boolean>> scheduled = new HashMap<BuildTarget<?>, Future<Boolean>>();
+    private final Set<BuildTarget<?>> pending;
+
+    PascalBuildScheduler(int parallelism, @NotNull Collection<? extends BuildTarget<?>> expectedTargets) {
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), ConcurrencyUtil.newNamedThreadFactory("Pascal compiler", true, Thread.NORM_PRIORITY));
+        this.pending = new HashSet<BuildTarget<?>>(expectedTargets);
+    }
+
+    @NotNull
+    static PascalBuildScheduler getInstance(@NotNull CompileContext context) {
+        synchronized (KEY) {
+            PascalBuildScheduler scheduler = context.getUserData(KEY);
+            if (null == scheduler) {
+                int parallelism = getParallelism(context);
+                scheduler = new PascalBuildScheduler(parallelism, getBuiltTargets(context));
+                context.putUserData(KEY, scheduler);
+                LOG.info(String.format("Pascal build scheduler: parallelism %d, targets: %s", parallelism, scheduler.pending));
+            }
+            return scheduler;
+        }
+    }
+
+    static void dispose(@NotNull CompileContext context) {
+        PascalBuildScheduler scheduler;
+        synchronized (KEY) {
+            scheduler = context.getUserData(KEY);
+            context.putUserData(KEY, null);
+        }
+        if (scheduler != null) {
+            scheduler.awaitAll();
+            scheduler.executor.shutdown();
+        }
+    }
+
+    /**
+     * Schedules compilation of the target. The task starts when all scheduled dependencies of the target are compiled
+     * and is not started if compilation of a dependency failed.
+     */
+    synchronized void submit(@NotNull final BuildTarget<?> target, @NotNull Collection<? extends BuildTarget<?>> dependencies, @NotNull final CompileTask task) {
+        final List<Future<Boolean>> depFutures = new ArrayList<Future<Boolean>>();
+        for (BuildTarget<?> dependency : dependencies) {
+            Future<Boolean> future = scheduled.get(dependency);
+            if (future != null) {
+                depFutures.add(future);
+            }
+        }
+        // Dependencies are submitted earlier and the pool queue is FIFO so a task waits only for already started tasks
+        final Future<Boolean> future = executor.submit(() -> {
+            for (Future<Boolean> depFuture : depFutures) {
+                if (!getResult(depFuture)) {
+                    LOG.info(String.format("Skipping compilation of %s after failed dependency", target.getId()));
+                    return false;
+                }
+            }
+            return task.compile();
+        });
+        scheduled.put(target, future);
+    }
+
+    /**
+     * Marks the target as processed by the builder. Returns true if all targets expected in this build are processed.
+     */
+    synchronized boolean targetProcessed(@NotNull BuildTarget<?> target) {
+        pending.remove(target);
+        return pending.isEmpty();
+    }
+
+    /**
+     * Waits for all scheduled compilations. Returns true if all of them succeeded.
+     */
+    boolean awaitAll() {
+        List<Future<Boolean>> futures;
+        synchronized (this) {
+            futures = new ArrayList<Future<Boolean>>(scheduled.values());
+        }
+        boolean res = true;
+        for (Future<Boolean> future : futures) {
+            res &= getResult(future);
+        }
+        return res;
+    }
+
+    private static boolean getResult(Future<Boolean> future) {
+        try {
+            return Boolean.TRUE.equals(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (CancellationException e) {
+            return false;
+        } catch (ExecutionException e) {
+            LOG.warn("Error compiling target", e.getCause());
+            return false;
+        }
+    }
+
+    private static int getParallelism(CompileContext context) {
+        String value = context.getBuilderParameter(PARALLELISM_PROPERTY);
+        if (null == value) {
+            value = System.getProperty(PARALLELISM_PROPERTY);
+        }
+        try {
+            return value != null ? Integer.parseInt(value) : Runtime.getRuntime().availableProcessors();
+        } catch (NumberFormatException e) {
+            LOG.info("Invalid value of " + PARALLELISM_PROPERTY + ": " + value);
+            return Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    // Targets which will be passed to the builder and compiled in this build
+    private static Set<BuildTarget<?>> getBuiltTargets(CompileContext context) {
+        Set<BuildTarget<?>> res = new HashSet<BuildTarget<?>>();
+        BuildTargetIndex targetIndex = context.getProjectDescriptor().getBuildTargetIndex();
+        for (PascalTarget target : targetIndex.getAllTargets(PascalTargetType.PRODUCTION)) {
+            if (context.getScope().isAffected(target)) {
+                res.add(target);
+            }
+        }
+        return res;
+    }
+}
@@ -7,8 +7,6 @@ import org.jetbrains.jps.incremental.CompileContext;
 import org.jetbrains.jps.incremental.messages.BuildMessage;
 import org.jetbrains.jps.incremental.messages.CompilerMessage;
 
-import java.util.regex.Matcher;
-
 /**
  * Author: George Bakhtadze
  * Date: 20/05/2015
@@ -22,27 +20,11 @@ class PascalCompilerMessager implements CompilerMessager {
         this.context = context;
     }
 
-    static void createMessage(CompilerMessageCategory category, String line, Matcher matcher, CompilerMessager messager) {
-        int lineNum = -1;
-        int colNum = -1;
-        String message = null;
-        String url = "";
-        if (null != matcher) {
-            int groupCount = matcher.groupCount();
-            if (groupCount >= 4) {
-                url = matcher.group(2);
-                if (url != null) {
-                    url = VirtualFileManager.extractPath(VirtualFileManager.constructUrl(URLUtil.FILE_PROTOCOL, url));
-                }
-                try {
-                    lineNum = Integer.parseInt(matcher.group(3));
-                    colNum = Integer.parseInt(matcher.group(4));
-                } catch (NumberFormatException ignore) {}
-            }
-            message = matcher.group(groupCount);
+    static void createMessage(CompilerMessageCategory category, String message, String path, int lineNum, int colNum, CompilerMessager messager) {
+        String url = path;
+        if ((url != null) && !url.isEmpty()) {
+            url = VirtualFileManager.extractPath(VirtualFileManager.constructUrl(URLUtil.FILE_PROTOCOL, url));
         }
-        if (null == message) message = line;
-
         if (CompilerMessageCategory.ERROR.equals(category)) {
             messager.error(message, url, lineNum, colNum);
         } else if (CompilerMessageCategory.WARNING.equals(category)) {
@@ -0,0 +1,366 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jps.builders.storage.StorageProvider;
+import org.jetbrains.jps.incremental.storage.StorageOwner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per target storage of Pascal unit dependencies: units used by each source file and compiled files produced for it,
+ * and hash of build configuration (compiler, its options and build mode) of each main file.
+ * Used to determine whether a main program or package is affected by changes since the last successful compilation.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+class PascalDependencyStorage implements StorageOwner {
+
+    private static final Logger LOG = Logger.getInstance(PascalDependencyStorage.class);
+
+    private static final int VERSION = 2;
+    private static final String FILE_NAME = "pascal-dependencies.dat";
+
+    static final StorageProvider<PascalDependencyStorage> PROVIDER = new StorageProvider<PascalDependencyStorage>() {
+        @NotNull
+        @Override
+        public PascalDependencyStorage createStorage(File targetDataDir) throws IOException {
+            return new PascalDependencyStorage(new File(targetDataDir, FILE_NAME));
+        }
+    };
+
+    private final File storageFile;
+    private final Map<String, UnitDependencies> units = new HashMap<String, UnitDependencies>();
+    // Main file => build configuration hash
+    private final Map<String, String> configs = new HashMap<String, String>();
+    private boolean modified;
+
+    PascalDependencyStorage(File storageFile) {
+        this.storageFile = storageFile;
+        load();
+    }
+
+    /**
+     * Returns sources affected by changes since they were recorded by update() or empty list if the main file is up to date.
+     * A source is affected if it or its compiled files changed, or it uses an affected unit. Units affected only via
+     * implementation uses don't affect their users as their interface doesn't change. Sources including changed files
+     * are considered changed.
+     * Dependencies of changed sources are rescanned and kept until next update(). Unit names are resolved to files
+     * within the given source roots, units not found there (e.g. SDK units) are not tracked.
+     * Returns null if there is no information about the main file or it was compiled with different build configuration.
+     */
+    @Nullable
+    synchronized List<File> findChanges(@NotNull File mainFile, @NotNull String configHash, @NotNull List<File> sourceRoots,
+                                        @NotNull Map<File, UnitDependencies> scanned) {
+        if (!units.containsKey(key(mainFile)) || !configHash.equals(configs.get(key(mainFile)))) {
+            return null;
+        }
+        Map<String, File> unitFiles = indexUnits(sourceRoots);
+        List<File> changed = new ArrayList<File>();
+        // Source => sources which use it in interface section or include it
+        Map<String, List<File>> interfaceUsers = new HashMap<String, List<File>>();
+        // Source => sources which use it in implementation section
+        Map<String, List<File>> implementationUsers = new HashMap<String, List<File>>();
+        Set<String> visited = new HashSet<String>();
+        Deque<File> queue = new ArrayDeque<File>();
+        queue.add(mainFile);
+        while (!queue.isEmpty()) {
+            File file = queue.poll();
+            if (!visited.add(key(file))) {
+                continue;
+            }
+            UnitDependencies deps = units.get(key(file));
+            if ((null == deps) || !deps.isUpToDate(file) || !outputsExist(deps)) {
+                changed.add(file);
+                deps = rescan(file, deps);
+                if (null == deps) {
+                    continue;
+                }
+                scanned.put(file, deps);
+            }
+            addDeps(queue, unitFiles, deps.interfaceUses, file, interfaceUsers);
+            addDeps(queue, unitFiles, deps.implementationUses, file, implementationUsers);
+            for (String path : deps.files) {
+                File used = new File(path);
+                queue.add(used);
+                addUser(interfaceUsers, used, file);
+            }
+        }
+        return getAffected(changed, interfaceUsers, implementationUsers);
+    }
+
+    /**
+     * Records dependencies of all sources reachable from the main file and build configuration after successful compilation.
+     * Compiled file names are derived from source file names with the given extension within output directory.
+     * Existing executable or library files of the main file within executable output directory are recorded as its compiled files.
+     */
+    synchronized void update(@NotNull File mainFile, @NotNull String configHash, @NotNull List<File> sourceRoots,
+                             @NotNull Map<File, UnitDependencies> scanned, @NotNull File outputDir, @NotNull File exeOutputDir,
+                             @NotNull String compiledExt) {
+        for (Map.Entry<File, UnitDependencies> entry : collect(mainFile, sourceRoots, scanned).entrySet()) {
+            File file = entry.getKey();
+            List<String> outputs = new ArrayList<String>();
+            if (file.equals(mainFile)) {
+                for (String ext : PascalBuildCache.MAIN_OUTPUT_EXTS) {
+                    File output = new File(exeOutputDir, FileUtil.getNameWithoutExtension(file) + ext);
+                    if (output.isFile()) {
+                        outputs.add(output.getPath());
+                    }
+                }
+            } else if (isUnitSource(file)) {
+                outputs.add(new File(outputDir, FileUtil.getNameWithoutExtension(file) + compiledExt).getPath());
+            }
+            units.put(key(file), entry.getValue().withOutputs(outputs));
+        }
+        configs.put(key(mainFile), configHash);
+        modified = true;
+    }
+
+    /**
+     * Returns up to date dependencies of all existing sources reachable from the main file in breadth first order
+     * starting from the main file
+     */
+    @NotNull
+    synchronized Map<File, UnitDependencies> collect(@NotNull File mainFile, @NotNull List<File> sourceRoots, @NotNull Map<File, UnitDependencies> scanned) {
+        Map<File, UnitDependencies> res = new LinkedHashMap<File, UnitDependencies>();
+        Map<String, File> unitFiles = indexUnits(sourceRoots);
+        Set<String> visited = new HashSet<String>();
+        Deque<File> queue = new ArrayDeque<File>();
+        queue.add(mainFile);
+        while (!queue.isEmpty()) {
+            File file = queue.poll();
+            if (!visited.add(key(file))) {
+                continue;
+            }
+            UnitDependencies deps = scanned.get(file);
+            if (null == deps) {
+                deps = units.get(key(file));
+                if ((null == deps) || !deps.isUpToDate(file)) {
+                    deps = rescan(file, null);
+                }
+            }
+            if (null == deps) {
+                units.remove(key(file));
+                continue;
+            }
+            res.put(file, deps);
+            addDeps(queue, unitFiles, deps.interfaceUses);
+            addDeps(queue, unitFiles, deps.implementationUses);
+            for (String path : deps.files) {
+                queue.add(new File(path));
+            }
+        }
+        return res;
+    }
+
+    synchronized void remove(@NotNull Collection<String> paths) {
+        for (String path : paths) {
+            modified |= units.remove(key(new File(path))) != null;
+            modified |= configs.remove(key(new File(path))) != null;
+        }
+    }
+
+    @Override
+    public synchronized void flush(boolean memoryCachesOnly) {
+        if (memoryCachesOnly || !modified) {
+            return;
+        }
+        try {
+            FileUtil.createParentDirs(storageFile);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(storageFile)));
+            try {
+                out.writeInt(VERSION);
+                out.writeInt(units.size());
+                for (Map.Entry<String, UnitDependencies> entry : units.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().write(out);
+                }
+                out.writeInt(configs.size());
+                for (Map.Entry<String, String> entry : configs.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeUTF(entry.getValue());
+                }
+            } finally {
+                out.close();
+            }
+            modified = false;
+        } catch (IOException e) {
+            LOG.warn("Error saving Pascal dependencies to " + storageFile, e);
+        }
+    }
+
+    @Override
+    public synchronized void clean() throws IOException {
+        units.clear();
+        configs.clear();
+        modified = false;
+        FileUtil.delete(storageFile);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush(false);
+    }
+
+    private void load() {
+        if (!storageFile.isFile()) {
+            return;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(storageFile)));
+            try {
+                if (in.readInt() != VERSION) {
+                    return;
+                }
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    String key = in.readUTF();
+                    units.put(key, UnitDependencies.read(in));
+                }
+                size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    String key = in.readUTF();
+                    configs.put(key, in.readUTF());
+                }
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            LOG.info("Error loading Pascal dependencies from " + storageFile + ", dependencies will be rebuilt: " + e.getMessage());
+            units.clear();
+            configs.clear();
+        }
+    }
+
+    @Nullable
+    private static UnitDependencies rescan(File file, UnitDependencies old) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return UsesClauseScanner.scan(file);
+        } catch (IOException e) {
+            LOG.info("Error scanning " + file + ": " + e.getMessage());
+            return old;
+        }
+    }
+
+    // Changed sources followed by sources using them. Propagation stops at units which use an affected unit only in implementation section.
+    private static List<File> getAffected(List<File> changed, Map<String, List<File>> interfaceUsers, Map<String, List<File>> implementationUsers) {
+        Map<String, File> res = new LinkedHashMap<String, File>();
+        Set<String> propagated = new HashSet<String>();
+        Deque<File> queue = new ArrayDeque<File>();
+        for (File file : changed) {
+            res.put(key(file), file);
+            propagated.add(key(file));
+            queue.add(file);
+        }
+        while (!queue.isEmpty()) {
+            String key = key(queue.poll());
+            for (File user : getUsers(implementationUsers, key)) {
+                res.put(key(user), user);
+            }
+            for (File user : getUsers(interfaceUsers, key)) {
+                res.put(key(user), user);
+                if (propagated.add(key(user))) {
+                    queue.add(user);
+                }
+            }
+        }
+        return new ArrayList<File>(res.values());
+    }
+
+    private static List<File> getUsers(Map<String, List<File>> users, String key) {
+        List<File> res = users.get(key);
+        return res != null ? res : Collections.<File>emptyList();
+    }
+
+    private static void addUser(Map<String, List<File>> users, File used, File user) {
+        List<File> list = users.get(key(used));
+        if (null == list) {
+            list = new ArrayList<File>();
+            users.put(key(used), list);
+        }
+        list.add(user);
+    }
+
+    private static boolean outputsExist(UnitDependencies deps) {
+        for (String output : deps.outputs) {
+            if (!new File(output).isFile()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    static File resolveUnit(@NotNull Map<String, File> unitFiles, @NotNull String name) {
+        return unitFiles.get(name.toUpperCase(Locale.ENGLISH));
+    }
+
+    private static void addDeps(Deque<File> queue, Map<String, File> unitFiles, List<String> unitNames) {
+        addDeps(queue, unitFiles, unitNames, null, null);
+    }
+
+    private static void addDeps(Deque<File> queue, Map<String, File> unitFiles, List<String> unitNames, File user, Map<String, List<File>> users) {
+        for (String name : unitNames) {
+            File file = resolveUnit(unitFiles, name);
+            if (file != null) {
+                queue.add(file);
+                if (users != null) {
+                    addUser(users, file, user);
+                }
+            }
+        }
+    }
+
+    // Unit name => source file within source roots. Source roots are searched by the compiler non-recursively.
+    static Map<String, File> indexUnits(List<File> sourceRoots) {
+        Map<String, File> res = new HashMap<String, File>();
+        for (File root : sourceRoots) {
+            File[] files = root.listFiles();
+            if (null == files) {
+                continue;
+            }
+            for (File file : files) {
+                if (isUnitSource(file)) {
+                    String name = FileUtil.getNameWithoutExtension(file).toUpperCase(Locale.ENGLISH);
+                    if (!res.containsKey(name)) {
+                        res.put(name, file);
+                    }
+                }
+            }
+        }
+        return res;
+    }
+
+    static boolean isUnitSource(File file) {
+        String ext = FileUtil.getExtension(file.getName()).toLowerCase(Locale.ENGLISH);
+        return "pas".equals(ext) || "pp".equals(ext);
+    }
+
+    private static String key(File file) {
+        return FileUtil.toSystemIndependentName(file.getAbsolutePath());
+    }
+}
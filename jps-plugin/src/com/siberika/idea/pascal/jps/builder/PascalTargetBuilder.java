@@ -5,6 +5,7 @@ import com.intellij.execution.process.ProcessAdapter;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.util.SmartList;
 import com.siberika.idea.pascal.jps.compiler.CompilerMessager;
 import com.siberika.idea.pascal.jps.compiler.DelphiBackendCompiler;
@@ -18,13 +19,10 @@ import com.siberika.idea.pascal.jps.util.ParamMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jps.builders.BuildOutputConsumer;
-import org.jetbrains.jps.builders.BuildTarget;
-import org.jetbrains.jps.builders.BuildTargetIndex;
 import org.jetbrains.jps.builders.BuildTargetType;
 import org.jetbrains.jps.builders.DirtyFilesHolder;
 import org.jetbrains.jps.builders.FileProcessor;
 import org.jetbrains.jps.builders.java.JavaBuilderUtil;
-import org.jetbrains.jps.cmdline.ProjectDescriptor;
 import org.jetbrains.jps.incremental.CompileContext;
 import org.jetbrains.jps.incremental.ProjectBuildException;
 import org.jetbrains.jps.incremental.TargetBuilder;
@@ -59,6 +57,7 @@ import java.util.Set;
 public class PascalTargetBuilder extends TargetBuilder<PascalSourceRootDescriptor, PascalTarget> {
     private static final Logger LOG = Logger.getInstance(PascalTargetBuilder.class);
     private static final String NAME = "Pascal builder";
+    private static final long CPU_SAMPLE_INTERVAL_MS = 50;
 
     public static final Key<String> RUN_CONFIGURATION_KEY = Key.create("RUN_CONFIGURATION");
 
@@ -84,11 +83,35 @@ public class PascalTargetBuilder extends TargetBuilder<PascalSourceRootDescripto
     public void build(@NotNull PascalTarget target, @NotNull DirtyFilesHolder<PascalSourceRootDescriptor, PascalTarget> holder,
                       @NotNull BuildOutputConsumer outputConsumer, @NotNull CompileContext context) throws ProjectBuildException, IOException {
         LOG.info(String.format("Build() for target %s", target.getId()));
-        if (isDependencyTarget(target, context)) {
-            return;
+        PascalBuildScheduler scheduler = PascalBuildScheduler.getInstance(context);
+        boolean success = true;
+        try {
+            doBuild(target, holder, outputConsumer, context, scheduler);
+        } finally {
+            // Compilation of the last target waits for all scheduled ones so the build ends after all compilers
+            if (scheduler.targetProcessed(target)) {
+                success = scheduler.awaitAll();
+            }
+        }
+        if (!success) {
+            throw new ProjectBuildException("Compilation of Pascal modules failed");
+        }
+    }
+
+    @Override
+    public void buildFinished(CompileContext context) {
+        PascalBuildScheduler.dispose(context);
+        File report = PascalBuildReport.write(context);
+        if (report != null) {
+            log(context, "Build performance report: " + report.getPath());
         }
+    }
+
+    private void doBuild(@NotNull PascalTarget target, @NotNull DirtyFilesHolder<PascalSourceRootDescriptor, PascalTarget> holder,
+                         @NotNull BuildOutputConsumer outputConsumer, @NotNull CompileContext context,
+                         @NotNull PascalBuildScheduler scheduler) throws ProjectBuildException, IOException {
         JpsModule module = target.getModule();
-        File mainFile = PascalBackendCompiler.getMainFile(ParamMap.getJpsParams(module.getProperties()));
+        final File mainFile = PascalBackendCompiler.getMainFile(ParamMap.getJpsParams(module.getProperties()));
 
         // Force main file to compile. TODO: force only for context-based (line marker?) run configurations
 //        if (!holder.hasDirtyFiles() && !holder.hasRemovedFiles()) return;
@@ -98,79 +121,133 @@ public class PascalTargetBuilder extends TargetBuilder<PascalSourceRootDescripto
         }
         collectChangedFiles(files, holder);
         boolean isRebuild = JavaBuilderUtil.isForcedRecompilationAllJavaModules(context) || (!JavaBuilderUtil.isCompileJavaIncrementally(context));
-        if (files.isEmpty() && !isRebuild) {
+        if (!files.containsKey(target)) {
             context.processMessage(new CompilerMessage(getPresentableName(), BuildMessage.Kind.INFO, "No changes detected"));
             return;
         }
 
-        CompilerMessager messager = new PascalCompilerMessager(getPresentableName(), context);
+        final List<File> sourcePaths = new ArrayList<File>();
+        getFiles(new HashSet<JpsModule>(), sourcePaths, module);
+        final PascalDependencyStorage storage = context.getProjectDescriptor().dataManager.getStorage(target, PascalDependencyStorage.PROVIDER);
+        final Map<File, UnitDependencies> scanned = new HashMap<File, UnitDependencies>();
+        if (holder.hasRemovedFiles()) {
+            storage.remove(holder.getRemovedFiles(target));
+        }
 
-        boolean isDebug = isDebugBuild(context);
+        // Messages of a target are passed to the build log together to keep them separate from other targets compiled concurrently
+        final BufferedCompilerMessager messager = new BufferedCompilerMessager(new PascalCompilerMessager(getPresentableName(), context));
+        boolean submitted = false;
+        try {
+            boolean isDebug = isDebugBuild(context);
 
-        JpsSdk<?> sdk = module.getSdk(JpsPascalSdkType.INSTANCE);
-        if (sdk != null) {
-            PascalBackendCompiler compiler = getCompiler(sdk, messager);
-            if (compiler != null) {
-                messager.info("Compiler family:" + compiler.getId(), "", -1L, -1);
-                List<File> sdkFiles = sdk.getParent().getFiles(JpsOrderRootType.COMPILED);
-                sdkFiles.addAll(sdk.getParent().getFiles(JpsOrderRootType.SOURCES));
-                File outputDir = getBuildOutputDirectory(module, target.isTests(), context);
+            JpsSdk<?> sdk = module.getSdk(JpsPascalSdkType.INSTANCE);
+            if (sdk != null) {
+                final PascalBackendCompiler compiler = getCompiler(sdk, messager);
+                if (compiler != null) {
+                    messager.info("Compiler family:" + compiler.getId(), "", -1L, -1);
+                    List<File> sdkFiles = sdk.getParent().getFiles(JpsOrderRootType.COMPILED);
+                    sdkFiles.addAll(sdk.getParent().getFiles(JpsOrderRootType.SOURCES));
+                    final File outputDir = getBuildOutputDirectory(module, target.isTests(), context);
 
-                for (File file : files.get(target)) {
-                    File compiled = new File(outputDir, FileUtil.getNameWithoutExtension(file) + compiler.getCompiledUnitExt());
-                    //messager.info(String.format("Map: %s => %s ", file.getCanonicalPath(), compiled.getCanonicalPath()), null, -1L, -1L);
-                    outputConsumer.registerOutputFile(compiled, Collections.singleton(file.getCanonicalPath()));
-                }
+                    for (File file : files.get(target)) {
+                        File compiled = new File(outputDir, FileUtil.getNameWithoutExtension(file) + compiler.getCompiledUnitExt());
+                        //messager.info(String.format("Map: %s => %s ", file.getCanonicalPath(), compiled.getCanonicalPath()), null, -1L, -1L);
+                        outputConsumer.registerOutputFile(compiled, Collections.singleton(file.getCanonicalPath()));
+                    }
 
-                List<File> sourcePaths = new ArrayList<File>();
-                getFiles(new HashSet<JpsModule>(), sourcePaths, module);
-                String[] cmdLine = compiler.createStartupCommand(sdk.getHomePath(), module.getName(), outputDir.getAbsolutePath(),
-                        sdkFiles, sourcePaths,
-                        files.get(target), ParamMap.getJpsParams(module.getProperties()),
-                        isRebuild, isDebug,
-                        ParamMap.getJpsParams(sdk.getSdkProperties()));
-                if (cmdLine != null) {
-                    // For Delphi workingDirectory should be null otherwise file paths in compiler messages will be relative
-                    File workingDirectory = PascalCompilerFamily.DELPHI.equals(getCompilerFamily(sdk)) ? null : new File(FileUtil.expandUserHome("~/"));
-                    int exitCode = launchCompiler(compiler, messager, cmdLine, workingDirectory);
-                    if (exitCode != 0) {
-                        messager.warning("Error. Compiler exit code: " + exitCode, null, -1L, -1L);
+                    final String[] cmdLine = compiler.createStartupCommand(sdk.getHomePath(), module.getName(), outputDir.getAbsolutePath(),
+                            sdkFiles, sourcePaths,
+                            files.get(target), ParamMap.getJpsParams(module.getProperties()),
+                            isRebuild, isDebug,
+                            ParamMap.getJpsParams(sdk.getSdkProperties()));
+                    if (cmdLine != null) {
+                        // Compiler executable, its version, options and build mode are part of the command line
+                        final String configHash = PascalBuildCache.getEnvironmentHash(cmdLine, sdk.getVersionString());
+                        if (!isRebuild && !holder.hasRemovedFiles() && (mainFile != null)) {
+                            long start = System.currentTimeMillis();
+                            List<File> changed = storage.findChanges(mainFile, configHash, sourcePaths, scanned);
+                            if ((changed != null) && changed.isEmpty()) {
+                                log(context, String.format("Module \"%s\" is up to date (%d ms)", module.getName(), System.currentTimeMillis() - start));
+                                return;
+                            }
+                            LOG.info(String.format("Target %s affected: %s", target.getId(),
+                                    changed != null ? changed : "no dependency information or build configuration changed"));
+                        }
+                        // For Delphi workingDirectory should be null otherwise file paths in compiler messages will be relative
+                        final File workingDirectory = PascalCompilerFamily.DELPHI.equals(getCompilerFamily(sdk)) ? null : new File(FileUtil.expandUserHome("~/"));
+                        final File exeOutputDir = getExeOutputDirectory(module, outputDir);
+                        final PascalBuildCache cache = mainFile != null ? PascalBuildCache.getInstance(context) : null;
+                        final Map<File, String> cacheKeys = cache != null ? computeCacheKeys(cache, mainFile, storage, sourcePaths, scanned, cmdLine, sdk) : null;
+                        if ((cacheKeys != null) && !isRebuild && cache.restore(mainFile, cacheKeys, outputDir, exeOutputDir)) {
+                            storage.update(mainFile, configHash, sourcePaths, scanned, outputDir, exeOutputDir, compiler.getCompiledUnitExt());
+                            messager.info(String.format("All outputs restored from build cache. Build cache: %d hits, %d misses",
+                                    cache.getHits(), cache.getMisses()), null, -1L, -1L);
+                            return;
+                        }
+                        scheduler.submit(target, target.computeDependencies(), () -> {
+                            try {
+                                TargetTiming timing = PascalBuildReport.getInstance(context).startTarget(target.getId(), messager);
+                                int exitCode = launchCompiler(compiler, timing, cmdLine, workingDirectory);
+                                timing.finish(exitCode);
+                                messager.info(timing.getSummary(), null, -1L, -1L);
+                                if (exitCode != 0) {
+                                    messager.warning("Error. Compiler exit code: " + exitCode, null, -1L, -1L);
+                                }
+                                boolean success = (exitCode == 0) && !messager.hasErrors();
+                                if (success && (mainFile != null)) {
+                                    storage.update(mainFile, configHash, sourcePaths, scanned, outputDir, exeOutputDir, compiler.getCompiledUnitExt());
+                                }
+                                if (success && (cacheKeys != null)) {
+                                    cache.store(mainFile, cacheKeys, outputDir, exeOutputDir, compiler.getCompiledUnitExts());
+                                    messager.info(String.format("Build cache: %d hits, %d misses", cache.getHits(), cache.getMisses()), null, -1L, -1L);
+                                }
+                                return success;
+                            } catch (IOException e) {
+                                messager.error("Error. Can't launch compiler: " + e.getMessage(), null, -1L, -1L);
+                                return false;
+                            } finally {
+                                messager.flush();
+                            }
+                        });
+                        submitted = true;
+                    } else {
+                        messager.warning("Error. Can't launch compiler", null, -1L, -1L);
                     }
                 } else {
-                    messager.warning("Error. Can't launch compiler", null, -1L, -1L);
+                    messager.error("Can't determine compiler family", "", -1L, -1L);
                 }
             } else {
-                messager.error("Can't determine compiler family", "", -1L, -1L);
+                log(context, "Pascal SDK is not defined for module " + module.getName());
+            }
+        } finally {
+            if (!submitted) {
+                messager.flush();
             }
-        } else {
-            log(context, "Pascal SDK is not defined for module " + module.getName());
         }
     }
 
+    @Nullable
+    private static Map<File, String> computeCacheKeys(PascalBuildCache cache, File mainFile, PascalDependencyStorage storage, List<File> sourcePaths,
+                                                      Map<File, UnitDependencies> scanned, String[] cmdLine, JpsSdk<?> sdk) {
+        try {
+            return cache.computeKeys(mainFile, storage.collect(mainFile, sourcePaths, scanned), PascalDependencyStorage.indexUnits(sourcePaths),
+                    cmdLine, sdk.getVersionString());
+        } catch (IOException e) {
+            LOG.info("Build cache is not used: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static File getExeOutputDirectory(JpsModule module, File outputDir) {
+        String exeOutputPath = PascalBackendCompiler.getExeOutputPath(ParamMap.getJpsParams(module.getProperties()));
+        return StringUtil.isEmpty(exeOutputPath) ? outputDir : new File(exeOutputPath);
+    }
+
     private boolean isDebugBuild(CompileContext context) {
         String runConfigName = context.getBuilderParameter(RUN_CONFIGURATION_KEY.toString());
         return (runConfigName != null) && runConfigName.startsWith("[debug]");
     }
 
-    private boolean isDependencyTarget(PascalTarget target, CompileContext context) {
-        final ProjectDescriptor pd = context.getProjectDescriptor();
-        final BuildTargetIndex targetIndex = pd.getBuildTargetIndex();
-        targetIndex.getSortedTargetChunks(context);
-        List<PascalTarget> all = targetIndex.getAllTargets(PascalTargetType.PRODUCTION);
-        for (PascalTarget pascalTarget : all) {
-            Collection<BuildTarget<?>> deps = pascalTarget.computeDependencies();
-            if (context.getScope().isAffected(pascalTarget)) {
-                for (BuildTarget<?> dep : deps) {
-                    if (target.equals(dep)) {
-                        log(context, String.format("Skipping build of module \"%s\" because it's a dependency of module \"%s\"", target.getId(), pascalTarget.getId()));
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
-    }
-
     @Nullable
     private PascalBackendCompiler getCompiler(@NotNull JpsSdk<?> sdk, CompilerMessager messager) {
         PascalCompilerFamily family = getCompilerFamily(sdk);
@@ -193,13 +270,19 @@ public class PascalTargetBuilder extends TargetBuilder<PascalSourceRootDescripto
         return null;
     }
 
-    private int launchCompiler(PascalBackendCompiler compiler, CompilerMessager messager, String[] cmdLine, File workingDir) throws IOException {
+    private int launchCompiler(PascalBackendCompiler compiler, TargetTiming timing, String[] cmdLine, File workingDir) throws IOException {
         Process process = Runtime.getRuntime().exec(cmdLine, null, workingDir);
         BaseOSProcessHandler handler = new BaseOSProcessHandler(process, cmdLine[0], Charset.defaultCharset());
-        ProcessAdapter adapter = compiler.getCompilerProcessAdapter(messager);
+        ProcessAdapter adapter = compiler.getCompilerProcessAdapter(timing);
         handler.addProcessListener(adapter);
+        timing.attach(process);
+        timing.sampleCpuTime(process);
         handler.startNotify();
-        handler.waitFor();
+        // CPU time of the compiler process is not available after it's finished so it's sampled while waiting
+        // and when the compiler reports end of compilation
+        while (!handler.waitFor(CPU_SAMPLE_INTERVAL_MS)) {
+            timing.sampleCpuTime(process);
+        }
         return process.exitValue();
     }
 
@@ -0,0 +1,227 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.siberika.idea.pascal.jps.compiler.CompilerMessager;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiler messager which passes messages through and measures compilation of a target.
+ * Per unit durations are derived from times of "Compiling <file>" messages: time until the next such message
+ * (or end of compilation) is attributed to the unit being compiled. Total number of compiled lines is taken from
+ * compiler summary line ("N lines compiled, T sec" for FPC, "N lines, T seconds" for Delphi).
+ * CPU time of the compiler process is sampled periodically and when the compiler reports linking and the summary line
+ * which are its last messages before exit. CPU time is measured only on Java 9 and later.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+class TargetTiming implements CompilerMessager {
+
+    private static final String COMPILING = "Compiling ";
+    private static final String LINKING = "Linking ";
+
+    private static final Method TO_HANDLE;
+    private static final Method INFO;
+    private static final Method TOTAL_CPU_DURATION;
+
+    static {
+        Method toHandle = null;
+        Method info = null;
+        Method totalCpuDuration = null;
+        try {
+            // Methods are looked up in public interfaces as their implementation classes are not accessible
+            toHandle = Process.class.getMethod("toHandle");
+            info = Class.forName("java.lang.ProcessHandle").getMethod("info");
+            totalCpuDuration = Class.forName("java.lang.ProcessHandle$Info").getMethod("totalCpuDuration");
+        } catch (Exception ignore) {                                      // Java 8
+        }
+        TO_HANDLE = toHandle;
+        INFO = info;
+        TOTAL_CPU_DURATION = totalCpuDuration;
+    }
+
+    private final String targetId;
+    private final CompilerMessager delegate;
+    private final long start;
+    private long wallMs = -1;
+    private volatile long cpuMs = -1;
+    private volatile Process process;
+    private long lines = -1;
+    private int exitCode;
+
+    private final Map<String, Long> unitTimes = new LinkedHashMap<String, Long>();
+    private String currentUnit;
+    private long currentStart;
+
+    TargetTiming(@NotNull String targetId, @NotNull CompilerMessager delegate) {
+        this.targetId = targetId;
+        this.delegate = delegate;
+        this.start = System.nanoTime();
+    }
+
+    @Override
+    public void info(String msg, String path, long line, long column) {
+        if (msg != null) {
+            processInfo(msg);
+        }
+        delegate.info(msg, path, line, column);
+    }
+
+    @Override
+    public void warning(String msg, String path, long line, long column) {
+        delegate.warning(msg, path, line, column);
+    }
+
+    @Override
+    public void error(String msg, String path, long line, long column) {
+        delegate.error(msg, path, line, column);
+    }
+
+    /**
+     * Sets the compiler process which CPU time is sampled when the compiler reports end of compilation
+     */
+    void attach(@NotNull Process process) {
+        this.process = process;
+    }
+
+    /**
+     * Samples CPU time of the compiler process. Should be called periodically while the process is running
+     * as CPU time of a finished process is not available.
+     */
+    void sampleCpuTime(@NotNull Process process) {
+        long cpu = getCpuTimeMs(process);
+        if (cpu >= 0) {
+            cpuMs = cpu;
+        }
+    }
+
+    synchronized void finish(int exitCode) {
+        long now = System.nanoTime();
+        finishUnit(now);
+        this.exitCode = exitCode;
+        this.wallMs = TimeUnit.NANOSECONDS.toMillis(now - start);
+    }
+
+    private synchronized void processInfo(String msg) {
+        if (msg.startsWith(COMPILING)) {
+            long now = System.nanoTime();
+            finishUnit(now);
+            currentUnit = msg.substring(COMPILING.length()).trim();
+            currentStart = now;
+        } else if (msg.startsWith(LINKING)) {
+            finishUnit(System.nanoTime());
+            sampleAttached();
+        } else {
+            long count = parseLines(msg);
+            if (count >= 0) {
+                lines = count;
+                sampleAttached();
+            }
+        }
+    }
+
+    private void sampleAttached() {
+        Process attached = process;
+        if (attached != null) {
+            sampleCpuTime(attached);
+        }
+    }
+
+    private void finishUnit(long now) {
+        if (currentUnit != null) {
+            Long prev = unitTimes.get(currentUnit);
+            // A unit is continued after its used units are compiled
+            unitTimes.put(currentUnit, (prev != null ? prev : 0) + TimeUnit.NANOSECONDS.toMillis(now - currentStart));
+            currentUnit = null;
+        }
+    }
+
+    // "1540 lines compiled, 0.4 sec" or "1540 lines, 0.41 seconds, ..."
+    static long parseLines(String msg) {
+        int i = 0;
+        long res = 0;
+        while ((i < msg.length()) && Character.isDigit(msg.charAt(i))) {
+            res = res * 10 + (msg.charAt(i++) - '0');
+        }
+        return (i > 0) && msg.startsWith(" lines", i) ? res : -1;
+    }
+
+    String getTargetId() {
+        return targetId;
+    }
+
+    synchronized long getWallMs() {
+        return wallMs;
+    }
+
+    long getCpuMs() {
+        return cpuMs;
+    }
+
+    synchronized long getLines() {
+        return lines;
+    }
+
+    synchronized int getExitCode() {
+        return exitCode;
+    }
+
+    synchronized long getLinesPerSecond() {
+        return (lines > 0) && (wallMs > 0) ? lines * 1000 / wallMs : -1;
+    }
+
+    synchronized Map<String, Long> getUnitTimes() {
+        return new LinkedHashMap<String, Long>(unitTimes);
+    }
+
+    // Units sorted by descending compilation time
+    List<Map.Entry<String, Long>> getSlowestUnits(int count) {
+        List<Map.Entry<String, Long>> res = new ArrayList<Map.Entry<String, Long>>(getUnitTimes().entrySet());
+        Collections.sort(res, (e1, e2) -> Long.compare(e2.getValue(), e1.getValue()));
+        return res.subList(0, Math.min(count, res.size()));
+    }
+
+    String getSummary() {
+        StringBuilder sb = new StringBuilder(String.format("Target %s: %d ms wall", targetId, getWallMs()));
+        if (cpuMs >= 0) {
+            sb.append(String.format(", %d ms CPU", cpuMs));
+        }
+        if (getLines() >= 0) {
+            sb.append(String.format(", %d lines", getLines()));
+            if (getLinesPerSecond() >= 0) {
+                sb.append(String.format(" (%d lines/s)", getLinesPerSecond()));
+            }
+        }
+        List<Map.Entry<String, Long>> slowest = getSlowestUnits(5);
+        if (!slowest.isEmpty()) {
+            sb.append(". Slowest units:");
+            for (Map.Entry<String, Long> entry : slowest) {
+                sb.append(String.format(" %s (%d ms)", entry.getKey(), entry.getValue()));
+            }
+        }
+        return sb.toString();
+    }
+
+    // Process.toHandle().info().totalCpuDuration() is available since Java 9
+    @SuppressWarnings("unchecked")
+    static long getCpuTimeMs(@NotNull Process process) {
+        if (null == TOTAL_CPU_DURATION) {
+            return -1;
+        }
+        try {
+            Object info = INFO.invoke(TO_HANDLE.invoke(process));
+            Optional<Duration> duration = (Optional<Duration>) TOTAL_CPU_DURATION.invoke(info);
+            return duration.isPresent() ? duration.get().toMillis() : -1;
+        } catch (Exception ignore) {
+            return -1;
+        }
+    }
+}
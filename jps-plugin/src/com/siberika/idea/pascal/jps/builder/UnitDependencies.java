@@ -0,0 +1,72 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dependencies of a Pascal source file: units used in interface and implementation sections (program/library/package
+ * uses and contains clauses are treated as implementation ones), files given explicitly with "in" clause or include
+ * directive and compiled files produced for the source.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+class UnitDependencies {
+
+    final long stamp;
+    final List<String> interfaceUses;
+    final List<String> implementationUses;
+    final List<String> files;
+    final List<String> outputs;
+
+    UnitDependencies(long stamp, @NotNull List<String> interfaceUses, @NotNull List<String> implementationUses,
+                     @NotNull List<String> files, @NotNull List<String> outputs) {
+        this.stamp = stamp;
+        this.interfaceUses = interfaceUses;
+        this.implementationUses = implementationUses;
+        this.files = files;
+        this.outputs = outputs;
+    }
+
+    UnitDependencies withOutputs(@NotNull List<String> outputs) {
+        return new UnitDependencies(stamp, interfaceUses, implementationUses, files, outputs);
+    }
+
+    boolean isUpToDate(@NotNull File file) {
+        return file.lastModified() == stamp;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeLong(stamp);
+        writeList(out, interfaceUses);
+        writeList(out, implementationUses);
+        writeList(out, files);
+        writeList(out, outputs);
+    }
+
+    static UnitDependencies read(DataInput in) throws IOException {
+        long stamp = in.readLong();
+        return new UnitDependencies(stamp, readList(in), readList(in), readList(in), readList(in));
+    }
+
+    private static void writeList(DataOutput out, List<String> list) throws IOException {
+        out.writeInt(list.size());
+        for (String s : list) {
+            out.writeUTF(s);
+        }
+    }
+
+    private static List<String> readList(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<String> res = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            res.add(in.readUTF());
+        }
+        return res;
+    }
+}
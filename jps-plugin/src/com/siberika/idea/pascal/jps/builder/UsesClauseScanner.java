@@ -0,0 +1,168 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lightweight scanner which extracts uses clauses and include directives from Pascal source without parsing it.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+class UsesClauseScanner {
+
+    private final CharSequence text;
+    private final File dir;
+    private int pos;
+
+    private final List<String> interfaceUses = new ArrayList<String>();
+    private final List<String> implementationUses = new ArrayList<String>();
+    private final List<String> files = new ArrayList<String>();
+    private int implementationStart = -1;
+
+    private UsesClauseScanner(CharSequence text, File dir) {
+        this.text = text;
+        this.dir = dir;
+    }
+
+    @NotNull
+    static UnitDependencies scan(@NotNull File file) throws IOException {
+        long stamp = file.lastModified();
+        UsesClauseScanner scanner = new UsesClauseScanner(FileUtil.loadFileText(file), file.getParentFile());
+        scanner.scan();
+        return new UnitDependencies(stamp, scanner.interfaceUses, scanner.implementationUses, scanner.files, Collections.<String>emptyList());
+    }
+
+    @NotNull
+    static UnitDependencies scan(@NotNull CharSequence text, @NotNull File dir) {
+        UsesClauseScanner scanner = new UsesClauseScanner(text, dir);
+        scanner.scan();
+        return new UnitDependencies(0, scanner.interfaceUses, scanner.implementationUses, scanner.files, Collections.<String>emptyList());
+    }
+
+    /**
+     * Returns offset of implementation section of the unit or length of the text if there is no implementation section
+     */
+    static int getImplementationStart(@NotNull CharSequence text) {
+        UsesClauseScanner scanner = new UsesClauseScanner(text, new File(""));
+        scanner.scan();
+        return scanner.implementationStart >= 0 ? scanner.implementationStart : text.length();
+    }
+
+    private void scan() {
+        List<String> section = implementationUses;
+        String token;
+        while ((token = nextToken()) != null) {
+            if ("interface".equalsIgnoreCase(token)) {
+                section = interfaceUses;
+            } else if ("implementation".equalsIgnoreCase(token)) {
+                section = implementationUses;
+                if (implementationStart < 0) {
+                    implementationStart = pos - token.length();
+                }
+            } else if ("uses".equalsIgnoreCase(token) || "contains".equalsIgnoreCase(token)) {
+                readUnitList(section);
+            }
+        }
+    }
+
+    // name [in 'file'] {, name [in 'file']} ;
+    private void readUnitList(List<String> section) {
+        String token;
+        while (((token = nextToken()) != null) && !";".equals(token)) {
+            if ("in".equalsIgnoreCase(token)) {
+                String path = nextToken();
+                if ((path != null) && path.startsWith("'")) {
+                    addFile(path.substring(1));
+                }
+            } else if (isIdent(token)) {
+                section.add(token);
+            }
+        }
+    }
+
+    // Returns next identifier (including dotted ones), string literal prefixed with ' or single character token. Comments are skipped.
+    private String nextToken() {
+        int len = text.length();
+        while (pos < len) {
+            char c = text.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '{') {
+                int end = indexOf("}", pos + 1);
+                processDirective(pos + 1, end);
+                pos = end + 1;
+            } else if ((c == '(') && (pos + 1 < len) && (text.charAt(pos + 1) == '*')) {
+                int end = indexOf("*)", pos + 2);
+                processDirective(pos + 2, end);
+                pos = end + 2;
+            } else if ((c == '/') && (pos + 1 < len) && (text.charAt(pos + 1) == '/')) {
+                int end = indexOf("\n", pos + 2);
+                pos = end + 1;
+            } else if (c == '\'') {
+                int start = ++pos;
+                while ((pos < len) && (text.charAt(pos) != '\'')) {
+                    pos++;
+                }
+                return "'" + text.subSequence(start, Math.min(pos++, len));
+            } else if (Character.isLetter(c) || (c == '_') || (c == '&')) {
+                int start = pos++;
+                while ((pos < len) && (Character.isLetterOrDigit(text.charAt(pos)) || (text.charAt(pos) == '_') || (text.charAt(pos) == '.'))) {
+                    pos++;
+                }
+                return text.subSequence(c == '&' ? start + 1 : start, pos).toString();
+            } else {
+                pos++;
+                return String.valueOf(c);
+            }
+        }
+        return null;
+    }
+
+    // Handles {$I file} and {$INCLUDE file} directives
+    private void processDirective(int start, int end) {
+        if ((start >= end) || (text.charAt(start) != '$')) {
+            return;
+        }
+        String directive = text.subSequence(start + 1, end).toString().trim();
+        int space = 0;
+        while ((space < directive.length()) && !Character.isWhitespace(directive.charAt(space))) {
+            space++;
+        }
+        String name = directive.substring(0, space);
+        if ("I".equalsIgnoreCase(name) || "INCLUDE".equalsIgnoreCase(name)) {
+            String path = directive.substring(space).trim();
+            if (path.startsWith("'") && path.endsWith("'") && (path.length() > 1)) {
+                path = path.substring(1, path.length() - 1);
+            }
+            // {$I %DATE%} and similar insert compile time information
+            if (!path.isEmpty() && !path.startsWith("%")) {
+                addFile(path);
+            }
+        }
+    }
+
+    private void addFile(String path) {
+        File file = new File(path);
+        files.add((file.isAbsolute() ? file : new File(dir, path)).getPath());
+    }
+
+    private int indexOf(String s, int from) {
+        int len = text.length();
+        for (int i = from; i <= len - s.length(); i++) {
+            if (text.charAt(i) == s.charAt(0) && ((s.length() == 1) || (text.charAt(i + 1) == s.charAt(1)))) {
+                return i;
+            }
+        }
+        return len;
+    }
+
+    private static boolean isIdent(String token) {
+        return !token.isEmpty() && (Character.isLetter(token.charAt(0)) || (token.charAt(0) == '_'));
+    }
+}
@@ -48,6 +48,11 @@ public class FPCBackendCompiler extends PascalBackendCompiler {
         return ".ppu";
     }
 
+    @Override
+    public String[] getCompiledUnitExts() {
+        return new String[] {".ppu", ".o"};
+    }
+
     @Override
     protected boolean createStartupCommandImpl(String sdkHomePath, String moduleName, String outputDirExe, String outputDirUnit,
                                           List<File> sdkFiles, List<File> moduleLibFiles, boolean isRebuild, boolean isDebug,
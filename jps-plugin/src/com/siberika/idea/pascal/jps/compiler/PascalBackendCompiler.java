@@ -36,6 +36,13 @@ public abstract class PascalBackendCompiler {
 
     public abstract String getCompiledUnitExt();
 
+    /**
+     * Returns extensions of all files produced by the compiler for a unit
+     */
+    public String[] getCompiledUnitExts() {
+        return new String[] {getCompiledUnitExt()};
+    }
+
     public String[] createStartupCommand(final String sdkHomePath, final String moduleName, final String outputDir,
                                          final List<File> sdkLibFiles, final List<File> moduleLibFiles,
                                          final List<File> files, @Nullable final ParamMap moduleData,
@@ -76,7 +83,7 @@ public abstract class PascalBackendCompiler {
         return fileName != null ? new File(fileName) : null;
     }
 
-    static String getExeOutputPath(ParamMap moduleData) {
+    public static String getExeOutputPath(ParamMap moduleData) {
         return moduleData != null ? moduleData.get(JpsPascalModuleType.USERDATA_KEY_EXE_OUTPUT_PATH.toString()) : null;
     }
 
@@ -11,6 +11,7 @@ import com.intellij.openapi.keymap.Keymap;
 import com.intellij.openapi.keymap.impl.KeymapManagerImpl;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.startup.StartupActivity;
+import com.siberika.idea.pascal.lang.references.ResolverWarmUp;
 import com.siberika.idea.pascal.util.ModuleUtil;
 import org.jetbrains.annotations.NotNull;
 
@@ -35,6 +36,7 @@ public class PostStartupActivity implements StartupActivity {
                     PascalBundle.message("app.welcome.text"), NotificationType.INFORMATION,
                     new NotificationListener.UrlOpeningListener(true)));
             setupShortcuts();
+            ResolverWarmUp.schedule(project);
         }
     }
 
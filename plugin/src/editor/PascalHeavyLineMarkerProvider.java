@@ -12,6 +12,7 @@ import com.intellij.psi.search.PsiElementProcessor;
 import com.intellij.util.SmartList;
 import com.siberika.idea.pascal.PascalBundle;
 import com.siberika.idea.pascal.ide.actions.PascalDefinitionsSearch;
+import com.siberika.idea.pascal.lang.PascalFileModel;
 import com.siberika.idea.pascal.lang.psi.PasEntityScope;
 import com.siberika.idea.pascal.lang.psi.PasExportedRoutine;
 import com.siberika.idea.pascal.lang.psi.PasInvalidScopeException;
@@ -28,7 +29,9 @@ import javax.swing.*;
 import java.awt.event.MouseEvent;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Author: George Bakhtadze
@@ -43,22 +46,29 @@ public class PascalHeavyLineMarkerProvider implements LineMarkerProvider {
 
     @Override
     public void collectSlowLineMarkers(@NotNull List<PsiElement> elements, @NotNull Collection<LineMarkerInfo> result) {
+        if (elements.isEmpty()) {
+            return;
+        }
+        Set<PsiElement> passElements = new HashSet<PsiElement>(elements);
         try {
-            for (PsiElement element : elements) {
+            for (PasEntityScope element : PascalFileModel.get(elements.get(0).getContainingFile()).getScopes()) {
+                if (!passElements.contains(element)) {
+                    continue;
+                }
                 if (element instanceof PascalStructType) {
                     // Goto implementations
                     Collection<PasEntityScope> impls = PascalDefinitionsSearch.findImplementations(((PascalNamedElement) element).getNameIdentifier(), 1, 0);
                     if (!impls.isEmpty()) {
-                        result.add(PascalLineMarkerProvider.createLineMarkerInfo((PasEntityScope) element, AllIcons.Gutter.OverridenMethod,
+                        result.add(PascalLineMarkerProvider.createLineMarkerInfo(element, AllIcons.Gutter.OverridenMethod,
                                         PascalBundle.message("navigate.title.goto.subclassed"), getHandler(PascalBundle.message("navigate.title.goto.subclassed"))));
                     }
                 } else if ((element instanceof PasExportedRoutine) || (element instanceof PasRoutineImplDecl)) {
-                    PasEntityScope scope = ((PasEntityScope) element).getContainingScope();
+                    PasEntityScope scope = element.getContainingScope();
                     if (scope instanceof PascalStructType) {
                         Collection<PasEntityScope> inheritedScopes = new SmartList<PasEntityScope>();
                         PascalDefinitionsSearch.findDescendingStructs(inheritedScopes, (PascalStructType) scope, 1, 0);
                         if (!inheritedScopes.isEmpty()) {
-                            result.add(PascalLineMarkerProvider.createLineMarkerInfo((PasEntityScope) element, AllIcons.Gutter.OverridenMethod,
+                            result.add(PascalLineMarkerProvider.createLineMarkerInfo(element, AllIcons.Gutter.OverridenMethod,
                                     PascalBundle.message("navigate.title.goto.subclassed"), getHandler(PascalBundle.message("navigate.title.goto.subclassed"))));
                         }
                     }
@@ -18,6 +18,7 @@ import com.intellij.util.SmartList;
 import com.siberika.idea.pascal.PascalBundle;
 import com.siberika.idea.pascal.ide.actions.GotoSuper;
 import com.siberika.idea.pascal.ide.actions.SectionToggle;
+import com.siberika.idea.pascal.lang.PascalFileModel;
 import com.siberika.idea.pascal.lang.psi.PasEntityScope;
 import com.siberika.idea.pascal.lang.psi.PasInvalidScopeException;
 import com.siberika.idea.pascal.lang.psi.PasNamespaceIdent;
@@ -41,6 +42,7 @@ import javax.swing.*;
 import java.awt.event.MouseEvent;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -163,12 +165,25 @@ public class PascalLineMarkerProvider implements LineMarkerProvider {
 
     @Override
     public void collectSlowLineMarkers(@NotNull List<PsiElement> elements, @NotNull Collection<LineMarkerInfo> result) {
+        if (elements.isEmpty()) {
+            return;
+        }
+        Set<PsiElement> passElements = new HashSet<PsiElement>(elements);
+        PascalFileModel model = PascalFileModel.get(elements.get(0).getContainingFile());
         try {
-            for (PsiElement element : elements) {
-                if ((element instanceof PascalRoutine) || (element instanceof PascalStructType) || (element instanceof PasUsesClause) || (element instanceof PasUnitModuleHead)) {
-                    collectNavigationMarkers(element, result);
+            for (PasEntityScope scope : model.getScopes()) {
+                if (((scope instanceof PascalRoutine) || (scope instanceof PascalStructType)) && passElements.contains(scope)) {
+                    collectNavigationMarkers(scope, result);
+                }
+            }
+            for (PasUsesClause usesClause : model.getUsesClauses()) {
+                if (passElements.contains(usesClause)) {
+                    collectNavigationMarkers(usesClause, result);
                 }
             }
+            if ((model.getModuleHead() != null) && passElements.contains(model.getModuleHead())) {
+                collectNavigationMarkers(model.getModuleHead(), result);
+            }
         } catch (PasInvalidScopeException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,208 @@
+package com.siberika.idea.pascal.ide.actions;
+
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileVisitor;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.siberika.idea.pascal.PascalAppService;
+import com.siberika.idea.pascal.PascalBundle;
+import com.siberika.idea.pascal.PascalFileType;
+import com.siberika.idea.pascal.lang.PascalImportOptimizer;
+import com.siberika.idea.pascal.lang.parser.PascalFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optimizes uses clauses of all Pascal source files in the selected files and directories.
+ * Usage of units is computed for all files in one cancellable background pass processing files in parallel read actions.
+ * Files with changes are then modified by the same task, each in a single write command on EDT so the task can be cancelled between files.
+ * Files modified after analysis are analyzed again in a background read action and skipped if they are modified once more.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class OptimizeUsesBatchAction extends AnAction {
+
+    private static final Logger LOG = Logger.getInstance(OptimizeUsesBatchAction.class);
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        VirtualFile[] files = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        e.getPresentation().setEnabledAndVisible((e.getProject() != null) && (files != null) && (files.length > 0));
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        final Project project = e.getProject();
+        VirtualFile[] roots = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+        if ((null == project) || (null == roots)) {
+            return;
+        }
+        final List<VirtualFile> files = collectFiles(project, roots);
+        if (files.isEmpty()) {
+            return;
+        }
+        PsiDocumentManager.getInstance(project).commitAllDocuments();
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, PascalBundle.message("action.uses.optimize.batch"), true) {
+            private final Queue<PascalImportOptimizer.FilePlan> plans = new ConcurrentLinkedQueue<PascalImportOptimizer.FilePlan>();
+            private final Result result = new Result();
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                final PsiManager psiManager = PsiManager.getInstance(project);
+                final AtomicInteger done = new AtomicInteger();
+                long start = System.currentTimeMillis();
+                JobLauncher.getInstance().invokeConcurrentlyUnderProgress(files, indicator, true, false, file -> {
+                    PsiFile psiFile = file.isValid() ? psiManager.findFile(file) : null;
+                    if (psiFile instanceof PascalFile) {
+                        indicator.setText2(file.getPresentableUrl());
+                        PascalImportOptimizer.FilePlan plan = PascalImportOptimizer.plan(psiFile);
+                        if (plan.hasChanges()) {
+                            plans.add(plan);
+                        }
+                    }
+                    indicator.setFraction((double) done.incrementAndGet() / files.size());
+                    return true;
+                });
+                LOG.info(String.format("Analyzed uses clauses of %d files in %d ms", files.size(), System.currentTimeMillis() - start));
+                indicator.setText(PascalBundle.message("action.uses.optimize.batch.apply"));
+                applyPlans(project, plans, indicator, result);
+            }
+
+            @Override
+            public void onSuccess() {
+                notifyResult(project, result);
+            }
+
+            @Override
+            public void onCancel() {
+                notifyResult(project, result);
+            }
+        });
+    }
+
+    /**
+     * Applies the plans one file per write command on EDT. Should be called from a background thread.
+     * Plans of files modified after analysis are computed again in a read action, files which are modified again or not committed are skipped.
+     */
+    static void applyPlans(final Project project, Collection<PascalImportOptimizer.FilePlan> plans, ProgressIndicator indicator, final Result result) {
+        int done = 0;
+        for (PascalImportOptimizer.FilePlan plan : plans) {
+            indicator.checkCanceled();
+            indicator.setFraction((double) done++ / plans.size());
+            if (project.isDisposed()) {
+                return;
+            }
+            final PsiFile file = plan.getFile();
+            indicator.setText2(file.getName());
+            final PascalImportOptimizer.FilePlan actual = plan.isUpToDate() ? plan : replan(project, file);
+            if (null == actual) {
+                result.skipped.add(file.getName());
+                continue;
+            }
+            if (!actual.hasChanges()) {
+                continue;
+            }
+            ApplicationManager.getApplication().invokeAndWait(() -> {
+                if (project.isDisposed()) {
+                    return;
+                }
+                if (!actual.isUpToDate()) {
+                    result.skipped.add(file.getName());
+                    return;
+                }
+                WriteCommandAction.runWriteCommandAction(project, PascalBundle.message("action.uses.optimize"), null, () -> {
+                    if (actual.apply(false) != null) {
+                        result.modified++;
+                    }
+                }, file);
+            }, ModalityState.defaultModalityState());
+        }
+    }
+
+    // Computes plan of a file modified after analysis or returns null if the file is invalid or its document is not committed
+    @Nullable
+    private static PascalImportOptimizer.FilePlan replan(final Project project, final PsiFile file) {
+        return ApplicationManager.getApplication().runReadAction((Computable<PascalImportOptimizer.FilePlan>) () -> {
+            if (!file.isValid()) {
+                return null;
+            }
+            Document doc = PsiDocumentManager.getInstance(project).getDocument(file);
+            if ((null == doc) || PsiDocumentManager.getInstance(project).isUncommited(doc)) {
+                return null;
+            }
+            return PascalImportOptimizer.plan(file);
+        });
+    }
+
+    private static void notifyResult(Project project, Result result) {
+        if (project.isDisposed()) {
+            return;
+        }
+        String message = PascalBundle.message("action.uses.optimize.batch.done", result.modified);
+        if (!result.skipped.isEmpty()) {
+            message = message + "\n" + PascalBundle.message("action.uses.optimize.batch.skipped", StringUtil.join(result.skipped, ", "));
+        }
+        Notifications.Bus.notify(new Notification(PascalAppService.PASCAL_NOTIFICATION_GROUP, PascalBundle.message("action.uses.optimize.batch"),
+                message, result.skipped.isEmpty() ? NotificationType.INFORMATION : NotificationType.WARNING), project);
+    }
+
+    static class Result {
+        // Updated on EDT only
+        volatile int modified;
+        final List<String> skipped = Collections.synchronizedList(new ArrayList<String>());
+    }
+
+    // Collects Pascal source files in project content from the selected files and directories
+    private static List<VirtualFile> collectFiles(Project project, VirtualFile[] roots) {
+        final ProjectFileIndex index = ProjectRootManager.getInstance(project).getFileIndex();
+        final Set<VirtualFile> res = new LinkedHashSet<VirtualFile>();
+        for (VirtualFile root : roots) {
+            VfsUtilCore.visitChildrenRecursively(root, new VirtualFileVisitor() {
+                @Override
+                public boolean visitFile(@NotNull VirtualFile file) {
+                    if (!index.isInContent(file)) {
+                        return false;
+                    }
+                    if (!file.isDirectory() && (file.getFileType() == PascalFileType.INSTANCE)) {
+                        res.add(file);
+                    }
+                    return true;
+                }
+            });
+        }
+        return Collections.unmodifiableList(new ArrayList<VirtualFile>(res));
+    }
+}
@@ -1,16 +1,20 @@
 package com.siberika.idea.pascal.ide.actions;
 
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.SmartList;
 import com.intellij.util.containers.SmartHashSet;
+import com.siberika.idea.pascal.lang.psi.PasBlockBody;
 import com.siberika.idea.pascal.lang.psi.PasBlockGlobal;
 import com.siberika.idea.pascal.lang.psi.PasEntityScope;
 import com.siberika.idea.pascal.lang.psi.PasExportedRoutine;
 import com.siberika.idea.pascal.lang.psi.PasGenericTypeIdent;
 import com.siberika.idea.pascal.lang.psi.PasRoutineImplDecl;
+import com.siberika.idea.pascal.lang.psi.PasStatement;
 import com.siberika.idea.pascal.lang.psi.PasUsesClause;
 import com.siberika.idea.pascal.lang.psi.PascalModule;
 import com.siberika.idea.pascal.lang.psi.PascalNamedElement;
@@ -20,6 +24,7 @@ import com.siberika.idea.pascal.lang.psi.impl.PasField;
 import com.siberika.idea.pascal.lang.psi.impl.PasModuleImpl;
 import com.siberika.idea.pascal.lang.psi.impl.PasRoutineImplDeclImpl;
 import com.siberika.idea.pascal.lang.psi.impl.PascalModuleImpl;
+import com.siberika.idea.pascal.lang.psi.impl.RoutineMap;
 import com.siberika.idea.pascal.lang.psi.impl.RoutineUtil;
 import com.siberika.idea.pascal.util.Filter;
 import com.siberika.idea.pascal.util.PosUtil;
@@ -28,6 +33,7 @@ import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -66,6 +72,10 @@ public class SectionToggle {
 
     // Non-strict
     public static PsiElement getRoutineTarget(PascalRoutine routine) {
+        RoutineMap map = getRoutineMap(routine);
+        if ((map != null) && map.contains(routine)) {
+            return map.getTarget(routine, false);
+        }
         Container cont = calcPrefix(new Container(routine), false);
         if (routine instanceof PasExportedRoutine) {
             return retrieveImplementation(cont, false);
@@ -77,11 +87,13 @@ public class SectionToggle {
 
     // Strict
     public static PsiElement getImplementationOrDeclaration(PascalRoutine routine) {
-        Container cont = calcPrefix(new Container(routine), false);
+        RoutineMap map = getRoutineMap(routine);
+        boolean mapped = (map != null) && map.contains(routine);
+        Container cont = mapped ? null : calcPrefix(new Container(routine), false);
         if (routine instanceof PasExportedRoutine) {
-            return retrieveImplementation(cont, true);
+            return mapped ? map.getTarget(routine, true) : retrieveImplementation(cont, true);
         } else if (routine instanceof PasRoutineImplDeclImpl) {
-            PsiElement decl = retrieveDeclaration(cont, true);
+            PsiElement decl = mapped ? map.getTarget(routine, true) : retrieveDeclaration(cont, true);
             if (decl != null) {
                 return decl;
             } else {
@@ -93,6 +105,10 @@ public class SectionToggle {
 
     @Nullable
     public static PsiElement retrieveImplementation(PascalRoutine routine, boolean strict) {
+        RoutineMap map = getRoutineMap(routine);
+        if ((map != null) && map.contains(routine)) {
+            return map.getTarget(routine, strict);
+        }
         return retrieveImplementation(calcPrefix(new Container(routine), false), strict);
     }
 
@@ -129,6 +145,12 @@ public class SectionToggle {
         }
         if (container.scope instanceof PasModuleImpl) {
             String prefix = (container.prefix + container.element.getName()).toUpperCase();
+            RoutineMap map = ((PasModuleImpl) container.scope).getRoutineMap();
+            PascalRoutine first = map != null ? map.getFirstImplementation(prefix) : null;
+            if (first != null) {
+                targets.add(first);
+                return;
+            }
             Set<PasField> res = new TreeSet<PasField>(new Comparator<PasField>() {
                 @Override
                 public int compare(PasField o1, PasField o2) {
@@ -154,9 +176,58 @@ public class SectionToggle {
         if (!PsiUtil.isNotNestedRoutine(routine)) {           // Filter out nested routines and closures
             return null;
         }
+        RoutineMap map = getRoutineMap(routine);
+        if ((map != null) && map.contains(routine)) {
+            return map.getTarget(routine, strict);
+        }
         return retrieveDeclaration(calcPrefix(new Container(routine), false), strict);
     }
 
+    /**
+     * Resolves declarations of all routine and method implementations of the unit and implementations of all its routine and method declarations.
+     * Routine implementations nested in other routines and bodies of routines are not traversed.
+     */
+    @NotNull
+    public static RoutineMap buildRoutineMap(@NotNull PascalModule module) {
+        final List<PascalRoutine> routines = new ArrayList<PascalRoutine>();
+        module.accept(new PsiRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitElement(PsiElement element) {
+                if (element instanceof PasExportedRoutine) {
+                    routines.add((PascalRoutine) element);
+                } else if (element instanceof PasRoutineImplDeclImpl) {
+                    if (PsiUtil.isNotNestedRoutine((PascalRoutine) element)) {
+                        routines.add((PascalRoutine) element);
+                    }
+                } else if (!(element instanceof PasBlockBody) && !(element instanceof PasStatement)) {
+                    super.visitElement(element);
+                }
+            }
+        });
+        RoutineMap res = new RoutineMap();
+        for (PascalRoutine routine : routines) {
+            ProgressManager.checkCanceled();
+            Container cont = calcPrefix(new Container(routine), false);
+            if (routine instanceof PasExportedRoutine) {
+                res.put(routine, retrieveImplementation(cont, true), retrieveImplementation(cont, false));
+            } else {
+                res.put(routine, retrieveDeclaration(cont, true), retrieveDeclaration(cont, false));
+                String ns = routine.getNamespace();
+                if (StringUtils.isNotEmpty(ns)) {
+                    res.addImplementation(ns, routine);
+                }
+            }
+        }
+        return res;
+    }
+
+    @Nullable
+    private static RoutineMap getRoutineMap(@Nullable PascalRoutine routine) {
+        PsiFile file = routine != null ? routine.getContainingFile() : null;
+        PascalModule module = file != null ? PsiTreeUtil.getStubChildOfType(file, PascalModule.class) : null;
+        return module instanceof PascalModuleImpl ? ((PascalModuleImpl) module).getRoutineMap() : null;
+    }
+
     @Nullable
     // In strict mode only correct declaration-implementation pairs will be found
     private static PsiElement retrieveDeclaration(Container container, boolean strict) {
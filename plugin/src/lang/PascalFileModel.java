@@ -0,0 +1,292 @@
+package com.siberika.idea.pascal.lang;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.SmartList;
+import com.siberika.idea.pascal.lang.parser.NamespaceRec;
+import com.siberika.idea.pascal.lang.psi.PasCaseStatement;
+import com.siberika.idea.pascal.lang.psi.PasClassHelperDecl;
+import com.siberika.idea.pascal.lang.psi.PasClassTypeDecl;
+import com.siberika.idea.pascal.lang.psi.PasClassTypeTypeDecl;
+import com.siberika.idea.pascal.lang.psi.PasCompoundStatement;
+import com.siberika.idea.pascal.lang.psi.PasConstSection;
+import com.siberika.idea.pascal.lang.psi.PasEntityScope;
+import com.siberika.idea.pascal.lang.psi.PasEnumType;
+import com.siberika.idea.pascal.lang.psi.PasFullyQualifiedIdent;
+import com.siberika.idea.pascal.lang.psi.PasGenericTypeIdent;
+import com.siberika.idea.pascal.lang.psi.PasHandler;
+import com.siberika.idea.pascal.lang.psi.PasInterfaceTypeDecl;
+import com.siberika.idea.pascal.lang.psi.PasNamedIdentDecl;
+import com.siberika.idea.pascal.lang.psi.PasObjectDecl;
+import com.siberika.idea.pascal.lang.psi.PasRecordDecl;
+import com.siberika.idea.pascal.lang.psi.PasRecordHelperDecl;
+import com.siberika.idea.pascal.lang.psi.PasRepeatStatement;
+import com.siberika.idea.pascal.lang.psi.PasTypeSection;
+import com.siberika.idea.pascal.lang.psi.PasUnitFinalization;
+import com.siberika.idea.pascal.lang.psi.PasUnitImplementation;
+import com.siberika.idea.pascal.lang.psi.PasUnitInitialization;
+import com.siberika.idea.pascal.lang.psi.PasUnitInterface;
+import com.siberika.idea.pascal.lang.psi.PasUnitModuleHead;
+import com.siberika.idea.pascal.lang.psi.PasUsesClause;
+import com.siberika.idea.pascal.lang.psi.PasVarSection;
+import com.siberika.idea.pascal.lang.psi.PasWithStatement;
+import com.siberika.idea.pascal.lang.psi.PascalNamedElement;
+import com.siberika.idea.pascal.lang.psi.PascalPsiElement;
+import com.siberika.idea.pascal.lang.psi.impl.PasField;
+import com.siberika.idea.pascal.lang.psi.impl.PasRoutineImplDeclImpl;
+import com.siberika.idea.pascal.lang.references.PasReferenceUtil;
+import com.siberika.idea.pascal.lang.references.ResolveContext;
+import com.siberika.idea.pascal.util.PsiUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a Pascal file's semantic model shared by folding, annotator and line markers: declarations, scopes,
+ * routine implementations, identifiers within WITH statements, uses clauses, case statements, enums, comments, foldable blocks
+ * and resolved references of entity names.
+ * A snapshot is collected with a single pass over PSI tree of the file and is reused until the file's PSI modification stamp changes.
+ * References depend on other files too so they are resolved on first request, within the caller's background read action (i.e. annotator pass),
+ * and kept until next PSI modification in the project.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class PascalFileModel {
+
+    private static final Cache<PsiFile, PascalFileModel> cache = CacheBuilder.newBuilder().weakKeys().softValues().build();
+
+    private final long stamp;
+    private final List<PascalNamedElement> declarations = new ArrayList<>();
+    private final List<PasEntityScope> scopes = new ArrayList<>();
+    private final List<PascalNamedElement> entityNames = new ArrayList<>();
+    private PasUnitModuleHead moduleHead;
+    private final List<PasRoutineImplDeclImpl> routines = new ArrayList<>();
+    private final List<PasWithStatement> withStatements = new ArrayList<>();
+    private final List<PasFullyQualifiedIdent> withIdents = new ArrayList<>();
+    private final List<PasUsesClause> usesClauses = new ArrayList<>();
+    private final List<PasCaseStatement> caseStatements = new ArrayList<>();
+    private final List<PasEnumType> enums = new ArrayList<>();
+    private final List<PsiComment> comments = new ArrayList<>();
+    private final List<PascalPsiElement> blocks = new ArrayList<>();
+    private volatile References references;
+
+    private PascalFileModel(long stamp) {
+        this.stamp = stamp;
+    }
+
+    /**
+     * Returns snapshot of the current state of the file building it if needed
+     */
+    @NotNull
+    public static PascalFileModel get(@NotNull PsiFile file) {
+        long stamp = file.getModificationStamp();
+        PascalFileModel model = cache.getIfPresent(file);
+        if ((null == model) || (model.stamp != stamp)) {
+            model = build(file, stamp);
+            cache.put(file, model);
+        }
+        return model;
+    }
+
+    /**
+     * Discards snapshot of the file so it will be collected again on next access
+     */
+    @TestOnly
+    public static void invalidate(@NotNull PsiFile file) {
+        cache.invalidate(file);
+    }
+
+    private static PascalFileModel build(PsiFile file, long stamp) {
+        final PascalFileModel model = new PascalFileModel(stamp);
+        PsiTreeUtil.processElements(file, element -> {
+            model.add(element);
+            return true;
+        });
+        return model;
+    }
+
+    private void add(PsiElement element) {
+        if (PsiUtil.isEntityName(element) && !PsiUtil.isLastPartOfMethodImplName((PascalNamedElement) element)) {
+            entityNames.add((PascalNamedElement) element);
+        } else if ((element instanceof PasNamedIdentDecl) || (element instanceof PasGenericTypeIdent)) {
+            declarations.add((PascalNamedElement) element);
+        } else if (element instanceof PasUnitModuleHead) {
+            moduleHead = (PasUnitModuleHead) element;
+        }
+        if (element instanceof PasEntityScope) {
+            scopes.add((PasEntityScope) element);
+        }
+        if (element instanceof PasRoutineImplDeclImpl) {
+            routines.add((PasRoutineImplDeclImpl) element);
+        } else if (element instanceof PasCaseStatement) {
+            caseStatements.add((PasCaseStatement) element);
+        } else if (element instanceof PasUsesClause) {
+            usesClauses.add((PasUsesClause) element);
+        } else if (element instanceof PasEnumType) {
+            enums.add((PasEnumType) element);
+        } else if (element instanceof PsiComment) {
+            comments.add((PsiComment) element);
+        } else if (element instanceof PasWithStatement) {
+            withStatements.add((PasWithStatement) element);
+        } else if ((element instanceof PasFullyQualifiedIdent) && (getAffectingWith(element) != null)) {
+            withIdents.add((PasFullyQualifiedIdent) element);
+        } else if (PsiTreeUtil.instanceOf(element,
+                PasUnitInterface.class, PasUnitImplementation.class, PasUnitInitialization.class, PasUnitFinalization.class,
+                PasVarSection.class, PasTypeSection.class, PasConstSection.class,
+                PasClassTypeTypeDecl.class, PasClassHelperDecl.class, PasClassTypeDecl.class,
+                PasInterfaceTypeDecl.class, PasObjectDecl.class, PasRecordHelperDecl.class, PasRecordDecl.class,
+                PasCompoundStatement.class, PasHandler.class, PasRepeatStatement.class)) {
+            blocks.add((PascalPsiElement) element);
+        }
+    }
+
+    /**
+     * Returns WITH statement which statement contains the element
+     */
+    @Nullable
+    public PasWithStatement getAffectingWith(@NotNull PsiElement element) {
+        for (PasWithStatement withStatement : withStatements) {
+            if (PsiUtil.isParentOf(element, withStatement.getStatement())) {
+                return withStatement;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns resolved reference of the entity name which belongs to the file.
+     * Should be called within a background read action as references of the whole file are resolved on first call after PSI modification.
+     */
+    @NotNull
+    public Reference getReference(@NotNull PascalNamedElement entityName) {
+        Reference res = getReferences(entityName.getProject()).get(entityName);
+        return res != null ? res : Reference.resolve(entityName);
+    }
+
+    private Map<PsiElement, Reference> getReferences(Project project) {
+        long modCount = PsiModificationTracker.SERVICE.getInstance(project).getModificationCount();
+        References res = references;
+        if ((null == res) || (res.modCount != modCount)) {
+            Map<PsiElement, Reference> resolved = new HashMap<>(entityNames.size());
+            for (PascalNamedElement entityName : entityNames) {
+                ProgressManager.checkCanceled();
+                resolved.put(entityName, Reference.resolve(entityName));
+            }
+            res = new References(modCount, Collections.unmodifiableMap(resolved));
+            references = res;
+        }
+        return res.map;
+    }
+
+    /**
+     * Returns names of declared entities: variables, constants, types, parameters, fields etc
+     */
+    public List<PascalNamedElement> getDeclarations() {
+        return Collections.unmodifiableList(declarations);
+    }
+
+    /**
+     * Returns modules, routines and structured types declared in the file
+     */
+    public List<PasEntityScope> getScopes() {
+        return Collections.unmodifiableList(scopes);
+    }
+
+    /**
+     * Returns names of referenced entities which are resolved by getReference()
+     */
+    public List<PascalNamedElement> getEntityNames() {
+        return Collections.unmodifiableList(entityNames);
+    }
+
+    @Nullable
+    public PasUnitModuleHead getModuleHead() {
+        return moduleHead;
+    }
+
+    public List<PasRoutineImplDeclImpl> getRoutines() {
+        return Collections.unmodifiableList(routines);
+    }
+
+    /**
+     * Returns identifiers located within statements of WITH statements
+     */
+    public List<PasFullyQualifiedIdent> getWithIdents() {
+        return Collections.unmodifiableList(withIdents);
+    }
+
+    public List<PasUsesClause> getUsesClauses() {
+        return Collections.unmodifiableList(usesClauses);
+    }
+
+    public List<PasCaseStatement> getCaseStatements() {
+        return Collections.unmodifiableList(caseStatements);
+    }
+
+    public List<PasEnumType> getEnums() {
+        return Collections.unmodifiableList(enums);
+    }
+
+    public List<PsiComment> getComments() {
+        return Collections.unmodifiableList(comments);
+    }
+
+    /**
+     * Returns sections, structured types and statements which can be folded
+     */
+    public List<PascalPsiElement> getBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+
+    /**
+     * Entities an entity name resolves to and scopes searched during resolution
+     */
+    public static class Reference {
+        private final Collection<PasField> targets;
+        private final List<PsiElement> scopes;
+
+        private Reference(Collection<PasField> targets, List<PsiElement> scopes) {
+            this.targets = targets;
+            this.scopes = scopes;
+        }
+
+        private static Reference resolve(PascalNamedElement entityName) {
+            List<PsiElement> scopes = new SmartList<PsiElement>();
+            ResolveContext resolveContext = new ResolveContext(null, PasField.TYPES_ALL, true, scopes, null);
+            Collection<PasField> targets = PasReferenceUtil.resolveExpr(NamespaceRec.fromElement(entityName), resolveContext, 0);
+            return new Reference(Collections.unmodifiableCollection(targets), Collections.unmodifiableList(scopes));
+        }
+
+        public Collection<PasField> getTargets() {
+            return targets;
+        }
+
+        public List<PsiElement> getScopes() {
+            return scopes;
+        }
+    }
+
+    private static class References {
+        private final long modCount;
+        private final Map<PsiElement, Reference> map;
+
+        private References(long modCount, Map<PsiElement, Reference> map) {
+            this.modCount = modCount;
+            this.map = map;
+        }
+    }
+}
@@ -12,35 +12,18 @@ import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiComment;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.search.PsiElementProcessor;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.siberika.idea.pascal.editor.highlighter.PasHighlightWithIdentsHandler;
 import com.siberika.idea.pascal.lang.folding.PascalCodeFoldingSettings;
 import com.siberika.idea.pascal.lang.psi.PasCaseStatement;
-import com.siberika.idea.pascal.lang.psi.PasClassHelperDecl;
-import com.siberika.idea.pascal.lang.psi.PasClassTypeDecl;
-import com.siberika.idea.pascal.lang.psi.PasClassTypeTypeDecl;
-import com.siberika.idea.pascal.lang.psi.PasCompoundStatement;
-import com.siberika.idea.pascal.lang.psi.PasConstSection;
 import com.siberika.idea.pascal.lang.psi.PasEnumType;
 import com.siberika.idea.pascal.lang.psi.PasExpression;
 import com.siberika.idea.pascal.lang.psi.PasFullyQualifiedIdent;
-import com.siberika.idea.pascal.lang.psi.PasHandler;
-import com.siberika.idea.pascal.lang.psi.PasInterfaceTypeDecl;
 import com.siberika.idea.pascal.lang.psi.PasNamedIdentDecl;
-import com.siberika.idea.pascal.lang.psi.PasObjectDecl;
-import com.siberika.idea.pascal.lang.psi.PasRecordDecl;
-import com.siberika.idea.pascal.lang.psi.PasRecordHelperDecl;
-import com.siberika.idea.pascal.lang.psi.PasRepeatStatement;
 import com.siberika.idea.pascal.lang.psi.PasTypeDeclaration;
-import com.siberika.idea.pascal.lang.psi.PasTypeSection;
 import com.siberika.idea.pascal.lang.psi.PasTypes;
-import com.siberika.idea.pascal.lang.psi.PasUnitFinalization;
-import com.siberika.idea.pascal.lang.psi.PasUnitImplementation;
-import com.siberika.idea.pascal.lang.psi.PasUnitInitialization;
-import com.siberika.idea.pascal.lang.psi.PasUnitInterface;
 import com.siberika.idea.pascal.lang.psi.PasUsesClause;
-import com.siberika.idea.pascal.lang.psi.PasVarSection;
 import com.siberika.idea.pascal.lang.psi.PasWithStatement;
 import com.siberika.idea.pascal.lang.psi.PascalPsiElement;
 import com.siberika.idea.pascal.lang.psi.PascalQualifiedIdent;
@@ -68,69 +51,30 @@ public class PascalFoldingBuilder extends FoldingBuilderEx implements DumbAware
     @Override
     public FoldingDescriptor[] buildFoldRegions(@NotNull PsiElement root, @NotNull Document document, boolean quick) {
         final List<FoldingDescriptor> descriptors = new ArrayList<FoldingDescriptor>();
+        if (!(root instanceof PsiFile)) {
+            return FoldingDescriptor.EMPTY;
+        }
+        PascalFileModel model = PascalFileModel.get((PsiFile) root);
 
-        Collection<PascalPsiElement> commonElements = new ArrayList<>();
-        Collection<PasCaseStatement> caseElements = new ArrayList<>();
-        Collection<PasUsesClause> usesElements = new ArrayList<>();
-        Collection<PasEnumType> enumElements = new ArrayList<>();
-        Collection<PasRoutineImplDeclImpl> routineElements = new ArrayList<>();
-        Collection<PsiComment> commentElements = new ArrayList<>();
-        Collection<PasWithStatement> withElements = new ArrayList<>();
-        Collection<PasFullyQualifiedIdent> namedElements = new ArrayList<>();
-
-        PsiElementProcessor<PsiElement> processor = new PsiElementProcessor<PsiElement>() {
-            @Override
-            public boolean execute(@NotNull PsiElement each) {
-                if (each == root) return true;
-                if (each instanceof PasCaseStatement) {
-                    caseElements.add((PasCaseStatement) each);
-                } else if (each instanceof PasUsesClause) {
-                    usesElements.add((PasUsesClause) each);
-                } else if (each instanceof PasEnumType) {
-                    enumElements.add((PasEnumType) each);
-                } else if (each instanceof PasRoutineImplDeclImpl) {
-                    routineElements.add((PasRoutineImplDeclImpl) each);
-                } else if (each instanceof PsiComment) {
-                    commentElements.add((PsiComment) each);
-                } else if (each instanceof PasWithStatement) {
-                    withElements.add((PasWithStatement) each);
-                } else if (each instanceof PasFullyQualifiedIdent) {
-                    if (getAffectedBy(withElements, each) != null) {
-                        namedElements.add((PasFullyQualifiedIdent) each);
-                    }
-                } else if (PsiTreeUtil.instanceOf(each,
-                        PasUnitInterface.class, PasUnitImplementation.class, PasUnitInitialization.class, PasUnitFinalization.class,
-                        PasVarSection.class, PasTypeSection.class, PasConstSection.class,
-                        PasClassTypeTypeDecl.class, PasClassHelperDecl.class, PasClassTypeDecl.class,
-                        PasInterfaceTypeDecl.class, PasObjectDecl.class, PasRecordHelperDecl.class, PasRecordDecl.class,
-                        PasCompoundStatement.class, PasHandler.class, PasRepeatStatement.class)) {
-                    commonElements.add((PascalPsiElement) each);
-                }
-                return true;
-            }
-
-        };
-        PsiTreeUtil.processElements(root, processor);
-
-        foldCommon(descriptors, commonElements);
-        foldCase(descriptors, caseElements);
-        foldUses(descriptors, usesElements);
-        foldEnums(descriptors, enumElements);
-        foldRoutines(descriptors, routineElements);
+        foldCommon(descriptors, model.getBlocks());
+        foldCase(descriptors, model.getCaseStatements());
+        foldUses(descriptors, model.getUsesClauses());
+        foldEnums(descriptors, model.getEnums());
+        foldRoutines(descriptors, model.getRoutines());
 
         if (!quick) {
-            foldComments(descriptors, document, commentElements);
+            foldComments(descriptors, document, model.getComments());
             if (!DumbService.isDumb(root.getProject()) && PascalCodeFoldingSettings.getInstance().isFoldWithBlocks()) {
-                foldWithIdents(descriptors, withElements, namedElements);
+                foldWithIdents(descriptors, model);
             }
         }
 
         return descriptors.toArray(new FoldingDescriptor[0]);
     }
 
-    private void foldWithIdents(List<FoldingDescriptor> descriptors, Collection<PasWithStatement> withElements, Collection<PasFullyQualifiedIdent> namedElements) {
-        for (PasFullyQualifiedIdent namedElement : namedElements) {
-            PasWithStatement withElement = getAffectedBy(withElements, namedElement);
+    private void foldWithIdents(List<FoldingDescriptor> descriptors, PascalFileModel model) {
+        for (PasFullyQualifiedIdent namedElement : model.getWithIdents()) {
+            PasWithStatement withElement = model.getAffectingWith(namedElement);
             if (withElement != null) {
                 for (PasExpression withExpr : withElement.getExpressionList()) {
                     PasHighlightWithIdentsHandler.processElementsFromWith(withExpr, namedElement, element -> {
@@ -144,19 +88,6 @@ public class PascalFoldingBuilder extends FoldingBuilderEx implements DumbAware
         }
     }
 
-    private PasWithStatement getAffectedBy(Collection<PasWithStatement> withElements, PsiElement each) {
-        for (PasWithStatement withElement : withElements) {
-            if (affects(withElement, each)) {
-                return withElement;
-            }
-        }
-        return null;
-    }
-
-    private boolean affects(PasWithStatement withElement, PsiElement namedElement) {
-        return PsiUtil.isParentOf(namedElement, withElement.getStatement());
-    }
-
     private void foldRoutines(List<FoldingDescriptor> descriptors, Collection<PasRoutineImplDeclImpl> routineList) {
         for (PasRoutineImplDeclImpl routine : routineList) {
             int foldStart = getStartOffset(routine);
@@ -169,7 +100,7 @@ public class PascalFoldingBuilder extends FoldingBuilderEx implements DumbAware
         }
     }
 
-    private void foldCommon(List<FoldingDescriptor> descriptors, Collection<PascalPsiElement> blocks) {
+    private void foldCommon(List<FoldingDescriptor> descriptors, Collection<? extends PascalPsiElement> blocks) {
         for (final PsiElement block : blocks) {
             int foldStart = getStartOffset(block);
             TextRange range = getRange(foldStart, block.getTextRange().getEndOffset());
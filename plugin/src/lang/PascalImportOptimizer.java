@@ -100,6 +100,30 @@ public class PascalImportOptimizer implements ImportOptimizer {
     }
 
     public static Runnable doProcess(final PsiFile file) {
+        final FilePlan plan = plan(file);
+        return new CollectingInfoRunnable() {
+
+            private String status;
+
+            @Nullable
+            @Override
+            public String getUserNotificationInfo() {
+                return status;
+            }
+
+            @Override
+            public void run() {
+                status = plan.apply(true);
+            }
+        };
+    }
+
+    /**
+     * Computes usage status of units listed in uses clauses of the file. Should be called within read action.
+     * Document is not modified so plans of many files can be computed in parallel and applied later.
+     */
+    @NotNull
+    public static FilePlan plan(@NotNull final PsiFile file) {
         final Map<PascalQualifiedIdent, UsedUnitStatus> units = new TreeMap<PascalQualifiedIdent, UsedUnitStatus>(new ByOffsetComparator<PascalQualifiedIdent>());
         Collection<PasUsesClause> usesClauses = PsiTreeUtil.findChildrenOfType(file, PasUsesClause.class);
 
@@ -123,78 +147,121 @@ public class PascalImportOptimizer implements ImportOptimizer {
                 usesImpl = usesClause;
             }
         }
-        final PasUsesClause usesInterface = usesIntf;
-        final PasUsesClause usesImplementation = usesImpl;
+        return new FilePlan(file, units, usesIntf, usesImpl, PsiDocumentManager.getInstance(file.getProject()).getDocument(file));
+    }
 
-        final Document doc = PsiDocumentManager.getInstance(file.getProject()).getDocument(file);
+    /**
+     * Planned removals and moves of used units of a file
+     */
+    public static class FilePlan {
+        private final PsiFile file;
+        private final Map<PascalQualifiedIdent, UsedUnitStatus> units;
+        private final PasUsesClause usesInterface;
+        private final PasUsesClause usesImplementation;
+        private final Document doc;
+        private final long stamp;
 
-        return new CollectingInfoRunnable() {
+        private FilePlan(PsiFile file, Map<PascalQualifiedIdent, UsedUnitStatus> units, PasUsesClause usesInterface, PasUsesClause usesImplementation, Document doc) {
+            this.file = file;
+            this.units = units;
+            this.usesInterface = usesInterface;
+            this.usesImplementation = usesImplementation;
+            this.doc = doc;
+            this.stamp = doc != null ? doc.getModificationStamp() : -1;
+        }
 
-            private String status;
+        public PsiFile getFile() {
+            return file;
+        }
 
-            @Nullable
-            @Override
-            public String getUserNotificationInfo() {
-                return status;
+        /**
+         * Returns true if there are units to remove or move
+         */
+        public boolean hasChanges() {
+            for (UsedUnitStatus status : units.values()) {
+                if ((status == UsedUnitStatus.UNUSED) || (status == UsedUnitStatus.USED_IN_IMPL)) {
+                    return true;
+                }
             }
+            return false;
+        }
 
-            @Override
-            public void run() {
-                if (null == doc) {
-                    return;
+        /**
+         * Returns true if the document was not modified since the plan was computed
+         */
+        public boolean isUpToDate() {
+            return (doc != null) && file.isValid() && (doc.getModificationStamp() == stamp);
+        }
+
+        /**
+         * Applies the plan to document. Should be called within write action.
+         * @param reformatLater reformat uses clauses in a separate command instead of the current one
+         * @return status message or null if the plan was not applied
+         */
+        @Nullable
+        public String apply(boolean reformatLater) {
+            if (null == doc) {
+                return null;
+            }
+            try {
+                int remIntf = usesInterface != null ? usesInterface.getNamespaceIdentList().size() : 0;
+                int remImpl = usesImplementation != null ? usesImplementation.getNamespaceIdentList().size() : 0;
+                List<TextRange> toRemoveIntf = new SmartList<TextRange>();
+                List<TextRange> toRemoveImpl = new SmartList<TextRange>();
+                List<TextRange> unitRangesIntf = getUnitRanges(usesInterface);
+                List<TextRange> unitRangesImpl = getUnitRanges(usesImplementation);
+                List<String> toMove = new SmartList<String>();
+                for (Map.Entry<PascalQualifiedIdent, UsedUnitStatus> unit : units.entrySet()) {                                // perform add operations
+                    if (unit.getValue() == UsedUnitStatus.USED_IN_IMPL) {                                                   // move from interface to implementation
+                        toMove.add(unit.getKey().getName());
+                        remImpl++;
+                    }
                 }
-                try {
-                    int remIntf = usesInterface != null ? usesInterface.getNamespaceIdentList().size() : 0;
-                    int remImpl = usesImplementation != null ? usesImplementation.getNamespaceIdentList().size() : 0;
-                    List<TextRange> toRemoveIntf = new SmartList<TextRange>();
-                    List<TextRange> toRemoveImpl = new SmartList<TextRange>();
-                    List<TextRange> unitRangesIntf = getUnitRanges(usesInterface);
-                    List<TextRange> unitRangesImpl = getUnitRanges(usesImplementation);
-                    List<String> toMove = new SmartList<String>();
-                    for (Map.Entry<PascalQualifiedIdent, UsedUnitStatus> unit : units.entrySet()) {                                // perform add operations
-                        if (unit.getValue() == UsedUnitStatus.USED_IN_IMPL) {                                                   // move from interface to implementation
-                            toMove.add(unit.getKey().getName());
-                            remImpl++;
+                PasModule module = PsiUtil.getElementPasModule(file);
+                TextRange addedRange = addUnitToSection(module, toMove, false, reformatLater);
+                if (addedRange != null) {
+                    unitRangesImpl.add(addedRange);
+                }
+                int unknown = 0;
+                for (Map.Entry<PascalQualifiedIdent, UsedUnitStatus> unit : units.entrySet()) {                                // collect all removal ranges
+                    if (unit.getValue() == UsedUnitStatus.USED_IN_IMPL) {                                                   // remove due to moving to implementation
+                        TextRange range = removeUnitFromSection(unit.getKey(), usesInterface, unitRangesIntf, remIntf);
+                        if (range != null) {
+                            toRemoveIntf.add(range);
+                            remIntf--;
                         }
-                    }
-                    TextRange addedRange = addUnitToSection(PsiUtil.getElementPasModule(file), toMove, false);
-                    if (addedRange != null) {
-                        unitRangesImpl.add(addedRange);
-                    }
-                    int unknown = 0;
-                    for (Map.Entry<PascalQualifiedIdent, UsedUnitStatus> unit : units.entrySet()) {                                // collect all removal ranges
-                        if (unit.getValue() == UsedUnitStatus.USED_IN_IMPL) {                                                   // remove due to moving to implementation
-                            TextRange range = removeUnitFromSection(unit.getKey(), usesInterface, unitRangesIntf, remIntf);
+                    } else if (unit.getValue() == UsedUnitStatus.UNUSED) {
+                        TextRange range = removeUnitFromSection(unit.getKey(), usesInterface, unitRangesIntf, remIntf);
+                        if (range != null) {
+                            remIntf--;
+                            toRemoveIntf.add(range);
+                        } else {
+                            range = removeUnitFromSection(unit.getKey(), usesImplementation, unitRangesImpl, remImpl);
                             if (range != null) {
-                                toRemoveIntf.add(range);
-                                remIntf--;
+                                remImpl--;
+                                toRemoveImpl.add(range);
                             }
-                        } else if (unit.getValue() == UsedUnitStatus.UNUSED) {
-                            TextRange range = removeUnitFromSection(unit.getKey(), usesInterface, unitRangesIntf, remIntf);
-                            if (range != null) {
-                                remIntf--;
-                                toRemoveIntf.add(range);
-                            } else {
-                                range = removeUnitFromSection(unit.getKey(), usesImplementation, unitRangesImpl, remImpl);
-                                if (range != null) {
-                                    remImpl--;
-                                    toRemoveImpl.add(range);
-                                }
-                            }
-                        } else if (unit.getValue() == UsedUnitStatus.UNKNOWN) {
-                            unknown++;
                         }
+                    } else if (unit.getValue() == UsedUnitStatus.UNKNOWN) {
+                        unknown++;
+                    }
+                }
+                removeUnits(doc, usesImplementation, toRemoveImpl, remImpl); // remove implementation uses clause before other modifications
+                removeUnits(doc, usesInterface, toRemoveIntf, remIntf);
+                PsiDocumentManager.getInstance(file.getProject()).commitDocument(doc);
+                if ((addedRange != null) && !reformatLater) {
+                    module = PsiUtil.getElementPasModule(file);
+                    if (module != null) {
+                        reformatUsesClauses(module);
                     }
-                    removeUnits(doc, usesImplementation, toRemoveImpl, remImpl); // remove implementation uses clause before other modifications
-                    removeUnits(doc, usesInterface, toRemoveIntf, remIntf);
-                    PsiDocumentManager.getInstance(file.getProject()).commitDocument(doc);
-                    status = String.format("%d units moved to implementation, %d removed, %d unknown",
-                            toMove.size(), toRemoveImpl.size() + toRemoveIntf.size() - toMove.size(), unknown);
-                } catch (Exception e) {
-                    LOG.info("Error", e);
                 }
+                return String.format("%d units moved to implementation, %d removed, %d unknown",
+                        toMove.size(), toRemoveImpl.size() + toRemoveIntf.size() - toMove.size(), unknown);
+            } catch (Exception e) {
+                LOG.info("Error", e);
+                return null;
             }
-        };
+        }
     }
 
     private static void removeUnits(Document doc, PasUsesClause clause, List<TextRange> toRemove, int remaining) {
@@ -220,6 +287,14 @@ public class PascalImportOptimizer implements ImportOptimizer {
     }
 
     public static TextRange addUnitToSection(final PasModule module, List<String> names, boolean toInterface) {
+        return addUnitToSection(module, names, toInterface, true);
+    }
+
+    /**
+     * Adds the units to interface or implementation uses clause creating the clause if needed.
+     * If reformat is false the caller is responsible for reformatting of uses clauses.
+     */
+    public static TextRange addUnitToSection(final PasModule module, List<String> names, boolean toInterface, boolean reformat) {
         if ((null == module) || (names.isEmpty())) {
             return null;
         }
@@ -250,26 +325,33 @@ public class PascalImportOptimizer implements ImportOptimizer {
                 }
             }
         }
-        final PsiFile file = module.getContainingFile();
+        PsiFile file = module.getContainingFile();
         Document doc = PsiDocumentManager.getInstance(module.getProject()).getDocument(file);
         if (doc != null) {
             DocUtil.adjustDocument(doc, offs, content);
             PsiDocumentManager.getInstance(module.getProject()).commitDocument(doc);
         }
-        DocUtil.runCommandLaterInWriteAction(module.getProject(), PascalBundle.message("action.reformat"), new Runnable() {
-            @Override
-            public void run() {
-                for (PasUsesClause usesClause : PsiTreeUtil.findChildrenOfType(module, PasUsesClause.class)) {
-                    PsiManager manager = usesClause.getManager();
-                    if (manager != null) {
-                        CodeStyleManager.getInstance(manager).reformatRange(file, usesClause.getTextRange().getStartOffset(), usesClause.getTextRange().getEndOffset(), true);
-                    }
+        if (reformat) {
+            DocUtil.runCommandLaterInWriteAction(module.getProject(), PascalBundle.message("action.reformat"), new Runnable() {
+                @Override
+                public void run() {
+                    reformatUsesClauses(module);
                 }
-            }
-        });
+            });
+        }
         return TextRange.create(offs + 2, offs + content.length());
     }
 
+    private static void reformatUsesClauses(PasModule module) {
+        PsiFile file = module.getContainingFile();
+        for (PasUsesClause usesClause : PsiTreeUtil.findChildrenOfType(module, PasUsesClause.class)) {
+            PsiManager manager = usesClause.getManager();
+            if (manager != null) {
+                CodeStyleManager.getInstance(manager).reformatRange(file, usesClause.getTextRange().getStartOffset(), usesClause.getTextRange().getEndOffset(), true);
+            }
+        }
+    }
+
     private static int calcOffset(PsiElement prev) {
         return prev != null ? prev.getTextRange().getEndOffset() : -1;
     }
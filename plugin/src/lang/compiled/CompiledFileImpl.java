@@ -21,6 +21,7 @@ import com.intellij.psi.stubs.StubTree;
 import com.intellij.reference.SoftReference;
 import com.siberika.idea.pascal.PascalFileType;
 import com.siberika.idea.pascal.PascalLanguage;
+import com.siberika.idea.pascal.lang.references.AstLoadCounter;
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.ref.Reference;
@@ -98,10 +99,8 @@ public abstract class CompiledFileImpl extends PsiFileBase implements PsiFileEx,
                     String ext = PascalFileType.INSTANCE.getDefaultExtension();
                     String fileName = DECOMPILED_FILENAME_PREFIX + file.getNameWithoutExtension() + "." + ext;
 
-                    final Document document = FileDocumentManager.getInstance().getDocument(file);
-                    assert document != null : file.getUrl();
-
-                    CharSequence mirrorText = document.getImmutableCharSequence();
+                    AstLoadCounter.registerLoad(file);
+                    CharSequence mirrorText = getMirrorText(file);
                     PsiFileFactory factory = PsiFileFactory.getInstance(getManager().getProject());
                     PsiFile mirror = factory.createFileFromText(fileName, PascalLanguage.INSTANCE, mirrorText, false, false);
 
@@ -114,6 +113,16 @@ public abstract class CompiledFileImpl extends PsiFileBase implements PsiFileEx,
         return mirrorTreeElement.getPsi();
     }
 
+    /**
+     * Returns decompiled text to build mirror PSI from. The text is the document text by default.
+     */
+    @NotNull
+    protected CharSequence getMirrorText(@NotNull VirtualFile file) {
+        final Document document = FileDocumentManager.getInstance().getDocument(file);
+        assert document != null : file.getUrl();
+        return document.getImmutableCharSequence();
+    }
+
     @Override
     public boolean isContentsLoaded() {
         return myStub != null;
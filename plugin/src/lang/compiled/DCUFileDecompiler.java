@@ -56,27 +56,36 @@ public class DCUFileDecompiler implements BinaryFileDecompiler {
         if (projects.length == 0) return "";
         final Project project = projects[0];
 
-        return decompileText(project, file);
+        try {
+            return decompileText(project, file);
+        } catch (PascalException e) {
+            return e.getMessage();
+        }
     }
 
-    static String decompileText(Project project, VirtualFile file) {
+    /**
+     * Returns decompiled unit text
+     * @throws PascalException with a message describing the problem if the unit can't be decompiled
+     */
+    @NotNull
+    static String decompileText(Project project, VirtualFile file) throws PascalException {
         Module module = ModuleUtil.getModuleForLibraryFile(project, file);
         if (null == module) {
-            return PascalBundle.message("decompile.no.module", file.getPath());
+            throw new PascalException(PascalBundle.message("decompile.no.module", file.getPath()));
         }
         Sdk sdk = ModuleRootManager.getInstance(module).getSdk();
         if (null == sdk) {
-            return PascalBundle.message("decompile.wrong.sdk");
+            throw new PascalException(PascalBundle.message("decompile.wrong.sdk"));
         }
         if ((sdk.getHomePath() == null) || !(sdk.getSdkType() instanceof DelphiSdkType)) {
-            return PascalBundle.message("decompile.wrong.sdktype.delphi");
+            throw new PascalException(PascalBundle.message("decompile.wrong.sdktype.delphi"));
         }
 
         File decompilerCommand = BasePascalSdkType.getDecompilerCommand(sdk, NULL_FILE);
         String result = "";
         try {
             if (!decompilerCommand.isFile() || !decompilerCommand.canExecute()) {
-                return PascalBundle.message("decompile.wrong.delphi", decompilerCommand.getCanonicalPath());
+                throw new PascalException(PascalBundle.message("decompile.wrong.delphi", decompilerCommand.getCanonicalPath()));
             }
             List<String> paths = collectUnitPaths(sdk);
             String[] args = getArgs(BasePascalSdkType.getDecompilerArgs(sdk), file.getPath(), "-U" + Joiner.on(';').join(paths), "-I", "-SI", "-");
@@ -84,16 +93,16 @@ public class DCUFileDecompiler implements BinaryFileDecompiler {
             if (result != null) {
                 return handleText(result).replace("\r", "");
             } else {
-                return PascalBundle.message("decompile.empty.result");
+                throw new PascalException(PascalBundle.message("decompile.empty.result"));
             }
         } catch (IOException e) {
             LOG.info("I/O error: " + e.getMessage(), e);
-            return PascalBundle.message("decompile.io.error");
+            throw new PascalException(PascalBundle.message("decompile.io.error"), e);
         } catch (PascalException e1) {
-            return e1.getMessage();
+            throw e1;
         } catch (Exception e) {
             LOG.info("Unknown error: " + e.getMessage(), e);
-            return PascalBundle.message("decompile.unknown.error", result);
+            throw new PascalException(PascalBundle.message("decompile.unknown.error", result), e);
         }
     }
 
@@ -18,6 +18,7 @@ import com.siberika.idea.pascal.jps.sdk.PascalSdkData;
 import com.siberika.idea.pascal.jps.sdk.PascalSdkUtil;
 import com.siberika.idea.pascal.sdk.BasePascalSdkType;
 import com.siberika.idea.pascal.sdk.FPCSdkType;
+import com.siberika.idea.pascal.sdk.SdkProbeCache;
 import com.siberika.idea.pascal.util.DocUtil;
 import com.siberika.idea.pascal.util.ModuleUtil;
 import com.siberika.idea.pascal.util.StrUtil;
@@ -29,6 +30,9 @@ import java.io.File;
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -45,15 +49,21 @@ public class PPUDecompilerCache {
 
     private final Module module;
     private final LoadingCache<String, PPUDumpParser.Section> cache;
+    private final Set<String> failedKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     public PPUDecompilerCache(@NotNull Module module) {
         this.module = module;
         cache = CacheBuilder.newBuilder().expireAfterAccess(2, TimeUnit.HOURS).build(new Loader());
     }
 
-    public static String decompile(Module module, String filename, @Nullable VirtualFile file) {
+    /**
+     * Returns decompiled unit text
+     * @throws PascalException with a message describing the problem if the unit can't be decompiled
+     */
+    @NotNull
+    public static CharSequence decompile(Module module, String filename, @Nullable VirtualFile file) throws PascalException {
         Sdk sdk = ModuleRootManager.getInstance(module).getSdk();
-        if (null == sdk) { return PascalBundle.message("decompile.wrong.sdk"); }
+        if (null == sdk) { throw new PascalException(PascalBundle.message("decompile.wrong.sdk")); }
         PPUDecompilerCache decompilerCache;
         //noinspection SynchronizationOnLocalVariableOrMethodParameter
         synchronized (sdk) {
@@ -65,7 +75,10 @@ public class PPUDecompilerCache {
         }
         String unitName = FileUtil.getNameWithoutExtension(com.siberika.idea.pascal.jps.util.FileUtil.getFilename(filename));
         PPUDumpParser.Section stub = decompilerCache.getContents(unitName, file);
-        return stub != null ? stub.getResult() : "";
+        if (stub.isError()) {
+            throw new PascalException(stub.getResult().toString());
+        }
+        return stub.getResult();
     }
 
     private class Loader extends CacheLoader<String, PPUDumpParser.Section> {
@@ -131,7 +144,7 @@ public class PPUDecompilerCache {
     private static String getPPUDumpVersion(File ppuDump) {
         String res = "";
         try {
-            res = SysUtils.runAndGetStdOut(ppuDump.getParent(), ppuDump.getCanonicalPath(), PPUDUMP_OPTIONS_COMMON, PPUDUMP_OPTIONS_VERSION);
+            res = SdkProbeCache.runAndGetStdOut(ppuDump.getParent(), ppuDump.getCanonicalPath(), PPUDUMP_OPTIONS_COMMON, PPUDUMP_OPTIONS_VERSION);
             if (res != null) {
                 int i1 = res.indexOf("Version");
                 int i2 = res.indexOf("\n");
@@ -160,13 +173,13 @@ public class PPUDecompilerCache {
         if (file != null) {
             try {
                 String key = getKey(file.getName());
-                PPUDumpParser.Section section = cache.getIfPresent(key);
-                boolean needReparsePsi = null == section;
-                section = cache.get(key);
+                PPUDumpParser.Section section = cache.get(key);
                 if (section.isError()) {
                     LOG.info("ERROR: Invalidating ppu cache for key: " + key);
                     cache.invalidate(key);
-                } else if (needReparsePsi) {
+                    failedKeys.add(key);
+                } else if (failedKeys.remove(key)) {
+                    // PSI and stubs were built from an error message so rebuild them. Successfully decompiled units are not reparsed.
                     DocUtil.reparsePsi(module.getProject(), file);
                 }
                 return section;
@@ -3,6 +3,7 @@ package com.siberika.idea.pascal.lang.compiled;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.util.text.StringUtil;
 import com.siberika.idea.pascal.PascalBundle;
+import com.siberika.idea.pascal.util.CompactCharSequence;
 import org.jetbrains.annotations.NotNull;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
@@ -229,6 +230,7 @@ public class PPUDumpParser {
                         fixupUndefined(sec);
                         result.idNameMap = idNameMap;
                         result.symidNameMap = symidNameMap;
+                        result.compact();
                     }
                 } else {
                     if (!StringUtil.isEmpty(sec.getDataStr("id"))) {
@@ -664,6 +666,8 @@ public class PPUDumpParser {
 
         private boolean beforeSubsecAdded = false;
 
+        private CharSequence text = null;
+
         public Section(String error) {
             this(null, null, null, null, null, 0);
             sb = new StringBuilder(error);
@@ -798,8 +802,16 @@ public class PPUDumpParser {
             return pos + text.length();
         }
 
-        public String getResult() {
-            return sb.toString();
+        public CharSequence getResult() {
+            return text != null ? text : sb.toString();
+        }
+
+        // Keeps only resulting text in compact form and name maps needed to resolve references from other units
+        void compact() {
+            text = CompactCharSequence.of(sb);
+            sb = new StringBuilder();
+            data = new TreeMap<String, Object>();
+            undefined = newUndef();
         }
 
         public boolean isAnonimous() {
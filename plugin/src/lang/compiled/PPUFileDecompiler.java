@@ -7,6 +7,7 @@ import com.intellij.openapi.project.ProjectManager;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.siberika.idea.pascal.PPUFileType;
 import com.siberika.idea.pascal.PascalBundle;
+import com.siberika.idea.pascal.PascalException;
 import com.siberika.idea.pascal.util.ModuleUtil;
 import org.jetbrains.annotations.NotNull;
 
@@ -23,13 +24,22 @@ public class PPUFileDecompiler implements BinaryFileDecompiler {
         final Project[] projects = ProjectManager.getInstance().getOpenProjects();
         if (projects.length == 0) return "";
         final Project project = projects[0];
-        return decompileText(project, file);
+        try {
+            return decompileText(project, file);
+        } catch (PascalException e) {
+            return e.getMessage();
+        }
     }
 
-    static String decompileText(Project project, VirtualFile file) {
+    /**
+     * Returns decompiled unit text
+     * @throws PascalException with a message describing the problem if the unit can't be decompiled
+     */
+    @NotNull
+    static CharSequence decompileText(Project project, VirtualFile file) throws PascalException {
         Module module = ModuleUtil.getModuleForLibraryFile(project, file);
         if (null == module) {
-            return PascalBundle.message("decompile.no.module", file.getPath());
+            throw new PascalException(PascalBundle.message("decompile.no.module", file.getPath()));
         }
         return PPUDecompilerCache.decompile(module, file.getPath(), file);
     }
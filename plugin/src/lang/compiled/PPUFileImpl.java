@@ -1,9 +1,11 @@
 package com.siberika.idea.pascal.lang.compiled;
 
 import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.FileViewProvider;
 import com.intellij.psi.PsiManager;
 import com.siberika.idea.pascal.PPUFileType;
+import com.siberika.idea.pascal.PascalException;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -21,4 +23,15 @@ public class PPUFileImpl extends CompiledFileImpl {
         return PPUFileType.INSTANCE;
     }
 
+    // Mirror is parsed directly from the compact text kept by decompiler cache without copying it to a document
+    @NotNull
+    @Override
+    protected CharSequence getMirrorText(@NotNull VirtualFile file) {
+        try {
+            return PPUFileDecompiler.decompileText(getProject(), file);
+        } catch (PascalException e) {
+            return super.getMirrorText(file);
+        }
+    }
+
 }
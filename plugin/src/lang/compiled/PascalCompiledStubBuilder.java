@@ -1,24 +1,43 @@
 package com.siberika.idea.pascal.lang.compiled;
 
+import com.intellij.lang.LightPsiParser;
+import com.intellij.lang.LighterAST;
+import com.intellij.lang.LighterASTNode;
+import com.intellij.lang.ParserDefinition;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiBuilderFactory;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.psi.FileViewProvider;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.PsiManager;
 import com.intellij.psi.compiled.ClsStubBuilder;
+import com.intellij.psi.impl.source.CharTableImpl;
+import com.intellij.psi.impl.source.tree.FCTSBackedLighterAST;
+import com.intellij.psi.stubs.LightStubBuilder;
 import com.intellij.psi.stubs.PsiFileStub;
+import com.intellij.psi.stubs.PsiFileStubImpl;
 import com.intellij.util.indexing.FileContent;
-import com.siberika.idea.pascal.PascalLanguage;
+import com.siberika.idea.pascal.DCUFileType;
+import com.siberika.idea.pascal.PPUFileType;
+import com.siberika.idea.pascal.PascalException;
+import com.siberika.idea.pascal.PascalParserDefinition;
 import com.siberika.idea.pascal.lang.parser.PascalFileElementType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+/**
+ * Builds stubs of compiled units from decompiled text without PSI.
+ * Decompiled text is parsed into light AST and stubs are created by light stub element types.
+ * No PSI manager, view provider or document is involved so compiled units can be indexed in parallel.
+ */
 public class PascalCompiledStubBuilder extends ClsStubBuilder {
 
     private static final Logger LOG = Logger.getInstance(PascalCompiledStubBuilder.class);
 
     static final ClsStubBuilder INSTANCE = new PascalCompiledStubBuilder();
 
+    private static final ParserDefinition PARSER_DEFINITION = new PascalParserDefinition();
+
     @Override
     public int getStubVersion() {
         return PascalFileElementType.getStubIndexVersion();
@@ -27,20 +46,52 @@ public class PascalCompiledStubBuilder extends ClsStubBuilder {
     @Nullable
     @Override
     public PsiFileStub<?> buildFileStub(@NotNull FileContent fileContent) {
-        PsiManager manager = PsiManager.getInstance(fileContent.getProject());
-        FileViewProvider vp = manager.findViewProvider(fileContent.getFile());
-        PsiFile file = vp != null ? vp.getPsi(PascalLanguage.INSTANCE) : null;
-        if (file instanceof CompiledFileImpl) {
-            return (PsiFileStub<?>) ((CompiledFileImpl) file).calcStubTree().getRoot();
-        } else {
-            VirtualFile vf = fileContent.getFile();
-            if (file != null) {
-                throw new IllegalArgumentException(String.format("buildFileStub: Invalid file class: %s, viewProvider: %s, content: %s",
-                        file.getClass().getName(), vp.getClass().getSimpleName(), vf.getPath()));
-            } else {
-                LOG.info(String.format("WARN: can't index file %s. Probably decompiler is not properly setup.", vf.getPath()));
-                return null;
-            }
+        return buildFileStub(fileContent.getProject(), fileContent.getFile());
+    }
+
+    /**
+     * Returns stubs of the compiled unit or null if it can't be decompiled
+     */
+    @Nullable
+    static PsiFileStub<?> buildFileStub(Project project, VirtualFile file) {
+        CharSequence text;
+        try {
+            text = decompile(project, file);
+        } catch (PascalException e) {
+            LOG.info(String.format("WARN: can't index file %s: %s. Probably decompiler is not properly setup.", file.getPath(), e.getMessage()));
+            return null;
+        }
+        return text != null ? buildStubTree(project, text) : null;
+    }
+
+    @Nullable
+    private static CharSequence decompile(Project project, VirtualFile file) throws PascalException {
+        FileType fileType = file.getFileType();
+        if (fileType == PPUFileType.INSTANCE) {
+            return PPUFileDecompiler.decompileText(project, file);
+        } else if (fileType == DCUFileType.INSTANCE) {
+            return DCUFileDecompiler.decompileText(project, file);
+        }
+        return null;
+    }
+
+    /**
+     * Parses the text into light AST and builds stub tree from it. Thread safe.
+     */
+    @NotNull
+    static PsiFileStub<?> buildStubTree(Project project, @NotNull CharSequence text) {
+        PsiBuilder builder = PsiBuilderFactory.getInstance().createBuilder(PARSER_DEFINITION, PARSER_DEFINITION.createLexer(project), text);
+        ((LightPsiParser) PARSER_DEFINITION.createParser(project)).parseLight(PARSER_DEFINITION.getFileNodeType(), builder);
+        LighterAST tree = new FCTSBackedLighterAST(new CharTableImpl(), builder.getLightTree());
+        PsiFileStubImpl<?> root = new PsiFileStubImpl<>(null);
+        new TreeStubBuilder().build(tree, root);
+        return root;
+    }
+
+    private static class TreeStubBuilder extends LightStubBuilder {
+        private void build(LighterAST tree, PsiFileStubImpl<?> root) {
+            LighterASTNode rootNode = tree.getRoot();
+            buildStubTree(tree, rootNode, root);
         }
     }
 
@@ -0,0 +1,128 @@
+package com.siberika.idea.pascal.lang.parser;
+
+import com.intellij.lang.ASTFactory;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.Language;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiBuilderFactory;
+import com.intellij.lang.parser.GeneratedParserUtilBase;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.IReparseableElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.siberika.idea.pascal.PascalLanguage;
+import com.siberika.idea.pascal.lang.lexer.PascalLexer;
+import com.siberika.idea.pascal.lang.psi.PasTypes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Element type of begin..end compound statements.
+ * A compound statement is parsed lazily and reparsed alone when edited if it's lexically balanced and can't contain stubbed elements.
+ * Blocks with compiler directives are always parsed with the file as the lexer state of conditional compilation is not known for a block.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class PasCompoundStatementElementType extends IReparseableElementType {
+
+    private static final TokenSet OPENERS = TokenSet.create(PasTypes.BEGIN, PasTypes.TRY, PasTypes.CASE, PasTypes.ASM);
+    // Tokens which may start declarations (stubbed elements) or indicate that block boundaries are wrong
+    private static final TokenSet NOT_LAZY = TokenSet.create(PasTypes.VAR, PasTypes.CONST, PasTypes.TYPE,
+            PasTypes.PROCEDURE, PasTypes.FUNCTION, PasTypes.CONSTRUCTOR, PasTypes.DESTRUCTOR, PasTypes.OPERATOR,
+            PasTypes.RECORD, PasTypes.OBJECT, PasTypes.CLASS, PasTypes.INTERFACE, PasTypes.DISPINTERFACE,
+            PasTypes.UNIT, PasTypes.PROGRAM, PasTypes.LIBRARY, PasTypes.IMPLEMENTATION, PasTypes.INITIALIZATION, PasTypes.FINALIZATION,
+            TokenType.BAD_CHARACTER);
+
+    public PasCompoundStatementElementType(String debugName) {
+        super(debugName, PascalLanguage.INSTANCE);
+    }
+
+    @Override
+    public ASTNode createNode(CharSequence text) {
+        return ASTFactory.lazy(this, text);
+    }
+
+    @Override
+    protected ASTNode doParseContents(@NotNull ASTNode chameleon, @NotNull PsiElement psi) {
+        Project project = psi.getProject();
+        PsiBuilder builder = PsiBuilderFactory.getInstance().createBuilder(project, chameleon, null, getLanguage(), chameleon.getChars());
+        builder = GeneratedParserUtilBase.adapt_builder_(this, builder, new PascalParser(), PascalParser.EXTENDS_SETS_);
+        PsiBuilder.Marker root = GeneratedParserUtilBase.enter_section_(builder, 0, GeneratedParserUtilBase._COLLAPSE_, null);
+        boolean result = PascalParser.CompoundStatement(builder, 1);
+        if (!builder.eof()) {
+            PsiBuilder.Marker rest = builder.mark();
+            while (!builder.eof()) {
+                builder.advanceLexer();
+            }
+            rest.error("Unexpected tokens after end");
+        }
+        GeneratedParserUtilBase.exit_section_(builder, 0, root, this, result, true, GeneratedParserUtilBase.TRUE_CONDITION);
+        return builder.getTreeBuilt().getFirstChildNode();
+    }
+
+    @Override
+    public boolean isParsable(CharSequence buffer, Language fileLanguage, Project project) {
+        return isLazyBlock(new PascalLexer.ParsingPascalLexer(project, null), buffer);
+    }
+
+    /**
+     * Returns true if the text is a single balanced begin..end block which can be parsed separately from its file
+     */
+    static boolean isLazyBlock(@NotNull Lexer lexer, @NotNull CharSequence text) {
+        if (hasDirectives(text, 0, text.length())) {
+            return false;
+        }
+        lexer.start(text);
+        int depth = 0;
+        boolean first = true;
+        for (IElementType type; (type = lexer.getTokenType()) != null; lexer.advance()) {
+            if ((type == TokenType.WHITE_SPACE) || PascalLexer.COMMENTS.contains(type)) {
+                continue;
+            }
+            if (first ? type != PasTypes.BEGIN : depth == 0) {
+                return false;
+            }
+            first = false;
+            if (NOT_LAZY.contains(type)) {
+                return false;
+            }
+            depth += getDepthDelta(type);
+        }
+        return !first && (depth == 0);
+    }
+
+    /**
+     * Advances builder positioned at BEGIN to the token after the matching END.
+     * Returns false if the block can't be parsed lazily. Builder position is undefined in this case and should be rolled back.
+     */
+    static boolean skipLazyBlock(@NotNull PsiBuilder builder) {
+        int start = builder.getCurrentOffset();
+        int depth = 0;
+        do {
+            IElementType type = builder.getTokenType();
+            if ((null == type) || NOT_LAZY.contains(type)) {
+                return false;
+            }
+            depth += getDepthDelta(type);
+            builder.advanceLexer();
+        } while (depth > 0);
+        return !hasDirectives(builder.getOriginalText(), start, builder.getCurrentOffset());
+    }
+
+    private static int getDepthDelta(IElementType type) {
+        if (OPENERS.contains(type)) {
+            return 1;
+        } else if (type == PasTypes.END) {
+            return -1;
+        }
+        return 0;
+    }
+
+    private static boolean hasDirectives(CharSequence text, int start, int end) {
+        CharSequence block = text.subSequence(start, end);
+        return StringUtil.contains(block, "{$") || StringUtil.contains(block, "(*$");
+    }
+}
@@ -1,14 +1,15 @@
 package com.siberika.idea.pascal.lang.parser;
 
 import com.intellij.psi.stubs.PsiFileStub;
-import com.intellij.psi.tree.IStubFileElementType;
+import com.intellij.psi.tree.ILightStubFileElementType;
 import com.siberika.idea.pascal.PascalLanguage;
 
 /**
+ * Stubs are built from light AST during indexing so PSI is not created for indexed files.
  * Author: George Bakhtadze
  * Date: 27/10/2015
  */
-public class PascalFileElementType extends IStubFileElementType<PsiFileStub<PascalFile>> {
+public class PascalFileElementType extends ILightStubFileElementType<PsiFileStub<PascalFile>> {
     public PascalFileElementType(String debugName, PascalLanguage language) {
         super(debugName, language);
     }
@@ -19,7 +20,7 @@ public class PascalFileElementType extends IStubFileElementType<PsiFileStub<Pasc
     }
 
     public static int getStubIndexVersion() {
-        return 86;
+        return 89;
     }
 
 }
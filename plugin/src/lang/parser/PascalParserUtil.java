@@ -33,6 +33,7 @@ import com.siberika.idea.pascal.lang.psi.PasObjectDecl;
 import com.siberika.idea.pascal.lang.psi.PasRecordDecl;
 import com.siberika.idea.pascal.lang.psi.PasRecordHelperDecl;
 import com.siberika.idea.pascal.lang.psi.PasTypeDecl;
+import com.siberika.idea.pascal.lang.psi.PasTypes;
 import com.siberika.idea.pascal.lang.psi.PasVarDeclaration;
 import com.siberika.idea.pascal.lang.psi.PascalIdentDecl;
 import com.siberika.idea.pascal.lang.psi.PascalNamedElement;
@@ -86,6 +87,22 @@ public class PascalParserUtil extends GeneratedParserUtilBase {
         return res;
     }
 
+    /**
+     * Collapses a begin..end block into a lazy parseable compound statement if possible
+     */
+    public static boolean parseLazyCompoundStatement(PsiBuilder builder_, int level) {
+        if (builder_.getTokenType() != PasTypes.BEGIN) {
+            return false;
+        }
+        PsiBuilder.Marker marker = builder_.mark();
+        if (PasCompoundStatementElementType.skipLazyBlock(builder_)) {
+            marker.collapse(PasTypes.COMPOUND_STATEMENT);
+            return true;
+        }
+        marker.rollbackTo();
+        return false;
+    }
+
     private static boolean isSameAffectingScope(PsiElement innerSection, PsiElement outerSection) {
         for (int i = 0; i < 4; i++) {
             if (innerSection == outerSection) {
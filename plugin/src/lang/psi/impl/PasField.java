@@ -79,6 +79,11 @@ public class PasField {
 
     private static final ValueType NOT_INITIALIZED = new ValueType(null, null, null, null);
 
+    // Checks if the type is the builtin Variant type
+    public static boolean isVariant(@Nullable ValueType type) {
+        return (type != null) && (type.kind == Kind.VARIANT) && (null == type.declaration);
+    }
+
     public static boolean isAllowed(Visibility check, Visibility minAllowed) {
         return check.compareTo(minAllowed) >= 0;
     }
@@ -244,7 +249,7 @@ public class PasField {
     }
 
     public static class ValueType {
-        // referenced type field (TRefType in type TValueType = TRefType)
+        // referenced type field (TRefType in type TValueType = TRefType), null in types shared between fields
         public PasField field;
         // additional information about type
         public Kind kind;
@@ -260,6 +265,18 @@ public class PasField {
             this.declaration = declaration != null ? SmartPointerManager.getInstance(declaration.getProject()).createSmartPsiElementPointer(declaration) : null;
         }
 
+        ValueType(SmartPsiElementPointer<PsiElement> declaration, PasField field, Kind kind, ValueType baseType) {
+            this.field = field;
+            this.kind = kind;
+            this.baseType = baseType;
+            this.declaration = declaration;
+        }
+
+        // Returns copy of the type bound to the field. The copy shares base type and declaration with this type.
+        ValueType bind(PasField field) {
+            return new ValueType(declaration, field, kind, baseType);
+        }
+
         @Override
         public String toString() {
             return String.format("%s: %s (%s)", field != null ? field.name : "<anon>",
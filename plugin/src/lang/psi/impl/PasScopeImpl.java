@@ -18,6 +18,7 @@ import com.siberika.idea.pascal.lang.psi.PascalNamedElement;
 import com.siberika.idea.pascal.lang.references.PasReferenceUtil;
 import com.siberika.idea.pascal.lang.references.ResolveContext;
 import com.siberika.idea.pascal.util.ModuleUtil;
+import com.siberika.idea.pascal.util.PerfStats;
 import com.siberika.idea.pascal.util.PsiUtil;
 import com.siberika.idea.pascal.util.SyncUtil;
 import org.jetbrains.annotations.Nullable;
@@ -99,7 +100,9 @@ public abstract class PasScopeImpl extends PascalNamedElementImpl implements Pas
         Cached members = cache.getIfPresent(getKey());
         if ((members != null) && (getStamp(getContainingFile()) != members.stamp)) {
             invalidateCaches(getKey());
+            members = null;
         }
+        PerfStats.cacheAccess(this, members != null);
     }
 
     void invalidateCaches(String key) {
@@ -26,6 +26,7 @@ import com.siberika.idea.pascal.lang.stub.PasIdentStubImpl;
 import com.siberika.idea.pascal.lang.stub.PasNamedStub;
 import com.siberika.idea.pascal.lang.stub.struct.PasStructStub;
 import com.siberika.idea.pascal.util.ModuleUtil;
+import com.siberika.idea.pascal.util.PerfStats;
 import com.siberika.idea.pascal.util.PsiUtil;
 import com.siberika.idea.pascal.util.SyncUtil;
 import org.jetbrains.annotations.Nullable;
@@ -156,7 +157,9 @@ public abstract class PasStubScopeImpl<B extends PasNamedStub> extends PascalNam
         Cached members = cache.getIfPresent(getKey());
         if ((members != null) && (getStamp(getContainingFile()) != members.stamp)) {
             invalidateCaches();
+            members = null;
         }
+        PerfStats.cacheAccess(this, members != null);
     }
 
     @Override
@@ -68,6 +68,10 @@ public class PascalExpression extends ASTWrapperPsiElement implements PascalPsiE
     }
 
     public static List<PasField.ValueType> getTypes(PascalExpression expr) {
+        return TypeInferenceCache.getTypes(expr);
+    }
+
+    static List<PasField.ValueType> calcTypes(PascalExpression expr) {
         List<PasField.ValueType> res;
 
         if (expr instanceof PasReferenceExpr) {
@@ -110,7 +114,7 @@ public class PascalExpression extends ASTWrapperPsiElement implements PascalPsiE
         if (!references.isEmpty()) {
             PasField field = references.iterator().next();
             PasReferenceUtil.retrieveFieldTypeScope(field, new ResolveContext(field.owner, PasField.TYPES_TYPE, true, null, context.unitNamespaces));
-            return field.getValueType();
+            return field.getValueType() != null ? field.getValueType().bind(field) : null;
         }
         return null;
     }
@@ -150,6 +154,10 @@ public class PascalExpression extends ASTWrapperPsiElement implements PascalPsiE
     }
 
     public static String infereType(PasExpr expression) {
+        return TypeInferenceCache.infereType(expression);
+    }
+
+    static String calcType(PasExpr expression) {
         return doInfereType(expression, false);
     }
 
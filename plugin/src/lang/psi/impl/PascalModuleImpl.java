@@ -14,6 +14,7 @@ import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.SmartList;
 import com.intellij.util.containers.SmartHashSet;
+import com.siberika.idea.pascal.ide.actions.SectionToggle;
 import com.siberika.idea.pascal.lang.context.ContextUtil;
 import com.siberika.idea.pascal.lang.parser.NamespaceRec;
 import com.siberika.idea.pascal.lang.parser.PascalParserUtil;
@@ -56,10 +57,12 @@ public abstract class PascalModuleImpl extends PasStubScopeImpl<PasModuleStub> i
     private static final Cache<String, Members> privateCache = CacheBuilder.newBuilder().softValues().build();
     private static final Cache<String, Members> publicCache = CacheBuilder.newBuilder().softValues().build();
     private static final Cache<String, Idents> identCache = CacheBuilder.newBuilder().softValues().build();
+    private static final Cache<String, RoutineMap> routineCache = CacheBuilder.newBuilder().softValues().build();
 
     private final Callable<? extends Members> PRIVATE_BUILDER = this.new PrivateBuilder();
     private final Callable<? extends Members> PUBLIC_BUILDER = this.new PublicBuilder();
     private final Callable<Idents> IDENTS_BUILDER = this.new IdentsBuilder();
+    private final Callable<RoutineMap> ROUTINES_BUILDER = this.new RoutinesBuilder();
 
     private Set<String> usedUnitsPublic = null;
     private Set<String> usedUnitsPrivate = null;
@@ -259,6 +262,28 @@ public abstract class PascalModuleImpl extends PasStubScopeImpl<PasModuleStub> i
         }
     }
 
+    /**
+     * Returns declaration/implementation mapping of routines of the unit or null if the unit is stub based
+     */
+    @Nullable
+    public RoutineMap getRoutineMap() {
+        if (retrieveStub() != null) {
+            return null;
+        }
+        ensureChache(routineCache);
+        try {
+            return routineCache.get(getKey(), ROUTINES_BUILDER);
+        } catch (Exception e) {
+            if (e.getCause() instanceof ProcessCanceledException) {
+                throw (ProcessCanceledException) e.getCause();
+            } else {
+                LOG.warn("Error occured during building routine map for: " + this, e.getCause());
+            }
+            invalidateCaches();
+            return null;
+        }
+    }
+
     @Override
     public Pair<List<PascalNamedElement>, List<PascalNamedElement>> getIdentsFrom(@Nullable String module, boolean includeInterface, List<String> unitPrefixes) {
         Idents idents = getIdents(identCache, IDENTS_BUILDER);
@@ -378,6 +403,7 @@ public abstract class PascalModuleImpl extends PasStubScopeImpl<PasModuleStub> i
         privateCache.invalidate(key);
         publicCache.invalidate(key);
         identCache.invalidate(key);
+        routineCache.invalidate(key);
     }
 
     private static class Idents extends Cached {
@@ -407,6 +433,16 @@ public abstract class PascalModuleImpl extends PasStubScopeImpl<PasModuleStub> i
         }
     }
 
+    private class RoutinesBuilder implements Callable<RoutineMap> {
+        @Override
+        public RoutineMap call() throws Exception {
+            RoutineMap res = SectionToggle.buildRoutineMap(PascalModuleImpl.this);
+            res.stamp = getStamp(getContainingFile());
+            LOG.debug(String.format("Unit %s routines: %d", getName(), res.size()));
+            return res;
+        }
+    }
+
     private class PrivateBuilder implements Callable<UnitMembers> {
         @Override
         public UnitMembers call() throws Exception {
@@ -315,7 +315,7 @@ public abstract class PascalRoutineImpl extends PasScopeImpl implements PascalRo
         if ((scope != null) && (scope.getParent() instanceof PasTypeDecl)) {
             PasField field = new PasField(this, scope, BUILTIN_SELF, PasField.FieldType.PSEUDO_VARIABLE, PasField.Visibility.STRICT_PRIVATE);
             PasTypeDecl typeDecl = (PasTypeDecl) scope.getParent();
-            field.setValueType(new PasField.ValueType(field, PasField.Kind.STRUCT, null, typeDecl));
+            field.setValueType(ValueTypeInterner.intern(PasField.Kind.STRUCT, null, typeDecl));
             res.all.put(BUILTIN_SELF.toUpperCase(), field);
         }
     }
@@ -0,0 +1,58 @@
+package com.siberika.idea.pascal.lang.psi.impl;
+
+import com.intellij.psi.PsiElement;
+import com.siberika.idea.pascal.lang.psi.PascalRoutine;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Declaration to implementation and implementation to declaration mapping of routines and methods of a unit.
+ * Targets are resolved for all routines of a unit in one pass and cached by PascalModuleImpl until the unit's file is modified.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class RoutineMap extends PasStubScopeImpl.Cached {
+
+    private final Map<PascalRoutine, PsiElement> strictTargets = new HashMap<PascalRoutine, PsiElement>();
+    private final Map<PascalRoutine, PsiElement> targets = new HashMap<PascalRoutine, PsiElement>();
+    private final Map<String, PascalRoutine> firstImplementations = new HashMap<String, PascalRoutine>();
+
+    /**
+     * Adds a routine with its counterpart found in strict and non-strict mode. Targets may be null.
+     */
+    public void put(@NotNull PascalRoutine routine, @Nullable PsiElement strictTarget, @Nullable PsiElement target) {
+        strictTargets.put(routine, strictTarget);
+        targets.put(routine, target);
+    }
+
+    public boolean contains(@NotNull PascalRoutine routine) {
+        return strictTargets.containsKey(routine);
+    }
+
+    @Nullable
+    public PsiElement getTarget(@NotNull PascalRoutine routine, boolean strict) {
+        return strict ? strictTargets.get(routine) : targets.get(routine);
+    }
+
+    /**
+     * Adds implementation of a method of a structured type with the specified namespace. Implementations should be added in text order.
+     */
+    public void addImplementation(@NotNull String namespace, @NotNull PascalRoutine implementation) {
+        firstImplementations.putIfAbsent(namespace.toUpperCase(), implementation);
+    }
+
+    /**
+     * Returns the first in text order implementation of a method of a structured type with the specified namespace
+     */
+    @Nullable
+    public PascalRoutine getFirstImplementation(@NotNull String namespace) {
+        return firstImplementations.get(namespace.toUpperCase());
+    }
+
+    public int size() {
+        return strictTargets.size();
+    }
+}
@@ -142,7 +142,7 @@ public class RoutineUtil {
         return res.toString();
     }
 
-    static List<String> parseTypeParametersStr(String typeParamText) {
+    public static List<String> parseTypeParametersStr(String typeParamText) {
         List<String> result;
         if (typeParamText != null && typeParamText.length() > 1) {
             result = Arrays.asList(typeParamText.substring(1, typeParamText.length()-1).replaceAll("\\s*:\\s*\\w+", "").split("[,;]\\s*", 100));
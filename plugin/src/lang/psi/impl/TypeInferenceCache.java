@@ -0,0 +1,128 @@
+package com.siberika.idea.pascal.lang.psi.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.SmartList;
+import com.siberika.idea.pascal.lang.psi.PasExpr;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Memoizing type inference engine for expressions.
+ * Value types of expression nodes are cached per file and are valid until next PSI modification.
+ * Nested expressions share results of their subexpressions. Reentrant calculation for an expression
+ * which is already being calculated in the current thread is treated as a cycle and yields an empty result
+ * instead of deep recursion.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class TypeInferenceCache {
+
+    private static final String NO_TYPE = "#";
+
+    private static final Cache<PsiFile, FileTypes> cache = CacheBuilder.newBuilder().weakKeys().softValues().build();
+
+    private static final ThreadLocal<InferenceState> STATE = new ThreadLocal<InferenceState>() {
+        @Override
+        protected InferenceState initialValue() {
+            return new InferenceState();
+        }
+    };
+
+    /**
+     * Returns types chain of the expression. The returned list is a copy and can be modified by caller.
+     */
+    @NotNull
+    public static List<PasField.ValueType> getTypes(@NotNull PascalExpression expr) {
+        FileTypes types = getFileTypes(expr);
+        List<PasField.ValueType> res = null == types ? PascalExpression.calcTypes(expr)
+                : compute(expr, types.types, PascalExpression::calcTypes, Collections.<PasField.ValueType>emptyList());
+        return new SmartList<PasField.ValueType>(res);
+    }
+
+    /**
+     * Returns inferred type name of the expression or null if the type can not be inferred
+     */
+    @Nullable
+    public static String infereType(@NotNull PasExpr expr) {
+        FileTypes types = getFileTypes(expr);
+        if (null == types) {
+            return PascalExpression.calcType(expr);
+        }
+        String res = compute(expr, types.inferred, element -> {
+            String type = PascalExpression.calcType(element);
+            return type != null ? type : NO_TYPE;
+        }, NO_TYPE);
+        return res != NO_TYPE ? res : null;
+    }
+
+    public static void invalidate(@NotNull PsiFile file) {
+        cache.invalidate(file);
+    }
+
+    private static <E extends PsiElement, T> T compute(E element, ConcurrentMap<PsiElement, T> map, Function<? super E, T> calc, T cycleValue) {
+        T res = map.get(element);
+        if (res != null) {
+            return res;
+        }
+        InferenceState state = STATE.get();
+        if (!state.inProgress.add(element)) {
+            state.cycles++;
+            return cycleValue;
+        }
+        int cycles = state.cycles;
+        try {
+            res = calc.apply(element);
+        } finally {
+            state.inProgress.remove(element);
+        }
+        if (state.cycles == cycles) {                      // results depending on a cycle are not cached
+            map.putIfAbsent(element, res);
+        }
+        if (state.inProgress.isEmpty()) {
+            state.cycles = 0;
+        }
+        return res;
+    }
+
+    @Nullable
+    private static FileTypes getFileTypes(PsiElement expr) {
+        PsiFile file = expr.getContainingFile();
+        if (null == file) {
+            return null;
+        }
+        long stamp = PsiModificationTracker.SERVICE.getInstance(file.getProject()).getModificationCount();
+        FileTypes types = cache.getIfPresent(file);
+        if ((null == types) || (types.stamp != stamp)) {
+            types = new FileTypes(stamp);
+            cache.put(file, types);
+        }
+        return types;
+    }
+
+    private static class FileTypes {
+        private final long stamp;
+        private final ConcurrentMap<PsiElement, List<PasField.ValueType>> types = new ConcurrentHashMap<PsiElement, List<PasField.ValueType>>();
+        private final ConcurrentMap<PsiElement, String> inferred = new ConcurrentHashMap<PsiElement, String>();
+
+        private FileTypes(long stamp) {
+            this.stamp = stamp;
+        }
+    }
+
+    private static class InferenceState {
+        private final Set<PsiElement> inProgress = Collections.newSetFromMap(new IdentityHashMap<PsiElement, Boolean>());
+        private int cycles;
+    }
+}
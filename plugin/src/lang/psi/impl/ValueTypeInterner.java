@@ -0,0 +1,156 @@
+package com.siberika.idea.pascal.lang.psi.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.SmartPointerManager;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Interns value types so that the same type reached from many declarations is represented by a single instance.
+ * Value types are keyed by kind, base type and declaration element and are valid until next PSI modification.
+ * Interned value types are shared by all fields of the same type so they are not bound to a field and must never be modified.
+ * Types bound to a type field (e.g. base type TBase of array of TBase bound to the field of TBase) are interned by type and field.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class ValueTypeInterner {
+
+    private static final Cache<Project, Interned> cache = CacheBuilder.newBuilder().weakKeys().build();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    @NotNull
+    public static PasField.ValueType intern(@Nullable PasField.Kind kind, @Nullable PasField.ValueType baseType, @Nullable PsiElement declaration) {
+        if ((null == declaration) || !declaration.isValid()) {
+            return new PasField.ValueType(null, kind, baseType, declaration);
+        }
+        Project project = declaration.getProject();
+        Interned interned = getInterned(project);
+        Key key = new Key(kind, baseType, declaration);
+        PasField.ValueType res = interned.types.get(key);
+        if (res != null) {
+            hits.incrementAndGet();
+            return res;
+        }
+        misses.incrementAndGet();
+        SmartPsiElementPointer<PsiElement> pointer = interned.pointers.computeIfAbsent(declaration,
+                el -> SmartPointerManager.getInstance(project).createSmartPsiElementPointer(el));
+        res = new PasField.ValueType(pointer, null, kind, baseType);
+        PasField.ValueType existing = interned.types.putIfAbsent(key, res);
+        return existing != null ? existing : res;
+    }
+
+    /**
+     * Returns interned copy of the type bound to the field
+     */
+    @Nullable
+    public static PasField.ValueType bind(@Nullable PasField.ValueType type, @NotNull PasField field) {
+        if (null == type) {
+            return null;
+        }
+        PsiElement element = field.getElement();
+        if ((null == element) || !element.isValid()) {
+            return type.bind(field);
+        }
+        Interned interned = getInterned(element.getProject());
+        BoundKey key = new BoundKey(type, field);
+        PasField.ValueType res = interned.bound.get(key);
+        if (res != null) {
+            hits.incrementAndGet();
+            return res;
+        }
+        misses.incrementAndGet();
+        res = type.bind(field);
+        PasField.ValueType existing = interned.bound.putIfAbsent(key, res);
+        return existing != null ? existing : res;
+    }
+
+    public static String getStats() {
+        return String.format("Value types interned: %d hits, %d misses", hits.get(), misses.get());
+    }
+
+    private static Interned getInterned(Project project) {
+        long stamp = PsiModificationTracker.SERVICE.getInstance(project).getModificationCount();
+        Interned interned = cache.getIfPresent(project);
+        if ((null == interned) || (interned.stamp != stamp)) {
+            interned = new Interned(stamp);
+            cache.put(project, interned);
+        }
+        return interned;
+    }
+
+    private static class Interned {
+        private final long stamp;
+        private final ConcurrentMap<Key, PasField.ValueType> types = new ConcurrentHashMap<Key, PasField.ValueType>();
+        private final ConcurrentMap<BoundKey, PasField.ValueType> bound = new ConcurrentHashMap<BoundKey, PasField.ValueType>();
+        private final ConcurrentMap<PsiElement, SmartPsiElementPointer<PsiElement>> pointers = new ConcurrentHashMap<PsiElement, SmartPsiElementPointer<PsiElement>>();
+
+        private Interned(long stamp) {
+            this.stamp = stamp;
+        }
+    }
+
+    private static class Key {
+        private final PasField.Kind kind;
+        private final PasField.ValueType baseType;          // base types are interned so compared by identity
+        private final PsiElement declaration;
+        private final int hash;
+
+        private Key(PasField.Kind kind, PasField.ValueType baseType, PsiElement declaration) {
+            this.kind = kind;
+            this.baseType = baseType;
+            this.declaration = declaration;
+            this.hash = Objects.hash(kind, System.identityHashCode(baseType), declaration);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return (hash == key.hash) && (kind == key.kind) && (baseType == key.baseType)
+                    && Objects.equals(declaration, key.declaration);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class BoundKey {
+        private final PasField.ValueType type;              // compared by identity
+        private final PasField field;
+        private final int hash;
+
+        private BoundKey(PasField.ValueType type, PasField field) {
+            this.type = type;
+            this.field = field;
+            this.hash = 31 * System.identityHashCode(type) + field.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            BoundKey key = (BoundKey) o;
+            return (hash == key.hash) && (type == key.type) && field.equals(key.field);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
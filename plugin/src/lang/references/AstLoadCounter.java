@@ -0,0 +1,49 @@
+package com.siberika.idea.pascal.lang.references;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.impl.PsiManagerEx;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Diagnostic counter of AST loads triggered by resolution.
+ * Library and compiled units should be resolved via stubs only so the counter allows to catch regressions in tests.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class AstLoadCounter {
+
+    private static final Logger LOG = Logger.getInstance(AstLoadCounter.class);
+
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    public static void registerLoad(@Nullable VirtualFile file) {
+        COUNT.incrementAndGet();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(String.format("AST loaded for %s", file != null ? file.getPath() : "<unknown>"));
+        }
+    }
+
+    public static int getCount() {
+        return COUNT.get();
+    }
+
+    public static void reset() {
+        COUNT.set(0);
+    }
+
+    /**
+     * Additionally counts all AST loads of files of the project until the disposable is disposed
+     */
+    public static void watch(@NotNull Project project, @NotNull Disposable parentDisposable) {
+        PsiManagerEx.getInstanceEx(project).setAssertOnFileLoadingFilter(file -> {
+            registerLoad(file);
+            return false;
+        }, parentDisposable);
+    }
+}
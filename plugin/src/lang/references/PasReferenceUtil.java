@@ -56,8 +56,10 @@ import com.siberika.idea.pascal.lang.psi.impl.PasTypeIDImpl;
 import com.siberika.idea.pascal.lang.psi.impl.PasVariantScope;
 import com.siberika.idea.pascal.lang.psi.impl.PascalExpression;
 import com.siberika.idea.pascal.lang.psi.impl.PascalModuleImpl;
+import com.siberika.idea.pascal.lang.psi.impl.ValueTypeInterner;
 import com.siberika.idea.pascal.sdk.BuiltinsParser;
 import com.siberika.idea.pascal.util.ModuleUtil;
+import com.siberika.idea.pascal.util.PerfStats;
 import com.siberika.idea.pascal.util.PsiUtil;
 import com.siberika.idea.pascal.util.SyncUtil;
 import org.apache.commons.lang.StringUtils;
@@ -94,7 +96,7 @@ public class PasReferenceUtil {
         VirtualFile file = findUnitFile(unitFiles, moduleName);
         if (file != null) {
             PsiFile pascalFile = PsiManager.getInstance(project).findFile(file);
-            PascalModule pasModule = PsiTreeUtil.findChildOfType(pascalFile, PascalModule.class);
+            PascalModule pasModule = PsiUtil.getFileModule(pascalFile);
             if (pasModule != null) {
                 return pasModule;
             } else {
@@ -200,7 +202,7 @@ public class PasReferenceUtil {
             if ((element != null) && PsiUtil.isTypeDeclPointingToSelf(element)) {
                 res = PasField.getValueType(element.getName());
                 if (null == res) {
-                    res = new PasField.ValueType(null, PasField.Kind.VARIANT, null, ((PasTypeDeclaration) element.getParent()).getTypeDecl());
+                    res = ValueTypeInterner.intern(PasField.Kind.VARIANT, null, ((PasTypeDeclaration) element.getParent()).getTypeDecl());
                 }
             } else {
                 res = retrieveAnonymousType(PsiUtil.getTypeDeclaration(element), includeLibrary, recursionCount);
@@ -209,9 +211,6 @@ public class PasReferenceUtil {
         if (typeId != null) {
             res = resolveTypeId(typeId, includeLibrary, recursionCount);
         }
-        if (res != null) {
-            res.field = field;
-        }
         return res;
     }
 
@@ -245,7 +244,7 @@ public class PasReferenceUtil {
             if (ResolveUtil.isStubPowered(el)) {
                 return ResolveUtil.resolveTypeWithStub((PascalStubElement) el, new ResolveContext(type.owner, PasField.TYPES_TYPE, context.includeLibrary, null, context.unitNamespaces), recursionCount);
             }
-            return resolveFieldType(type, includeLibrary, ++recursionCount);          // resolve next type in chain
+            return ValueTypeInterner.bind(resolveFieldType(type, includeLibrary, ++recursionCount), type);          // resolve next type in chain
         }
         return null;
     }
@@ -283,7 +282,7 @@ public class PasReferenceUtil {
                 kind = PasField.Kind.SUBRANGE;
             }
         }
-        return new PasField.ValueType(null, kind, baseType, decl);
+        return ValueTypeInterner.intern(kind, baseType, decl);
     }
 
     @Nullable
@@ -293,6 +292,15 @@ public class PasReferenceUtil {
 
     @Nullable
     static PasEntityScope retrieveFieldTypeScope(@NotNull PasField field, ResolveContext context, int recursionCount) {
+        long start = PerfStats.start();
+        try {
+            return doRetrieveFieldTypeScope(field, context, recursionCount);
+        } finally {
+            PerfStats.stop(PerfStats.FIELD_TYPE_SCOPE, start);
+        }
+    }
+
+    private static PasEntityScope doRetrieveFieldTypeScope(@NotNull PasField field, ResolveContext context, int recursionCount) {
         if (ResolveUtil.isStubPowered(field.owner)) {
             return ResolveUtil.retrieveFieldTypeScope(field, context, recursionCount);
         }
@@ -301,7 +309,7 @@ public class PasReferenceUtil {
                 if (!field.isTypeResolved()) {
                     field.setValueType(resolveFieldType(field, true, recursionCount));
                 }
-                if (field.getValueType() == PasField.VARIANT) {
+                if (PasField.isVariant(field.getValueType())) {
                     return new PasVariantScope(field.getElement());
                 }
                 return field.getValueType() != null ? field.getValueType().getTypeScope() : null;
@@ -362,6 +370,16 @@ public class PasReferenceUtil {
      *  for namespace of target entry add all its entities
      */
     public static Collection<PasField> resolve(final NamespaceRec fqn, ResolveContext context, final int recursionCount) {
+        long start = PerfStats.start();
+        try {
+            return doResolve(fqn, context, recursionCount);
+        } finally {
+            PerfStats.stop(PerfStats.RESOLVE, start);
+            PerfStats.record(PerfStats.RECURSION_DEPTH, recursionCount);
+        }
+    }
+
+    private static Collection<PasField> doResolve(final NamespaceRec fqn, ResolveContext context, final int recursionCount) {
         ProgressManager.checkCanceled();
         if (recursionCount > MAX_RECURSION_COUNT) {
             throw new PascalRTException("Too much recursion during resolving identifier: " + fqn.getParentIdent());
@@ -377,12 +395,14 @@ public class PasReferenceUtil {
             if (context.scope instanceof PascalStubElement) {
                 StubElement stub = ((PascalStubElement) context.scope).retrieveStub();
                 if (stub != null) {
+                    PerfStats.count(PerfStats.RESOLVE_STUB);
                     return ResolveUtil.resolveWithStubs(fqn, context, recursionCount);
                 }
             }
         } else {
             context.scope = PsiUtil.getNearestAffectingScope(fqn.getParentIdent());
         }
+        PerfStats.count(PerfStats.RESOLVE_PSI);
 
         // First entry in FQN
         List<PasEntityScope> namespaces = new SmartList<PasEntityScope>();
@@ -402,6 +422,9 @@ public class PasReferenceUtil {
                 PasField field = null;
                 // Scan namespaces and get one matching field
                 for (PasEntityScope namespace : namespaces) {
+                    if (isBuiltinsSkipped(namespace, fqn)) {
+                        continue;
+                    }
                     Collection<PasField> fields = resolveFromStub(fqn, namespace, context, recursionCount);
                     if ((fields != null) && (!fields.isEmpty())) {
                         result.addAll(fields);
@@ -460,6 +483,9 @@ public class PasReferenceUtil {
                         LOG.info(String.format("===*** null namespace! %s", fqn));
                         continue;
                     }
+                    if (isBuiltinsSkipped(namespace, fqn)) {
+                        continue;
+                    }
                     Collection<PasField> fields = resolveFromStub(fqn, namespace, context, recursionCount);
                     if ((fields != null) && (!fields.isEmpty())) {
                         result.addAll(fields);
@@ -499,7 +525,8 @@ public class PasReferenceUtil {
         if (unitNamespace != null) {
             namespaces.clear();
             namespaces.add(unitNamespace);
-            if (PascalParserUtil.UNIT_NAME_SYSTEM.equalsIgnoreCase(unitNamespace.getName())) {
+            if (PascalParserUtil.UNIT_NAME_SYSTEM.equalsIgnoreCase(unitNamespace.getName())
+                    && (isCollectingAll(fqn) || BuiltinsParser.isBuiltin(unitNamespace.getProject(), fqn.getCurrentName()))) {
                 namespaces.add(BuiltinsParser.getBuiltinsModule(unitNamespace.getProject()));
             }
             removeFirstOnlyTypes(fieldTypes);
@@ -599,6 +626,15 @@ public class PasReferenceUtil {
         return "".equals(fqn.getCurrentName());
     }
 
+    /**
+     * Returns true if the namespace is builtins module and the current name is not declared there according to builtins table
+     * so members of the module need not be retrieved
+     */
+    public static boolean isBuiltinsSkipped(@NotNull PasEntityScope namespace, @NotNull NamespaceRec fqn) {
+        return (namespace instanceof PascalModule) && !isCollectingAll(fqn) && PsiUtil.isFromBuiltinsUnit(namespace)
+                && !BuiltinsParser.isBuiltin(namespace.getProject(), fqn.getCurrentName());
+    }
+
     static boolean isFieldTypeMatches(PasField field, NamespaceRec fqn, Set<PasField.FieldType> fieldTypes) {
         return !fqn.isTarget() || fieldTypes.contains(field.fieldType);
     }
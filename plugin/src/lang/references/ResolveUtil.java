@@ -50,12 +50,14 @@ import com.siberika.idea.pascal.lang.psi.impl.PasFileTypeImpl;
 import com.siberika.idea.pascal.lang.psi.impl.PasSubRangeTypeImpl;
 import com.siberika.idea.pascal.lang.psi.impl.PasVariantScope;
 import com.siberika.idea.pascal.lang.psi.impl.PascalExpression;
+import com.siberika.idea.pascal.lang.psi.impl.ValueTypeInterner;
 import com.siberika.idea.pascal.lang.stub.PasExportedRoutineStub;
 import com.siberika.idea.pascal.lang.stub.PasIdentStub;
 import com.siberika.idea.pascal.lang.stub.PasModuleStub;
 import com.siberika.idea.pascal.lang.stub.PascalModuleIndex;
 import com.siberika.idea.pascal.sdk.BuiltinsParser;
 import com.siberika.idea.pascal.util.ModuleUtil;
+import com.siberika.idea.pascal.util.PerfStats;
 import com.siberika.idea.pascal.util.PsiUtil;
 import com.siberika.idea.pascal.util.SyncUtil;
 import org.jetbrains.annotations.NotNull;
@@ -184,12 +186,11 @@ public class ResolveUtil {
                     if ((el instanceof PascalStubElement) && (((PascalStubElement) el).retrieveStub() != null)) {
                         PasField.ValueType valueType = resolveTypeWithStub((PascalStubElement) el, context, recursionCount);
                         if (valueType != null) {
-                            valueType.field = field;
                             field.setValueType(valueType);
                         }
                     }
                 }
-                if (field.getValueType() == PasField.VARIANT) {
+                if (PasField.isVariant(field.getValueType())) {
                     return new PasVariantScope(field.getElement());
                 }
                 return field.getValueType() != null ? field.getValueType().getTypeScopeStub() : null;
@@ -233,7 +234,7 @@ public class ResolveUtil {
         String type = element.getTypeString();
         if ((type != null) && KINDS_FOLLOW_TYPE.contains(element.getTypeKind())) {
             if (type.equalsIgnoreCase(element.getName())) {                                               // Pointing to self
-                return new PasField.ValueType(null, PasField.Kind.TYPEREF, null, element);
+                return ValueTypeInterner.intern(PasField.Kind.TYPEREF, null, element);
             }
             return resolveTypeForStub(type, element, typeResolveContext, recursionCount);
         } else if (element.getTypeKind() == PasField.Kind.STRUCT) {
@@ -259,7 +260,7 @@ public class ResolveUtil {
             PascalNamedElement st = struct.getElement();
             if (st instanceof PasEntityScope) {
 //                LOG.info("===*** resolved value type " + type + " to a structure via stubs");
-                return new PasField.ValueType(null, PasField.Kind.STRUCT, null, st);
+                return ValueTypeInterner.intern(PasField.Kind.STRUCT, null, st);
             }
         }
         return null;
@@ -272,6 +273,15 @@ public class ResolveUtil {
      *  for namespace of target entry add all its entities
      */
     public static Collection<PasField> resolveWithStubs(final NamespaceRec fqn, ResolveContext context, final int recursionCount) {
+        long start = PerfStats.start();
+        try {
+            return doResolveWithStubs(fqn, context, recursionCount);
+        } finally {
+            PerfStats.stop(PerfStats.RESOLVE_WITH_STUBS, start);
+        }
+    }
+
+    private static Collection<PasField> doResolveWithStubs(final NamespaceRec fqn, ResolveContext context, final int recursionCount) {
         assert(context.scope instanceof PascalStubElement);
         assert(context.unitNamespaces != null);
         StubElement stub = ((PascalStubElement) context.scope).retrieveStub();
@@ -304,6 +314,9 @@ public class ResolveUtil {
                 PasField field = null;
                 // Scan namespaces and get one matching field
                 for (PasEntityScope namespace : namespaces) {
+                    if (PasReferenceUtil.isBuiltinsSkipped(namespace, fqn)) {
+                        continue;
+                    }
                     field = namespace.getField(fqn.getCurrentName());        // TODO: optimize?
                     if (field != null) {
                         break;
@@ -354,6 +367,9 @@ public class ResolveUtil {
                         LOG.info(String.format("===*** null namespace! %s", fqn));
                         continue;
                     }
+                    if (PasReferenceUtil.isBuiltinsSkipped(namespace, fqn)) {
+                        continue;
+                    }
                     findLastPart(result, fqn, namespace, fieldTypes, context, ResolveUtil::isVisibleWithinUnit);
                     if (!result.isEmpty() && !PasReferenceUtil.isCollectingAll(fqn)) {
                         break;
@@ -0,0 +1,214 @@
+package com.siberika.idea.pascal.lang.references;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.siberika.idea.pascal.PascalFileType;
+import com.siberika.idea.pascal.lang.parser.PascalParserUtil;
+import com.siberika.idea.pascal.lang.psi.PasEntityScope;
+import com.siberika.idea.pascal.lang.psi.PascalModule;
+import com.siberika.idea.pascal.lang.psi.impl.PasField;
+import com.siberika.idea.pascal.module.PascalModuleType;
+import com.siberika.idea.pascal.util.ModuleUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Background task which pre-builds resolver caches after project indexing is finished.
+ * Units are ranked by the number of uses clauses of project files they appear in. Members of the most used units and of structured
+ * types declared in their interface sections are collected along with parent scopes of the types so the first completion or
+ * highlighting pass in a session doesn't have to build them.
+ * Units are ranked and warmed up per module as units are resolved within module scope. Only Pascal modules are processed.
+ * Uses clauses are collected in small batches and each unit is processed in a separate read action. Read actions give way to
+ * write actions and are restarted after them. The task is cancellable and stops when dumb mode starts.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class ResolverWarmUp extends Task.Backgroundable {
+
+    private static final Logger LOG = Logger.getInstance(ResolverWarmUp.class);
+
+    public static final String ENABLED_PROPERTY = "pascal.resolver.warmup";
+    static final int MAX_UNITS = 20;
+    private static final int BATCH_SIZE = 50;
+    static final List<String> ALWAYS_UNITS = Collections.unmodifiableList(concat(PascalParserUtil.EXPLICIT_UNITS, "SysUtils", "Classes"));
+
+    ResolverWarmUp(@NotNull Project project) {
+        super(project, "Preparing Pascal resolver caches", true);
+    }
+
+    /**
+     * Schedules the warm-up to run when the project is in smart mode
+     */
+    public static void schedule(@NotNull final Project project) {
+        if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")) || ApplicationManager.getApplication().isUnitTestMode()) {
+            return;
+        }
+        DumbService.getInstance(project).runWhenSmart(() -> {
+            if (!project.isDisposed()) {
+                ProgressManager.getInstance().run(new ResolverWarmUp(project));
+            }
+        });
+    }
+
+    @Override
+    public void run(@NotNull ProgressIndicator indicator) {
+        final Project project = getProject();
+        if (!ModuleUtil.hasPascalModules(project)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        indicator.setIndeterminate(false);
+        indicator.setText2("Ranking used units");
+        Map<Module, List<Collection<String>>> moduleUses = collectUses(project, indicator);
+        Set<PascalModule> warmedUp = new HashSet<PascalModule>();
+        int moduleCount = 0;
+        for (Map.Entry<Module, List<Collection<String>>> entry : moduleUses.entrySet()) {
+            final Module module = entry.getKey();
+            List<String> units = rankUnits(entry.getValue(), MAX_UNITS);
+            int count = 0;
+            for (final String unitName : units) {
+                checkCanceled(project, indicator);
+                indicator.setText2(unitName);
+                indicator.setFraction((moduleCount + (double) count++ / units.size()) / moduleUses.size());
+                try {
+                    runReadAction(project, indicator, () -> warmUpUnit(project, module, unitName, warmedUp));
+                } catch (ProcessCanceledException e) {
+                    throw e;
+                } catch (Exception e) {
+                    LOG.info("Error warming up unit " + unitName, e);
+                }
+            }
+            moduleCount++;
+        }
+        LOG.info(String.format("Warmed up %d units of %d modules in %d ms", warmedUp.size(), moduleUses.size(), System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Returns names of units which appear in most of the uses clause lists, preceded by ALWAYS_UNITS
+     */
+    @NotNull
+    static List<String> rankUnits(@NotNull Collection<? extends Collection<String>> usesLists, int limit) {
+        final Map<String, Integer> counts = new HashMap<String, Integer>();
+        Map<String, String> names = new LinkedHashMap<String, String>();
+        for (Collection<String> uses : usesLists) {
+            for (String name : uses) {
+                String key = name.toUpperCase();
+                counts.merge(key, 1, Integer::sum);
+                names.putIfAbsent(key, name);
+            }
+        }
+        List<String> keys = new ArrayList<String>(names.keySet());
+        Collections.sort(keys, (k1, k2) -> counts.get(k2) - counts.get(k1));
+        Map<String, String> res = new LinkedHashMap<String, String>();
+        for (String name : ALWAYS_UNITS) {
+            res.put(name.toUpperCase(), name);
+        }
+        for (int i = 0; (i < keys.size()) && (i < limit); i++) {
+            res.putIfAbsent(keys.get(i), names.get(keys.get(i)));
+        }
+        return new ArrayList<String>(res.values());
+    }
+
+    // Uses clause lists of project files grouped by module. Files are processed in batches each in a separate read action.
+    private static Map<Module, List<Collection<String>>> collectUses(final Project project, ProgressIndicator indicator) {
+        final Map<Module, List<Collection<String>>> res = new LinkedHashMap<Module, List<Collection<String>>>();
+        final List<VirtualFile> files = new ArrayList<VirtualFile>();
+        runReadAction(project, indicator, () -> files.addAll(FileBasedIndex.getInstance().getContainingFiles(FileTypeIndex.NAME,
+                PascalFileType.INSTANCE, GlobalSearchScope.projectScope(project))));
+        final PsiManager psiManager = PsiManager.getInstance(project);
+        for (int i = 0; i < files.size(); i += BATCH_SIZE) {
+            checkCanceled(project, indicator);
+            final List<VirtualFile> batch = files.subList(i, Math.min(i + BATCH_SIZE, files.size()));
+            // Results of a batch are added only after its read action completed as the action is restarted after write actions
+            final Map<Module, List<Collection<String>>> batchRes = new LinkedHashMap<Module, List<Collection<String>>>();
+            runReadAction(project, indicator, () -> {
+                batchRes.clear();
+                for (VirtualFile file : batch) {
+                    ProgressManager.checkCanceled();
+                    PsiFile psiFile = file.isValid() ? psiManager.findFile(file) : null;
+                    // Stub based module doesn't require loading AST
+                    PascalModule pascalModule = psiFile != null ? PsiTreeUtil.getStubChildOfType(psiFile, PascalModule.class) : null;
+                    Module module = pascalModule != null ? ModuleUtilCore.findModuleForFile(file, project) : null;
+                    if (PascalModuleType.isPascalModule(module)) {
+                        List<String> uses = new ArrayList<String>(pascalModule.getUsedUnitsPublic());
+                        uses.addAll(pascalModule.getUsedUnitsPrivate());
+                        batchRes.computeIfAbsent(module, m -> new ArrayList<Collection<String>>()).add(uses);
+                    }
+                }
+            });
+            for (Map.Entry<Module, List<Collection<String>>> entry : batchRes.entrySet()) {
+                res.computeIfAbsent(entry.getKey(), m -> new ArrayList<Collection<String>>()).addAll(entry.getValue());
+            }
+        }
+        return res;
+    }
+
+    // Units are resolved within scope of the module. Units already warmed up for another module are skipped.
+    private static void warmUpUnit(Project project, Module module, String unitName, Set<PascalModule> warmedUp) {
+        for (PascalModule unit : ResolveUtil.findUnitsWithStub(project, module, unitName)) {
+            ProgressManager.checkCanceled();
+            if (warmedUp.contains(unit)) {
+                continue;
+            }
+            unit.getPublicUnits();
+            ResolveContext context = new ResolveContext(unit, PasField.TYPES_TYPE, true, null, null);
+            for (PasField field : unit.getAllFields()) {
+                ProgressManager.checkCanceled();
+                if (field.fieldType == PasField.FieldType.TYPE) {
+                    PasEntityScope scope = PasReferenceUtil.retrieveFieldTypeScope(field, context);
+                    if (scope != null) {
+                        scope.getAllFields();
+                        scope.getParentScope();
+                    }
+                }
+            }
+            warmedUp.add(unit);
+        }
+    }
+
+    // Runs the action in a read action which is cancelled by write actions and restarted after them so the warm-up doesn't block typing
+    private static void runReadAction(Project project, ProgressIndicator indicator, Runnable action) {
+        while (!ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(action, indicator)) {
+            checkCanceled(project, indicator);
+            ProgressIndicatorUtils.yieldToPendingWriteActions();
+        }
+    }
+
+    private static void checkCanceled(Project project, ProgressIndicator indicator) {
+        indicator.checkCanceled();
+        if (project.isDisposed() || DumbService.isDumb(project)) {
+            throw new ProcessCanceledException();
+        }
+    }
+
+    private static List<String> concat(Collection<String> names, String... more) {
+        List<String> res = new ArrayList<String>(names);
+        Collections.addAll(res, more);
+        return res;
+    }
+}
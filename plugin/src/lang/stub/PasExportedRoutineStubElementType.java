@@ -16,7 +16,6 @@ import kotlin.reflect.jvm.internal.impl.utils.SmartList;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -27,6 +26,12 @@ public class PasExportedRoutineStubElementType extends ILightStubElementType<Pas
 
     public static PasExportedRoutineStubElementType INSTANCE;
 
+    private static final int FLAG_CONSTRUCTOR = 4;
+    private static final int FLAG_FUNCTION = 8;
+
+    private static final PasField.Visibility[] VISIBILITIES = PasField.Visibility.values();
+    private static final ParamModifier[] PARAM_MODIFIERS = ParamModifier.values();
+
     public PasExportedRoutineStubElementType(String debugName) {
         super(debugName, PascalLanguage.INSTANCE);
         INSTANCE = this;
@@ -34,8 +39,15 @@ public class PasExportedRoutineStubElementType extends ILightStubElementType<Pas
 
     @Override
     public PasExportedRoutineStub createStub(LighterAST tree, LighterASTNode node, StubElement parentStub) {
-        return new PasExportedRoutineStubImpl(parentStub, "-", PasField.Visibility.PUBLIC, false,
-                "", false, false, "--", null, Collections.emptyList(), null);
+        boolean constructor = PascalLightStubUtil.isConstructor(tree, node);
+        List<String> parameterNames = new SmartList<>();
+        List<String> parameterTypes = new SmartList<>();
+        List<ParamModifier> parameterAccess = new SmartList<>();
+        PascalLightStubUtil.calcFormalParameters(tree, node, parameterNames, parameterTypes, parameterAccess);
+        return new PasExportedRoutineStubImpl(parentStub, PascalLightStubUtil.getName(tree, node), PasField.Visibility.PUBLIC,
+                PascalLightStubUtil.isRoutineExported(tree, node), PascalLightStubUtil.getContainingUnitName(parentStub),
+                constructor, PascalLightStubUtil.isFunction(tree, node), PascalLightStubUtil.getFunctionTypeStr(tree, node, constructor),
+                parameterNames, parameterTypes, parameterAccess);
     }
 
     @Override
@@ -61,12 +73,12 @@ public class PasExportedRoutineStubElementType extends ILightStubElementType<Pas
     public void serialize(@NotNull PasExportedRoutineStub stub, @NotNull StubOutputStream dataStream) throws IOException {
         StubUtil.printStub("PasExpRoutineStub.serialize", stub);
 
+        int flags = StubUtil.calcUnitNameFlag(stub) | (stub.isExported() ? StubUtil.FLAG_EXPORTED : 0)
+                | (stub.isConstructor() ? FLAG_CONSTRUCTOR : 0) | (stub.isFunction() ? FLAG_FUNCTION : 0);
         dataStream.writeName(stub.getName());
-        dataStream.writeName(stub.getVisibility().name());
-        dataStream.writeBoolean(stub.isExported());
-        dataStream.writeName(stub.getContainingUnitName());
-        dataStream.writeBoolean(stub.isConstructor());
-        dataStream.writeBoolean(stub.isFunction());
+        dataStream.writeByte(flags);
+        StubUtil.writeEnum(dataStream, stub.getVisibility());
+        StubUtil.writeUnitName(dataStream, stub, flags);
         dataStream.writeName(stub.getFunctionTypeStr());
         StubUtil.writeStringCollection(dataStream, stub.getFormalParameterNames());
         StubUtil.writeStringCollection(dataStream, stub.getFormalParameterTypes());
@@ -77,18 +89,19 @@ public class PasExportedRoutineStubElementType extends ILightStubElementType<Pas
     @Override
     public PasExportedRoutineStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
         String name = StubUtil.readName(dataStream);
-        PasField.Visibility visibility = StubUtil.readEnum(dataStream, PasField.Visibility.class);
-        boolean exported = dataStream.readBoolean();
-        String containingUnitName = StubUtil.readName(dataStream);
-        boolean constructor = dataStream.readBoolean();
-        boolean function = dataStream.readBoolean();
+        int flags = dataStream.readUnsignedByte();
+        PasField.Visibility visibility = StubUtil.readEnum(dataStream, VISIBILITIES);
+        boolean exported = (flags & StubUtil.FLAG_EXPORTED) != 0;
+        String containingUnitName = StubUtil.readUnitName(dataStream, parentStub, flags);
+        boolean constructor = (flags & FLAG_CONSTRUCTOR) != 0;
+        boolean function = (flags & FLAG_FUNCTION) != 0;
         String typeStr = StubUtil.readName(dataStream);
         List<String> parameterNames = new SmartList<>();
         StubUtil.readStringCollection(dataStream, parameterNames);
         List<String> parameterTypes = new SmartList<>();
         StubUtil.readStringCollection(dataStream, parameterTypes);
         List<ParamModifier> parameterAccess = new SmartList<>();
-        StubUtil.readEnumCollection(dataStream, parameterAccess, ParamModifier.values());
+        StubUtil.readEnumCollection(dataStream, parameterAccess, PARAM_MODIFIERS);
         return new PasExportedRoutineStubImpl(parentStub, name, visibility, exported, containingUnitName, constructor, function,
                 typeStr, parameterNames, parameterTypes, parameterAccess);
     }
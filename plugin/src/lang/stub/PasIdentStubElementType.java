@@ -2,6 +2,7 @@ package com.siberika.idea.pascal.lang.stub;
 
 import com.intellij.lang.LighterAST;
 import com.intellij.lang.LighterASTNode;
+import com.intellij.openapi.util.Pair;
 import com.intellij.psi.stubs.ILightStubElementType;
 import com.intellij.psi.stubs.IndexSink;
 import com.intellij.psi.stubs.StubElement;
@@ -15,13 +16,16 @@ import com.siberika.idea.pascal.lang.psi.impl.PascalIdentDeclImpl;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
-import java.util.Collections;
 import java.util.List;
 
 public class PasIdentStubElementType extends ILightStubElementType<PasIdentStub, PascalIdentDecl> {
 
     public static PasIdentStubElementType INSTANCE;
 
+    private static final PasField.FieldType[] FIELD_TYPES = PasField.FieldType.values();
+    private static final PasField.Kind[] KINDS = PasField.Kind.values();
+    private static final PasField.Access[] ACCESSES = PasField.Access.values();
+
     public PasIdentStubElementType(String debugName) {
         super(debugName, PascalLanguage.INSTANCE);
         INSTANCE = this;
@@ -29,8 +33,14 @@ public class PasIdentStubElementType extends ILightStubElementType<PasIdentStub,
 
     @Override
     public PasIdentStub createStub(LighterAST tree, LighterASTNode node, StubElement parentStub) {
-        return new PasIdentStubImpl(parentStub, "-", false, ".", PasField.FieldType.VARIABLE, null, null,
-                PasField.Access.READWRITE, null, Collections.emptyList());
+        PasField.FieldType type = PascalLightStubUtil.getIdentFieldType(tree, node);
+        Pair<String, PasField.Kind> typeInfo = PascalLightStubUtil.retrieveDeclarationType(tree, node);
+        String typeString = typeInfo != null ? typeInfo.first : null;
+        PasField.Kind kind = typeInfo != null ? typeInfo.second : null;
+        return new PasIdentStubImpl(parentStub, PascalLightStubUtil.getName(tree, node), PascalLightStubUtil.isIdentExported(tree, node),
+                PascalLightStubUtil.getContainingUnitName(parentStub), type, typeString, kind,
+                PascalLightStubUtil.getIdentAccess(tree, node, type, typeString), PascalLightStubUtil.getIdentValue(tree, node),
+                PascalLightStubUtil.getIdentSubMembers(tree, node, kind));
     }
 
     @Override
@@ -55,13 +65,14 @@ public class PasIdentStubElementType extends ILightStubElementType<PasIdentStub,
     public void serialize(@NotNull PasIdentStub stub, @NotNull StubOutputStream dataStream) throws IOException {
         StubUtil.printStub("PasIdentStub.serialize", stub);
 
+        int flags = StubUtil.calcUnitNameFlag(stub) | (stub.isExported() ? StubUtil.FLAG_EXPORTED : 0);
         dataStream.writeName(stub.getName());
-        dataStream.writeBoolean(stub.isExported());
-        dataStream.writeName(stub.getContainingUnitName());
-        dataStream.writeName(stub.getType().name());
+        dataStream.writeByte(flags);
+        StubUtil.writeUnitName(dataStream, stub, flags);
+        StubUtil.writeEnum(dataStream, stub.getType());
         dataStream.writeName(stub.getTypeString());
-        dataStream.writeName(stub.getTypeKind() != null ? stub.getTypeKind().name() : StubUtil.ENUM_NULL);
-        dataStream.writeName(stub.getAccess().name());
+        StubUtil.writeEnum(dataStream, stub.getTypeKind());
+        StubUtil.writeEnum(dataStream, stub.getAccess());
         dataStream.writeName(stub.getValue());
         StubUtil.writeStringCollection(dataStream, stub.getSubMembers());
     }
@@ -70,12 +81,13 @@ public class PasIdentStubElementType extends ILightStubElementType<PasIdentStub,
     @Override
     public PasIdentStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
         String name = StubUtil.readName(dataStream);
-        boolean exported = dataStream.readBoolean();
-        String containingUnitName = StubUtil.readName(dataStream);
-        PasField.FieldType type = StubUtil.readEnum(dataStream, PasField.FieldType.class);
+        int flags = dataStream.readUnsignedByte();
+        boolean exported = (flags & StubUtil.FLAG_EXPORTED) != 0;
+        String containingUnitName = StubUtil.readUnitName(dataStream, parentStub, flags);
+        PasField.FieldType type = StubUtil.readEnum(dataStream, FIELD_TYPES);
         String typeString = StubUtil.readName(dataStream);
-        PasField.Kind kind = StubUtil.readEnum(dataStream, PasField.Kind.class);
-        PasField.Access access = StubUtil.readEnum(dataStream, PasField.Access.class);
+        PasField.Kind kind = StubUtil.readEnum(dataStream, KINDS);
+        PasField.Access access = StubUtil.readEnum(dataStream, ACCESSES);
         String value = StubUtil.readName(dataStream);
         List<String> subMembers = new SmartList<>();
         StubUtil.readStringCollection(dataStream, subMembers);
@@ -14,7 +14,6 @@ import com.siberika.idea.pascal.lang.psi.impl.PasModuleImpl;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
-import java.util.Collections;
 import java.util.Set;
 
 /**
@@ -25,6 +24,8 @@ public class PasModuleStubElementType extends ILightStubElementType<PasModuleStu
 
     public static PasModuleStubElementType INSTANCE;
 
+    private static final PascalModule.ModuleType[] MODULE_TYPES = PascalModule.ModuleType.values();
+
     public PasModuleStubElementType(String debugName) {
         super(debugName, PascalLanguage.INSTANCE);
         INSTANCE = this;
@@ -32,7 +33,8 @@ public class PasModuleStubElementType extends ILightStubElementType<PasModuleStu
 
     @Override
     public PasModuleStub createStub(LighterAST tree, LighterASTNode node, StubElement parentStub) {
-        return new PasModuleStubImpl(parentStub, "-", null, Collections.emptySet(), Collections.emptySet());
+        return new PasModuleStubImpl(parentStub, PascalLightStubUtil.getName(tree, node), PascalLightStubUtil.getModuleType(tree, node),
+                PascalLightStubUtil.getUsedUnitsPublic(tree, node), PascalLightStubUtil.getUsedUnitsPrivate(tree, node));
     }
 
     @Override
@@ -57,7 +59,7 @@ public class PasModuleStubElementType extends ILightStubElementType<PasModuleStu
         StubUtil.printStub("PasModuleStub.serialize", stub);
 
         dataStream.writeName(stub.getName());
-        dataStream.writeName(stub.getModuleType().name());
+        StubUtil.writeEnum(dataStream, stub.getModuleType());
         StubUtil.writeStringCollection(dataStream, stub.getUsedUnitsPublic());
         StubUtil.writeStringCollection(dataStream, stub.getUsedUnitsPrivate());
     }
@@ -66,7 +68,7 @@ public class PasModuleStubElementType extends ILightStubElementType<PasModuleStu
     @Override
     public PasModuleStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
         String name = StubUtil.readName(dataStream);
-        PascalModule.ModuleType type = StubUtil.readEnum(dataStream, PascalModule.ModuleType.class);
+        PascalModule.ModuleType type = StubUtil.readEnum(dataStream, MODULE_TYPES);
         Set<String> usedUnitsPublic = new SmartHashSet<>();
         StubUtil.readStringCollection(dataStream, usedUnitsPublic);
         Set<String> usedUnitsPrivate = new SmartHashSet<>();
@@ -0,0 +1,557 @@
+package com.siberika.idea.pascal.lang.stub;
+
+import com.intellij.lang.LighterAST;
+import com.intellij.lang.LighterASTNode;
+import com.intellij.openapi.util.Pair;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.impl.source.tree.LightTreeUtil;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.util.SmartList;
+import com.intellij.util.containers.SmartHashSet;
+import com.siberika.idea.pascal.lang.lexer.PascalLexer;
+import com.siberika.idea.pascal.lang.psi.PasTypes;
+import com.siberika.idea.pascal.lang.psi.PascalModule;
+import com.siberika.idea.pascal.lang.psi.PascalNamedElement;
+import com.siberika.idea.pascal.lang.psi.field.ParamModifier;
+import com.siberika.idea.pascal.lang.psi.impl.PasField;
+import com.siberika.idea.pascal.lang.psi.impl.RoutineUtil;
+import com.siberika.idea.pascal.lang.references.ResolveUtil;
+import org.apache.commons.lang.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Calculates stub data from light AST without PSI creation.
+ * Each method mirrors the corresponding PSI based calculation and must produce exactly the same result
+ * as stubs built from PSI and from light AST are interchangeable.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class PascalLightStubUtil {
+
+    private static final TokenSet QUALIFIED_IDENTS = TokenSet.create(PasTypes.NAMESPACE_IDENT, PasTypes.FULLY_QUALIFIED_IDENT,
+            PasTypes.CLASS_QUALIFIED_IDENT, PasTypes.IN_OPERATOR_QUALIFIED_IDENT);
+
+    // Element types which PSI implements PascalNamedElement
+    private static final TokenSet NAMED_ELEMENTS = TokenSet.orSet(QUALIFIED_IDENTS, TokenSet.create(
+            PasTypes.NAMED_IDENT, PasTypes.NAMED_IDENT_DECL, PasTypes.GENERIC_TYPE_IDENT, PasTypes.REF_NAMED_IDENT, PasTypes.SUB_IDENT,
+            PasTypes.OPERATOR_SUB_IDENT, PasTypes.KEYWORD_IDENT, PasTypes.ESCAPED_IDENT,
+            PasTypes.UNIT_MODULE_HEAD, PasTypes.LIBRARY_MODULE_HEAD, PasTypes.PACKAGE_MODULE_HEAD, PasTypes.PROGRAM_MODULE_HEAD,
+            PasTypes.CLASS_PROPERTY, PasTypes.CONST_DECLARATION));
+
+    public static final TokenSet STRUCT_TYPES = TokenSet.create(PasTypes.CLASS_TYPE_DECL, PasTypes.CLASS_HELPER_DECL,
+            PasTypes.INTERFACE_TYPE_DECL, PasTypes.OBJECT_DECL, PasTypes.RECORD_DECL, PasTypes.RECORD_HELPER_DECL);
+
+    private static final TokenSet VARIABLE_DECLARATIONS = TokenSet.create(PasTypes.VAR_DECLARATION, PasTypes.FORMAL_PARAMETER,
+            PasTypes.CLASS_FIELD, PasTypes.INLINE_VAR_DECLARATION, PasTypes.FOR_INLINE_DECLARATION);
+
+    private static final TokenSet TYPED_DECLARATIONS = TokenSet.orSet(VARIABLE_DECLARATIONS,
+            TokenSet.create(PasTypes.CLASS_PROPERTY, PasTypes.CONST_DECLARATION));
+
+    private static final TokenSet EXPORTABLE_DECLARATIONS = TokenSet.create(PasTypes.VAR_DECLARATION, PasTypes.CONST_DECLARATION,
+            PasTypes.TYPE_DECLARATION, PasTypes.EXPORTS_SECTION);
+
+    private static final TokenSet IDENT_LIST = TokenSet.create(PasTypes.NAMED_IDENT_DECL, PasTypes.NAMED_IDENT);
+
+    private static final TokenSet SCOPES = TokenSet.orSet(STRUCT_TYPES, TokenSet.create(PasTypes.MODULE));
+
+    private static final TokenSet NON_CODE = TokenSet.orSet(PascalLexer.COMMENTS, TokenSet.create(TokenType.WHITE_SPACE));
+
+    private static final TokenSet FUNCTION_KEYWORDS = TokenSet.create(PasTypes.FUNCTION, PasTypes.OPERATOR);
+
+    private static final TokenSet SKIPPED_PARENTS = TokenSet.create(PasTypes.SUB_IDENT, PasTypes.FULLY_QUALIFIED_IDENT,
+            TokenType.ERROR_ELEMENT);
+
+    // ========================= Common =========================
+
+    /**
+     * Returns name of the element in the same way as PascalNamedStubElement.getName() does
+     */
+    @NotNull
+    public static String getName(@NotNull LighterAST tree, @NotNull LighterASTNode node) {
+        LighterASTNode nameNode = getNameNode(tree, node);
+        if (null == nameNode) {
+            return "";
+        } else if (QUALIFIED_IDENTS.contains(nameNode.getTokenType())) {
+            StringBuilder sb = new StringBuilder();
+            for (LighterASTNode subIdent : LightTreeUtil.getChildrenOfType(tree, nameNode, PasTypes.SUB_IDENT)) {
+                if (sb.length() > 0) {
+                    sb.append(".");
+                }
+                sb.append(getName(tree, subIdent));
+            }
+            return sb.toString();
+        } else {
+            return stripAmpersand(getText(tree, nameNode));
+        }
+    }
+
+    /**
+     * Returns name of unit containing the stub being created.
+     * Module stub is always created before any other stub so it can be taken from stub parents chain.
+     */
+    @Nullable
+    public static String getContainingUnitName(@Nullable StubElement parentStub) {
+        return StubUtil.retrieveModuleName(parentStub);
+    }
+
+    // ========================= Module =========================
+
+    @NotNull
+    public static PascalModule.ModuleType getModuleType(@NotNull LighterAST tree, @NotNull LighterASTNode module) {
+        if (LightTreeUtil.firstChildOfType(tree, module, PasTypes.UNIT_MODULE_HEAD) != null) {
+            return PascalModule.ModuleType.UNIT;
+        } else if (LightTreeUtil.firstChildOfType(tree, module, PasTypes.LIBRARY_MODULE_HEAD) != null) {
+            return PascalModule.ModuleType.LIBRARY;
+        } else if (LightTreeUtil.firstChildOfType(tree, module, PasTypes.PACKAGE_MODULE_HEAD) != null) {
+            return PascalModule.ModuleType.PACKAGE;
+        }
+        return PascalModule.ModuleType.PROGRAM;
+    }
+
+    @NotNull
+    public static Set<String> getUsedUnitsPublic(@NotNull LighterAST tree, @NotNull LighterASTNode module) {
+        return getUsedUnits(tree, LightTreeUtil.firstChildOfType(tree, module, PasTypes.UNIT_INTERFACE));
+    }
+
+    @NotNull
+    public static Set<String> getUsedUnitsPrivate(@NotNull LighterAST tree, @NotNull LighterASTNode module) {
+        LighterASTNode section = LightTreeUtil.firstChildOfType(tree, module, PasTypes.UNIT_IMPLEMENTATION);
+        return getUsedUnits(tree, section != null ? section : module);
+    }
+
+    private static Set<String> getUsedUnits(LighterAST tree, LighterASTNode section) {
+        Set<String> result = new SmartHashSet<>();
+        if (section != null) {
+            List<LighterASTNode> usesClauses = new SmartList<>();
+            collectDescendantsOfType(tree, section, PasTypes.USES_CLAUSE, usesClauses);
+            for (LighterASTNode usesClause : usesClauses) {
+                for (LighterASTNode unitName : LightTreeUtil.getChildrenOfType(tree, usesClause, PasTypes.NAMESPACE_IDENT)) {
+                    result.add(getName(tree, unitName));
+                }
+            }
+        }
+        return result;
+    }
+
+    // ========================= Ident =========================
+
+    @NotNull
+    public static PasField.FieldType getIdentFieldType(@NotNull LighterAST tree, @NotNull LighterASTNode ident) {
+        LighterASTNode parent = tree.getParent(ident);
+        LighterASTNode affecting = parent;
+        while ((affecting != null) && SKIPPED_PARENTS.contains(affecting.getTokenType())) {
+            affecting = tree.getParent(affecting);
+        }
+        if (isOfType(affecting, PasTypes.GENERIC_TYPE_IDENT)) {
+            return PasField.FieldType.TYPE;
+        } else if (isOfType(parent, PasTypes.CONST_DECLARATION) || isOfType(parent, PasTypes.ENUM_TYPE)) {
+            return PasField.FieldType.CONSTANT;
+        } else if (isOfType(parent, PasTypes.CLASS_PROPERTY)) {
+            return PasField.FieldType.PROPERTY;
+        }
+        return PasField.FieldType.VARIABLE;
+    }
+
+    public static boolean isIdentExported(@NotNull LighterAST tree, @NotNull LighterASTNode ident) {
+        LighterASTNode parent = tree.getParent(ident);
+        if (isOfType(parent, PasTypes.GENERIC_TYPE_IDENT)) {
+            parent = tree.getParent(parent);
+        }
+        if ((parent != null) && EXPORTABLE_DECLARATIONS.contains(parent.getTokenType())) {
+            LighterASTNode section = tree.getParent(parent);
+            return isOfType(section != null ? tree.getParent(section) : null, PasTypes.UNIT_INTERFACE);
+        }
+        return false;
+    }
+
+    /**
+     * Light AST counterpart of ResolveUtil.retrieveDeclarationType()
+     */
+    @Nullable
+    public static Pair<String, PasField.Kind> retrieveDeclarationType(@NotNull LighterAST tree, @NotNull LighterASTNode ident) {
+        LighterASTNode parent = tree.getParent(ident);
+        LighterASTNode typeDecl = null;
+        LighterASTNode typeId = null;
+        if ((parent != null) && TYPED_DECLARATIONS.contains(parent.getTokenType())) {
+            typeDecl = getNextSiblingOfType(tree, ident, PasTypes.TYPE_DECL);
+            if (null == typeDecl) {
+                typeId = getNextSiblingOfType(tree, ident, PasTypes.TYPE_ID);
+            }
+        } else if (isOfType(parent, PasTypes.GENERIC_TYPE_IDENT)) {
+            typeDecl = getNextSiblingOfType(tree, parent, PasTypes.TYPE_DECL);
+        }
+        return retrieveType(tree, typeDecl, typeId);
+    }
+
+    @NotNull
+    public static PasField.Access getIdentAccess(@NotNull LighterAST tree, @NotNull LighterASTNode ident, PasField.FieldType type, String typeString) {
+        if (type == PasField.FieldType.VARIABLE) {
+            return PasField.Access.READWRITE;
+        } else if (type == PasField.FieldType.CONSTANT) {
+            return StringUtils.isBlank(typeString) ? PasField.Access.READONLY : PasField.Access.READWRITE;
+        } else if (type == PasField.FieldType.PROPERTY) {
+            boolean read = false;
+            boolean write = false;
+            for (LighterASTNode specifier : LightTreeUtil.getChildrenOfType(tree, tree.getParent(ident), PasTypes.CLASS_PROPERTY_SPECIFIER)) {
+                List<LighterASTNode> children = tree.getChildren(specifier);
+                IElementType first = !children.isEmpty() ? children.get(0).getTokenType() : null;
+                if (first == PasTypes.READ) {
+                    read = true;
+                } else if (first == PasTypes.WRITE) {
+                    write = true;
+                }
+            }
+            if (read) {
+                return write ? PasField.Access.READWRITE : PasField.Access.READONLY;
+            }
+            return write ? PasField.Access.WRITEONLY : PasField.Access.READWRITE;
+        }
+        return PasField.Access.READONLY;
+    }
+
+    @Nullable
+    public static String getIdentValue(@NotNull LighterAST tree, @NotNull LighterASTNode ident) {
+        LighterASTNode parent = tree.getParent(ident);
+        if (isOfType(parent, PasTypes.VAR_DECLARATION)) {
+            LighterASTNode varSpec = LightTreeUtil.firstChildOfType(tree, parent, PasTypes.VAR_VALUE_SPEC);
+            return varSpec != null ? getText(tree, varSpec) : null;
+        } else if (isOfType(parent, PasTypes.CONST_DECLARATION)) {
+            LighterASTNode expr = LightTreeUtil.firstChildOfType(tree, parent, PasTypes.CONST_EXPRESSION);
+            return expr != null ? getText(tree, expr) : null;
+        }
+        return null;
+    }
+
+    @NotNull
+    public static List<String> getIdentSubMembers(@NotNull LighterAST tree, @NotNull LighterASTNode ident, PasField.Kind kind) {
+        if (kind != PasField.Kind.ENUM) {
+            return Collections.emptyList();
+        }
+        LighterASTNode decl = getNextSiblingOfType(tree, tree.getParent(ident), PasTypes.TYPE_DECL);
+        LighterASTNode enumDecl = decl != null ? findDescendantOfType(tree, decl, PasTypes.ENUM_TYPE) : null;
+        if (null == enumDecl) {
+            return Collections.emptyList();
+        }
+        List<LighterASTNode> consts = LightTreeUtil.getChildrenOfType(tree, enumDecl, PasTypes.NAMED_IDENT_DECL);
+        List<String> result = new ArrayList<>(consts.size());
+        for (LighterASTNode enumConst : consts) {
+            result.add(getName(tree, enumConst));
+        }
+        return result;
+    }
+
+    // ========================= Routine =========================
+
+    public static boolean isRoutineExported(@NotNull LighterAST tree, @NotNull LighterASTNode routine) {
+        return isOfType(tree.getParent(routine), PasTypes.UNIT_INTERFACE);
+    }
+
+    public static boolean isConstructor(@NotNull LighterAST tree, @NotNull LighterASTNode routine) {
+        List<LighterASTNode> children = getCodeChildren(tree, routine);
+        IElementType first = !children.isEmpty() ? children.get(0).getTokenType() : null;
+        if (first == PasTypes.CONSTRUCTOR) {
+            return true;
+        } else if (first == PasTypes.CLASS) {
+            return (children.size() > 1) && (children.get(1).getTokenType() == PasTypes.CONSTRUCTOR);
+        }
+        return false;
+    }
+
+    public static boolean isFunction(@NotNull LighterAST tree, @NotNull LighterASTNode routine) {
+        return LightTreeUtil.firstChildOfType(tree, routine, FUNCTION_KEYWORDS) != null;
+    }
+
+    @NotNull
+    public static String getFunctionTypeStr(@NotNull LighterAST tree, @NotNull LighterASTNode routine, boolean constructor) {
+        if (constructor) {                                          // Return struct type name
+            LighterASTNode scope = getParentOfType(tree, routine, SCOPES);
+            return scope != null ? RoutineUtil.calcCanonicalTypeName(getScopeName(tree, scope)) : "";
+        }
+        LighterASTNode type = LightTreeUtil.firstChildOfType(tree, routine, PasTypes.TYPE_DECL);
+        LighterASTNode typeId = type != null ? findDescendantOfType(tree, type, PasTypes.TYPE_ID) : null;
+        if (typeId != null) {
+            return getTypeIdName(tree, typeId);
+        }
+        return type != null ? RoutineUtil.calcCanonicalTypeName(getText(tree, type)) : "";
+    }
+
+    /**
+     * Light AST counterpart of RoutineUtil.calcFormalParameterNames()
+     */
+    public static void calcFormalParameters(@NotNull LighterAST tree, @NotNull LighterASTNode routine, List<String> formalParameterNames,
+                                            List<String> formalParameterTypes, List<ParamModifier> formalParameterAccess) {
+        LighterASTNode section = LightTreeUtil.firstChildOfType(tree, routine, PasTypes.FORMAL_PARAMETER_SECTION);
+        if (null == section) {
+            return;
+        }
+        for (LighterASTNode parameter : LightTreeUtil.getChildrenOfType(tree, section, PasTypes.FORMAL_PARAMETER)) {
+            LighterASTNode td = LightTreeUtil.firstChildOfType(tree, parameter, PasTypes.TYPE_DECL);
+            String typeStr = td != null ? getText(tree, td) : "";
+            ParamModifier modifier = calcModifier(tree, LightTreeUtil.firstChildOfType(tree, parameter, PasTypes.PARAM_TYPE));
+            for (LighterASTNode ident : LightTreeUtil.getChildrenOfType(tree, parameter, IDENT_LIST)) {
+                formalParameterNames.add(getName(tree, ident));
+                formalParameterTypes.add(typeStr);
+                formalParameterAccess.add(modifier);
+            }
+        }
+    }
+
+    private static ParamModifier calcModifier(LighterAST tree, LighterASTNode paramType) {
+        if (paramType != null) {
+            String text = getText(tree, paramType).toUpperCase();
+            if ("CONST".equals(text)) {
+                return ParamModifier.CONST;
+            } else if ("VAR".equals(text)) {
+                return ParamModifier.VAR;
+            } else if ("OUT".equals(text)) {
+                return ParamModifier.OUT;
+            } else if ("CONSTREF".equals(text)) {
+                return ParamModifier.CONSTREF;
+            }
+        }
+        return ParamModifier.NONE;
+    }
+
+    // ========================= Structured type =========================
+
+    /**
+     * Light AST counterpart of PasStructDeclStubElementType.calcStubName()
+     */
+    @NotNull
+    public static String calcStructStubName(@NotNull LighterAST tree, @NotNull LighterASTNode struct, @NotNull List<String> aliases) {
+        String name = getStructName(tree, struct);
+        if (!name.isEmpty()) {
+            return name + ResolveUtil.STRUCT_SUFFIX;
+        }
+        LighterASTNode decl = retrieveUpperLevelDecl(tree, struct);
+        IElementType declType = decl != null ? decl.getTokenType() : null;
+        if (declType == PasTypes.TYPE_DECLARATION) {
+            LighterASTNode typeIdent = LightTreeUtil.firstChildOfType(tree, decl, PasTypes.GENERIC_TYPE_IDENT);
+            return typeIdent != null ? getName(tree, typeIdent) : "";
+        } else if (VARIABLE_DECLARATIONS.contains(declType)) {
+            List<LighterASTNode> idents = LightTreeUtil.getChildrenOfType(tree, decl, IDENT_LIST);
+            for (int i = 1; i < idents.size(); i++) {
+                aliases.add(getName(tree, idents.get(i)) + ResolveUtil.STRUCT_SUFFIX);
+            }
+            return !idents.isEmpty() ? getName(tree, idents.get(0)) + ResolveUtil.STRUCT_SUFFIX : "";
+        } else if (declType == PasTypes.CONST_DECLARATION) {
+            LighterASTNode ident = LightTreeUtil.firstChildOfType(tree, decl, PasTypes.NAMED_IDENT_DECL);
+            return (ident != null ? getName(tree, ident) : "") + ResolveUtil.STRUCT_SUFFIX;
+        }
+        return "";
+    }
+
+    @NotNull
+    public static List<String> getStructParentNames(@NotNull LighterAST tree, @NotNull LighterASTNode struct) {
+        LighterASTNode classParent = LightTreeUtil.firstChildOfType(tree, struct, PasTypes.CLASS_PARENT);
+        if (null == classParent) {
+            return Collections.emptyList();
+        }
+        List<String> result = new SmartList<>();
+        for (LighterASTNode typeId : LightTreeUtil.getChildrenOfType(tree, classParent, PasTypes.TYPE_ID)) {
+            result.add(getTypeIdName(tree, typeId));
+        }
+        return result;
+    }
+
+    @NotNull
+    public static List<String> getStructTypeParameters(@NotNull LighterAST tree, @NotNull LighterASTNode struct) {
+        LighterASTNode typeIdent = getStructNameNode(tree, struct);
+        LighterASTNode genericDefinition = typeIdent != null ? LightTreeUtil.firstChildOfType(tree, typeIdent, PasTypes.GENERIC_DEFINITION) : null;
+        return genericDefinition != null ? RoutineUtil.parseTypeParametersStr(getText(tree, genericDefinition)) : Collections.emptyList();
+    }
+
+    private static String getStructName(LighterAST tree, LighterASTNode struct) {
+        LighterASTNode typeIdent = getStructNameNode(tree, struct);
+        return typeIdent != null ? getName(tree, typeIdent) : "";
+    }
+
+    // Name of a structured type is the GenericTypeIdent preceding its TypeDecl
+    private static LighterASTNode getStructNameNode(LighterAST tree, LighterASTNode struct) {
+        LighterASTNode parent = tree.getParent(struct);
+        return parent != null ? getPrevSiblingOfType(tree, parent, PasTypes.GENERIC_TYPE_IDENT) : null;
+    }
+
+    private static LighterASTNode retrieveUpperLevelDecl(LighterAST tree, LighterASTNode node) {
+        LighterASTNode parent = tree.getParent(node);
+        parent = parent != null ? tree.getParent(parent) : null;
+        if (isOfType(parent, PasTypes.ARRAY_TYPE)) {
+            parent = retrieveUpperLevelDecl(tree, parent);
+        }
+        return parent;
+    }
+
+    private static String getScopeName(LighterAST tree, LighterASTNode scope) {
+        return scope.getTokenType() == PasTypes.MODULE ? getName(tree, scope) : getStructName(tree, scope);
+    }
+
+    // ========================= Types =========================
+
+    private static Pair<String, PasField.Kind> retrieveType(LighterAST tree, LighterASTNode typeDecl, LighterASTNode typeId) {
+        if ((null == typeId) && (typeDecl != null)) {
+            typeId = LightTreeUtil.firstChildOfType(tree, typeDecl, PasTypes.TYPE_ID);
+        }
+        if (typeId != null) {
+            return Pair.create(getTypeIdName(tree, typeId), PasField.Kind.TYPEREF);
+        } else if (typeDecl != null) {
+            return retrieveAnonymousType(tree, typeDecl);
+        }
+        return null;
+    }
+
+    private static Pair<String, PasField.Kind> retrieveAnonymousType(LighterAST tree, LighterASTNode typeDecl) {
+        List<LighterASTNode> children = getCodeChildren(tree, typeDecl);
+        if (children.isEmpty()) {
+            return null;
+        }
+        LighterASTNode type = children.get(0);
+        IElementType elementType = type.getTokenType();
+        if (elementType == PasTypes.CLASS_TYPE_TYPE_DECL) {
+            LighterASTNode typeId = LightTreeUtil.firstChildOfType(tree, type, PasTypes.TYPE_ID);
+            return Pair.create(typeId != null ? getTypeIdName(tree, typeId) : null, PasField.Kind.CLASSREF);
+        } else if (STRUCT_TYPES.contains(elementType) || (elementType == PasTypes.FILE_TYPE)) {
+            return Pair.create(null, PasField.Kind.STRUCT);
+        } else if (elementType == PasTypes.ARRAY_TYPE) {
+            Pair<String, PasField.Kind> baseType = retrieveType(tree, LightTreeUtil.firstChildOfType(tree, type, PasTypes.TYPE_DECL), null);
+            if (baseType != null) {
+                return Pair.create(baseType.first, baseType.second != PasField.Kind.STRUCT ? PasField.Kind.ARRAY : PasField.Kind.STRUCT);
+            }
+            return Pair.create(null, PasField.Kind.ARRAY);
+        } else if (elementType == PasTypes.SET_TYPE) {
+            Pair<String, PasField.Kind> baseType = retrieveType(tree, LightTreeUtil.firstChildOfType(tree, type, PasTypes.TYPE_DECL), null);
+            return Pair.create(baseType != null ? baseType.first : null, PasField.Kind.SET);
+        } else if (elementType == PasTypes.POINTER_TYPE) {
+            Pair<String, PasField.Kind> baseType = retrieveType(tree, LightTreeUtil.firstChildOfType(tree, type, PasTypes.TYPE_DECL), null);
+            if (baseType != null) {
+                return Pair.create("^" + baseType.first, baseType.second != PasField.Kind.STRUCT ? PasField.Kind.POINTER : PasField.Kind.STRUCT);
+            }
+            return Pair.create(null, PasField.Kind.POINTER);
+        } else if (elementType == PasTypes.PROCEDURE_TYPE) {
+            Pair<String, PasField.Kind> baseType = retrieveType(tree, LightTreeUtil.firstChildOfType(tree, type, PasTypes.TYPE_DECL), null);
+            return Pair.create(baseType != null ? baseType.first : null, PasField.Kind.PROCEDURE);
+        } else if (elementType == PasTypes.STRING_TYPE) {
+            return Pair.create(getText(tree, type), PasField.Kind.STRING);
+        } else if (elementType == PasTypes.ENUM_TYPE) {
+            return Pair.create(getText(tree, type), PasField.Kind.ENUM);
+        } else if (elementType == PasTypes.SUB_RANGE_TYPE) {
+            return Pair.create(getText(tree, type), PasField.Kind.SUBRANGE);
+        }
+        return null;
+    }
+
+    private static String getTypeIdName(LighterAST tree, LighterASTNode typeId) {
+        LighterASTNode ident = LightTreeUtil.firstChildOfType(tree, typeId, PasTypes.FULLY_QUALIFIED_IDENT);
+        return ident != null ? getName(tree, ident) : "";
+    }
+
+    // ========================= Tree utilities =========================
+
+    // Mirrors PascalNamedStubElement.getNameElement()
+    private static LighterASTNode getNameNode(LighterAST tree, LighterASTNode node) {
+        if (QUALIFIED_IDENTS.contains(node.getTokenType())) {
+            return node;
+        }
+        LighterASTNode result = LightTreeUtil.firstChildOfType(tree, node, PasTypes.NAMESPACE_IDENT);
+        if (null == result) {
+            LighterASTNode namedChild = LightTreeUtil.firstChildOfType(tree, node, NAMED_ELEMENTS);
+            result = namedChild != null ? getNameNode(tree, namedChild) : null;
+        }
+        if (null == result) {
+            result = LightTreeUtil.firstChildOfType(tree, node, PascalNamedElement.NAME_TYPE_SET);
+        }
+        return result;
+    }
+
+    private static String getText(LighterAST tree, LighterASTNode node) {
+        return LightTreeUtil.toFilteredString(tree, node, null);
+    }
+
+    private static String stripAmpersand(String name) {
+        return !name.startsWith("&") ? name : name.substring(1);
+    }
+
+    private static boolean isOfType(@Nullable LighterASTNode node, IElementType type) {
+        return (node != null) && (node.getTokenType() == type);
+    }
+
+    private static List<LighterASTNode> getCodeChildren(LighterAST tree, LighterASTNode node) {
+        List<LighterASTNode> result = new SmartList<>();
+        for (LighterASTNode child : tree.getChildren(node)) {
+            if (!NON_CODE.contains(child.getTokenType())) {
+                result.add(child);
+            }
+        }
+        return result;
+    }
+
+    private static LighterASTNode getNextSiblingOfType(LighterAST tree, LighterASTNode node, IElementType type) {
+        LighterASTNode parent = tree.getParent(node);
+        if (null == parent) {
+            return null;
+        }
+        boolean found = false;
+        for (LighterASTNode sibling : tree.getChildren(parent)) {
+            if (found && (sibling.getTokenType() == type)) {
+                return sibling;
+            }
+            found = found || sibling.equals(node);
+        }
+        return null;
+    }
+
+    private static LighterASTNode getPrevSiblingOfType(LighterAST tree, LighterASTNode node, IElementType type) {
+        LighterASTNode parent = tree.getParent(node);
+        if (null == parent) {
+            return null;
+        }
+        LighterASTNode result = null;
+        for (LighterASTNode sibling : tree.getChildren(parent)) {
+            if (sibling.equals(node)) {
+                return result;
+            }
+            if (sibling.getTokenType() == type) {
+                result = sibling;
+            }
+        }
+        return null;
+    }
+
+    private static LighterASTNode getParentOfType(LighterAST tree, LighterASTNode node, TokenSet types) {
+        LighterASTNode parent = tree.getParent(node);
+        while ((parent != null) && !types.contains(parent.getTokenType())) {
+            parent = tree.getParent(parent);
+        }
+        return parent;
+    }
+
+    private static LighterASTNode findDescendantOfType(LighterAST tree, LighterASTNode node, IElementType type) {
+        for (LighterASTNode child : tree.getChildren(node)) {
+            if (child.getTokenType() == type) {
+                return child;
+            }
+            LighterASTNode result = findDescendantOfType(tree, child, type);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static void collectDescendantsOfType(LighterAST tree, LighterASTNode node, IElementType type, List<LighterASTNode> result) {
+        for (LighterASTNode child : tree.getChildren(node)) {
+            if (child.getTokenType() == type) {
+                result.add(child);
+            }
+            collectDescendantsOfType(tree, child, type, result);
+        }
+    }
+
+}
@@ -7,17 +7,56 @@ import com.intellij.util.io.StringRef;
 import com.siberika.idea.pascal.lang.psi.PasEntityScope;
 import com.siberika.idea.pascal.lang.psi.PascalStubElement;
 import com.siberika.idea.pascal.lang.stub.struct.PasClassDeclStub;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 
 public class StubUtil {
-    public static final String ENUM_NULL = "-";
 
-    public static <T extends Enum<T>> T readEnum(StubInputStream dataStream, Class<T> clazz) throws IOException {
-        String name = readName(dataStream);
-        return (name != null) && !name.equals(ENUM_NULL) ? T.valueOf(clazz, name) : null;
+    // Flags common for all named stubs
+    public static final int FLAG_UNIT_NAME_INHERITED = 1;
+    public static final int FLAG_EXPORTED = 2;
+
+    /**
+     * Writes enum constant as a single byte. Null is written as 0.
+     */
+    public static void writeEnum(StubOutputStream dataStream, @Nullable Enum value) throws IOException {
+        dataStream.writeByte(value != null ? value.ordinal() + 1 : 0);
+    }
+
+    @Nullable
+    public static <T extends Enum<T>> T readEnum(StubInputStream dataStream, T[] values) throws IOException {
+        int ordinal = dataStream.readUnsignedByte();
+        return ordinal > 0 ? values[ordinal - 1] : null;
+    }
+
+    /**
+     * Returns FLAG_UNIT_NAME_INHERITED if the containing unit name is the same as the name of the module stub containing the given stub.
+     * Such unit name is not written to stub stream and is restored from parent stub during deserialization.
+     */
+    public static int calcUnitNameFlag(PasNamedStub stub) {
+        String unitName = stub.getContainingUnitName();
+        return (unitName != null) && unitName.equals(retrieveModuleName(stub.getParentStub())) ? FLAG_UNIT_NAME_INHERITED : 0;
+    }
+
+    public static void writeUnitName(StubOutputStream dataStream, PasNamedStub stub, int flags) throws IOException {
+        if ((flags & FLAG_UNIT_NAME_INHERITED) == 0) {
+            dataStream.writeName(stub.getContainingUnitName());
+        }
+    }
+
+    public static String readUnitName(StubInputStream dataStream, StubElement parentStub, int flags) throws IOException {
+        return (flags & FLAG_UNIT_NAME_INHERITED) != 0 ? retrieveModuleName(parentStub) : readName(dataStream);
+    }
+
+    @Nullable
+    static String retrieveModuleName(StubElement stub) {
+        while ((stub != null) && !(stub instanceof PasModuleStub)) {
+            stub = stub.getParentStub();
+        }
+        return stub != null ? ((PasModuleStub) stub).getName() : null;
     }
 
     public static String readName(StubInputStream dataStream) throws IOException {
@@ -49,14 +88,14 @@ public class StubUtil {
     }
 
     public static void writeStringCollection(StubOutputStream dataStream, Collection<String> collection) throws IOException {
-        dataStream.writeInt(collection.size());
+        dataStream.writeVarInt(collection.size());
         for (String entry : collection) {
             dataStream.writeName(entry);
         }
     }
 
     public static void readStringCollection(StubInputStream dataStream, Collection<String> result) throws IOException {
-        int size = dataStream.readInt();
+        int size = dataStream.readVarInt();
         for (int i = 0; i < size; i++) {
             StringRef ref = dataStream.readName();
             if (ref != null) {
@@ -66,16 +105,16 @@ public class StubUtil {
     }
 
     public static void writeEnumCollection(StubOutputStream dataStream, List<? extends Enum> collection) throws IOException {
-        dataStream.writeInt(collection.size());
+        dataStream.writeVarInt(collection.size());
         for (Enum entry : collection) {
-            dataStream.writeInt(entry.ordinal());
+            writeEnum(dataStream, entry);
         }
     }
 
     public static <T extends Enum<T>> void readEnumCollection(StubInputStream dataStream, List<T> result, T[] values) throws IOException {
-        int size = dataStream.readInt();
+        int size = dataStream.readVarInt();
         for (int i = 0; i < size; i++) {
-            result.add(values[dataStream.readInt()]);
+            result.add(readEnum(dataStream, values));
         }
     }
 
@@ -1,14 +1,11 @@
 package com.siberika.idea.pascal.lang.stub.struct;
 
-import com.intellij.lang.LighterAST;
-import com.intellij.lang.LighterASTNode;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.SmartList;
 import com.siberika.idea.pascal.lang.psi.PascalClassHelperDecl;
 import com.siberika.idea.pascal.lang.psi.impl.PasClassHelperDeclImpl;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collections;
 import java.util.List;
 
 public class PasClassHelperDeclStubElementType extends PasStructDeclStubElementType<PasClassHelperDeclStub, PascalClassHelperDecl> {
@@ -20,11 +17,6 @@ public class PasClassHelperDeclStubElementType extends PasStructDeclStubElementT
         INSTANCE = this;
     }
 
-    @Override
-    public PasClassHelperDeclStub createStub(LighterAST tree, LighterASTNode node, StubElement parentStub) {
-        return new PasClassHelperDeclStubImpl(parentStub, "-", ".", Collections.emptyList(), null, INSTANCE, null);
-    }
-
     @Override
     public PascalClassHelperDecl createPsi(@NotNull PasClassHelperDeclStub stub) {
         return new PasClassHelperDeclImpl(stub, this);
@@ -1,14 +1,11 @@
 package com.siberika.idea.pascal.lang.stub.struct;
 
-import com.intellij.lang.LighterAST;
-import com.intellij.lang.LighterASTNode;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.SmartList;
 import com.siberika.idea.pascal.lang.psi.PascalRecordDecl;
 import com.siberika.idea.pascal.lang.psi.impl.PasRecordDeclImpl;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collections;
 import java.util.List;
 
 public class PasRecordDeclStubElementType extends PasStructDeclStubElementType<PasRecordDeclStub, PascalRecordDecl> {
@@ -20,11 +17,6 @@ public class PasRecordDeclStubElementType extends PasStructDeclStubElementType<P
         INSTANCE = this;
     }
 
-    @Override
-    public PasRecordDeclStub createStub(LighterAST tree, LighterASTNode node, StubElement parentStub) {
-        return new PasRecordDeclStubImpl(parentStub, "-", ".", Collections.emptyList(), null, INSTANCE, null);
-    }
-
     @Override
     public PascalRecordDecl createPsi(@NotNull PasRecordDeclStub stub) {
         return new PasRecordDeclImpl(stub, this);
@@ -1,14 +1,11 @@
 package com.siberika.idea.pascal.lang.stub.struct;
 
-import com.intellij.lang.LighterAST;
-import com.intellij.lang.LighterASTNode;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.SmartList;
 import com.siberika.idea.pascal.lang.psi.PascalRecordHelperDecl;
 import com.siberika.idea.pascal.lang.psi.impl.PasRecordHelperDeclImpl;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collections;
 import java.util.List;
 
 public class PasRecordHelperDeclStubElementType extends PasStructDeclStubElementType<PasRecordHelperDeclStub, PascalRecordHelperDecl> {
@@ -20,11 +17,6 @@ public class PasRecordHelperDeclStubElementType extends PasStructDeclStubElement
         INSTANCE = this;
     }
 
-    @Override
-    public PasRecordHelperDeclStub createStub(LighterAST tree, LighterASTNode node, StubElement parentStub) {
-        return new PasRecordHelperDeclStubImpl(parentStub, "-", ".", Collections.emptyList(), null, INSTANCE, null);
-    }
-
     @Override
     public PascalRecordHelperDecl createPsi(@NotNull PasRecordHelperDeclStub stub) {
         return new PasRecordHelperDeclImpl(stub, this);
@@ -1,5 +1,7 @@
 package com.siberika.idea.pascal.lang.stub.struct;
 
+import com.intellij.lang.LighterAST;
+import com.intellij.lang.LighterASTNode;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.stubs.ILightStubElementType;
@@ -16,6 +18,7 @@ import com.siberika.idea.pascal.lang.psi.PascalNamedElement;
 import com.siberika.idea.pascal.lang.psi.PascalStructType;
 import com.siberika.idea.pascal.lang.psi.PascalVariableDeclaration;
 import com.siberika.idea.pascal.lang.references.ResolveUtil;
+import com.siberika.idea.pascal.lang.stub.PascalLightStubUtil;
 import com.siberika.idea.pascal.lang.stub.PascalStructIndex;
 import com.siberika.idea.pascal.lang.stub.PascalSymbolIndex;
 import com.siberika.idea.pascal.lang.stub.StubUtil;
@@ -34,11 +37,21 @@ public abstract class PasStructDeclStubElementType<StubT extends PasStructStub,
 
     protected abstract StubT createStub(StubElement parentStub, String name, String containingUnitName, List<String> parentNames, List<String> aliases, List<String> typeParameters);
 
+    @Override
+    public StubT createStub(LighterAST tree, LighterASTNode node, StubElement parentStub) {
+        List<String> aliases = new SmartList<>();
+        String stubName = PascalLightStubUtil.calcStructStubName(tree, node, aliases);
+        return createStub(parentStub, stubName, PascalLightStubUtil.getContainingUnitName(parentStub),
+                PascalLightStubUtil.getStructParentNames(tree, node), aliases, PascalLightStubUtil.getStructTypeParameters(tree, node));
+    }
+
     @Override
     public void serialize(@NotNull StubT stub, @NotNull StubOutputStream dataStream) throws IOException {
         StubUtil.printStub("PasStructDeclStub.serialize", stub);
+        int flags = StubUtil.calcUnitNameFlag(stub);
         dataStream.writeName(stub.getName());
-        dataStream.writeName(stub.getContainingUnitName());
+        dataStream.writeByte(flags);
+        StubUtil.writeUnitName(dataStream, stub, flags);
         StubUtil.writeStringCollection(dataStream, stub.getParentNames());
         StubUtil.writeStringCollection(dataStream, stub.getAliases());
         StubUtil.writeStringCollection(dataStream, stub.getTypeParameters());
@@ -48,7 +61,8 @@ public abstract class PasStructDeclStubElementType<StubT extends PasStructStub,
     @Override
     public StubT deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
         String name = StubUtil.readName(dataStream);
-        String containingUnitName = StubUtil.readName(dataStream);
+        int flags = dataStream.readUnsignedByte();
+        String containingUnitName = StubUtil.readUnitName(dataStream, parentStub, flags);
         List<String> parentNames = new SmartList<>();
         StubUtil.readStringCollection(dataStream, parentNames);
         List<String> aliases = new SmartList<>();
@@ -8,7 +8,11 @@ import com.intellij.ide.util.projectWizard.importSources.DetectedSourceRoot;
 import com.intellij.ide.util.projectWizard.importSources.ProjectFromSourcesBuilder;
 import com.intellij.ide.util.projectWizard.importSources.ProjectStructureDetector;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileTypes.FileTypeManager;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.roots.ModifiableRootModel;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.util.containers.SmartHashSet;
@@ -17,11 +21,8 @@ import kotlin.reflect.jvm.internal.impl.utils.SmartList;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
-import java.io.IOException;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -30,45 +31,32 @@ public class PascalProjectStructureDetector extends ProjectStructureDetector {
 
     private static final Logger LOG = Logger.getInstance(PascalProjectStructureDetector.class);
 
+    /**
+     * Scans the whole tree under dir at once with ProjectImportScanner. Children are not processed by the caller afterwards.
+     */
     @NotNull
     @Override
     public DirectoryProcessingResult detectRoots(@NotNull final File dir, @NotNull File[] children, @NotNull File base, @NotNull List<DetectedProjectRoot> result) {
-        for (File child : children) {
-            ProjectData projectData = parse(child);
-            if (projectData != null) {
-                PascalModuleData moduleData = new PascalModuleData();
-                moduleData.contentRoot = base;
-                moduleData.name = projectData.getName();
-                moduleData.mainFile = projectData.getMainFile();
-                Set<File> dirs = new HashSet<>();
-                addPaths(projectData.getUnits(), projectData.getOtherUnitFilesPath());
-                addPaths(projectData.getUnits(), projectData.getIncludeFilesPath());
-                for (String unit : projectData.getUnits()) {
-                    File file = new File(dir, unit);
-                    File parent = file.isDirectory() ? file : file.getParentFile();
-                    try {
-                        parent = parent.getCanonicalFile();
-                    } catch (IOException e) {
-                        LOG.error("Error getting canonical file: " + parent.getPath(), e);
-                    }
-                    if (parent.isDirectory()) {
-                        if (dirs.add(parent)) {
-                            LOG.info("Found root: " + parent.getPath());
-                        }
-                    }
-                }
-                for (File file : dirs) {
-                    if (!FileUtil.isAncestor(moduleData.contentRoot, file, false)) {
-                        LOG.info(String.format("Source root %s doesn't belong to content root %s. Trying to find common ancestor.", file.getPath(), moduleData.contentRoot.getPath()));
-                        moduleData.contentRoot = findCommonAncestor(moduleData.contentRoot, file);
-                    }
-                    PascalSourceRoot sourceRoot = new PascalSourceRoot(moduleData, file);
-                    moduleData.addRoot(sourceRoot);
-                    result.add(sourceRoot);
+        ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+        ProjectImportScanner scanner = new ProjectImportScanner(name -> FileTypeManager.getInstance().isFileIgnored(name));
+        for (ProjectImportScanner.DetectedProject project : scanner.scan(dir, indicator != null ? indicator : new EmptyProgressIndicator())) {
+            ProjectData projectData = project.data;
+            PascalModuleData moduleData = new PascalModuleData();
+            moduleData.contentRoot = base;
+            moduleData.name = projectData.getName();
+            moduleData.mainFile = projectData.getMainFile();
+            for (File file : project.sourceDirs) {
+                LOG.info("Found root: " + file.getPath());
+                if (!FileUtil.isAncestor(moduleData.contentRoot, file, false)) {
+                    LOG.info(String.format("Source root %s doesn't belong to content root %s. Trying to find common ancestor.", file.getPath(), moduleData.contentRoot.getPath()));
+                    moduleData.contentRoot = findCommonAncestor(moduleData.contentRoot, file);
                 }
+                PascalSourceRoot sourceRoot = new PascalSourceRoot(moduleData, file);
+                moduleData.addRoot(sourceRoot);
+                result.add(sourceRoot);
             }
         }
-        return DirectoryProcessingResult.PROCESS_CHILDREN;
+        return DirectoryProcessingResult.SKIP_CHILDREN;
     }
 
     @Override
@@ -124,30 +112,6 @@ public class PascalProjectStructureDetector extends ProjectStructureDetector {
         }
     }
 
-    private ProjectData parse(File child) {
-        if (!child.isFile()) {
-            return null;
-        }
-        String name = child.getName().toUpperCase();
-        if (name.endsWith(".LPI")) {
-            LOG.debug("Parsing Lazarus project file: " + child.getPath());
-            return LpiParser.parse(child);
-        } else if (name.endsWith(".DPROJ")) {
-            LOG.debug("Parsing Delphi project file: " + child.getPath());
-            return DProjParser.parse(child);
-        } else if (name.endsWith(".DPR")) {
-            LOG.debug("Parsing Delphi program file: " + child.getPath());
-            return DPRParser.parse(child);
-        }
-        return null;
-    }
-
-    private void addPaths(List<String> units, String paths) {
-        if (paths != null) {
-            units.addAll(Arrays.asList(paths.split(";")));
-        }
-    }
-
     private File findCommonAncestor(File contentRoot, File file) {
         File parent = contentRoot.getParentFile();
         int count = 10;
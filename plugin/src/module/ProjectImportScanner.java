@@ -0,0 +1,207 @@
+package com.siberika.idea.pascal.module;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.ConcurrencyUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Finds Lazarus and Delphi project files within a directory tree and parses them concurrently.
+ * The tree is walked once with NIO, project files are parsed on a bounded pool and source directories of each project
+ * are canonicalized with memoization as the same directories are usually referenced by many projects.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+class ProjectImportScanner {
+
+    private static final Logger LOG = Logger.getInstance(ProjectImportScanner.class);
+
+    private static final int MAX_PARALLELISM = 4;
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final int parallelism;
+    private final Predicate<String> ignoredName;
+    private final Map<File, File> canonicalFiles = new ConcurrentHashMap<File, File>();
+
+    ProjectImportScanner(@NotNull Predicate<String> ignoredName) {
+        this(Math.min(MAX_PARALLELISM, Runtime.getRuntime().availableProcessors()), ignoredName);
+    }
+
+    ProjectImportScanner(int parallelism, @NotNull Predicate<String> ignoredName) {
+        this.parallelism = Math.max(1, parallelism);
+        this.ignoredName = ignoredName;
+    }
+
+    /**
+     * Returns projects found within the directory sorted by project file path
+     */
+    @NotNull
+    List<DetectedProject> scan(@NotNull File root, @NotNull final ProgressIndicator indicator) {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, ConcurrencyUtil.newNamedThreadFactory("Pascal project import", true, Thread.NORM_PRIORITY));
+        try {
+            final List<Future<DetectedProject>> futures = new ArrayList<Future<DetectedProject>>();
+            indicator.setText("Searching for Pascal projects");
+            try {
+                Files.walkFileTree(root.toPath(), new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        indicator.checkCanceled();
+                        Path name = dir.getFileName();
+                        if ((name != null) && !dir.equals(root.toPath()) && ignoredName.test(name.toString())) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        indicator.setText2(dir.toString());
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile() && isProjectFile(file.getFileName().toString())) {
+                            futures.add(executor.submit(() -> parse(file.toFile())));
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                        LOG.info("Error accessing " + file + ": " + exc.getMessage());
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                LOG.warn("Error walking directory " + root.getPath(), e);
+            }
+            return collect(futures, indicator);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<DetectedProject> collect(List<Future<DetectedProject>> futures, ProgressIndicator indicator) {
+        indicator.setText("Parsing Pascal projects");
+        indicator.setIndeterminate(false);
+        List<DetectedProject> result = new ArrayList<DetectedProject>();
+        for (int i = 0; i < futures.size(); i++) {
+            indicator.setFraction((double) i / futures.size());
+            DetectedProject project = await(futures.get(i), indicator);
+            if (project != null) {
+                result.add(project);
+            }
+        }
+        Collections.sort(result, Comparator.comparing(project -> project.file.getPath()));
+        return result;
+    }
+
+    private static DetectedProject await(Future<DetectedProject> future, ProgressIndicator indicator) {
+        while (true) {
+            indicator.checkCanceled();
+            try {
+                return future.get(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ignore) {
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException(e);
+            } catch (ExecutionException e) {
+                LOG.warn("Error parsing project file", e.getCause());
+                return null;
+            }
+        }
+    }
+
+    private DetectedProject parse(File file) {
+        ProjectData data = parseProjectFile(file);
+        if (null == data) {
+            return null;
+        }
+        List<String> units = new ArrayList<String>(data.getUnits());
+        addPaths(units, data.getOtherUnitFilesPath());
+        addPaths(units, data.getIncludeFilesPath());
+        Set<File> dirs = new LinkedHashSet<File>();
+        File dir = file.getParentFile();
+        for (String unit : units) {
+            File unitFile = new File(dir, unit);
+            File parent = getCanonicalFile(unitFile.isDirectory() ? unitFile : unitFile.getParentFile());
+            if (parent.isDirectory()) {
+                dirs.add(parent);
+            }
+        }
+        return new DetectedProject(file, data, dirs);
+    }
+
+    static ProjectData parseProjectFile(File file) {
+        String name = file.getName().toUpperCase();
+        if (name.endsWith(".LPI")) {
+            LOG.debug("Parsing Lazarus project file: " + file.getPath());
+            return LpiParser.parse(file);
+        } else if (name.endsWith(".DPROJ")) {
+            LOG.debug("Parsing Delphi project file: " + file.getPath());
+            return DProjParser.parse(file);
+        } else if (name.endsWith(".DPR")) {
+            LOG.debug("Parsing Delphi program file: " + file.getPath());
+            return DPRParser.parse(file);
+        }
+        return null;
+    }
+
+    static boolean isProjectFile(String name) {
+        String upper = name.toUpperCase();
+        return upper.endsWith(".LPI") || upper.endsWith(".DPROJ") || upper.endsWith(".DPR");
+    }
+
+    File getCanonicalFile(File file) {
+        File res = canonicalFiles.get(file);
+        if (null == res) {
+            try {
+                res = file.getCanonicalFile();
+            } catch (IOException e) {
+                LOG.info("Error getting canonical file: " + file.getPath(), e);
+                res = file;
+            }
+            canonicalFiles.put(file, res);
+        }
+        return res;
+    }
+
+    private static void addPaths(List<String> units, String paths) {
+        if (paths != null) {
+            units.addAll(Arrays.asList(paths.split(";")));
+        }
+    }
+
+    static class DetectedProject {
+        final File file;
+        final ProjectData data;
+        final Set<File> sourceDirs;
+
+        DetectedProject(File file, ProjectData data, Set<File> sourceDirs) {
+            this.file = file;
+            this.data = data;
+            this.sourceDirs = sourceDirs;
+        }
+    }
+}
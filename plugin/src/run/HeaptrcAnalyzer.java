@@ -0,0 +1,242 @@
+package com.siberika.idea.pascal.run;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming analyzer of heaptrc unit output.
+ * Output is processed line by line as it arrives. Leaked blocks ("Call trace for block $... size N" followed by frame lines)
+ * are grouped by allocation call stack. Memory usage is bounded: at most MAX_FRAMES frames of a stack are kept and at most
+ * MAX_GROUPS distinct stacks are tracked, blocks with other stacks are only counted.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class HeaptrcAnalyzer {
+
+    static final int MAX_FRAMES = 32;
+    static final int MAX_GROUPS = 5000;
+    private static final int MAX_LINE_LENGTH = 8192;
+
+    private static final String CALL_TRACE = "Call trace for block";
+    private static final String SIZE = " size ";
+    private static final String UNFREED = " unfreed memory blocks";
+    private static final String LINE = "line ";
+    private static final String OF = " of ";
+
+    private final StringBuilder partialLine = new StringBuilder();
+    private final Map<String, LeakGroup> groups = new HashMap<String, LeakGroup>();
+
+    // Block being read
+    private long blockSize = -1;
+    private List<Frame> blockFrames;
+
+    private long reportedBlocks = -1;
+    private int otherCount;
+    private long otherBytes;
+
+    /**
+     * Processes a chunk of output which may contain any number of lines including incomplete ones
+     */
+    public synchronized void feed(@NotNull CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                processLine(partialLine);
+                partialLine.setLength(0);
+            } else if ((c != '\r') && (partialLine.length() < MAX_LINE_LENGTH)) {
+                partialLine.append(c);
+            }
+        }
+    }
+
+    /**
+     * Processes the rest of output. Should be called when the output is over.
+     */
+    public synchronized void finish() {
+        if (partialLine.length() > 0) {
+            processLine(partialLine);
+            partialLine.setLength(0);
+        }
+        finishBlock();
+    }
+
+    public synchronized boolean hasLeaks() {
+        return !groups.isEmpty() || (otherCount > 0);
+    }
+
+    /**
+     * Returns leak groups sorted by descending total size
+     */
+    @NotNull
+    public synchronized List<LeakGroup> getGroups() {
+        List<LeakGroup> res = new ArrayList<LeakGroup>(groups.values());
+        Collections.sort(res, Comparator.comparingLong((LeakGroup g) -> g.bytes).reversed());
+        return res;
+    }
+
+    // Number of leaked blocks reported by heaptrc summary or -1 if the summary was not found
+    public synchronized long getReportedBlocks() {
+        return reportedBlocks;
+    }
+
+    // Number and total size of blocks which were not grouped as MAX_GROUPS limit was reached
+    public synchronized int getOtherCount() {
+        return otherCount;
+    }
+
+    public synchronized long getOtherBytes() {
+        return otherBytes;
+    }
+
+    private void processLine(CharSequence chars) {
+        String line = chars.toString().trim();
+        if (line.startsWith("$")) {
+            if ((blockFrames != null) && (blockFrames.size() < MAX_FRAMES)) {
+                blockFrames.add(parseFrame(line));
+            }
+            return;
+        }
+        finishBlock();
+        if (line.startsWith(CALL_TRACE)) {
+            int pos = line.indexOf(SIZE);
+            blockSize = pos > 0 ? parseNumber(line, pos + SIZE.length()) : 0;
+            blockFrames = new ArrayList<Frame>();
+        } else if (line.contains(UNFREED)) {
+            reportedBlocks = parseNumber(line, 0);
+        }
+    }
+
+    private void finishBlock() {
+        if (null == blockFrames) {
+            return;
+        }
+        long size = Math.max(0, blockSize);
+        String key = getKey(blockFrames);
+        LeakGroup group = groups.get(key);
+        if ((null == group) && (groups.size() < MAX_GROUPS)) {
+            group = new LeakGroup(blockFrames);
+            groups.put(key, group);
+        }
+        if (group != null) {
+            group.count++;
+            group.bytes += size;
+        } else {
+            otherCount++;
+            otherBytes += size;
+        }
+        blockFrames = null;
+        blockSize = -1;
+    }
+
+    private static String getKey(List<Frame> frames) {
+        StringBuilder sb = new StringBuilder();
+        for (Frame frame : frames) {
+            sb.append(frame.file != null ? frame.function + "|" + frame.file + "|" + frame.line : frame.address).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // "$0000000000401145  TOBJ__CREATE,  line 12 of leak.pas", "$08048A96  line 12 of leak.pas" or "$08048A96"
+    static Frame parseFrame(String line) {
+        int pos = 1;
+        while ((pos < line.length()) && !Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        String address = line.substring(1, pos);
+        String rest = line.substring(pos).trim();
+        String function = null;
+        String file = null;
+        int lineNum = -1;
+        int lineStart = rest.startsWith(LINE) ? 0 : rest.indexOf(" " + LINE);
+        if (lineStart > 0) {
+            lineStart++;
+        }
+        int of = lineStart >= 0 ? rest.indexOf(OF, lineStart) : -1;
+        if (of > 0) {
+            lineNum = (int) parseNumber(rest, lineStart + LINE.length());
+            file = rest.substring(of + OF.length()).trim();
+            rest = rest.substring(0, lineStart);
+        }
+        rest = rest.trim();
+        if (rest.endsWith(",")) {
+            rest = rest.substring(0, rest.length() - 1).trim();
+        }
+        if (!rest.isEmpty()) {
+            function = rest;
+        }
+        return new Frame(address, function, file, lineNum);
+    }
+
+    private static long parseNumber(String s, int pos) {
+        long res = 0;
+        while ((pos < s.length()) && Character.isDigit(s.charAt(pos))) {
+            res = res * 10 + (s.charAt(pos++) - '0');
+        }
+        return res;
+    }
+
+    public static class Frame {
+        public final String address;
+        public final String function;
+        public final String file;
+        public final int line;
+
+        Frame(String address, String function, String file, int line) {
+            this.address = address;
+            this.function = function;
+            this.file = file;
+            this.line = line;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(function != null ? function : "$" + address);
+            if (file != null) {
+                sb.append(" (").append(file).append(':').append(line).append(')');
+            }
+            return sb.toString();
+        }
+    }
+
+    public static class LeakGroup {
+        private final List<Frame> frames;
+        private int count;
+        private long bytes;
+
+        LeakGroup(List<Frame> frames) {
+            this.frames = frames;
+        }
+
+        public List<Frame> getFrames() {
+            return frames;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Returns first frame with source location or first frame if there is no such frame
+         */
+        @Nullable
+        public Frame getTopFrame() {
+            for (Frame frame : frames) {
+                if (frame.file != null) {
+                    return frame;
+                }
+            }
+            return frames.isEmpty() ? null : frames.get(0);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.util.regex.Pattern;
 public class HeaptrcConsoleFilterProvider implements ConsoleFilterProvider {
 
     private static final Pattern PATTERN_HEAPTRC = Pattern.compile("\\s*\\$[0-9A-F]+ (\\w+, )?line (\\d+) of (.+)\n?");
+    private static final String LINE_MARKER = "line ";
 
     @NotNull
     @Override
@@ -33,6 +34,10 @@ public class HeaptrcConsoleFilterProvider implements ConsoleFilterProvider {
                         @NotNull
                         @Override
                         public List<FileHyperlinkRawData> parse(@NotNull String line) {
+                            // Cheap check to avoid running the regex on every console line
+                            if (!line.contains(LINE_MARKER)) {
+                                return Collections.emptyList();
+                            }
                             Matcher m = PATTERN_HEAPTRC.matcher(line);
                             if (m.matches()) {
                                 List<FileHyperlinkRawData> res = new SmartList<FileHyperlinkRawData>();
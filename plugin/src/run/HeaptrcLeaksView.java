@@ -0,0 +1,159 @@
+package com.siberika.idea.pascal.run;
+
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowAnchor;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import com.intellij.ui.content.ContentManager;
+import com.intellij.ui.table.JBTable;
+import com.siberika.idea.pascal.PascalBundle;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tool window with leaked memory blocks found by HeaptrcAnalyzer grouped by allocation call stack.
+ * Double click on a row navigates to source of the top frame. Each run configuration has a single tab showing its last run.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class HeaptrcLeaksView {
+
+    static final String TOOL_WINDOW_ID = "Heaptrc";
+
+    public static void show(@NotNull Project project, @NotNull String title, @NotNull HeaptrcAnalyzer analyzer) {
+        if (project.isDisposed()) {
+            return;
+        }
+        ToolWindowManager manager = ToolWindowManager.getInstance(project);
+        ToolWindow toolWindow = manager.getToolWindow(TOOL_WINDOW_ID);
+        if (null == toolWindow) {
+            toolWindow = manager.registerToolWindow(TOOL_WINDOW_ID, true, ToolWindowAnchor.BOTTOM);
+        }
+        ContentManager contentManager = toolWindow.getContentManager();
+        Content content = ContentFactory.SERVICE.getInstance().createContent(createPanel(project, analyzer), title, false);
+        // Leaks of a previous run of the same configuration are replaced
+        Content previous = contentManager.findContent(title);
+        int index = previous != null ? contentManager.getIndexOfContent(previous) : contentManager.getContentCount();
+        if (previous != null) {
+            contentManager.removeContent(previous, true);
+        }
+        contentManager.addContent(content, index);
+        contentManager.setSelectedContent(content);
+        toolWindow.show(null);
+    }
+
+    private static JComponent createPanel(final Project project, HeaptrcAnalyzer analyzer) {
+        final List<HeaptrcAnalyzer.LeakGroup> groups = analyzer.getGroups();
+        final JBTable table = new JBTable(new LeaksTableModel(groups));
+        table.setAutoCreateRowSorter(true);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int row = table.getSelectedRow();
+                if ((e.getClickCount() == 2) && (row >= 0)) {
+                    navigate(project, groups.get(table.convertRowIndexToModel(row)).getTopFrame());
+                }
+            }
+        });
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(new JLabel(getSummary(analyzer, groups)), BorderLayout.NORTH);
+        panel.add(ScrollPaneFactory.createScrollPane(table), BorderLayout.CENTER);
+        return panel;
+    }
+
+    private static String getSummary(HeaptrcAnalyzer analyzer, List<HeaptrcAnalyzer.LeakGroup> groups) {
+        long blocks = analyzer.getOtherCount();
+        long bytes = analyzer.getOtherBytes();
+        for (HeaptrcAnalyzer.LeakGroup group : groups) {
+            blocks += group.getCount();
+            bytes += group.getBytes();
+        }
+        String res = PascalBundle.message("heaptrc.summary", blocks, bytes, groups.size());
+        if (analyzer.getOtherCount() > 0) {
+            res = res + " " + PascalBundle.message("heaptrc.summary.other", analyzer.getOtherCount(), analyzer.getOtherBytes());
+        }
+        return res;
+    }
+
+    private static void navigate(Project project, @Nullable HeaptrcAnalyzer.Frame frame) {
+        VirtualFile file = frame != null ? findFile(project, frame.file) : null;
+        if (file != null) {
+            new OpenFileDescriptor(project, file, Math.max(0, frame.line - 1), 0).navigate(true);
+        }
+    }
+
+    @Nullable
+    static VirtualFile findFile(Project project, @Nullable String path) {
+        if (null == path) {
+            return null;
+        }
+        File file = new File(path);
+        if (file.isAbsolute()) {
+            return LocalFileSystem.getInstance().findFileByIoFile(file);
+        }
+        Collection<VirtualFile> files = FilenameIndex.getVirtualFilesByName(project, file.getName(), GlobalSearchScope.allScope(project));
+        return files.isEmpty() ? null : files.iterator().next();
+    }
+
+    private static class LeaksTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {
+                PascalBundle.message("heaptrc.column.count"), PascalBundle.message("heaptrc.column.bytes"),
+                PascalBundle.message("heaptrc.column.frame"), PascalBundle.message("heaptrc.column.source")};
+
+        private final List<HeaptrcAnalyzer.LeakGroup> groups;
+
+        LeaksTableModel(List<HeaptrcAnalyzer.LeakGroup> groups) {
+            this.groups = groups;
+        }
+
+        @Override
+        public int getRowCount() {
+            return groups.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 0 ? Integer.class : (column == 1 ? Long.class : String.class);
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            HeaptrcAnalyzer.LeakGroup group = groups.get(row);
+            HeaptrcAnalyzer.Frame frame = group.getTopFrame();
+            switch (column) {
+                case 0: return group.getCount();
+                case 1: return group.getBytes();
+                case 2: return frame != null ? (frame.function != null ? frame.function : "$" + frame.address) : "";
+                default: return (frame != null) && (frame.file != null) ? frame.file + ":" + frame.line : "";
+            }
+        }
+    }
+}
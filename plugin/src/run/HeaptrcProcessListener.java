@@ -0,0 +1,135 @@
+package com.siberika.idea.pascal.run;
+
+import com.intellij.execution.process.ProcessAdapter;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessOutputTypes;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feeds output of a Pascal program to HeaptrcAnalyzer and shows found leaks in HeaptrcLeaksView when the program terminates.
+ * Output streams are analyzed separately as they are read by different threads.
+ * Output of a debugger in GDB/MI mode is split to lines, program output in target stream records is unescaped
+ * and other MI records are skipped.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class HeaptrcProcessListener extends ProcessAdapter {
+
+    private static final String MI_RECORD_PREFIXES = "*+=^~@&";
+    private static final String MI_PROMPT = "(gdb)";
+
+    private final Project project;
+    private final String title;
+    private final boolean debug;
+    private final Map<Key, HeaptrcAnalyzer> analyzers = new ConcurrentHashMap<Key, HeaptrcAnalyzer>();
+    private final Map<Key, StringBuilder> lines = new ConcurrentHashMap<Key, StringBuilder>();
+
+    public HeaptrcProcessListener(@NotNull Project project, @NotNull String title, boolean debug) {
+        this.project = project;
+        this.title = title;
+        this.debug = debug;
+    }
+
+    @Override
+    public void onTextAvailable(@NotNull ProcessEvent event, @NotNull Key outputType) {
+        if (outputType == ProcessOutputTypes.SYSTEM) {
+            return;
+        }
+        HeaptrcAnalyzer analyzer = analyzers.computeIfAbsent(outputType, key -> new HeaptrcAnalyzer());
+        if (!debug) {
+            analyzer.feed(event.getText());
+            return;
+        }
+        StringBuilder line = lines.computeIfAbsent(outputType, key -> new StringBuilder());
+        String text = event.getText();
+        int start = 0;
+        int end = text.indexOf('\n');
+        while (end >= 0) {
+            line.append(text, start, end);
+            feedDebuggerLine(analyzer, line.toString());
+            line.setLength(0);
+            start = end + 1;
+            end = text.indexOf('\n', start);
+        }
+        line.append(text, start, text.length());
+    }
+
+    @Override
+    public void processTerminated(@NotNull ProcessEvent event) {
+        for (Map.Entry<Key, HeaptrcAnalyzer> entry : analyzers.entrySet()) {
+            final HeaptrcAnalyzer analyzer = entry.getValue();
+            StringBuilder line = lines.get(entry.getKey());
+            if ((line != null) && (line.length() > 0)) {
+                feedDebuggerLine(analyzer, line.toString());
+            }
+            analyzer.finish();
+            if (analyzer.hasLeaks()) {
+                ApplicationManager.getApplication().invokeLater(() -> HeaptrcLeaksView.show(project, title, analyzer));
+            }
+        }
+    }
+
+    private static void feedDebuggerLine(HeaptrcAnalyzer analyzer, String line) {
+        String text = unwrapMiLine(line);
+        if (text != null) {
+            analyzer.feed(text);
+        }
+    }
+
+    /**
+     * Returns program output contained in a line of GDB/MI output or null if the line is a debugger record.
+     * Target stream records are unescaped, lines which are not MI records are program output written directly to the terminal.
+     */
+    @Nullable
+    static String unwrapMiLine(@NotNull String line) {
+        if (line.endsWith("\r")) {
+            line = line.substring(0, line.length() - 1);
+        }
+        if (line.startsWith("@\"")) {
+            return unescape(line, 2);
+        }
+        int pos = 0;
+        while ((pos < line.length()) && Character.isDigit(line.charAt(pos))) {
+            pos++;
+        }
+        boolean record = (pos < line.length()) && (MI_RECORD_PREFIXES.indexOf(line.charAt(pos)) >= 0);
+        return record || line.trim().equals(MI_PROMPT) ? null : line + "\n";
+    }
+
+    // Unescapes C string starting at the position up to the closing quote
+    private static String unescape(String line, int start) {
+        StringBuilder res = new StringBuilder(line.length());
+        int i = start;
+        while ((i < line.length()) && (line.charAt(i) != '"')) {
+            char c = line.charAt(i++);
+            if ((c != '\\') || (i >= line.length())) {
+                res.append(c);
+                continue;
+            }
+            c = line.charAt(i++);
+            switch (c) {
+                case 'n': res.append('\n'); break;
+                case 'r': res.append('\r'); break;
+                case 't': res.append('\t'); break;
+                default:
+                    if ((c >= '0') && (c <= '7')) {
+                        int code = c - '0';
+                        for (int n = 0; (n < 2) && (i < line.length()) && (line.charAt(i) >= '0') && (line.charAt(i) <= '7'); n++) {
+                            code = code * 8 + line.charAt(i++) - '0';
+                        }
+                        res.append((char) code);
+                    } else {
+                        res.append(c);
+                    }
+            }
+        }
+        return res.toString();
+    }
+}
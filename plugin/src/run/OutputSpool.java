@@ -0,0 +1,218 @@
+package com.siberika.idea.pascal.run;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ring buffer of program output backed by a memory mapped temporary file.
+ * Keeps last capacity bytes of output. Offsets are absolute positions in the whole output, content before getStart() is overwritten.
+ * Search and export read the file in chunks so the content is never loaded on heap entirely.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class OutputSpool implements Closeable {
+
+    private static final Logger LOG = Logger.getInstance(OutputSpool.class);
+
+    static final String SIZE_PROPERTY = "pascal.run.spool.size";
+    private static final int DEFAULT_SIZE_MB = 256;
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_LINE_LENGTH = 4096;
+
+    private final File file;
+    private final RandomAccessFile raf;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private long written;
+
+    OutputSpool(int capacity) throws IOException {
+        this.capacity = capacity;
+        this.file = FileUtil.createTempFile("pascal-output", ".spool", true);
+        this.raf = new RandomAccessFile(file, "rw");
+        this.buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    @NotNull
+    public static OutputSpool create() throws IOException {
+        return new OutputSpool(getSize(Long.getLong(SIZE_PROPERTY, DEFAULT_SIZE_MB)));
+    }
+
+    // Spool size in bytes for size in megabytes limited to maximum size of a mapped buffer
+    static int getSize(long sizeMb) {
+        long mb = Math.max(1, Math.min(sizeMb, Integer.MAX_VALUE));
+        return (int) Math.min(mb * 1024L * 1024L, Integer.MAX_VALUE);
+    }
+
+    public void write(@NotNull String text) {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        write(data, 0, data.length);
+    }
+
+    synchronized void write(byte[] data, int offset, int length) {
+        if (length > capacity) {
+            offset += length - capacity;
+            written += length - capacity;
+            length = capacity;
+        }
+        int pos = (int) (written % capacity);
+        int first = Math.min(length, capacity - pos);
+        ByteBuffer buf = buffer.duplicate();
+        buf.position(pos);
+        buf.put(data, offset, first);
+        if (first < length) {
+            buf.position(0);
+            buf.put(data, offset + first, length - first);
+        }
+        written += length;
+    }
+
+    // Total number of bytes written
+    public synchronized long getWritten() {
+        return written;
+    }
+
+    // Offset of the first byte which is still available
+    public synchronized long getStart() {
+        return Math.max(0, written - capacity);
+    }
+
+    /**
+     * Reads bytes starting from the absolute offset. Returns number of bytes read, 0 at the end of output
+     * or -1 if the offset was already overwritten.
+     */
+    synchronized int read(long offset, byte[] dest, int destOffset, int length) {
+        if (offset < getStart()) {
+            return -1;
+        }
+        int count = (int) Math.min(length, written - offset);
+        int pos = (int) (offset % capacity);
+        int first = Math.min(count, capacity - pos);
+        ByteBuffer buf = buffer.duplicate();
+        buf.position(pos);
+        buf.get(dest, destOffset, first);
+        if (first < count) {
+            buf.position(0);
+            buf.get(dest, destOffset + first, count - first);
+        }
+        return count;
+    }
+
+    /**
+     * Writes all available output to the stream
+     */
+    public void export(@NotNull OutputStream out) throws IOException {
+        byte[] chunk = new byte[CHUNK_SIZE];
+        long offset = getStart();
+        int count;
+        while ((count = read(offset, chunk, 0, chunk.length)) != 0) {
+            if (count < 0) {
+                offset = getStart();                                  // overwritten while exporting
+            } else {
+                out.write(chunk, 0, count);
+                offset += count;
+            }
+        }
+    }
+
+    /**
+     * Returns up to maxResults lines of available output which contain the text
+     */
+    @NotNull
+    public List<Match> search(@NotNull String text, boolean ignoreCase, int maxResults) {
+        List<Match> res = new ArrayList<Match>();
+        String needle = ignoreCase ? text.toLowerCase() : text;
+        byte[] chunk = new byte[CHUNK_SIZE];
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        long offset = getStart();
+        long lineStart = offset;
+        long lineNum = 0;
+        int count;
+        while ((res.size() < maxResults) && ((count = read(offset, chunk, 0, chunk.length)) != 0)) {
+            if (count < 0) {
+                offset = getStart();
+                lineStart = offset;
+                line.reset();
+                continue;
+            }
+            for (int i = 0; (i < count) && (res.size() < maxResults); i++) {
+                if (chunk[i] == '\n') {
+                    addMatch(res, line, needle, ignoreCase, lineStart, lineNum);
+                    line.reset();
+                    lineStart = offset + i + 1;
+                    lineNum++;
+                } else if (line.size() < MAX_LINE_LENGTH) {
+                    line.write(chunk[i]);
+                }
+            }
+            offset += count;
+        }
+        if (res.size() < maxResults) {
+            addMatch(res, line, needle, ignoreCase, lineStart, lineNum);
+        }
+        return res;
+    }
+
+    private static void addMatch(List<Match> res, ByteArrayOutputStream line, String needle, boolean ignoreCase, long offset, long lineNum) {
+        String str = new String(line.toByteArray(), StandardCharsets.UTF_8);
+        if ((ignoreCase ? str.toLowerCase() : str).contains(needle)) {
+            res.add(new Match(offset, lineNum, str));
+        }
+    }
+
+    /**
+     * Returns last maxBytes of output
+     */
+    @NotNull
+    public String tail(int maxBytes) {
+        byte[] data;
+        int count;
+        synchronized (this) {
+            long offset = Math.max(getStart(), written - maxBytes);
+            data = new byte[(int) (written - offset)];
+            count = read(offset, data, 0, data.length);
+        }
+        int start = 0;
+        while ((start < count) && ((data[start] & 0xC0) == 0x80)) {        // skip partial UTF-8 character
+            start++;
+        }
+        return new String(data, start, Math.max(0, count - start), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        try {
+            raf.close();
+        } catch (IOException e) {
+            LOG.info("Error closing spool file " + file.getPath(), e);
+        }
+        // A mapped file can't be deleted on Windows until the mapping is garbage collected so it's deleted on exit then
+        FileUtil.delete(file);
+    }
+
+    public static class Match {
+        public final long offset;
+        // Line number within available output
+        public final long line;
+        public final String text;
+
+        Match(long offset, long line, String text) {
+            this.offset = offset;
+            this.line = line;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.siberika.idea.pascal.run;
+
+import com.intellij.execution.ui.ConsoleView;
+import com.intellij.execution.ui.ConsoleViewContentType;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.siberika.idea.pascal.PascalBundle;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Console actions which search and export the whole output spooled by SpoolingProcessHandler
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+class OutputSpoolActions {
+
+    private static final int MAX_SEARCH_RESULTS = 1000;
+
+    static AnAction[] create(@NotNull ConsoleView console, @NotNull OutputSpool spool) {
+        return new AnAction[]{new SearchAction(console, spool), new ExportAction(spool)};
+    }
+
+    private static class SearchAction extends AnAction {
+        private final ConsoleView console;
+        private final OutputSpool spool;
+
+        SearchAction(ConsoleView console, OutputSpool spool) {
+            super(PascalBundle.message("run.spool.search"), null, AllIcons.Actions.Find);
+            this.console = console;
+            this.spool = spool;
+        }
+
+        @Override
+        public void actionPerformed(AnActionEvent e) {
+            Project project = e.getProject();
+            final String text = Messages.showInputDialog(project, PascalBundle.message("run.spool.search.prompt"), PascalBundle.message("run.spool.search"), null);
+            if (StringUtil.isEmpty(text)) {
+                return;
+            }
+            ProgressManager.getInstance().run(new Task.Backgroundable(project, PascalBundle.message("run.spool.search"), true) {
+                private List<OutputSpool.Match> matches;
+
+                @Override
+                public void run(@NotNull ProgressIndicator indicator) {
+                    matches = spool.search(text, true, MAX_SEARCH_RESULTS);
+                }
+
+                @Override
+                public void onSuccess() {
+                    StringBuilder sb = new StringBuilder("\n").append(PascalBundle.message("run.spool.search.found", matches.size(), text)).append("\n");
+                    for (OutputSpool.Match match : matches) {
+                        sb.append(match.line + 1).append(": ").append(match.text).append("\n");
+                    }
+                    console.print(sb.toString(), ConsoleViewContentType.SYSTEM_OUTPUT);
+                }
+            });
+        }
+    }
+
+    private static class ExportAction extends AnAction {
+        private final OutputSpool spool;
+
+        ExportAction(OutputSpool spool) {
+            super(PascalBundle.message("run.spool.export"), null, AllIcons.Actions.Export);
+            this.spool = spool;
+        }
+
+        @Override
+        public void actionPerformed(AnActionEvent e) {
+            Project project = e.getProject();
+            FileSaverDescriptor descriptor = new FileSaverDescriptor(PascalBundle.message("run.spool.export"), "", "txt", "log");
+            final VirtualFileWrapper target = FileChooserFactory.getInstance().createSaveFileDialog(descriptor, project).save(null, "output.txt");
+            if (null == target) {
+                return;
+            }
+            ProgressManager.getInstance().run(new Task.Backgroundable(project, PascalBundle.message("run.spool.export"), true) {
+                private IOException error;
+
+                @Override
+                public void run(@NotNull ProgressIndicator indicator) {
+                    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(target.getFile()))) {
+                        spool.export(out);
+                    } catch (IOException ex) {
+                        error = ex;
+                    }
+                }
+
+                @Override
+                public void onSuccess() {
+                    if (error != null) {
+                        Messages.showErrorDialog(getProject(), PascalBundle.message("run.spool.export.error", target.getFile().getPath(), error.getMessage()),
+                                PascalBundle.message("run.spool.export"));
+                    }
+                }
+            });
+        }
+    }
+}
@@ -1,23 +1,29 @@
 package com.siberika.idea.pascal.run;
 
 import com.intellij.execution.ExecutionException;
+import com.intellij.execution.Executor;
 import com.intellij.execution.configurations.CommandLineState;
 import com.intellij.execution.configurations.GeneralCommandLine;
 import com.intellij.execution.filters.TextConsoleBuilderFactory;
 import com.intellij.execution.process.CapturingProcessHandler;
 import com.intellij.execution.process.ProcessHandler;
 import com.intellij.execution.runners.ExecutionEnvironment;
+import com.intellij.execution.ui.ConsoleView;
+import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.projectRoots.Sdk;
+import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.util.SystemInfo;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.ArrayUtil;
 import com.siberika.idea.pascal.PascalBundle;
 import com.siberika.idea.pascal.debugger.PascalDebugFactory;
 import com.siberika.idea.pascal.jps.util.FileUtil;
 import com.siberika.idea.pascal.module.PascalModuleType;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -31,14 +37,16 @@ public class PascalCommandLineState extends CommandLineState {
     private final boolean debug;
     private final String workDirectory;
     private final boolean fixIOBuffering;
+    private final boolean spoolOutput;
 
     public PascalCommandLineState(PascalRunConfiguration runConfiguration, ExecutionEnvironment env, boolean debug,
-                                  String workDirectory, String parameters, boolean fixIOBuffering) {
+                                  String workDirectory, String parameters, boolean fixIOBuffering, boolean spoolOutput) {
         super(env);
         this.runConfiguration = runConfiguration;
         this.debug = debug;
         this.workDirectory = workDirectory;
         this.fixIOBuffering = fixIOBuffering;
+        this.spoolOutput = spoolOutput;
         params = new ArrayList<String>();
         if ((parameters != null) && (parameters.length() > 0)) {
             params.addAll(Arrays.asList(parameters.split("\\s+"))); //TODO: use exec*utils to correctly split params
@@ -79,9 +87,47 @@ public class PascalCommandLineState extends CommandLineState {
         }
         commandLine.addParameters(params);
         commandLine.setWorkDirectory(workDirectory);
-        ProcessHandler handler = new CapturingProcessHandler(commandLine.createProcess(), commandLine.getCharset(), commandLine.getCommandLineString());
+        HeaptrcProcessListener heaptrcListener = new HeaptrcProcessListener(runConfiguration.getProject(), runConfiguration.getName(), debug);
+        ProcessHandler handler;
+        // Debugger protocol output should not be throttled so output of debugged programs is not spooled
+        if (spoolOutput && !debug) {
+            OutputSpool spool = createSpool();
+            Process process;
+            try {
+                process = commandLine.createProcess();
+            } catch (ExecutionException e) {
+                spool.close();
+                throw e;
+            }
+            SpoolingProcessHandler spoolingHandler = new SpoolingProcessHandler(process, commandLine.getCommandLineString(), commandLine.getCharset(), spool);
+            spoolingHandler.addRawListener(heaptrcListener);
+            handler = spoolingHandler;
+        } else {
+            handler = new CapturingProcessHandler(commandLine.createProcess(), commandLine.getCharset(), commandLine.getCommandLineString());
+            handler.addProcessListener(heaptrcListener);
+        }
         setConsoleBuilder(TextConsoleBuilderFactory.getInstance().createBuilder(runConfiguration.getProject()));
         return handler;
     }
 
+    @NotNull
+    @Override
+    protected AnAction[] createActions(ConsoleView console, ProcessHandler processHandler, Executor executor) {
+        AnAction[] actions = super.createActions(console, processHandler, executor);
+        if ((console != null) && (processHandler instanceof SpoolingProcessHandler)) {
+            final OutputSpool spool = ((SpoolingProcessHandler) processHandler).getSpool();
+            Disposer.register(console, spool::close);
+            actions = ArrayUtil.mergeArrays(actions, OutputSpoolActions.create(console, spool));
+        }
+        return actions;
+    }
+
+    private static OutputSpool createSpool() throws ExecutionException {
+        try {
+            return OutputSpool.create();
+        } catch (IOException e) {
+            throw new ExecutionException(PascalBundle.message("run.spool.error", e.getMessage()), e);
+        }
+    }
+
 }
@@ -50,12 +50,14 @@ public class PascalRunConfiguration extends ModuleBasedConfiguration<RunConfigur
         implements PascalRunConfigurationParams, RunConfigurationWithSuppressedDefaultRunAction, RunConfigurationWithSuppressedDefaultDebugAction {
 
     private static final String ATTR_PROGRAM_FILE_NAME = "program_file_name";
+    private static final String ATTR_SPOOL_OUTPUT = "spool_output";
 
     private String parameters;
     private String workingDirectory;
     private String programFileName;
     private boolean fixIOBuffering = true;
     private boolean debugMode = false;
+    private boolean spoolOutput = false;
 
     public PascalRunConfiguration(String name, RunConfigurationModule configurationModule, ConfigurationFactory factory) {
         super(name, configurationModule, factory);
@@ -97,13 +99,14 @@ public class PascalRunConfiguration extends ModuleBasedConfiguration<RunConfigur
 
     @Nullable
     public RunProfileState getState(@NotNull Executor executor, @NotNull final ExecutionEnvironment env) throws ExecutionException {
-        return new PascalCommandLineState(this, env, executor instanceof DefaultDebugExecutor, workingDirectory, parameters, fixIOBuffering);
+        return new PascalCommandLineState(this, env, executor instanceof DefaultDebugExecutor, workingDirectory, parameters, fixIOBuffering, spoolOutput);
     }
 
     public static void copyParams(PascalRunConfigurationParams from, PascalRunConfigurationParams to) {
         to.setParameters(from.getParameters());
         to.setWorkingDirectory(from.getWorkingDirectory());
         to.setFixIOBuffering(from.getFixIOBuffering());
+        to.setSpoolOutput(from.getSpoolOutput());
     }
 
     @Override
@@ -126,6 +129,11 @@ public class PascalRunConfiguration extends ModuleBasedConfiguration<RunConfigur
         return debugMode;
     }
 
+    @Override
+    public boolean getSpoolOutput() {
+        return spoolOutput;
+    }
+
     @Override
     public void setParameters(String parameters) {
         this.parameters = parameters;
@@ -146,6 +154,11 @@ public class PascalRunConfiguration extends ModuleBasedConfiguration<RunConfigur
         debugMode = value;
     }
 
+    @Override
+    public void setSpoolOutput(boolean value) {
+        spoolOutput = value;
+    }
+
     public String getProgramFileName() {
         return programFileName;
     }
@@ -168,6 +181,7 @@ public class PascalRunConfiguration extends ModuleBasedConfiguration<RunConfigur
     public void readExternal(@NotNull Element element) throws InvalidDataException {
         super.readExternal(element);
         setProgramFileName(element.getAttributeValue(ATTR_PROGRAM_FILE_NAME));
+        setSpoolOutput(Boolean.parseBoolean(element.getAttributeValue(ATTR_SPOOL_OUTPUT)));
     }
 
     public void writeExternal(@NotNull Element element) throws WriteExternalException {
@@ -175,6 +189,9 @@ public class PascalRunConfiguration extends ModuleBasedConfiguration<RunConfigur
         if (programFileName != null) {
             element.setAttribute(ATTR_PROGRAM_FILE_NAME, programFileName);
         }
+        if (spoolOutput) {
+            element.setAttribute(ATTR_SPOOL_OUTPUT, Boolean.TRUE.toString());
+        }
     }
 
     @Override
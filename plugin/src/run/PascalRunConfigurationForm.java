@@ -17,6 +17,7 @@ public class PascalRunConfigurationForm implements PascalRunConfigurationParams
     private JTextField parametersEdit;
     private TextFieldWithBrowseButton workingDirEdit;
     private JCheckBox fixIOBufferingCBox;
+    private JCheckBox spoolOutputCBox;
 
     public PascalRunConfigurationForm(PascalRunConfiguration runConfiguration) {
         assert runConfiguration != null;
@@ -47,6 +48,11 @@ public class PascalRunConfigurationForm implements PascalRunConfigurationParams
         return false;
     }
 
+    @Override
+    public boolean getSpoolOutput() {
+        return spoolOutputCBox.isSelected();
+    }
+
     @Override
     public void setParameters(String parameters) {
         this.parametersEdit.setText(parameters);
@@ -67,6 +73,11 @@ public class PascalRunConfigurationForm implements PascalRunConfigurationParams
 
     }
 
+    @Override
+    public void setSpoolOutput(boolean value) {
+        spoolOutputCBox.setSelected(value);
+    }
+
     {
 // GUI initializer generated by IntelliJ IDEA GUI Designer
 // >>> IMPORTANT!! <<<
@@ -83,7 +94,7 @@ public class PascalRunConfigurationForm implements PascalRunConfigurationParams
      */
     private void $$$setupUI$$$() {
         rootPanel = new JPanel();
-        rootPanel.setLayout(new GridLayoutManager(5, 1, new Insets(0, 0, 0, 0), -1, -1));
+        rootPanel.setLayout(new GridLayoutManager(6, 1, new Insets(0, 0, 0, 0), -1, -1));
         final JLabel label1 = new JLabel();
         label1.setText("Parameters:");
         rootPanel.add(label1, new GridConstraints(0, 0, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_FIXED, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
@@ -98,6 +109,9 @@ public class PascalRunConfigurationForm implements PascalRunConfigurationParams
         fixIOBufferingCBox.setSelected(true);
         fixIOBufferingCBox.setText("Workaround buffered I/O");
         rootPanel.add(fixIOBufferingCBox, new GridConstraints(4, 0, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+        spoolOutputCBox = new JCheckBox();
+        spoolOutputCBox.setText("Spool output to file (for programs with large output)");
+        rootPanel.add(spoolOutputCBox, new GridConstraints(5, 0, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
     }
 
     /**
@@ -9,8 +9,10 @@ public interface PascalRunConfigurationParams {
     String getWorkingDirectory();
     boolean getFixIOBuffering();
     boolean getDebugMode();
+    boolean getSpoolOutput();
     void setParameters(String parameters);
     void setWorkingDirectory(String workingDirectory);
     void setFixIOBuffering(boolean value);
     void setDebugMode(boolean value);
+    void setSpoolOutput(boolean value);
 }
@@ -0,0 +1,137 @@
+package com.siberika.idea.pascal.run;
+
+import com.intellij.execution.process.OSProcessHandler;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessListener;
+import com.intellij.execution.process.ProcessOutputTypes;
+import com.intellij.openapi.util.Key;
+import com.intellij.util.concurrency.JobScheduler;
+import com.siberika.idea.pascal.PascalBundle;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process handler which writes all program output to OutputSpool and passes only a bounded tail of it to listeners (i.e. console).
+ * Output is delivered to listeners every FLUSH_INTERVAL_MS. If more than TAIL_LIMIT characters of a stream arrived during the interval
+ * only the last lines within TAIL_LIMIT characters are delivered preceded by a notice about skipped output.
+ * After CONSOLE_LIMIT characters were delivered the output is held back and only its tail is delivered when the process terminates.
+ * Raw listeners receive the whole output.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class SpoolingProcessHandler extends OSProcessHandler {
+
+    static final int TAIL_LIMIT = 64 * 1024;
+    static final long CONSOLE_LIMIT = 4 * 1024 * 1024;
+    private static final long FLUSH_INTERVAL_MS = 200;
+
+    private final OutputSpool spool;
+    private final List<ProcessListener> rawListeners = new CopyOnWriteArrayList<ProcessListener>();
+    private final Map<Key, StringBuilder> pending = new LinkedHashMap<Key, StringBuilder>();
+    private final Map<Key, Long> skipped = new LinkedHashMap<Key, Long>();
+    private final ScheduledFuture<?> flushTask;
+    private final Object flushLock = new Object();
+    // Number of characters delivered to listeners, guarded by flushLock
+    private long delivered;
+    private boolean terminated;
+
+    public SpoolingProcessHandler(@NotNull Process process, String commandLine, Charset charset, @NotNull OutputSpool spool) {
+        super(process, commandLine, charset);
+        this.spool = spool;
+        this.flushTask = JobScheduler.getScheduler().scheduleWithFixedDelay(() -> flush(false), FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @NotNull
+    public OutputSpool getSpool() {
+        return spool;
+    }
+
+    /**
+     * Adds listener which receives all output of the process and its termination event
+     */
+    public void addRawListener(@NotNull ProcessListener listener) {
+        rawListeners.add(listener);
+    }
+
+    @Override
+    public void notifyTextAvailable(String text, Key outputType) {
+        if (outputType == ProcessOutputTypes.SYSTEM) {
+            super.notifyTextAvailable(text, outputType);
+            return;
+        }
+        spool.write(text);
+        if (!rawListeners.isEmpty()) {
+            ProcessEvent event = new ProcessEvent(this, text);
+            for (ProcessListener listener : rawListeners) {
+                listener.onTextAvailable(event, outputType);
+            }
+        }
+        synchronized (pending) {
+            StringBuilder sb = pending.computeIfAbsent(outputType, key -> new StringBuilder());
+            sb.append(text);
+            if (sb.length() > TAIL_LIMIT) {
+                int excess = trimStart(sb, sb.length() - TAIL_LIMIT);
+                skipped.merge(outputType, (long) excess, Long::sum);
+            }
+        }
+    }
+
+    @Override
+    protected void notifyProcessTerminated(int exitCode) {
+        flushTask.cancel(false);
+        flush(true);
+        super.notifyProcessTerminated(exitCode);
+        ProcessEvent event = new ProcessEvent(this, exitCode);
+        for (ProcessListener listener : rawListeners) {
+            listener.processTerminated(event);
+        }
+    }
+
+    // Deletes at least count characters from the start of the builder up to the next line start if any. Returns number of deleted characters.
+    static int trimStart(StringBuilder sb, int count) {
+        int lineStart = sb.indexOf("\n", count - 1) + 1;
+        int res = (lineStart > 0) && (lineStart < sb.length()) ? lineStart : count;
+        sb.delete(0, res);
+        return res;
+    }
+
+    // Flushes are serialized so the final flush can't interleave with a scheduled one still running
+    private void flush(boolean last) {
+        synchronized (flushLock) {
+            if (terminated || (!last && (delivered >= CONSOLE_LIMIT))) {
+                return;
+            }
+            terminated = last;
+            Map<Key, String> texts = new LinkedHashMap<Key, String>();
+            Map<Key, Long> skippedCopy;
+            synchronized (pending) {
+                for (Map.Entry<Key, StringBuilder> entry : pending.entrySet()) {
+                    if (entry.getValue().length() > 0) {
+                        texts.put(entry.getKey(), entry.getValue().toString());
+                        entry.getValue().setLength(0);
+                    }
+                }
+                skippedCopy = new LinkedHashMap<Key, Long>(skipped);
+                skipped.clear();
+            }
+            for (Map.Entry<Key, String> entry : texts.entrySet()) {
+                Long count = skippedCopy.get(entry.getKey());
+                if (count != null) {
+                    super.notifyTextAvailable(PascalBundle.message("run.spool.skipped", count) + "\n", ProcessOutputTypes.SYSTEM);
+                }
+                super.notifyTextAvailable(entry.getValue(), entry.getKey());
+                delivered += entry.getValue().length();
+            }
+            if (!last && (delivered >= CONSOLE_LIMIT)) {
+                super.notifyTextAvailable(PascalBundle.message("run.spool.limit", delivered) + "\n", ProcessOutputTypes.SYSTEM);
+            }
+        }
+    }
+}
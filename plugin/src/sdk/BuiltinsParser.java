@@ -1,11 +1,12 @@
 package com.siberika.idea.pascal.sdk;
 
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiManager;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.testFramework.LightVirtualFile;
 import com.siberika.idea.pascal.PascalFileType;
 import com.siberika.idea.pascal.lang.psi.PascalModule;
+import com.siberika.idea.pascal.util.PsiUtil;
 import org.apache.xmlbeans.impl.common.IOUtil;
 
 import java.io.IOException;
@@ -19,6 +20,7 @@ public class BuiltinsParser {
 
     public static final String UNIT_NAME_BUILTINS = "$builtins.pas";
     private static LightVirtualFile BUILTINS = prepareBuiltins();
+    private static final Key<PascalModule> KEY_BUILTINS_MODULE = Key.create("pascal.builtins.module");
 
     private static LightVirtualFile prepareBuiltins() {
         LightVirtualFile res = new LightVirtualFile(UNIT_NAME_BUILTINS, PascalFileType.INSTANCE, "Error occured while preparing builtins");
@@ -35,6 +37,31 @@ public class BuiltinsParser {
     }
 
     public static PascalModule getBuiltinsModule(Project project) {
-        return PsiTreeUtil.getChildOfType(PsiManager.getInstance(project).findFile(BUILTINS), PascalModule.class);
+        PascalModule module = project.getUserData(KEY_BUILTINS_MODULE);
+        if ((null == module) || !module.isValid()) {
+            module = PsiUtil.getFileModule(PsiManager.getInstance(project).findFile(BUILTINS));
+            project.putUserData(KEY_BUILTINS_MODULE, module);
+        }
+        return module;
+    }
+
+    /**
+     * Returns application wide table of builtin symbols building it with builtins module of the project if needed
+     */
+    public static BuiltinsTable getBuiltinsTable(Project project) {
+        BuiltinsTable table = BuiltinsTable.getInstanceIfBuilt();
+        if (null == table) {
+            PascalModule module = getBuiltinsModule(project);
+            table = module != null ? BuiltinsTable.getInstance(module) : null;
+        }
+        return table;
+    }
+
+    /**
+     * Returns true if a symbol with the specified name may be declared in builtins unit
+     */
+    public static boolean isBuiltin(Project project, String name) {
+        BuiltinsTable table = getBuiltinsTable(project);
+        return (null == table) || (null == name) || table.contains(name);
     }
 }
@@ -0,0 +1,76 @@
+package com.siberika.idea.pascal.sdk;
+
+import com.siberika.idea.pascal.lang.psi.PascalModule;
+import com.siberika.idea.pascal.lang.psi.impl.PasField;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable case-insensitive table of symbols declared in builtins unit.
+ * Builtins source is a static resource so the table is built once per application and shared by all projects.
+ * Resolver consults the table to skip builtins module when a name is not declared there.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class BuiltinsTable {
+
+    private static volatile BuiltinsTable instance;
+
+    private final Map<String, PasField.FieldType> symbols;
+
+    private BuiltinsTable(Map<String, PasField.FieldType> symbols) {
+        this.symbols = Collections.unmodifiableMap(symbols);
+    }
+
+    /**
+     * Returns the table building it from the specified builtins module if it was not built yet
+     */
+    @NotNull
+    static BuiltinsTable getInstance(@NotNull PascalModule builtins) {
+        BuiltinsTable res = instance;
+        if (null == res) {
+            synchronized (BuiltinsTable.class) {
+                res = instance;
+                if (null == res) {
+                    res = build(builtins);
+                    if (!res.symbols.isEmpty()) {
+                        instance = res;
+                    }
+                }
+            }
+        }
+        return res;
+    }
+
+    @Nullable
+    static BuiltinsTable getInstanceIfBuilt() {
+        return instance;
+    }
+
+    private static BuiltinsTable build(PascalModule builtins) {
+        Map<String, PasField.FieldType> symbols = new HashMap<String, PasField.FieldType>();
+        for (PasField field : builtins.getPubicFields()) {
+            if (field.name != null) {
+                symbols.put(field.name.toUpperCase(), field.fieldType);
+            }
+        }
+        return new BuiltinsTable(symbols);
+    }
+
+    public boolean contains(@NotNull String name) {
+        return symbols.containsKey(name.toUpperCase());
+    }
+
+    @Nullable
+    public PasField.FieldType getType(@NotNull String name) {
+        return symbols.get(name.toUpperCase());
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+}
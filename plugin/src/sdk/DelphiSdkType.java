@@ -17,7 +17,6 @@ import com.siberika.idea.pascal.jps.model.JpsPascalModelSerializerExtension;
 import com.siberika.idea.pascal.jps.sdk.PascalCompilerFamily;
 import com.siberika.idea.pascal.jps.sdk.PascalSdkData;
 import com.siberika.idea.pascal.jps.sdk.PascalSdkUtil;
-import com.siberika.idea.pascal.util.SysUtils;
 import org.apache.commons.lang.text.StrBuilder;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
@@ -144,7 +143,7 @@ public class DelphiSdkType extends BasePascalSdkType {
     @NotNull
     private String[] getVersionLines(String sdkHome) {
         try {
-            String out = SysUtils.runAndGetStdOut(sdkHome, PascalSdkUtil.getDCC32Executable(sdkHome).getAbsolutePath(), PascalSdkUtil.DELPHI_PARAMS_VERSION_GET);
+            String out = SdkProbeCache.runAndGetStdOut(sdkHome, PascalSdkUtil.getDCC32Executable(sdkHome).getAbsolutePath(), PascalSdkUtil.DELPHI_PARAMS_VERSION_GET);
             return out != null ? out.split("\n", 3) : EMPTY_STRINGS;
         } catch (PascalException e) {
             LOG.info("Error: " + e.getMessage(), e);
@@ -16,7 +16,6 @@ import com.siberika.idea.pascal.jps.model.JpsPascalModelSerializerExtension;
 import com.siberika.idea.pascal.jps.sdk.PascalCompilerFamily;
 import com.siberika.idea.pascal.jps.sdk.PascalSdkData;
 import com.siberika.idea.pascal.jps.sdk.PascalSdkUtil;
-import com.siberika.idea.pascal.util.SysUtils;
 import org.apache.commons.lang.SystemUtils;
 import org.apache.commons.lang.text.StrBuilder;
 import org.jetbrains.annotations.NonNls;
@@ -94,7 +93,7 @@ public class FPCSdkType extends BasePascalSdkType {
     public String getVersionString(String sdkHome) {
         LOG.info("Getting version for SDK path: " + sdkHome);
         try {
-            return SysUtils.runAndGetStdOut(sdkHome, PascalSdkUtil.getFPCExecutable(sdkHome).getAbsolutePath(), PascalSdkUtil.FPC_PARAMS_VERSION_GET);
+            return SdkProbeCache.runAndGetStdOut(sdkHome, PascalSdkUtil.getFPCExecutable(sdkHome).getAbsolutePath(), PascalSdkUtil.FPC_PARAMS_VERSION_GET);
         } catch (PascalException e) {
             LOG.info("Error: " + e.getMessage(), e);
         } catch (RuntimeException e) {
@@ -107,7 +106,7 @@ public class FPCSdkType extends BasePascalSdkType {
     private static String getTargetString(String sdkHome) {
         LOG.info("Getting target for SDK path: " + sdkHome);
         try {
-            return SysUtils.runAndGetStdOut(sdkHome, PascalSdkUtil.getFPCExecutable(sdkHome).getAbsolutePath(), PascalSdkUtil.FPC_PARAMS_TARGET_GET);
+            return SdkProbeCache.runAndGetStdOut(sdkHome, PascalSdkUtil.getFPCExecutable(sdkHome).getAbsolutePath(), PascalSdkUtil.FPC_PARAMS_TARGET_GET);
         } catch (PascalException e) {
             LOG.info("Error: " + e.getMessage(), e);
         }
@@ -0,0 +1,138 @@
+package com.siberika.idea.pascal.sdk;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.xmlb.annotations.MapAnnotation;
+import com.siberika.idea.pascal.PascalException;
+import com.siberika.idea.pascal.util.SysUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Persistent cache of SDK executables output such as version and target of FPC, version of dcc32 and ppudump.
+ * Entries are keyed by executable path and parameters and store size and modification time of the executable.
+ * When the executable changes the stale output is returned and refreshed in background.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+@State(name = "PascalSdkProbeCache", storages = @Storage("pascal.sdk.probes.xml"))
+public class SdkProbeCache implements PersistentStateComponent<SdkProbeCache.ProbeState> {
+
+    private static final Logger LOG = Logger.getInstance(SdkProbeCache.class);
+
+    private final Executor refreshExecutor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ProbeState state = new ProbeState();
+
+    public SdkProbeCache() {
+        this(command -> ApplicationManager.getApplication().executeOnPooledThread(command));
+    }
+
+    SdkProbeCache(Executor refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Nullable
+    public static SdkProbeCache getInstance() {
+        return ApplicationManager.getApplication() != null ? ServiceManager.getService(SdkProbeCache.class) : null;
+    }
+
+    /**
+     * Same as SysUtils.runAndGetStdOut() but returns cached output if the executable was run with the same parameters before.
+     * Errors are not cached.
+     */
+    @Nullable
+    public static String runAndGetStdOut(String workDir, String exePath, String... params) throws PascalException {
+        SdkProbeCache cache = getInstance();
+        return cache != null ? cache.probe(workDir, exePath, params) : SysUtils.runAndGetStdOut(workDir, exePath, params);
+    }
+
+    @Nullable
+    String probe(String workDir, String exePath, String... params) throws PascalException {
+        final String key = getKey(exePath, params);
+        final File exe = new File(exePath);
+        Entry entry = state.entries.get(key);
+        if (null == entry) {
+            return run(key, exe, workDir, params);
+        }
+        if (!entry.matches(exe) && refreshing.add(key)) {
+            LOG.info("SDK executable changed, refreshing: " + key);
+            refreshExecutor.execute(() -> {
+                try {
+                    run(key, exe, workDir, params);
+                } catch (PascalException e) {
+                    LOG.info("Error: " + e.getMessage(), e);
+                    state.entries.remove(key);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        }
+        return entry.output;
+    }
+
+    public void clear() {
+        state.entries.clear();
+    }
+
+    private String run(String key, File exe, String workDir, String... params) throws PascalException {
+        long size = exe.length();
+        long modified = exe.lastModified();
+        String output = SysUtils.runAndGetStdOut(workDir, exe.getPath(), params);
+        if (output != null) {
+            state.entries.put(key, new Entry(output, size, modified));
+        }
+        return output;
+    }
+
+    private static String getKey(String exePath, String... params) {
+        return exePath + " " + StringUtil.join(params, " ");
+    }
+
+    @NotNull
+    @Override
+    public ProbeState getState() {
+        return state;
+    }
+
+    @Override
+    public void loadState(@NotNull ProbeState state) {
+        this.state.entries.clear();
+        this.state.entries.putAll(state.entries);
+    }
+
+    public static class ProbeState {
+        @MapAnnotation(surroundWithTag = false)
+        public Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    }
+
+    public static class Entry {
+        public String output;
+        public long size;
+        public long modified;
+
+        public Entry() {
+        }
+
+        Entry(String output, long size, long modified) {
+            this.output = output;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        boolean matches(File exe) {
+            return (exe.length() == size) && (exe.lastModified() == modified);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.siberika.idea.pascal.ui;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowAnchor;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import com.siberika.idea.pascal.PascalBundle;
+import com.siberika.idea.pascal.util.PerfStats;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Internal action which shows resolver statistics collected by PerfStats in a tool window and saves them to IDE log directory.
+ * Enables collection if it's disabled.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class PerfStatsAction extends AnAction implements DumbAware {
+
+    private static final Logger LOG = Logger.getInstance(PerfStatsAction.class);
+
+    private static final String TOOL_WINDOW_ID = "Pascal Statistics";
+    private static final String DUMP_FILE_NAME = "pascal-perf-stats.txt";
+
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabled(e.getProject() != null);
+    }
+
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (null == project) {
+            return;
+        }
+        String text;
+        if (!PerfStats.isEnabled()) {
+            PerfStats.setEnabled(true);
+            text = PascalBundle.message("ui.perfStats.enabled");
+        } else {
+            File file = new File(PathManager.getLogPath(), DUMP_FILE_NAME);
+            text = PerfStats.report();
+            try {
+                PerfStats.dump(file);
+                text = PascalBundle.message("ui.perfStats.dumped", file.getPath()) + "\n\n" + text;
+            } catch (IOException ex) {
+                LOG.info("Error saving statistics: " + ex.getMessage(), ex);
+            }
+        }
+        show(project, text);
+    }
+
+    private static void show(@NotNull Project project, String text) {
+        ToolWindowManager manager = ToolWindowManager.getInstance(project);
+        ToolWindow toolWindow = manager.getToolWindow(TOOL_WINDOW_ID);
+        if (null == toolWindow) {
+            toolWindow = manager.registerToolWindow(TOOL_WINDOW_ID, true, ToolWindowAnchor.BOTTOM);
+        }
+        JTextArea area = new JTextArea(text);
+        area.setEditable(false);
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, area.getFont().getSize()));
+        Content content = ContentFactory.SERVICE.getInstance().createContent(ScrollPaneFactory.createScrollPane(area), PascalBundle.message("ui.perfStats.title"), false);
+        toolWindow.getContentManager().removeAllContents(true);
+        toolWindow.getContentManager().addContent(content);
+        toolWindow.show(null);
+    }
+}
@@ -0,0 +1,95 @@
+package com.siberika.idea.pascal.util;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable char sequence which keeps text in a byte array: one byte per char when all chars fit Latin-1, two bytes per char otherwise.
+ * Decompiled units are mostly ASCII so on Java 8 runtimes, where String keeps two bytes per char, this halves memory needed to keep their text.
+ * Lexers and parsers work with the sequence directly so text of a cached unit is not copied to a String to build its stubs or PSI.
+ * Sub sequences share the byte array with the original sequence.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public final class CompactCharSequence implements CharSequence {
+
+    private final byte[] data;
+    private final boolean latin1;
+    private final int offset;
+    private final int length;
+
+    private CompactCharSequence(byte[] data, boolean latin1, int offset, int length) {
+        this.data = data;
+        this.latin1 = latin1;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @NotNull
+    public static CompactCharSequence of(@NotNull CharSequence text) {
+        if (text instanceof CompactCharSequence) {
+            return (CompactCharSequence) text;
+        }
+        int len = text.length();
+        boolean latin1 = true;
+        for (int i = 0; i < len; i++) {
+            if (text.charAt(i) > 0xFF) {
+                latin1 = false;
+                break;
+            }
+        }
+        byte[] data = new byte[latin1 ? len : len * 2];
+        for (int i = 0; i < len; i++) {
+            char c = text.charAt(i);
+            if (latin1) {
+                data[i] = (byte) c;
+            } else {
+                data[i * 2] = (byte) (c >> 8);
+                data[i * 2 + 1] = (byte) c;
+            }
+        }
+        return new CompactCharSequence(data, latin1, 0, len);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if ((index < 0) || (index >= length)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+        }
+        int pos = offset + index;
+        if (latin1) {
+            return (char) (data[pos] & 0xFF);
+        } else {
+            return (char) (((data[pos * 2] & 0xFF) << 8) | (data[pos * 2 + 1] & 0xFF));
+        }
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if ((start < 0) || (end > length) || (start > end)) {
+            throw new IndexOutOfBoundsException("Range: " + start + ".." + end + ", length: " + length);
+        }
+        return new CompactCharSequence(data, latin1, offset + start, end - start);
+    }
+
+    /**
+     * Returns number of bytes used to keep the text
+     */
+    public int getSize() {
+        return data.length;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = charAt(i);
+        }
+        return new String(chars);
+    }
+}
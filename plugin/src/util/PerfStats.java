@@ -0,0 +1,191 @@
+package com.siberika.idea.pascal.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lightweight instrumentation of resolver: per call site counters and latency/value histograms.
+ * Collection is disabled by default and can be enabled with "pascal.perf.stats" system property or at runtime.
+ * When disabled every call costs a single volatile read.
+ * Author: George Bakhtadze
+ * Date: 19/10/2026
+ */
+public class PerfStats {
+
+    public static final String ENABLED_PROPERTY = "pascal.perf.stats";
+
+    public static final String RESOLVE = "resolve";
+    public static final String RESOLVE_STUB = "resolve.stub";
+    public static final String RESOLVE_PSI = "resolve.psi";
+    public static final String RESOLVE_WITH_STUBS = "resolveWithStubs";
+    public static final String FIELD_TYPE_SCOPE = "retrieveFieldTypeScope";
+    public static final String RECURSION_DEPTH = "recursion.depth";
+    public static final String LOCK_TIMEOUT = "lock.timeout";
+    public static final String LOCK_WAIT = "lock.wait";
+    public static final String CACHE_HIT = ".cache.hit";
+    public static final String CACHE_MISS = ".cache.miss";
+
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "false"));
+
+    private static final Map<String, AtomicLong> counters = new ConcurrentHashMap<String, AtomicLong>();
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        PerfStats.enabled = enabled;
+    }
+
+    public static void reset() {
+        counters.clear();
+        histograms.clear();
+    }
+
+    public static void count(@NotNull String site) {
+        if (enabled) {
+            counters.computeIfAbsent(site, k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    public static void cacheAccess(@NotNull Object owner, boolean hit) {
+        if (enabled) {
+            count(owner.getClass().getSimpleName() + (hit ? CACHE_HIT : CACHE_MISS));
+        }
+    }
+
+    /**
+     * Returns start time to pass to stop() or 0 if collection is disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records time elapsed since the start in histogram of the call site
+     */
+    public static void stop(@NotNull String site, long start) {
+        if (enabled && (start != 0)) {
+            record(site, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records the value in histogram of the call site
+     */
+    public static void record(@NotNull String site, long value) {
+        if (enabled) {
+            histograms.computeIfAbsent(site, k -> new Histogram()).record(value);
+        }
+    }
+
+    public static long getCount(@NotNull String site) {
+        AtomicLong counter = counters.get(site);
+        return counter != null ? counter.get() : 0;
+    }
+
+    public static Histogram getHistogram(@NotNull String site) {
+        return histograms.get(site);
+    }
+
+    @NotNull
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-50s %12s%n", "Counter", "Count"));
+        for (Map.Entry<String, AtomicLong> entry : new TreeMap<String, AtomicLong>(counters).entrySet()) {
+            sb.append(String.format("%-50s %12d%n", entry.getKey(), entry.getValue().get()));
+        }
+        sb.append(String.format("%n%-50s %12s %12s %12s %12s %12s%n", "Histogram", "Count", "Mean", "P50", "P99", "Max"));
+        for (Map.Entry<String, Histogram> entry : new TreeMap<String, Histogram>(histograms).entrySet()) {
+            Histogram h = entry.getValue();
+            sb.append(String.format("%-50s %12d %12d %12d %12d %12d%n", entry.getKey(), h.getCount(), h.getMean(),
+                    h.getPercentile(50), h.getPercentile(99), h.getMax()));
+        }
+        return sb.toString();
+    }
+
+    public static void dump(@NotNull File file) throws IOException {
+        Files.write(file.toPath(), report().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lock-free histogram with logarithmic buckets each split into linear sub buckets. Relative error of percentiles is within 1/16.
+     */
+    public static class Histogram {
+        private static final int SUB_BITS = 4;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_COUNT;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long value) {
+            value = Math.max(value, 0);
+            buckets.incrementAndGet(getIndex(value));
+            count.incrementAndGet();
+            sum.addAndGet(value);
+            long current = max.get();
+            while ((value > current) && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        static int getIndex(long value) {
+            if (value < SUB_COUNT) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+            return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) & (SUB_COUNT - 1));
+        }
+
+        // Returns the lowest value which falls into the bucket
+        static long getValue(int index) {
+            if (index < SUB_COUNT) {
+                return index;
+            }
+            int shift = (index >>> SUB_BITS) - 1;
+            return ((long) (SUB_COUNT + (index & (SUB_COUNT - 1)))) << shift;
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public long getMean() {
+            long cnt = count.get();
+            return cnt > 0 ? sum.get() / cnt : 0;
+        }
+
+        public long getPercentile(double percentile) {
+            long cnt = count.get();
+            if (0 == cnt) {
+                return 0;
+            }
+            long threshold = Math.max(1, (long) Math.ceil(cnt * percentile / 100));
+            long acc = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                acc += buckets.get(i);
+                if (acc >= threshold) {
+                    return Math.min(getValue(i), getMax());
+                }
+            }
+            return getMax();
+        }
+    }
+}
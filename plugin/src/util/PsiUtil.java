@@ -14,9 +14,12 @@ import com.intellij.psi.PsiWhiteSpace;
 import com.intellij.psi.SmartPointerManager;
 import com.intellij.psi.SmartPsiElementPointer;
 import com.intellij.psi.StubBasedPsiElement;
+import com.intellij.psi.impl.source.PsiFileImpl;
 import com.intellij.psi.impl.source.tree.LeafPsiElement;
 import com.intellij.psi.impl.source.tree.TreeUtil;
 import com.intellij.psi.search.PsiElementProcessor;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubTree;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.FileContentUtil;
@@ -35,6 +38,7 @@ import com.siberika.idea.pascal.lang.psi.impl.PasStubStructTypeImpl;
 import com.siberika.idea.pascal.lang.psi.impl.PasSubIdentImpl;
 import com.siberika.idea.pascal.lang.psi.impl.PasTypeIDImpl;
 import com.siberika.idea.pascal.lang.psi.impl.PascalExpression;
+import com.siberika.idea.pascal.lang.references.AstLoadCounter;
 import com.siberika.idea.pascal.lang.references.ResolveUtil;
 import com.siberika.idea.pascal.sdk.BuiltinsParser;
 import org.apache.commons.lang.StringUtils;
@@ -320,6 +324,31 @@ public class PsiUtil {
         return PsiTreeUtil.findChildOfType(element.getContainingFile(), PasModule.class);
     }
 
+    /**
+     * Returns module of the file. If AST of the file is not loaded the module is taken from stub tree to avoid AST loading.
+     * This is the case for library and compiled units which are normally resolved via stubs only.
+     *
+     * @param file - file
+     * @return module of the file
+     */
+    @Nullable
+    public static PascalModule getFileModule(@Nullable PsiFile file) {
+        if (file instanceof PsiFileImpl) {
+            StubTree stubTree = ((PsiFileImpl) file).getStubTree();
+            if (stubTree != null) {
+                for (StubElement stub : stubTree.getRoot().getChildrenStubs()) {
+                    if (stub.getPsi() instanceof PascalModule) {
+                        return (PascalModule) stub.getPsi();
+                    }
+                }
+            }
+            if (((PsiFileImpl) file).getTreeElement() == null) {
+                AstLoadCounter.registerLoad(file.getVirtualFile());
+            }
+        }
+        return PsiTreeUtil.findChildOfType(file, PascalModule.class);
+    }
+
     /**
      * Returns interface section of module specified by section
      *
@@ -18,7 +18,11 @@ public class SyncUtil {
 
     public static boolean tryLockQuiet(Lock lock, int timeoutMs) {
         try {
-            return lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS);
+            boolean locked = lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS);
+            if (!locked) {
+                PerfStats.count(PerfStats.LOCK_TIMEOUT);
+            }
+            return locked;
         } catch (InterruptedException e) {
             LOG.warn("Interrupted thread", e);
             return false;
@@ -28,6 +32,7 @@ public class SyncUtil {
     public static boolean lockOrCancel(Lock lock) {
         try {
             while (!lock.tryLock(LOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                PerfStats.count(PerfStats.LOCK_WAIT);
                 ProgressManager.checkCanceled();
             }
 //            lock.lockInterruptibly();
@@ -0,0 +1,88 @@
+package com.siberika.idea.pascal;
+
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.lang.psi.PasExpression;
+import com.siberika.idea.pascal.lang.psi.PasStatement;
+import com.siberika.idea.pascal.lang.psi.impl.PasStatementImpl;
+import com.siberika.idea.pascal.lang.psi.impl.PascalExpression;
+import com.siberika.idea.pascal.lang.psi.impl.TypeInferenceCache;
+import com.siberika.idea.pascal.util.PerfBudget;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Type inference benchmark over typeInference fixtures with main block statements replicated many times.
+ * Time budgets are relative to parsing of the scaled unit, see {@link PerfBudget}.
+ */
+public class InfereTypeBenchmarkTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    private static final int SCALE = 200;
+
+    @Override
+    protected String getTestDataPath() {
+        return "testData/typeInference";
+    }
+
+    public void testSimple() throws Exception {
+        doBenchmark("infereTypeSimple", 20);
+    }
+
+    public void testPath() throws Exception {
+        doBenchmark("infereTypePath", 50);
+    }
+
+    public void testComplex() throws Exception {
+        doBenchmark("infereTypeComplex", 30);
+    }
+
+    private void doBenchmark(String unitName, double timeFactor) throws IOException {
+        String scaledName = unitName + "Scaled";
+        String text = scale(FileUtil.loadFile(new File(getTestDataPath(), unitName + ".pas")), unitName, scaledName);
+        myFixture.configureByText(scaledName + ".pas", text);
+        final List<PasExpression> expressions = getStatementExpressions();
+        final List<String> first = inferAll(expressions);
+        new PerfBudget("infereType." + unitName, PerfBudget.calibrate(getProject(), text)).time(timeFactor).check(
+                () -> TypeInferenceCache.invalidate(myFixture.getFile()), () -> assertEquals(first, inferAll(expressions)));
+    }
+
+    private static List<String> inferAll(List<PasExpression> expressions) {
+        List<String> res = new ArrayList<String>(expressions.size());
+        for (PasExpression expression : expressions) {
+            res.add(PascalExpression.infereType(expression.getExpr()));
+        }
+        return res;
+    }
+
+    // Replicates statements of the main block SCALE times
+    private static String scale(String text, String unitName, String scaledName) {
+        int blockStart = text.lastIndexOf("\nbegin") + "\nbegin".length();
+        int blockEnd = text.lastIndexOf("end.");
+        String body = text.substring(blockStart, blockEnd);
+        StringBuilder sb = new StringBuilder(text.substring(0, blockStart).replaceFirst(unitName, scaledName));
+        for (int i = 0; i < SCALE; i++) {
+            sb.append(body);
+        }
+        return sb.append(text.substring(blockEnd)).toString();
+    }
+
+    private List<PasExpression> getStatementExpressions() {
+        List<PasExpression> res = new ArrayList<PasExpression>();
+        Collection<PasStatement> stmts = PsiTreeUtil.findChildrenOfType(myFixture.getFile(), PasStatement.class);
+        for (PasStatement stmt : stmts) {
+            if (stmt.getClass() == PasStatementImpl.class) {
+                PasExpression expr = PsiTreeUtil.findChildOfType(stmt, PasExpression.class);
+                if (expr != null) {
+                    res.add(expr);
+                }
+            }
+        }
+        return res;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.siberika.idea.pascal;
+
+import com.intellij.codeInsight.lookup.LookupManager;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.benchmark.UnitGenerator;
+import com.siberika.idea.pascal.lang.PascalFileModel;
+import com.siberika.idea.pascal.lang.PascalFoldingBuilder;
+import com.siberika.idea.pascal.lang.PascalImportOptimizer;
+import com.siberika.idea.pascal.lang.inspection.UnusedUnitsInspection;
+import com.siberika.idea.pascal.lang.psi.PasUsesClause;
+import com.siberika.idea.pascal.lang.psi.PascalRoutine;
+import com.siberika.idea.pascal.util.PerfBudget;
+import com.siberika.idea.pascal.util.TestUtil;
+
+import java.util.Map;
+
+/**
+ * Performance regression tests of highlighting, completion, find usages, folding and unused units detection over a generated project.
+ * Budgets are relative to parsing of the main unit measured in the same run, see {@link PerfBudget}.
+ * Each measured run starts with dropped platform resolve caches and file model while plugin scope caches stay warm.
+ */
+public class PerformanceBudgetTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    private static final int ROUTINES = 300;
+    private static final int USED_UNITS = 10;
+    private static final int UNUSED_UNITS = 3;
+
+    private PerfBudget.Measurement calibration;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        Map<String, String> files = new UnitGenerator().size(ROUTINES).fanOut(USED_UNITS).unused(UNUSED_UNITS).caret(true).generate();
+        String mainText = null;
+        for (Map.Entry<String, String> entry : files.entrySet()) {
+            if (entry.getKey().startsWith(UnitGenerator.MAIN_UNIT)) {
+                mainText = entry.getValue();
+                myFixture.configureByText(entry.getKey(), mainText);
+            } else {
+                myFixture.addFileToProject(entry.getKey(), entry.getValue());
+            }
+        }
+        final String text = mainText.replace(UnitGenerator.CARET, "");
+        calibration = PerfBudget.calibrate(getProject(), text);
+    }
+
+    @Override
+    protected boolean isWriteActionRequired() {
+        return false;
+    }
+
+    public void testAnnotator() {
+        new PerfBudget("annotator", calibration).time(60).alloc(60).check(this::dropCaches, () -> myFixture.doHighlighting());
+    }
+
+    public void testCompletion() {
+        new PerfBudget("completion", calibration).time(30).alloc(30).check(this::dropCaches, () -> {
+            myFixture.completeBasic();
+            LookupManager.getInstance(getProject()).hideActiveLookup();
+        });
+    }
+
+    public void testFindUsages() {
+        final PascalRoutine routine = TestUtil.findSymbols(getProject(), "DepFunc0", PascalRoutine.class).iterator().next();
+        new PerfBudget("findUsages", calibration).time(30).alloc(30).check(this::dropCaches,
+                () -> assertFalse(myFixture.findUsages(routine).isEmpty()));
+    }
+
+    public void testFolding() {
+        final Document document = myFixture.getEditor().getDocument();
+        new PerfBudget("folding", calibration).time(3).alloc(3).check(this::dropCaches,
+                () -> assertTrue(new PascalFoldingBuilder().buildFoldRegions(myFixture.getFile(), document, false).length > ROUTINES));
+    }
+
+    public void testUnusedUnitsInspection() {
+        final UnusedUnitsInspection inspection = new UnusedUnitsInspection();
+        new PerfBudget("unusedUnits", calibration).time(30).alloc(30).check(this::dropCaches, () -> {
+            ProblemsHolder holder = new ProblemsHolder(InspectionManager.getInstance(getProject()), myFixture.getFile(), false);
+            for (PasUsesClause usesClause : PsiTreeUtil.findChildrenOfType(myFixture.getFile(), PasUsesClause.class)) {
+                inspection.checkUses(usesClause, holder, false);
+            }
+            assertEquals(UNUSED_UNITS, holder.getResultCount());
+        });
+    }
+
+    public void testImportOptimizer() {
+        new PerfBudget("importOptimizer", calibration).time(30).alloc(30).check(this::dropCaches,
+                () -> assertNotNull(PascalImportOptimizer.doProcess(myFixture.getFile())));
+    }
+
+    private void dropCaches() {
+        PsiManager.getInstance(getProject()).dropResolveCaches();
+        PascalFileModel.invalidate(myFixture.getFile());
+    }
+}
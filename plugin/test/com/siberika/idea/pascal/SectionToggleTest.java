@@ -1,5 +1,6 @@
 package com.siberika.idea.pascal;
 
+import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiElement;
 import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
 import com.siberika.idea.pascal.ide.actions.SectionToggle;
@@ -8,6 +9,9 @@ import com.siberika.idea.pascal.lang.psi.PascalNamedElement;
 import com.siberika.idea.pascal.lang.psi.PascalRoutine;
 import com.siberika.idea.pascal.lang.psi.impl.PasExportedRoutineImpl;
 import com.siberika.idea.pascal.lang.psi.impl.PasRoutineImplDeclImpl;
+import com.siberika.idea.pascal.lang.psi.impl.PascalModuleImpl;
+import com.siberika.idea.pascal.lang.psi.impl.RoutineMap;
+import com.siberika.idea.pascal.util.PsiUtil;
 import com.siberika.idea.pascal.util.TestUtil;
 
 import java.util.ArrayList;
@@ -48,6 +52,22 @@ public class SectionToggleTest extends LightPlatformCodeInsightFixtureTestCase {
         assertEquals(46, decl.getTextRange().getStartOffset());
     }
 
+    public void testRoutineMap() {
+        List<PascalNamedElement> symbols = retrieveSymbols("sectionToggleStrict.pas");
+        PascalModuleImpl module = (PascalModuleImpl) PsiUtil.getElementPasModule(myFixture.getFile());
+        RoutineMap map = module.getRoutineMap();
+        assertNotNull(map);
+        for (PasExportedRoutineImpl decl : getDecls(symbols)) {
+            if (decl.getContainingFile() == myFixture.getFile()) {
+                assertTrue(String.format("Declaration %s is not mapped", decl.getName()), map.contains(decl));
+            }
+        }
+        assertSame(map, module.getRoutineMap());
+        myFixture.type(' ');
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+        assertNotSame(map, module.getRoutineMap());
+    }
+
     private List<PascalNamedElement> retrieveSymbols(String filename) {
         myFixture.configureByFiles(filename);
         List<PascalNamedElement> symbols = new ArrayList<PascalNamedElement>(TestUtil.findSymbols(myFixture.getProject(), ""));
@@ -0,0 +1,45 @@
+package com.siberika.idea.pascal;
+
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.util.PerfBudget;
+
+/**
+ * Typing latency benchmark over a generated large unit. Each typed character is followed by document commit (reparse).
+ * Time budget is relative to full parsing of the unit, see {@link PerfBudget}. Incremental reparse should stay well below it.
+ */
+public class TypingBenchmarkTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    private static final int ROUTINES = 2000;
+    private static final String TYPED = "\n  if Result > 0 then begin Inc(Result); end;";
+    private static final double TIME_FACTOR = 5;
+
+    public void testTypeInRoutineBody() {
+        String text = generateUnit(ROUTINES, ROUTINES / 2);
+        myFixture.configureByText("typingBenchmark.pas", text);
+        new PerfBudget("typing", PerfBudget.calibrate(getProject(), text.replace("<caret>", ""))).time(TIME_FACTOR).check(() -> {}, () -> {
+            for (char c : TYPED.toCharArray()) {
+                myFixture.type(c);
+                PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+            }
+        });
+    }
+
+    // Generates a unit with the specified number of routines and places caret into body of the routine with the specified index
+    private static String generateUnit(int count, int caretRoutine) {
+        StringBuilder sb = new StringBuilder("unit typingBenchmark;\n\ninterface\n\n");
+        for (int i = 0; i < count; i++) {
+            sb.append("function f").append(i).append("(a: Integer): Integer;\n");
+        }
+        sb.append("\nimplementation\n\n");
+        for (int i = 0; i < count; i++) {
+            sb.append("function f").append(i).append("(a: Integer): Integer;\nbegin\n")
+                    .append("  Result := a * ").append(i).append(";\n")
+                    .append("  try\n    Result := Result + f").append(Math.max(i - 1, 0)).append("(a);\n  finally\n")
+                    .append("    case a of\n      0: Result := 0;\n    else\n      Result := -Result;\n    end;\n  end;")
+                    .append(i == caretRoutine ? "<caret>" : "")
+                    .append("\nend;\n\n");
+        }
+        return sb.append("end.\n").toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.siberika.idea.pascal.benchmark;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.util.Computable;
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.CodeInsightTestFixture;
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import com.intellij.testFramework.fixtures.TestFixtureBuilder;
+import com.intellij.testFramework.fixtures.impl.LightTempDirTestFixtureImpl;
+
+import java.util.Map;
+
+/**
+ * Light code insight fixture for JMH benchmarks which need a project with Pascal files.
+ * Set up in a trial level @Setup method and tear down in the corresponding @TearDown method.
+ */
+public class BenchmarkFixture {
+
+    private CodeInsightTestFixture fixture;
+    private PsiFile mainFile;
+
+    /**
+     * Creates the fixture, adds the files to project and opens the last one in editor
+     */
+    public void setUp(final Map<String, String> files) throws Throwable {
+        IdeaTestFixtureFactory factory = IdeaTestFixtureFactory.getFixtureFactory();
+        TestFixtureBuilder<IdeaProjectTestFixture> builder = factory.createLightFixtureBuilder(LightProjectDescriptor.EMPTY_PROJECT_DESCRIPTOR);
+        fixture = factory.createCodeInsightFixture(builder.getFixture(), new LightTempDirTestFixtureImpl(true));
+        EdtTestUtil.runInEdtAndWait(() -> {
+            fixture.setUp();
+            int count = 0;
+            for (Map.Entry<String, String> entry : files.entrySet()) {
+                if (++count < files.size()) {
+                    fixture.addFileToProject(entry.getKey(), entry.getValue());
+                } else {
+                    mainFile = fixture.configureByText(entry.getKey(), entry.getValue());
+                }
+            }
+        });
+    }
+
+    public void tearDown() throws Throwable {
+        if (fixture != null) {
+            EdtTestUtil.runInEdtAndWait(() -> fixture.tearDown());
+            fixture = null;
+        }
+    }
+
+    public CodeInsightTestFixture getFixture() {
+        return fixture;
+    }
+
+    public PsiFile getMainFile() {
+        return mainFile;
+    }
+
+    public static <T> T read(Computable<T> computable) {
+        return ApplicationManager.getApplication().runReadAction(computable);
+    }
+}
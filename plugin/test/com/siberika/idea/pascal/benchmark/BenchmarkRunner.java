@@ -0,0 +1,115 @@
+package com.siberika.idea.pascal.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs Pascal benchmarks and compares results between runs. Run from the project root directory.
+ * <pre>
+ *   BenchmarkRunner [benchmark regexp...]          - runs benchmarks (all by default) and saves results to benchmarks/&lt;label&gt;.csv
+ *   BenchmarkRunner --compare base.csv other.csv   - prints score changes between two saved runs
+ * </pre>
+ * Label is taken from "benchmark.label" system property, current time is used by default. Use commit hash as label to compare commits.
+ * If benchmarks/baseline.csv exists results of a run are compared with it.
+ */
+public class BenchmarkRunner {
+
+    static final String ALL_BENCHMARKS = "com\\.siberika\\.idea\\.pascal\\..*Benchmark";
+    static final File RESULTS_DIR = new File("benchmarks");
+    static final File BASELINE = new File(RESULTS_DIR, "baseline.csv");
+
+    public static void main(String... args) throws Exception {
+        if ((args.length == 3) && "--compare".equals(args[0])) {
+            System.out.println(compare(new File(args[1]), new File(args[2])));
+            return;
+        }
+        if (!RESULTS_DIR.isDirectory() && !RESULTS_DIR.mkdirs()) {
+            throw new IOException("Can't create directory " + RESULTS_DIR.getAbsolutePath());
+        }
+        File result = new File(RESULTS_DIR, System.getProperty("benchmark.label", String.valueOf(System.currentTimeMillis())) + ".csv");
+        ChainedOptionsBuilder options = new OptionsBuilder().resultFormat(ResultFormatType.CSV).result(result.getPath());
+        if (args.length == 0) {
+            options.include(ALL_BENCHMARKS);
+        }
+        for (String include : args) {
+            options.include(include);
+        }
+        new Runner(options.build()).run();
+        System.out.println("Results saved to " + result.getAbsolutePath());
+        if (BASELINE.isFile() && !BASELINE.equals(result)) {
+            System.out.println(compare(BASELINE, result));
+        }
+    }
+
+    /**
+     * Returns table of scores of benchmarks present in both result files with relative change
+     */
+    static String compare(File base, File other) throws IOException {
+        Map<String, Double> baseScores = readScores(base);
+        Map<String, Double> otherScores = readScores(other);
+        StringBuilder sb = new StringBuilder(String.format("%-70s %14s %14s %9s%n", "Benchmark", "Base", "New", "Change"));
+        for (Map.Entry<String, Double> entry : otherScores.entrySet()) {
+            Double baseScore = baseScores.get(entry.getKey());
+            if (baseScore != null) {
+                double change = baseScore != 0 ? (entry.getValue() - baseScore) * 100 / baseScore : 0;
+                sb.append(String.format("%-70s %14.3f %14.3f %+8.1f%%%n", entry.getKey(), baseScore, entry.getValue(), change));
+            }
+        }
+        return sb.toString();
+    }
+
+    // Reads JMH CSV results. Key is benchmark name with parameter values.
+    static Map<String, Double> readScores(File file) throws IOException {
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Map<String, Double> res = new LinkedHashMap<String, Double>();
+        if (lines.isEmpty()) {
+            return res;
+        }
+        List<String> header = splitCsv(lines.get(0));
+        int scoreIndex = header.indexOf("Score");
+        for (String line : lines.subList(1, lines.size())) {
+            List<String> values = splitCsv(line);
+            if ((scoreIndex < 0) || (values.size() != header.size())) {
+                continue;
+            }
+            StringBuilder key = new StringBuilder(values.get(0));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ")) {
+                    key.append(" ").append(header.get(i).substring(7)).append("=").append(values.get(i));
+                }
+            }
+            res.put(key.toString(), Double.parseDouble(values.get(scoreIndex).replace(',', '.')));
+        }
+        return res;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> res = new ArrayList<String>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if ((c == ',') && !quoted) {
+                res.add(sb.toString());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        res.add(sb.toString());
+        return res;
+    }
+}
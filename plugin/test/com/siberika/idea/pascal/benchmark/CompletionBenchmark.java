@@ -0,0 +1,65 @@
+package com.siberika.idea.pascal.benchmark;
+
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.codeInsight.lookup.LookupManager;
+import com.intellij.testFramework.EdtTestUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Basic completion at statement start in a generated unit which uses the configured number of generated units.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompletionBenchmark {
+
+    @Param({"50", "200"})
+    public int size;
+
+    @Param({"1", "10"})
+    public int fanOut;
+
+    private final BenchmarkFixture fixture = new BenchmarkFixture();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        fixture.setUp(new UnitGenerator().size(size).fanOut(fanOut).caret(true).generate());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Throwable {
+        fixture.tearDown();
+    }
+
+    @Benchmark
+    public int complete() throws Throwable {
+        final int[] count = {0};
+        EdtTestUtil.runInEdtAndWait(() -> {
+            LookupElement[] elements = fixture.getFixture().completeBasic();
+            count[0] = elements != null ? elements.length : 0;
+            LookupManager.getInstance(fixture.getFixture().getProject()).hideActiveLookup();
+        });
+        return count[0];
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.main(CompletionBenchmark.class.getSimpleName());
+    }
+}
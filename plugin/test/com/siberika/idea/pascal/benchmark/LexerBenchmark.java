@@ -0,0 +1,70 @@
+package com.siberika.idea.pascal.benchmark;
+
+import com.intellij.lexer.Lexer;
+import com.siberika.idea.pascal.lang.lexer.PascalLexer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lexer throughput over a generated unit including conditional directives handling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LexerBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"0", "30"})
+    public int conditionalDensity;
+
+    private final BenchmarkFixture fixture = new BenchmarkFixture();
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        UnitGenerator generator = new UnitGenerator().size(size).conditionalDensity(conditionalDensity).fanOut(0);
+        fixture.setUp(generator.generate());
+        text = generator.generateMain();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Throwable {
+        fixture.tearDown();
+    }
+
+    @Benchmark
+    public int lex() {
+        return BenchmarkFixture.read(() -> {
+            Lexer lexer = new PascalLexer.ParsingPascalLexer(fixture.getFixture().getProject(), null);
+            lexer.start(text);
+            int count = 0;
+            while (lexer.getTokenType() != null) {
+                count++;
+                lexer.advance();
+            }
+            return count;
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.main(LexerBenchmark.class.getSimpleName());
+    }
+}
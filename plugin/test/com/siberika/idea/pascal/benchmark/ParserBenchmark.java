@@ -0,0 +1,71 @@
+package com.siberika.idea.pascal.benchmark;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.siberika.idea.pascal.PascalLanguage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full parse of a generated unit. All lazy blocks are expanded by walking the resulting tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"1", "4"})
+    public int nesting;
+
+    private final BenchmarkFixture fixture = new BenchmarkFixture();
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        UnitGenerator generator = new UnitGenerator().size(size).nesting(nesting).fanOut(0);
+        fixture.setUp(generator.generate());
+        text = generator.generateMain();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Throwable {
+        fixture.tearDown();
+    }
+
+    @Benchmark
+    public int parse() {
+        return BenchmarkFixture.read(() -> {
+            PsiFile file = PsiFileFactory.getInstance(fixture.getFixture().getProject()).createFileFromText("parserBench.pas", PascalLanguage.INSTANCE, text);
+            final int[] count = {0};
+            PsiTreeUtil.processElements(file, element -> {
+                count[0]++;
+                return true;
+            });
+            return count[0];
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.main(ParserBenchmark.class.getSimpleName());
+    }
+}
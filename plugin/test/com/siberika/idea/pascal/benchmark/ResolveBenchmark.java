@@ -0,0 +1,83 @@
+package com.siberika.idea.pascal.benchmark;
+
+import com.intellij.psi.util.PsiTreeUtil;
+import com.siberika.idea.pascal.lang.parser.NamespaceRec;
+import com.siberika.idea.pascal.lang.psi.PasFullyQualifiedIdent;
+import com.siberika.idea.pascal.lang.psi.PasSubIdent;
+import com.siberika.idea.pascal.lang.psi.impl.PasField;
+import com.siberika.idea.pascal.lang.references.PasReferenceUtil;
+import com.siberika.idea.pascal.lang.references.ResolveContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves all qualified identifiers of a generated unit which uses the configured number of generated units.
+ * Member caches of scopes stay warm between invocations as they do in the editor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResolveBenchmark {
+
+    @Param({"50", "200"})
+    public int size;
+
+    @Param({"1", "10"})
+    public int fanOut;
+
+    private final BenchmarkFixture fixture = new BenchmarkFixture();
+    private List<PasSubIdent> idents;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        fixture.setUp(new UnitGenerator().size(size).fanOut(fanOut).generate());
+        idents = BenchmarkFixture.read(() -> {
+            List<PasSubIdent> res = new ArrayList<PasSubIdent>();
+            for (PasFullyQualifiedIdent ident : PsiTreeUtil.findChildrenOfType(fixture.getMainFile(), PasFullyQualifiedIdent.class)) {
+                List<PasSubIdent> subIdents = ident.getSubIdentList();
+                if (!subIdents.isEmpty()) {
+                    res.add(subIdents.get(subIdents.size() - 1));
+                }
+            }
+            return res;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Throwable {
+        fixture.tearDown();
+    }
+
+    @Benchmark
+    public int resolve() {
+        return BenchmarkFixture.read(() -> {
+            int count = 0;
+            for (PasSubIdent ident : idents) {
+                count += PasReferenceUtil.resolveExpr(NamespaceRec.fromElement(ident), new ResolveContext(PasField.TYPES_ALL, true), 0).size();
+            }
+            return count;
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.main(ResolveBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,69 @@
+package com.siberika.idea.pascal.benchmark;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.stubs.StubElement;
+import com.siberika.idea.pascal.PascalLanguage;
+import com.siberika.idea.pascal.lang.stub.LightStubBuilderTest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stub building of a generated unit from freshly parsed PSI and from light AST. Run with "-prof gc" to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StubBuilderBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private final BenchmarkFixture fixture = new BenchmarkFixture();
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        UnitGenerator generator = new UnitGenerator().size(size).fanOut(0);
+        fixture.setUp(generator.generate());
+        text = generator.generateMain();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Throwable {
+        fixture.tearDown();
+    }
+
+    @Benchmark
+    public StubElement psiStubs() {
+        return BenchmarkFixture.read(() -> {
+            PsiFile file = PsiFileFactory.getInstance(fixture.getFixture().getProject()).createFileFromText("stubBench.pas", PascalLanguage.INSTANCE, text);
+            return LightStubBuilderTest.buildPsiStubs(file);
+        });
+    }
+
+    @Benchmark
+    public StubElement lightStubs() {
+        return BenchmarkFixture.read(() -> LightStubBuilderTest.buildLightStubs(fixture.getFixture().getProject(), fixture.getMainFile()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.main(StubBuilderBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,183 @@
+package com.siberika.idea.pascal.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates synthetic Pascal units for benchmarks and performance tests.
+ * Main unit uses the configured number of dependency units and declares classes and routines which call into them.
+ * Size is the number of routines in the main unit, nesting is the depth of nested statements in routine bodies,
+ * fan-out is the number of used units and conditional density is the percentage of statements wrapped in conditional directives.
+ * Unused units are listed in the main unit uses clause but none of their symbols are referenced.
+ * Output is deterministic for the same settings.
+ */
+public class UnitGenerator {
+
+    public static final String MAIN_UNIT = "benchMain";
+    public static final String CARET = "<caret>";
+
+    private int size = 100;
+    private int nesting = 2;
+    private int fanOut = 5;
+    private int conditionalDensity = 10;
+    private int classes = 10;
+    private int unused = 0;
+    private boolean caret = false;
+
+    public UnitGenerator size(int size) {
+        this.size = size;
+        return this;
+    }
+
+    public UnitGenerator nesting(int nesting) {
+        this.nesting = nesting;
+        return this;
+    }
+
+    public UnitGenerator fanOut(int fanOut) {
+        this.fanOut = fanOut;
+        return this;
+    }
+
+    public UnitGenerator conditionalDensity(int percent) {
+        this.conditionalDensity = percent;
+        return this;
+    }
+
+    public UnitGenerator classes(int classes) {
+        this.classes = classes;
+        return this;
+    }
+
+    public UnitGenerator unused(int unused) {
+        this.unused = unused;
+        return this;
+    }
+
+    /**
+     * Places caret marker at an identifier start in the main unit initialization section
+     */
+    public UnitGenerator caret(boolean caret) {
+        this.caret = caret;
+        return this;
+    }
+
+    /**
+     * Returns file names mapped to texts. The main unit is the last entry.
+     */
+    public Map<String, String> generate() {
+        Map<String, String> res = new LinkedHashMap<String, String>();
+        for (int i = 0; i < fanOut + unused; i++) {
+            res.put(depName(i) + ".pas", generateDependency(i));
+        }
+        res.put(MAIN_UNIT + ".pas", generateMain());
+        return res;
+    }
+
+    public String generateMain() {
+        Random random = new Random(size * 31 + nesting);
+        StringBuilder sb = new StringBuilder();
+        sb.append("unit ").append(MAIN_UNIT).append(";\n\n{$MODE DELPHI}\n\ninterface\n\n");
+        appendUses(sb);
+        sb.append("type\n");
+        for (int c = 0; c < classes; c++) {
+            sb.append(String.format("  TMain%d = class(%s)\n  private\n    FValue: Integer;\n    FName: String;\n  public\n", c,
+                    fanOut > 0 ? "TDep" + (c % fanOut) : "TObject"));
+            sb.append("    function Calc(A: Integer): Integer;\n    property Value: Integer read FValue write FValue;\n  end;\n\n");
+        }
+        for (int r = 0; r < size; r++) {
+            sb.append(String.format("function Func%d(A: Integer): Integer;\n", r));
+        }
+        sb.append("\nimplementation\n\n");
+        for (int c = 0; c < classes; c++) {
+            sb.append(String.format("function TMain%d.Calc(A: Integer): Integer;\nbegin\n  Result := FValue + A;\n  FName := IntToStr(Result);\nend;\n\n", c));
+        }
+        for (int r = 0; r < size; r++) {
+            sb.append(String.format("function Func%d(A: Integer): Integer;\nvar\n  Obj: TMain%d;\n  I: Integer;\nbegin\n", r, r % Math.max(classes, 1)));
+            sb.append("  Obj := nil;\n  Result := 0;\n");
+            appendStatements(sb, r, 1, random);
+            sb.append("end;\n\n");
+        }
+        sb.append("initialization\n  ").append(caret ? CARET : "").append("Func0(1);\nend.\n");
+        return sb.toString();
+    }
+
+    private void appendStatements(StringBuilder sb, int r, int level, Random random) {
+        String indent = indent(level);
+        appendStatement(sb, indent, "Result := Result + Obj.Calc(A) + Obj.Value;", random);
+        if (fanOut > 0) {
+            int dep = r % fanOut;
+            appendStatement(sb, indent, String.format("Result := Result + %s.DepFunc%d(A);", depName(dep), dep), random);
+        }
+        appendStatement(sb, indent, String.format("Result := Result + Func%d(A - 1);", Math.max(r - 1, 0)), random);
+        if (level <= nesting) {
+            sb.append(indent).append(String.format("if A > %d then\n%sbegin\n", level, indent));
+            appendStatements(sb, r, level + 1, random);
+            sb.append(indent).append("end\n").append(indent).append("else\n").append(indent).append("  for I := 0 to A do\n");
+            sb.append(indent).append("    Inc(Result, I);\n");
+        }
+    }
+
+    private void appendStatement(StringBuilder sb, String indent, String statement, Random random) {
+        if (random.nextInt(100) < conditionalDensity) {
+            sb.append("{$IF defined(DEBUG) and not defined(RELEASE)}\n");
+            sb.append(indent).append(statement).append("\n");
+            sb.append("{$ELSE}\n");
+            sb.append(indent).append("Result := Result - 1;\n");
+            sb.append("{$ENDIF}\n");
+        } else {
+            sb.append(indent).append(statement).append("\n");
+        }
+    }
+
+    private String generateDependency(int index) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("unit ").append(depName(index)).append(";\n\ninterface\n\n");
+        sb.append(String.format("type\n  TDep%d = class\n  public\n    function DepMethod(A: Integer): Integer;\n  end;\n\n", index));
+        sb.append(String.format("function DepFunc%d(A: Integer): Integer;\n\nimplementation\n\n", index));
+        sb.append(String.format("function TDep%d.DepMethod(A: Integer): Integer;\nbegin\n  Result := A;\nend;\n\n", index));
+        sb.append(String.format("function DepFunc%d(A: Integer): Integer;\nbegin\n  Result := A * %d;\nend;\n\nend.\n", index, index + 1));
+        return sb.toString();
+    }
+
+    private void appendUses(StringBuilder sb) {
+        sb.append("uses\n  SysUtils");
+        for (int i = 0; i < fanOut + unused; i++) {
+            sb.append(", ").append(depName(i));
+        }
+        sb.append(";\n\n");
+    }
+
+    /**
+     * Generates conditional directive expressions with the specified number of operands and parentheses nesting depth
+     */
+    public static String generateCondition(int operands, int depth) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < operands; i++) {
+            if (i > 0) {
+                sb.append(i % 2 == 0 ? " and " : " or ");
+            }
+            for (int d = 0; d < depth; d++) {
+                sb.append(d % 2 == 0 ? "not (" : "(");
+            }
+            sb.append("defined(DEF").append(i).append(")");
+            for (int d = 0; d < depth; d++) {
+                sb.append(")");
+            }
+        }
+        return sb.toString();
+    }
+
+    static String depName(int index) {
+        return "benchDep" + index;
+    }
+
+    private static String indent(int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append("  ");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.siberika.idea.pascal.ide.actions;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.lang.PascalImportOptimizer;
+
+import java.util.Collections;
+
+public class OptimizeUsesBatchActionTest extends LightPlatformCodeInsightFixtureTestCase {
+    @Override
+    protected String getTestDataPath() {
+        return "testData/uses";
+    }
+
+    public void testStalePlanReplanned() {
+        PascalImportOptimizer.FilePlan plan = configure();
+        final Document doc = myFixture.getEditor().getDocument();
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> doc.insertString(0, "{ modified }\n"));
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+        assertFalse(plan.isUpToDate());
+        OptimizeUsesBatchAction.Result result = new OptimizeUsesBatchAction.Result();
+        OptimizeUsesBatchAction.applyPlans(getProject(), Collections.singletonList(plan), new EmptyProgressIndicator(), result);
+        assertEquals(1, result.modified);
+        assertTrue(result.skipped.isEmpty());
+        assertTrue(doc.getText().startsWith("{ modified }"));
+        assertFalse(doc.getText().contains("Unused"));
+    }
+
+    public void testUncommittedSkipped() {
+        PascalImportOptimizer.FilePlan plan = configure();
+        final Document doc = myFixture.getEditor().getDocument();
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> doc.insertString(0, "{ modified }\n"));
+        OptimizeUsesBatchAction.Result result = new OptimizeUsesBatchAction.Result();
+        OptimizeUsesBatchAction.applyPlans(getProject(), Collections.singletonList(plan), new EmptyProgressIndicator(), result);
+        assertEquals(0, result.modified);
+        assertEquals(Collections.singletonList("optimizeUses.pas"), result.skipped);
+        assertTrue(doc.getText().contains("Unused"));
+    }
+
+    private PascalImportOptimizer.FilePlan configure() {
+        myFixture.configureByFiles("UsedIntf.pas", "UsedImpl.pas", "Unused.pas");
+        myFixture.configureByText("optimizeUses.pas", "unit optimizeUses;\n\ninterface\n\nuses UsedIntf, Unused, UsedImpl;\n\n" +
+                "var v: TIntf;\n\nimplementation\n\nbegin\n  Impl();\nend.\n");
+        PascalImportOptimizer.FilePlan plan = PascalImportOptimizer.plan(myFixture.getFile());
+        assertTrue(plan.hasChanges());
+        return plan;
+    }
+}
@@ -0,0 +1,110 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.siberika.idea.pascal.benchmark.BenchmarkRunner;
+import com.siberika.idea.pascal.jps.compiler.CompilerMessager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiler output parsing throughput over recorded compiler logs from testData/compiler.
+ * Compares single pass parser with regular expressions previously used by compiler process adapters.
+ * Run with main() from the project root directory, results are saved and compared by BenchmarkRunner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompilerOutputParserBenchmark {
+
+    private static final String PATTERN_COMMON = "((.*)\\((\\d+),(\\d+)\\))?\\s*";
+    private static final String PATTERN_MESSAGE = "\\s*(.*)$";
+    private static final Pattern PATTERN_ERROR = Pattern.compile("((.*)\\((\\d+),(\\d+)\\))\\s*(Error|Fatal):" + PATTERN_MESSAGE);
+    private static final Pattern PATTERN_WARNING = Pattern.compile(PATTERN_COMMON + "(Error|Fatal|Warning|warning):" + PATTERN_MESSAGE);
+    private static final Pattern PATTERN_INFO = Pattern.compile(PATTERN_COMMON + PATTERN_MESSAGE);
+
+    @Param({"fpc", "delphi"})
+    public String log;
+
+    private List<String> lines;
+    private CompilerOutputParser parser;
+
+    @Setup
+    public void setUp() throws IOException {
+        lines = Files.readAllLines(Paths.get("testData/compiler", log + ".log"), StandardCharsets.UTF_8);
+        parser = new CompilerOutputParser("fpc".equals(log) ? CompilerOutputParser.Format.FPC : CompilerOutputParser.Format.DELPHI);
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole bh) {
+        CompilerMessager messager = new BlackholeMessager(bh);
+        for (String line : lines) {
+            parser.parse(line, messager);
+        }
+    }
+
+    @Benchmark
+    public void regex(Blackhole bh) {
+        for (String line : lines) {
+            Matcher matcher = PATTERN_ERROR.matcher(line);
+            if (!matcher.find()) {
+                matcher = PATTERN_WARNING.matcher(line);
+                if (!matcher.find()) {
+                    matcher = PATTERN_INFO.matcher(line);
+                    matcher.find();
+                }
+            }
+            bh.consume(matcher.group(matcher.groupCount()));
+        }
+    }
+
+    private static class BlackholeMessager implements CompilerMessager {
+        private final Blackhole bh;
+
+        private BlackholeMessager(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void info(String msg, String path, long line, long column) {
+            bh.consume(msg);
+            bh.consume(path);
+        }
+
+        @Override
+        public void warning(String msg, String path, long line, long column) {
+            bh.consume(msg);
+            bh.consume(path);
+        }
+
+        @Override
+        public void error(String msg, String path, long line, long column) {
+            bh.consume(msg);
+            bh.consume(path);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.main(CompilerOutputParserBenchmark.class.getSimpleName());
+    }
+}
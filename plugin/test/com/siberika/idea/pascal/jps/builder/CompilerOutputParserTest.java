@@ -0,0 +1,67 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.siberika.idea.pascal.jps.compiler.CompilerMessager;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CompilerOutputParserTest {
+
+    @Test
+    public void fpc() throws Exception {
+        CompilerOutputParser parser = new CompilerOutputParser(CompilerOutputParser.Format.FPC);
+        assertEquals("ERROR|Identifier not found \"foo(1,2)\"|/src/u (x86)/test.pas|301|40",
+                parse(parser, "/src/u (x86)/test.pas(301,40) Error: Identifier not found \"foo(1,2)\"\n"));
+        assertEquals("ERROR|There were 2 errors|/src/test.pas|410|7", parse(parser, "/src/test.pas(410,7) Fatal: There were 2 errors"));
+        assertEquals("WARNING|Function result not set|/src/test.pas|77|1", parse(parser, "/src/test.pas(77,1) Warning: Function result not set\r\n"));
+        assertEquals("WARNING|Compilation aborted|null|-1|-1", parse(parser, "Fatal: Compilation aborted"));
+        assertEquals("WARNING|/usr/bin/ppcx64 returned an error exitcode|null|-1|-1", parse(parser, "Error: /usr/bin/ppcx64 returned an error exitcode"));
+        assertEquals("INFO|Note: Local variable \"i\" not used|/src/test.pas|12|3", parse(parser, "/src/test.pas(12,3) Note: Local variable \"i\" not used"));
+        assertEquals("INFO|Compiling /src/test.pas|null|-1|-1", parse(parser, "  Compiling /src/test.pas\n"));
+    }
+
+    @Test
+    public void delphi() throws Exception {
+        CompilerOutputParser parser = new CompilerOutputParser(CompilerOutputParser.Format.DELPHI);
+        assertEquals("ERROR|E2003 Undeclared identifier|C:\\Program Files (x86)\\test.pas|15|-1",
+                parse(parser, "C:\\Program Files (x86)\\test.pas(15) Error: E2003 Undeclared identifier"));
+        assertEquals("INFO|H2164 Variable 'i' is declared but never used|c:\\test.pas|12|-1", parse(parser, "c:\\test.pas(12) Hint: H2164 Variable 'i' is declared but never used"));
+        assertEquals("WARNING|W1035 Return value|c:\\test.pas|77|-1", parse(parser, "c:\\test.pas(77) Warning: W1035 Return value"));
+        assertEquals("INFO|1540 lines, 0.41 seconds.||-1|-1", parse(parser, "1540 lines, 0.41 seconds."));
+    }
+
+    @Test
+    public void delphiNoLocation() throws Exception {
+        CompilerOutputParser parser = new CompilerOutputParser(CompilerOutputParser.Format.DELPHI);
+        assertEquals("ERROR|F1026 File not found: 'main.dpr'|null|-1|-1", parse(parser, "Fatal: F1026 File not found: 'main.dpr'"));
+        assertEquals("ERROR|E1030 Invalid compiler directive: 'X'|null|-1|-1", parse(parser, "Error: E1030 Invalid compiler directive: 'X'\r\n"));
+        assertEquals("ERROR|F2613 Unit 'uCore' not found.|null|-1|-1", parse(parser, "main.dpr Fatal: F2613 Unit 'uCore' not found."));
+        assertEquals("WARNING|W1000 Symbol 'X' is deprecated|null|-1|-1", parse(parser, "Warning: W1000 Symbol 'X' is deprecated"));
+    }
+
+    private static String parse(CompilerOutputParser parser, String line) {
+        final List<String> res = new ArrayList<String>();
+        parser.parse(line, new CompilerMessager() {
+            @Override
+            public void info(String msg, String path, long line, long column) {
+                res.add(String.format("INFO|%s|%s|%d|%d", msg, path, line, column));
+            }
+
+            @Override
+            public void warning(String msg, String path, long line, long column) {
+                res.add(String.format("WARNING|%s|%s|%d|%d", msg, path, line, column));
+            }
+
+            @Override
+            public void error(String msg, String path, long line, long column) {
+                res.add(String.format("ERROR|%s|%s|%d|%d", msg, path, line, column));
+            }
+        });
+        assertEquals(1, res.size());
+        return res.get(0);
+    }
+
+}
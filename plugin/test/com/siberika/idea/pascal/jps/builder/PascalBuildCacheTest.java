@@ -0,0 +1,118 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.intellij.openapi.util.io.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PascalBuildCacheTest {
+
+    private static final String[] CMD_LINE = {"fpc", "-viewnb", "-B", "main.dpr"};
+
+    private File dir;
+    private File src;
+    private File out;
+    private File main;
+    private File unitA;
+    private File unitB;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = FileUtil.createTempDirectory("pascalCache", null);
+        src = new File(dir, "src");
+        out = new File(dir, "out");
+        assertTrue(out.mkdirs());
+        main = write("main.dpr", "program main;\nuses unitA;\nbegin\nend.");
+        unitA = write("unitA.pas", "unit unitA;\ninterface\nuses unitB;\nimplementation\nend.");
+        unitB = write("unitB.pas", "unit unitB;\ninterface\nconst B = 1;\nimplementation\nend.");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtil.delete(dir);
+    }
+
+    @Test
+    public void keys() throws Exception {
+        PascalBuildCache cache = new PascalBuildCache(new File(dir, "cache"), Long.MAX_VALUE);
+        Map<File, String> keys = computeKeys(cache);
+        assertEquals(3, keys.size());
+
+        write("unitB.pas", "unit unitB;\ninterface\nconst B = 1;\nimplementation\nconst C = 2;\nend.");
+        Map<File, String> implChanged = computeKeys(cache);
+        assertEquals(keys.get(unitA), implChanged.get(unitA));
+        assertNotEquals(keys.get(unitB), implChanged.get(unitB));
+        assertNotEquals(keys.get(main), implChanged.get(main));
+
+        write("unitB.pas", "unit unitB;\ninterface\nconst B = 2;\nimplementation\nend.");
+        assertNotEquals(keys.get(unitA), computeKeys(cache).get(unitA));
+
+        String[] debugCmdLine = {"fpc", "-viewnb", "-g", "main.dpr"};
+        assertNotEquals(keys.get(unitA), cache.computeKeys(main, collect(), PascalDependencyStorage.indexUnits(roots()), debugCmdLine, "3.0.2").get(unitA));
+    }
+
+    @Test
+    public void storeRestore() throws Exception {
+        PascalBuildCache cache = new PascalBuildCache(new File(dir, "cache"), Long.MAX_VALUE);
+        Map<File, String> keys = computeKeys(cache);
+        assertFalse(cache.restore(main, keys, out, out));
+        assertEquals(2, cache.getMisses());
+
+        compiled("unitA.ppu", "unitA.o", "unitB.ppu", "unitB.o", "main");
+        cache.store(main, keys, out, out, new String[] {".ppu", ".o"});
+        FileUtil.delete(out);
+        assertTrue(out.mkdirs());
+
+        cache = new PascalBuildCache(new File(dir, "cache"), Long.MAX_VALUE);
+        assertTrue(cache.restore(main, computeKeys(cache), out, out));
+        assertEquals(3, cache.getHits());
+        assertTrue(new File(out, "unitA.o").isFile());
+        assertTrue(new File(out, "main").isFile());
+    }
+
+    @Test
+    public void eviction() throws Exception {
+        PascalBuildCache cache = new PascalBuildCache(new File(dir, "cache"), 150);
+        Map<File, String> keys = computeKeys(cache);
+        compiled("unitA.ppu", "unitB.ppu", "main");
+        cache.store(main, keys, out, out, new String[] {".ppu"});
+        File[] entries = new File(dir, "cache").listFiles();
+        assertEquals(1, entries.length);
+    }
+
+    private Map<File, String> computeKeys(PascalBuildCache cache) throws Exception {
+        return cache.computeKeys(main, collect(), PascalDependencyStorage.indexUnits(roots()), CMD_LINE, "3.0.2");
+    }
+
+    private Map<File, UnitDependencies> collect() {
+        return new PascalDependencyStorage(new File(dir, "deps.dat")).collect(main, roots(), new HashMap<File, UnitDependencies>());
+    }
+
+    private List<File> roots() {
+        return Collections.singletonList(src);
+    }
+
+    private File write(String name, String text) throws Exception {
+        File file = new File(src, name);
+        FileUtil.writeToFile(file, text);
+        return file;
+    }
+
+    private void compiled(String... names) throws Exception {
+        for (String name : names) {
+            FileUtil.writeToFile(new File(out, name), new byte[100]);
+        }
+    }
+
+}
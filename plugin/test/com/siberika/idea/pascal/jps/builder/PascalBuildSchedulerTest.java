@@ -0,0 +1,77 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import org.jetbrains.jps.builders.BuildTarget;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class PascalBuildSchedulerTest {
+
+    @Test
+    public void independentTargetsRunConcurrently() throws Exception {
+        BuildTarget<?> a = mock(BuildTarget.class);
+        BuildTarget<?> b = mock(BuildTarget.class);
+        PascalBuildScheduler scheduler = new PascalBuildScheduler(2, Arrays.asList(a, b));
+        final CountDownLatch started = new CountDownLatch(2);
+        PascalBuildScheduler.CompileTask task = () -> {
+            started.countDown();
+            return started.await(10, TimeUnit.SECONDS);
+        };
+        scheduler.submit(a, Collections.<BuildTarget<?>>emptyList(), task);
+        assertFalse(scheduler.targetProcessed(a));
+        scheduler.submit(b, Collections.<BuildTarget<?>>emptyList(), task);
+        assertTrue(scheduler.targetProcessed(b));
+        assertTrue(scheduler.awaitAll());
+    }
+
+    @Test
+    public void dependentTargetWaitsForDependency() throws Exception {
+        BuildTarget<?> lib = mock(BuildTarget.class);
+        BuildTarget<?> app = mock(BuildTarget.class);
+        PascalBuildScheduler scheduler = new PascalBuildScheduler(4, Arrays.asList(lib, app));
+        final AtomicBoolean libCompiled = new AtomicBoolean();
+        scheduler.submit(lib, Collections.<BuildTarget<?>>emptyList(), () -> {
+            Thread.sleep(200);
+            libCompiled.set(true);
+            return true;
+        });
+        scheduler.submit(app, Collections.<BuildTarget<?>>singletonList(lib), libCompiled::get);
+        assertTrue(scheduler.awaitAll());
+    }
+
+    @Test
+    public void failedDependencySkipsDependent() throws Exception {
+        BuildTarget<?> lib = mock(BuildTarget.class);
+        BuildTarget<?> app = mock(BuildTarget.class);
+        PascalBuildScheduler scheduler = new PascalBuildScheduler(2, Arrays.asList(lib, app));
+        final AtomicBoolean appCompiled = new AtomicBoolean();
+        scheduler.submit(lib, Collections.<BuildTarget<?>>emptyList(), () -> false);
+        scheduler.submit(app, Collections.<BuildTarget<?>>singletonList(lib), () -> {
+            appCompiled.set(true);
+            return true;
+        });
+        assertFalse(scheduler.targetProcessed(lib));
+        assertTrue(scheduler.targetProcessed(app));
+        assertFalse(scheduler.awaitAll());
+        assertFalse(appCompiled.get());
+    }
+
+    @Test
+    public void failureIsReported() throws Exception {
+        BuildTarget<?> a = mock(BuildTarget.class);
+        PascalBuildScheduler scheduler = new PascalBuildScheduler(1, Collections.singletonList(a));
+        scheduler.submit(a, Collections.<BuildTarget<?>>emptyList(), () -> {
+            throw new IllegalStateException("test");
+        });
+        assertFalse(scheduler.awaitAll());
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.intellij.openapi.util.io.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PascalDependencyStorageTest {
+
+    private static final String CONFIG = "release";
+
+    private File dir;
+    private File out;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = FileUtil.createTempDirectory("pascalDeps", null);
+        out = new File(dir, "out");
+        assertTrue(out.mkdir());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtil.delete(dir);
+    }
+
+    @Test
+    public void scanUses() throws Exception {
+        UnitDependencies deps = UsesClauseScanner.scan("unit test;\ninterface\nuses SysUtils, {comment} System.Classes, // comment\n  unitA;\n" +
+                "{$I defines.inc}\nimplementation\n(* uses fake; *)\nuses unitB in 'src/unitb.pas';\nconst s = 'uses fake2;';\nend.", dir);
+        assertEquals(Arrays.asList("SysUtils", "System.Classes", "unitA"), deps.interfaceUses);
+        assertEquals(Collections.singletonList("unitB"), deps.implementationUses);
+        assertEquals(Arrays.asList(new File(dir, "defines.inc").getPath(), new File(dir, "src/unitb.pas").getPath()), deps.files);
+    }
+
+    @Test
+    public void findChanges() throws Exception {
+        File main = write("main.dpr", "program main;\nuses unitA;\nbegin\nend.");
+        File unitA = write("unitA.pas", "unit unitA;\ninterface\nimplementation\nuses unitB;\nend.");
+        File unitB = write("unitB.pas", "unit unitB;\ninterface\nimplementation\nend.");
+        File other = write("other.pas", "unit other;\ninterface\nimplementation\nend.");
+        List<File> roots = Collections.singletonList(dir);
+        File storageFile = new File(dir, "deps.dat");
+        PascalDependencyStorage storage = new PascalDependencyStorage(storageFile);
+
+        Map<File, UnitDependencies> scanned = new HashMap<File, UnitDependencies>();
+        assertNull(storage.findChanges(main, CONFIG, roots, scanned));
+        compiled("main", "unitA.ppu", "unitB.ppu");
+        storage.update(main, CONFIG, roots, scanned, out, out, ".ppu");
+        assertEquals(Collections.<File>emptyList(), storage.findChanges(main, CONFIG, roots, scanned));
+        assertNull(storage.findChanges(main, "debug", roots, scanned));
+
+        touch(other);
+        assertEquals(Collections.<File>emptyList(), storage.findChanges(main, CONFIG, roots, scanned));
+
+        touch(unitB);
+        assertEquals(Arrays.asList(unitB, unitA), storage.findChanges(main, CONFIG, roots, scanned));
+        storage.update(main, CONFIG, roots, scanned, out, out, ".ppu");
+        storage.close();
+
+        storage = new PascalDependencyStorage(storageFile);
+        scanned.clear();
+        assertEquals(Collections.<File>emptyList(), storage.findChanges(main, CONFIG, roots, scanned));
+        assertNull(storage.findChanges(main, "debug", roots, scanned));
+        FileUtil.delete(new File(out, "unitA.ppu"));
+        assertEquals(Arrays.asList(unitA, main), storage.findChanges(main, CONFIG, roots, scanned));
+    }
+
+    @Test
+    public void mainOutputs() throws Exception {
+        File main = write("main.dpr", "program main;\nbegin\nend.");
+        List<File> roots = Collections.singletonList(dir);
+        PascalDependencyStorage storage = new PascalDependencyStorage(new File(dir, "deps.dat"));
+        Map<File, UnitDependencies> scanned = new HashMap<File, UnitDependencies>();
+        compiled("main.exe");
+        storage.update(main, CONFIG, roots, scanned, out, out, ".dcu");
+        assertEquals(Collections.<File>emptyList(), storage.findChanges(main, CONFIG, roots, scanned));
+        FileUtil.delete(new File(out, "main.exe"));
+        assertEquals(Collections.singletonList(main), storage.findChanges(main, CONFIG, roots, scanned));
+    }
+
+    @Test
+    public void interfacePropagation() throws Exception {
+        File main = write("main.dpr", "program main;\nuses unitA, unitC, unitD;\nbegin\nend.");
+        File unitA = write("unitA.pas", "unit unitA;\ninterface\nimplementation\nuses unitB;\nend.");
+        File unitB = write("unitB.pas", "unit unitB;\ninterface\nimplementation\nend.");
+        File unitC = write("unitC.pas", "unit unitC;\ninterface\nuses unitB;\nimplementation\nend.");
+        write("unitD.pas", "unit unitD;\ninterface\nuses unitA;\nimplementation\nend.");
+        List<File> roots = Collections.singletonList(dir);
+        PascalDependencyStorage storage = new PascalDependencyStorage(new File(dir, "deps.dat"));
+        Map<File, UnitDependencies> scanned = new HashMap<File, UnitDependencies>();
+        compiled("main", "unitA.ppu", "unitB.ppu", "unitC.ppu", "unitD.ppu");
+        storage.update(main, CONFIG, roots, scanned, out, out, ".ppu");
+
+        touch(unitB);
+        // unitA uses unitB in implementation so unitD which uses unitA is not affected
+        assertEquals(Arrays.asList(unitB, unitA, unitC, main), storage.findChanges(main, CONFIG, roots, scanned));
+    }
+
+    private File write(String name, String text) throws Exception {
+        File file = new File(dir, name);
+        FileUtil.writeToFile(file, text);
+        return file;
+    }
+
+    private void compiled(String... names) throws Exception {
+        for (String name : names) {
+            FileUtil.writeToFile(new File(out, name), "");
+        }
+    }
+
+    private static void touch(File file) {
+        assertTrue(file.setLastModified(file.lastModified() + 2000));
+    }
+
+}
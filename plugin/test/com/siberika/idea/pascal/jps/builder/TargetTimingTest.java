@@ -0,0 +1,86 @@
+package com.siberika.idea.pascal.jps.builder;
+
+import com.siberika.idea.pascal.jps.compiler.CompilerMessager;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class TargetTimingTest {
+
+    @Test
+    public void unitTimes() throws Exception {
+        CompilerMessager messager = mock(CompilerMessager.class);
+        TargetTiming timing = new TargetTiming("app", messager);
+        timing.info("Compiling /src/main.dpr", null, -1, -1);
+        timing.info("Compiling /src/slow.pas", null, -1, -1);
+        Thread.sleep(50);
+        timing.info("Compiling /src/fast.pas", null, -1, -1);
+        timing.info("Linking /out/main", null, -1, -1);
+        timing.info("1540 lines compiled, 0.4 sec", null, -1, -1);
+        timing.finish(0);
+
+        verify(messager).info("Compiling /src/slow.pas", null, -1, -1);
+        assertEquals(1540, timing.getLines());
+        Map<String, Long> units = timing.getUnitTimes();
+        assertEquals(Arrays.asList("/src/main.dpr", "/src/slow.pas", "/src/fast.pas"), Arrays.asList(units.keySet().toArray()));
+        List<Map.Entry<String, Long>> slowest = timing.getSlowestUnits(1);
+        assertEquals("/src/slow.pas", slowest.get(0).getKey());
+        assertTrue(slowest.get(0).getValue() >= 50);
+        assertTrue(timing.getSummary().startsWith("Target app: "));
+    }
+
+    @Test
+    public void parseLines() throws Exception {
+        assertEquals(1540, TargetTiming.parseLines("1540 lines compiled, 0.4 sec"));
+        assertEquals(1540, TargetTiming.parseLines("1540 lines, 0.41 seconds, 52340 bytes code, 13000 bytes data."));
+        assertEquals(-1, TargetTiming.parseLines("3 warning(s) issued"));
+    }
+
+    @Test
+    public void cpuTime() throws Exception {
+        Assume.assumeTrue("CPU time of a process is available since Java 9", isJava9());
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-version").redirectErrorStream(true).start();
+        TargetTiming timing = new TargetTiming("app", mock(CompilerMessager.class));
+        timing.attach(process);
+        timing.info("1540 lines compiled, 0.4 sec", null, -1, -1);
+        while (process.isAlive()) {
+            timing.sampleCpuTime(process);
+            Thread.sleep(10);
+        }
+        process.waitFor();
+        assertTrue(timing.getCpuMs() >= 0);
+        assertTrue(timing.getSummary().contains(" ms CPU"));
+    }
+
+    @Test
+    public void report() throws Exception {
+        PascalBuildReport report = new PascalBuildReport();
+        TargetTiming timing = report.startTarget("my \"app\"", mock(CompilerMessager.class));
+        timing.info("Compiling c:\\src\\main.dpr", null, -1, -1);
+        timing.finish(1);
+        String json = report.toJson();
+        assertTrue(json.contains("\"id\": \"my \\\"app\\\"\""));
+        assertTrue(json.contains("{\"unit\": \"c:\\\\src\\\\main.dpr\", \"ms\": "));
+        assertTrue(json.contains("\"exitCode\": 1"));
+    }
+
+    private static boolean isJava9() {
+        try {
+            Class.forName("java.lang.ProcessHandle");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.siberika.idea.pascal.lang;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+
+public class ImportOptimizerTest extends LightPlatformCodeInsightFixtureTestCase {
+    @Override
+    protected String getTestDataPath() {
+        return "testData/uses";
+    }
+
+    public void testPlanAndApply() {
+        myFixture.configureByFiles("UsedIntf.pas", "UsedImpl.pas", "Unused.pas");
+        myFixture.configureByText("optimizeUses.pas", "unit optimizeUses;\n\ninterface\n\nuses UsedIntf, Unused, UsedImpl;\n\n" +
+                "var v: TIntf;\n\nimplementation\n\nbegin\n  Impl();\nend.\n");
+        final PascalImportOptimizer.FilePlan plan = PascalImportOptimizer.plan(myFixture.getFile());
+        assertTrue(plan.hasChanges());
+        assertTrue(plan.isUpToDate());
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> assertNotNull(plan.apply(false)));
+        String text = myFixture.getEditor().getDocument().getText();
+        String intf = text.substring(0, text.indexOf("implementation"));
+        String impl = text.substring(text.indexOf("implementation"));
+        assertTrue(intf.contains("UsedIntf"));
+        assertFalse(intf.contains("UsedImpl"));
+        assertTrue(impl.contains("UsedImpl"));
+        assertFalse(text.contains("Unused"));
+        assertFalse(plan.isUpToDate());
+        assertFalse(PascalImportOptimizer.plan(myFixture.getFile()).hasChanges());
+    }
+}
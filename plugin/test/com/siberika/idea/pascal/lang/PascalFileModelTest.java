@@ -0,0 +1,68 @@
+package com.siberika.idea.pascal.lang;
+
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.lang.psi.PasEntityScope;
+import com.siberika.idea.pascal.lang.psi.PascalNamedElement;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class PascalFileModelTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    private static final String UNIT = "unit model;\ninterface\nuses SysUtils;\n\nimplementation\nuses Classes;\n\n" +
+            "function f(a: Integer): Integer;\nbegin\n  Result := a;\n  while a > 0 do begin\n    if a = 1 then Break;\n    Exit;\n  end;\n" +
+            "  with a do\n    Result := b;\nend;\n\n" +
+            "procedure p();\nbegin\n  raise Exception.Create('');<caret>\nend;\n\nend.\n";
+
+    public void testSnapshot() {
+        myFixture.configureByText("model.pas", UNIT);
+        PascalFileModel model = PascalFileModel.get(myFixture.getFile());
+        assertEquals(2, model.getRoutines().size());
+        assertEquals(2, model.getUsesClauses().size());
+        assertEquals(2, model.getWithIdents().size());
+        assertSame(model, PascalFileModel.get(myFixture.getFile()));
+        PascalFileModel.invalidate(myFixture.getFile());
+        assertNotSame(model, PascalFileModel.get(myFixture.getFile()));
+    }
+
+    public void testRebuildOnChange() {
+        myFixture.configureByText("model.pas", UNIT);
+        PascalFileModel model = PascalFileModel.get(myFixture.getFile());
+        myFixture.type("\n  case a of 1: Exit; end;");
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+        PascalFileModel changed = PascalFileModel.get(myFixture.getFile());
+        assertNotSame(model, changed);
+        assertEquals(1, changed.getCaseStatements().size());
+    }
+
+    public void testDeclarationsAndReferences() {
+        myFixture.configureByText("refs.pas", "unit refs;\ninterface\ntype\n  TRec = record x: Integer; end;\nvar\n  v: TRec;\n\n" +
+                "implementation\n\nprocedure p(a: Integer);\nbegin\n  v.x := a;\n  undefinedName := a;\nend;\n\nend.\n");
+        PascalFileModel model = PascalFileModel.get(myFixture.getFile());
+        Set<String> declarations = new HashSet<String>();
+        for (PascalNamedElement declaration : model.getDeclarations()) {
+            declarations.add(declaration.getName());
+        }
+        assertTrue(declarations.containsAll(Arrays.asList("TRec", "x", "v", "a")));
+        Set<String> scopes = new HashSet<String>();
+        for (PasEntityScope scope : model.getScopes()) {
+            scopes.add(scope.getName());
+        }
+        assertTrue(scopes.containsAll(Arrays.asList("refs", "TRec", "p")));
+        assertNotNull(model.getModuleHead());
+
+        Map<String, PascalFileModel.Reference> references = new HashMap<String, PascalFileModel.Reference>();
+        for (PascalNamedElement name : model.getEntityNames()) {
+            PascalFileModel.Reference reference = model.getReference(name);
+            assertSame("References are resolved once per modification", reference, model.getReference(name));
+            references.put(name.getName(), reference);
+        }
+        assertFalse(references.get("v").getTargets().isEmpty());
+        assertFalse(references.get("x").getTargets().isEmpty());
+        assertTrue(references.get("undefinedName").getTargets().isEmpty());
+    }
+}
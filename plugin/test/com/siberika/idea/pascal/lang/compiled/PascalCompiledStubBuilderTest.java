@@ -0,0 +1,84 @@
+package com.siberika.idea.pascal.lang.compiled;
+
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.stubs.DefaultStubBuilder;
+import com.intellij.psi.stubs.SerializationManagerEx;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.PascalException;
+import com.siberika.idea.pascal.util.CompactCharSequence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class PascalCompiledStubBuilderTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    private static final int THREADS = 8;
+    private static final int TASKS = 64;
+
+    @Override
+    protected String getTestDataPath() {
+        return "testData/annotator";
+    }
+
+    public void testParallelBuild() throws Exception {
+        final String text = FileUtil.loadFile(new File(getTestDataPath(), "structTypes.pas"));
+        PsiFile file = myFixture.configureByText("structTypes.pas", text);
+        byte[] expected = serialize(new DefaultStubBuilder().buildStubTree(file));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<byte[]>> results = new ArrayList<Future<byte[]>>();
+            for (int i = 0; i < TASKS; i++) {
+                results.add(executor.submit(() -> serialize(PascalCompiledStubBuilder.buildStubTree(getProject(), text))));
+            }
+            for (Future<byte[]> result : results) {
+                assertTrue(Arrays.equals(expected, result.get()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testBuildFromCompactText() throws Exception {
+        final String text = FileUtil.loadFile(new File(getTestDataPath(), "structTypes.pas"));
+        PsiFile file = myFixture.configureByText("structTypes.pas", text);
+        byte[] expected = serialize(new DefaultStubBuilder().buildStubTree(file));
+        CompactCharSequence compact = CompactCharSequence.of(text);
+        assertEquals(text.length(), compact.getSize());
+        assertTrue(Arrays.equals(expected, serialize(PascalCompiledStubBuilder.buildStubTree(getProject(), compact))));
+    }
+
+    public void testNoStubsWhenDecompilationFails() throws Exception {
+        for (String name : new String[] {"broken.ppu", "broken.dcu"}) {
+            VirtualFile file = myFixture.getTempDirFixture().createFile(name, "not a compiled unit");
+            try {
+                if (name.endsWith(".ppu")) {
+                    PPUFileDecompiler.decompileText(getProject(), file);
+                } else {
+                    DCUFileDecompiler.decompileText(getProject(), file);
+                }
+                fail("Decompilation of " + name + " should fail");
+            } catch (PascalException e) {
+                assertNotNull(e.getMessage());
+            }
+            assertNull(PascalCompiledStubBuilder.buildFileStub(getProject(), file));
+        }
+    }
+
+    private static byte[] serialize(StubElement root) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SerializationManagerEx.getInstanceEx().serialize(root, out);
+        return out.toByteArray();
+    }
+
+}
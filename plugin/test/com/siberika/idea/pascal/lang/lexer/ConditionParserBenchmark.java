@@ -0,0 +1,57 @@
+package com.siberika.idea.pascal.lang.lexer;
+
+import com.siberika.idea.pascal.benchmark.BenchmarkRunner;
+import com.siberika.idea.pascal.benchmark.UnitGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of {$IF} conditions by ConditionParser. Doesn't need IDE infrastructure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionParserBenchmark {
+
+    @Param({"1", "8"})
+    public int operands;
+
+    @Param({"0", "3"})
+    public int depth;
+
+    private String condition;
+    private final Set<String> defines = new HashSet<String>();
+
+    @Setup
+    public void setUp() {
+        condition = UnitGenerator.generateCondition(operands, depth);
+        for (int i = 0; i < operands; i += 2) {
+            defines.add("DEF" + i);
+        }
+    }
+
+    @Benchmark
+    public boolean checkCondition() {
+        return ConditionParser.checkCondition(condition, defines);
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner.main(ConditionParserBenchmark.class.getSimpleName());
+    }
+}
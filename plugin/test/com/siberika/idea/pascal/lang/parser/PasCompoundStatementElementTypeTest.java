@@ -0,0 +1,62 @@
+package com.siberika.idea.pascal.lang.parser;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.impl.DebugUtil;
+import com.intellij.psi.impl.source.tree.LazyParseableElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.lang.lexer.PascalLexer;
+import com.siberika.idea.pascal.lang.psi.PasCompoundStatement;
+
+public class PasCompoundStatementElementTypeTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    private static final String UNIT = "unit reparse;\ninterface\nimplementation\n\n" +
+            "procedure p1();\nbegin\n  a := 1;\n  try\n    b;\n  finally\n    case a of 1: c; end;\n  end;\nend;\n\n" +
+            "procedure p2();\nbegin\n  d := 2;<caret>\nend;\n\n" +
+            "end.\n";
+
+    public void testIsLazyBlock() {
+        assertTrue(isLazyBlock("begin end"));
+        assertTrue(isLazyBlock("begin\n  a := 1; { comment }\n  try b; except c; end;\nend"));
+        assertTrue(isLazyBlock("begin case a of 1: begin end; else c; end; asm nop end; end"));
+        assertFalse(isLazyBlock("begin a := 1;"));
+        assertFalse(isLazyBlock("begin a := 1; end; end"));
+        assertFalse(isLazyBlock("begin end; b"));
+        assertFalse(isLazyBlock("a := 1; end"));
+        assertFalse(isLazyBlock("begin {$IFDEF DEBUG} a; {$ENDIF} end"));
+        assertFalse(isLazyBlock("begin var a := 1; end"));
+        assertFalse(isLazyBlock("begin f(procedure begin end); end"));
+    }
+
+    public void testLazyParse() {
+        myFixture.configureByText("reparse.pas", UNIT);
+        for (PasCompoundStatement statement : PsiTreeUtil.findChildrenOfType(myFixture.getFile(), PasCompoundStatement.class)) {
+            assertTrue(statement.getNode() instanceof LazyParseableElement);
+        }
+        assertNoReparseDifference();
+    }
+
+    public void testReparse() {
+        myFixture.configureByText("reparse.pas", UNIT);
+        myFixture.type("\n  if d > 0 then begin e; end;");
+        assertNoReparseDifference();
+        myFixture.type(" try");
+        assertNoReparseDifference();
+        myFixture.type(" {$IFDEF X} end; {$ENDIF}");
+        assertNoReparseDifference();
+    }
+
+    private boolean isLazyBlock(String text) {
+        Lexer lexer = new PascalLexer.ParsingPascalLexer(getProject(), null);
+        return PasCompoundStatementElementType.isLazyBlock(lexer, text);
+    }
+
+    private void assertNoReparseDifference() {
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+        PsiFile file = myFixture.getFile();
+        PsiFile fresh = createLightFile(file.getFileType(), file.getText());
+        assertEquals(DebugUtil.psiToString(fresh, false, false), DebugUtil.psiToString(file, false, false));
+    }
+}
@@ -0,0 +1,83 @@
+package com.siberika.idea.pascal.lang.psi.impl;
+
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.lang.psi.PasExpression;
+import com.siberika.idea.pascal.lang.psi.PasNamedIdentDecl;
+import com.siberika.idea.pascal.lang.psi.PasStatement;
+import com.siberika.idea.pascal.lang.psi.PasTypeDecl;
+import com.siberika.idea.pascal.lang.references.PasReferenceUtil;
+import com.siberika.idea.pascal.lang.references.ResolveContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ValueTypeInternerTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    public void testIntern() throws Exception {
+        myFixture.configureByText("interner.pas", "unit interner;\ninterface\ntype\n  TA = array of Integer;\nvar\n  a, b: TA;\nimplementation\nend.");
+        PasTypeDecl decl = PsiTreeUtil.findChildOfType(myFixture.getFile(), PasTypeDecl.class);
+        PasField.ValueType type = ValueTypeInterner.intern(PasField.Kind.ARRAY, PasField.INTEGER, decl);
+        assertSame(type, ValueTypeInterner.intern(PasField.Kind.ARRAY, PasField.INTEGER, decl));
+        assertNotSame(type, ValueTypeInterner.intern(PasField.Kind.SET, PasField.INTEGER, decl));
+        assertNull(type.field);
+    }
+
+    public void testSameTypeFieldsShareInstance() throws Exception {
+        myFixture.configureByText("interner.pas", "unit interner;\ninterface\ntype\n  TA = array of Integer;\nvar\n  a, b: TA;\nimplementation\nend.");
+        Map<String, PasField> fields = getFields();
+        PasField a = fields.get("a");
+        PasField b = fields.get("b");
+        PasReferenceUtil.retrieveFieldTypeScope(a, new ResolveContext(PasField.TYPES_TYPE, true));
+        PasReferenceUtil.retrieveFieldTypeScope(b, new ResolveContext(PasField.TYPES_TYPE, true));
+        assertNotNull(a.getValueType());
+        assertEquals(PasField.Kind.ARRAY, a.getValueType().kind);
+        assertSame(a.getValueType(), b.getValueType());
+        assertEquals("Shared type is bound to the type field only", "TA", a.getValueType().field.name);
+
+        PasField.ValueType boundA = a.getValueType().bind(a);
+        assertSame(a, boundA.field);
+        assertSame(a.getValueType().baseType, boundA.baseType);
+        assertSame(a.getValueType().declaration, boundA.declaration);
+    }
+
+    public void testElementAndDereference() throws Exception {
+        myFixture.configureByText("elements.pas", "unit elements;\ninterface\ntype\n  TRec = record x: Integer; end;\n" +
+                "  TArr = array of TRec;\n  PRec = ^TRec;\nvar\n  arr1, arr2: TArr;\n  p: PRec;\nimplementation\nbegin\n  arr1[0];\n  arr2[0];\n  p^;\nend.");
+        List<String> types = new ArrayList<String>();
+        for (PasStatement stmt : PsiTreeUtil.findChildrenOfType(myFixture.getFile(), PasStatement.class)) {
+            PasExpression expr = stmt.getClass() == PasStatementImpl.class ? PsiTreeUtil.findChildOfType(stmt, PasExpression.class) : null;
+            if (expr != null) {
+                types.add(PascalExpression.infereType(expr.getExpr()));
+            }
+        }
+        assertEquals(Arrays.asList("TRec", "TRec", "TRec"), types);
+        Map<String, PasField> fields = getFields();
+        PasReferenceUtil.retrieveFieldTypeScope(fields.get("arr1"), new ResolveContext(PasField.TYPES_TYPE, true));
+        PasReferenceUtil.retrieveFieldTypeScope(fields.get("arr2"), new ResolveContext(PasField.TYPES_TYPE, true));
+        PasField.ValueType baseType = fields.get("arr1").getValueType().baseType;
+        assertSame(baseType, fields.get("arr2").getValueType().baseType);
+        assertEquals("TRec", baseType.field.name);
+    }
+
+    public void testVariant() throws Exception {
+        myFixture.configureByText("variant.pas", "unit variant;\ninterface\nvar\n  v: Variant;\nimplementation\nend.");
+        PasField field = getFields().get("v");
+        PasField.ValueType type = PasField.VARIANT.bind(field);
+        assertTrue(PasField.isVariant(type));
+        assertSame(field, type.field);
+        assertNull("Shared builtin type must not be modified", PasField.VARIANT.field);
+    }
+
+    private Map<String, PasField> getFields() {
+        Map<String, PasField> res = new HashMap<String, PasField>();
+        for (PasNamedIdentDecl ident : PsiTreeUtil.findChildrenOfType(myFixture.getFile(), PasNamedIdentDecl.class)) {
+            res.put(ident.getName(), new PasField(null, ident, ident.getName(), PasField.FieldType.VARIABLE, PasField.Visibility.PUBLIC));
+        }
+        return res;
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.siberika.idea.pascal.lang.references;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.impl.source.PsiFileImpl;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.lang.psi.PascalModule;
+import com.siberika.idea.pascal.sdk.BuiltinsParser;
+import com.siberika.idea.pascal.util.PsiUtil;
+
+public class AstLoadCounterTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    public void testModuleFromStubs() {
+        PsiFile file = myFixture.addFileToProject("stubLib.pas", "unit stubLib;\ninterface\ntype TA = class\n  procedure P;\nend;\nimplementation\nend.\n");
+        AstLoadCounter.watch(getProject(), getTestRootDisposable());
+        AstLoadCounter.reset();
+        PascalModule module = PsiUtil.getFileModule(file);
+        assertNotNull(module);
+        assertEquals("stubLib", module.getName());
+        assertNull(((PsiFileImpl) file).getTreeElement());
+        assertEquals(0, AstLoadCounter.getCount());
+
+        file.getNode();
+        assertEquals(1, AstLoadCounter.getCount());
+    }
+
+    public void testBuiltinsModule() {
+        assertNotNull(BuiltinsParser.getBuiltinsModule(getProject()));
+    }
+}
@@ -0,0 +1,111 @@
+package com.siberika.idea.pascal.lang.references;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.module.ModuleType;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.lang.psi.PasEntityScope;
+import com.siberika.idea.pascal.lang.psi.PascalModule;
+import com.siberika.idea.pascal.lang.psi.impl.PasField;
+import com.siberika.idea.pascal.module.PascalModuleType;
+import com.siberika.idea.pascal.util.PerfStats;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class ResolverWarmUpTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    @Override
+    protected LightProjectDescriptor getProjectDescriptor() {
+        return "SkipNonPascalProject".equals(getTestName(false)) ? super.getProjectDescriptor() : new PascalModuleDescriptor();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            PerfStats.setEnabled(false);
+            PerfStats.reset();
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testRankUnits() {
+        List<Collection<String>> uses = Arrays.<Collection<String>>asList(
+                Arrays.asList("SysUtils", "Math", "StrUtils"),
+                Arrays.asList("Math", "Types"),
+                Arrays.asList("math", "StrUtils", "Classes"));
+        List<String> res = ResolverWarmUp.rankUnits(uses, 2);
+        List<String> expected = new ArrayList<String>(ResolverWarmUp.ALWAYS_UNITS);
+        expected.add("Math");
+        expected.add("StrUtils");
+        assertEquals(expected, res);
+    }
+
+    public void testRankUnitsEmpty() {
+        assertEquals(ResolverWarmUp.ALWAYS_UNITS, ResolverWarmUp.rankUnits(new ArrayList<Collection<String>>(), ResolverWarmUp.MAX_UNITS));
+    }
+
+    public void testWarmUp() throws Exception {
+        PascalModule unit = configureUnits();
+        runWarmUp();
+        PerfStats.setEnabled(true);
+        PasField field = unit.getField("TWarm");
+        assertNotNull(field);
+        PasEntityScope scope = PasReferenceUtil.retrieveFieldTypeScope(field, new ResolveContext(unit, PasField.TYPES_TYPE, true, null, null));
+        assertNotNull(scope);
+        assertNotNull(scope.getField("Value"));
+        assertCachesBuilt(unit, true);
+        assertCachesBuilt(scope, true);
+    }
+
+    public void testSkipNonPascalProject() throws Exception {
+        PascalModule unit = configureUnits();
+        runWarmUp();
+        PerfStats.setEnabled(true);
+        assertNotNull(unit.getField("TWarm"));
+        assertCachesBuilt(unit, false);
+    }
+
+    private PascalModule configureUnits() {
+        // Member caches are shared between tests so each test uses its own unit
+        String name = getTestName(true);
+        PsiFile file = myFixture.addFileToProject(name + ".pas", "unit " + name + ";\ninterface\ntype\n" +
+                "  TWarm = class\n    Value: Integer;\n  end;\nimplementation\nend.");
+        myFixture.configureByText("warmprog.pas", "program warmprog;\nuses " + name + ";\nbegin\nend.");
+        PascalModule unit = PsiTreeUtil.findChildOfType(file, PascalModule.class);
+        assertNotNull(unit);
+        return unit;
+    }
+
+    // The warm-up runs read actions yielding to write actions which can't be done in EDT
+    private void runWarmUp() throws Exception {
+        final ResolverWarmUp task = new ResolverWarmUp(getProject());
+        final ProgressIndicator indicator = new EmptyProgressIndicator();
+        ApplicationManager.getApplication().executeOnPooledThread(
+                () -> ProgressManager.getInstance().runProcess(() -> task.run(indicator), indicator)).get(30, TimeUnit.SECONDS);
+    }
+
+    private static void assertCachesBuilt(Object scope, boolean built) {
+        String name = scope.getClass().getSimpleName();
+        assertEquals(name, !built, PerfStats.getCount(name + PerfStats.CACHE_MISS) > 0);
+        assertEquals(name, built, PerfStats.getCount(name + PerfStats.CACHE_HIT) > 0);
+    }
+
+    private static class PascalModuleDescriptor extends LightProjectDescriptor {
+        @NotNull
+        @Override
+        public ModuleType getModuleType() {
+            return PascalModuleType.getInstance();
+        }
+    }
+}
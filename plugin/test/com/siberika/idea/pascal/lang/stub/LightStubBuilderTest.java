@@ -0,0 +1,76 @@
+package com.siberika.idea.pascal.lang.stub;
+
+import com.intellij.lang.LightPsiParser;
+import com.intellij.lang.LighterAST;
+import com.intellij.lang.ParserDefinition;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiBuilderFactory;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.impl.DebugUtil;
+import com.intellij.psi.impl.source.CharTableImpl;
+import com.intellij.psi.impl.source.tree.FCTSBackedLighterAST;
+import com.intellij.psi.stubs.DefaultStubBuilder;
+import com.intellij.psi.stubs.LightStubBuilder;
+import com.intellij.psi.stubs.SerializationManagerEx;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.PascalParserDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Checks that stubs built from light AST are identical to stubs built from PSI. Throughput is compared by StubBuilderBenchmark.
+ */
+public class LightStubBuilderTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    @Override
+    protected String getTestDataPath() {
+        return "testData/annotator";
+    }
+
+    public void testSameAsPsiStubs() throws Exception {
+        File[] files = new File(getTestDataPath()).listFiles((dir, name) -> name.endsWith(".pas"));
+        assertNotNull(files);
+        for (File file : files) {
+            PsiFile psiFile = myFixture.configureByFile(file.getName());
+            assertSameStubs(file.getName(), psiFile);
+        }
+        assertSameStubs("generated", myFixture.configureByText("lightStubUnit.pas", StubSerializationBenchmarkTest.generateUnit("lightStubUnit")));
+    }
+
+    private void assertSameStubs(String name, PsiFile file) throws IOException {
+        StubElement psiStubs = buildPsiStubs(file);
+        StubElement lightStubs = buildLightStubs(getProject(), file);
+        assertEquals(name, DebugUtil.stubTreeToString(psiStubs), DebugUtil.stubTreeToString(lightStubs));
+        assertTrue(name, Arrays.equals(serialize(psiStubs), serialize(lightStubs)));
+    }
+
+    public static StubElement buildPsiStubs(PsiFile file) {
+        return new DefaultStubBuilder().buildStubTree(file);
+    }
+
+    // Parses file text into light AST without creating PSI and builds stubs from it
+    public static StubElement buildLightStubs(Project project, PsiFile file) {
+        ParserDefinition parserDefinition = new PascalParserDefinition();
+        PsiBuilder builder = PsiBuilderFactory.getInstance().createBuilder(parserDefinition, parserDefinition.createLexer(project), file.getText());
+        ((LightPsiParser) parserDefinition.createParser(project)).parseLight(parserDefinition.getFileNodeType(), builder);
+        LighterAST tree = new FCTSBackedLighterAST(new CharTableImpl(), builder.getLightTree());
+        LightStubBuilder.FORCED_AST.set(tree);
+        try {
+            return new LightStubBuilder().buildStubTree(file);
+        } finally {
+            LightStubBuilder.FORCED_AST.set(null);
+        }
+    }
+
+    private static byte[] serialize(StubElement root) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SerializationManagerEx.getInstanceEx().serialize(root, out);
+        return out.toByteArray();
+    }
+
+}
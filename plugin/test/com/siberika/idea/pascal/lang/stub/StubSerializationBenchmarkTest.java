@@ -0,0 +1,63 @@
+package com.siberika.idea.pascal.lang.stub;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.impl.DebugUtil;
+import com.intellij.psi.impl.source.PsiFileImpl;
+import com.intellij.psi.stubs.SerializationManagerEx;
+import com.intellij.psi.stubs.Stub;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Checks stub serialization round trip and stub size on a large generated corpus
+ */
+public class StubSerializationBenchmarkTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    private static final int UNITS = 20;
+    private static final int CLASSES = 50;
+    private static final int MEMBERS = 20;
+    // enum type, 3 enum constants, class, fields, methods, properties and a constant per class
+    private static final int SYMBOLS_PER_UNIT = CLASSES * (6 + 3 * MEMBERS) + 1;
+    private static final int MAX_BYTES_PER_SYMBOL = 128;
+
+    public void testStubSize() throws Exception {
+        SerializationManagerEx manager = SerializationManagerEx.getInstanceEx();
+        for (int i = 0; i < UNITS; i++) {
+            PsiFile file = myFixture.configureByText("stubUnit" + i + ".pas", generateUnit("stubUnit" + i));
+            Stub root = ((PsiFileImpl) file).calcStubTree().getRoot();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            manager.serialize(root, out);
+            assertTrue("Stub size " + out.size() + " exceeds bound", out.size() <= SYMBOLS_PER_UNIT * MAX_BYTES_PER_SYMBOL);
+            Stub loaded = manager.deserialize(new ByteArrayInputStream(out.toByteArray()));
+            assertEquals(DebugUtil.stubTreeToString(root), DebugUtil.stubTreeToString(loaded));
+        }
+    }
+
+    static String generateUnit(String name) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("unit ").append(name).append(";\n\ninterface\n\nuses SysUtils, Classes;\n\ntype\n");
+        for (int c = 0; c < CLASSES; c++) {
+            sb.append(String.format("  TEnum%d = (ev%dA, ev%dB, ev%dC);\n", c, c, c, c));
+            sb.append(String.format("  TClass%d = class(TObject)\n  private\n", c));
+            for (int m = 0; m < MEMBERS; m++) {
+                sb.append(String.format("    FField%d: Integer;\n", m));
+            }
+            sb.append("  public\n");
+            for (int m = 0; m < MEMBERS; m++) {
+                sb.append(String.format("    function Method%d(const A: Integer; var B: String): TEnum%d;\n", m, c));
+            }
+            for (int m = 0; m < MEMBERS; m++) {
+                sb.append(String.format("    property Prop%d: Integer read FField%d write FField%d;\n", m, m, m));
+            }
+            sb.append("  end;\n\n");
+        }
+        sb.append("const\n");
+        for (int c = 0; c < CLASSES; c++) {
+            sb.append(String.format("  Const%d = %d;\n", c, c));
+        }
+        sb.append("\nprocedure GlobalProc(A: Integer);\n\nimplementation\n\nprocedure GlobalProc(A: Integer);\nbegin\nend;\n\nend.\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package com.siberika.idea.pascal.module;
+
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.util.io.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ProjectImportScannerTest {
+
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = FileUtil.createTempDirectory("pascalImport", null).getCanonicalFile();
+        write("app1/app1.dpr", "program app1;\nuses\n  unit1 in '..\\common\\unit1.pas',\n  unit2 in 'src/unit2.pas';\nbegin\nend.");
+        write("app2/app2.dpr", "program app2;\nuses\n  unit1 in '../common/unit1.pas';\nbegin\nend.");
+        write("common/unit1.pas", "unit unit1;\ninterface\nimplementation\nend.");
+        write("app1/src/unit2.pas", "unit unit2;\ninterface\nimplementation\nend.");
+        write("ignored/app3.dpr", "program app3;\nbegin\nend.");
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.delete(dir);
+    }
+
+    @Test
+    public void testScan() throws Exception {
+        ProjectImportScanner scanner = new ProjectImportScanner(2, "ignored"::equals);
+        List<ProjectImportScanner.DetectedProject> projects = scanner.scan(dir, new EmptyProgressIndicator());
+        assertEquals(2, projects.size());
+        assertEquals(new File(dir, "app1/app1.dpr"), projects.get(0).file);
+        assertEquals(new File(dir, "app2/app2.dpr"), projects.get(1).file);
+        assertEquals("app1.dpr", projects.get(0).data.getMainFile());
+        assertEquals(Arrays.asList(new File(dir, "app1"), new File(dir, "common"), new File(dir, "app1/src")),
+                Arrays.asList(projects.get(0).sourceDirs.toArray()));
+        assertEquals(Arrays.asList(new File(dir, "app2"), new File(dir, "common")),
+                Arrays.asList(projects.get(1).sourceDirs.toArray()));
+    }
+
+    @Test
+    public void testCanonicalFileMemoized() throws Exception {
+        ProjectImportScanner scanner = new ProjectImportScanner(1, name -> false);
+        File file = new File(dir, "app1/../common");
+        File canonical = scanner.getCanonicalFile(file);
+        assertEquals(new File(dir, "common"), canonical);
+        assertSame(canonical, scanner.getCanonicalFile(new File(dir, "app1/../common")));
+    }
+
+    @Test(expected = ProcessCanceledException.class)
+    public void testCancel() {
+        EmptyProgressIndicator indicator = new EmptyProgressIndicator();
+        indicator.cancel();
+        new ProjectImportScanner(1, name -> false).scan(dir, indicator);
+    }
+
+    private void write(String path, String text) throws Exception {
+        File file = new File(dir, path);
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        FileUtil.writeToFile(file, text);
+    }
+}
@@ -0,0 +1,99 @@
+package com.siberika.idea.pascal.run;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HeaptrcAnalyzerTest {
+
+    private static final String OUTPUT = "Heap dump by heaptrc unit\n" +
+            "3 memory blocks allocated : 72/80\n" +
+            "0 memory blocks freed     : 0/0\n" +
+            "3 unfreed memory blocks : 72\n" +
+            "True heap size : 98304\n" +
+            "Call trace for block $0000000000437E58 size 24\n" +
+            "  $0000000000401145  TOBJ__CREATE,  line 12 of leak.pas\n" +
+            "  $00000000004011A5  main,  line 20 of leak.pas\n" +
+            "Call trace for block $0000000000437F58 size 16\n" +
+            "  $0000000000401145  TOBJ__CREATE,  line 12 of leak.pas\n" +
+            "  $00000000004011A5  main,  line 20 of leak.pas\n" +
+            "Call trace for block $0000000000438058 size 32\n" +
+            "  $08048A00\n" +
+            "  $08048A96  line 7 of other.pas\n";
+
+    @Test
+    public void testGroupByStack() {
+        HeaptrcAnalyzer analyzer = new HeaptrcAnalyzer();
+        // chunks split in the middle of lines
+        for (int i = 0; i < OUTPUT.length(); i += 7) {
+            analyzer.feed(OUTPUT.substring(i, Math.min(i + 7, OUTPUT.length())));
+        }
+        analyzer.finish();
+        assertTrue(analyzer.hasLeaks());
+        assertEquals(3, analyzer.getReportedBlocks());
+        List<HeaptrcAnalyzer.LeakGroup> groups = analyzer.getGroups();
+        assertEquals(2, groups.size());
+        assertEquals(2, groups.get(0).getCount());
+        assertEquals(40, groups.get(0).getBytes());
+        assertEquals("TOBJ__CREATE", groups.get(0).getTopFrame().function);
+        assertEquals("leak.pas", groups.get(0).getTopFrame().file);
+        assertEquals(12, groups.get(0).getTopFrame().line);
+        assertEquals(1, groups.get(1).getCount());
+        assertEquals("other.pas", groups.get(1).getTopFrame().file);
+    }
+
+    @Test
+    public void testParseFrame() {
+        HeaptrcAnalyzer.Frame frame = HeaptrcAnalyzer.parseFrame("$08048A96  line 7 of other.pas");
+        assertEquals("08048A96", frame.address);
+        assertNull(frame.function);
+        assertEquals("other.pas", frame.file);
+        assertEquals(7, frame.line);
+        frame = HeaptrcAnalyzer.parseFrame("$08048A00");
+        assertNull(frame.file);
+        assertEquals(-1, frame.line);
+    }
+
+    @Test
+    public void testBoundedGroups() {
+        HeaptrcAnalyzer analyzer = new HeaptrcAnalyzer();
+        for (int i = 0; i < HeaptrcAnalyzer.MAX_GROUPS + 10; i++) {
+            analyzer.feed("Call trace for block $0000000000437E58 size 8\n  $00000000004011A5  main,  line " + i + " of leak.pas\n");
+        }
+        analyzer.finish();
+        assertEquals(HeaptrcAnalyzer.MAX_GROUPS, analyzer.getGroups().size());
+        assertEquals(10, analyzer.getOtherCount());
+        assertEquals(80, analyzer.getOtherBytes());
+    }
+
+    @Test
+    public void testNoLeaks() {
+        HeaptrcAnalyzer analyzer = new HeaptrcAnalyzer();
+        analyzer.feed("Heap dump by heaptrc unit\n10 memory blocks allocated : 100/100\n10 memory blocks freed     : 100/100\n0 unfreed memory blocks : 0\n");
+        analyzer.finish();
+        assertFalse(analyzer.hasLeaks());
+        assertEquals(0, analyzer.getReportedBlocks());
+    }
+
+    @Test
+    public void testDebuggerOutput() {
+        HeaptrcAnalyzer analyzer = new HeaptrcAnalyzer();
+        for (String line : OUTPUT.split("\n")) {
+            String escaped = line.replace("\\", "\\\\").replace("\"", "\\\"");
+            analyzer.feed(HeaptrcProcessListener.unwrapMiLine("@\"" + escaped + "\\n\""));
+            assertNull(HeaptrcProcessListener.unwrapMiLine("=thread-exited,id=\"1\""));
+        }
+        analyzer.finish();
+        assertEquals(3, analyzer.getReportedBlocks());
+        assertEquals(2, analyzer.getGroups().size());
+        assertNull(HeaptrcProcessListener.unwrapMiLine("12^done"));
+        assertNull(HeaptrcProcessListener.unwrapMiLine("(gdb) "));
+        assertEquals("program output\n", HeaptrcProcessListener.unwrapMiLine("program output\r"));
+        assertEquals("a\tb\"\n", HeaptrcProcessListener.unwrapMiLine("@\"a\\tb\\\"\\012\""));
+    }
+}
@@ -0,0 +1,92 @@
+package com.siberika.idea.pascal.run;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OutputSpoolTest {
+
+    private OutputSpool spool;
+
+    @Before
+    public void setUp() throws Exception {
+        spool = new OutputSpool(100);
+    }
+
+    @After
+    public void tearDown() {
+        spool.close();
+    }
+
+    @Test
+    public void testRingOverwrite() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            spool.write("line" + i + "\n");
+        }
+        assertEquals(200, spool.getWritten());
+        assertEquals(100, spool.getStart());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        spool.export(out);
+        String text = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(100, text.length());
+        assertTrue(text.endsWith("line28\nline29\n"));
+    }
+
+    @Test
+    public void testSearch() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            spool.write("line" + i + "\n");
+        }
+        List<OutputSpool.Match> matches = spool.search("LINE2", true, 3);
+        assertEquals(3, matches.size());
+        assertEquals("line20", matches.get(0).text);
+        assertEquals(130, matches.get(0).offset);
+        assertEquals(0, spool.search("LINE2", false, 3).size());
+    }
+
+    @Test
+    public void testTail() throws Exception {
+        spool.write("first\n");
+        spool.write("\u0436\u0436 last\n");
+        assertEquals(" last\n", spool.tail(7));
+        assertEquals("\u0436 last\n", spool.tail(8));
+    }
+
+    @Test
+    public void testLargeWrite() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 150; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        spool.write(sb.toString());
+        assertEquals(150, spool.getWritten());
+        assertEquals(sb.substring(50), spool.tail(100));
+    }
+
+    @Test
+    public void testSize() throws Exception {
+        assertEquals(256 * 1024 * 1024, OutputSpool.getSize(256));
+        assertEquals(Integer.MAX_VALUE, OutputSpool.getSize(4096));
+        assertEquals(Integer.MAX_VALUE, OutputSpool.getSize(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testTrimAtLineStart() throws Exception {
+        StringBuilder sb = new StringBuilder("line1\nline2\nline3\n");
+        assertEquals(6, SpoolingProcessHandler.trimStart(sb, 3));
+        assertEquals("line2\nline3\n", sb.toString());
+        sb = new StringBuilder("line1\nline2\n");
+        assertEquals(6, SpoolingProcessHandler.trimStart(sb, 6));
+        assertEquals("line2\n", sb.toString());
+        sb = new StringBuilder("long line");
+        assertEquals(5, SpoolingProcessHandler.trimStart(sb, 5));
+        assertEquals("line", sb.toString());
+    }
+}
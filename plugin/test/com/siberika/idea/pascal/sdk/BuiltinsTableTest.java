@@ -0,0 +1,40 @@
+package com.siberika.idea.pascal.sdk;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.lang.parser.NamespaceRec;
+import com.siberika.idea.pascal.lang.psi.PascalModule;
+import com.siberika.idea.pascal.lang.psi.impl.PasField;
+import com.siberika.idea.pascal.lang.references.PasReferenceUtil;
+import com.siberika.idea.pascal.util.PsiUtil;
+
+public class BuiltinsTableTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    public void testTable() {
+        BuiltinsTable table = BuiltinsParser.getBuiltinsTable(getProject());
+        assertNotNull(table);
+        assertTrue(table.size() > 0);
+        assertEquals(PasField.FieldType.TYPE, table.getType("integer"));
+        assertEquals(PasField.FieldType.CONSTANT, table.getType("MAXINT"));
+        assertEquals(PasField.FieldType.ROUTINE, table.getType("WriteLn"));
+        assertFalse(table.contains("NotBuiltinSymbol"));
+        assertSame(table, BuiltinsParser.getBuiltinsTable(getProject()));
+    }
+
+    public void testIsBuiltin() {
+        assertTrue(BuiltinsParser.isBuiltin(getProject(), "Writeln"));
+        assertFalse(BuiltinsParser.isBuiltin(getProject(), "NotBuiltinSymbol"));
+        assertSame(BuiltinsParser.getBuiltinsModule(getProject()), BuiltinsParser.getBuiltinsModule(getProject()));
+    }
+
+    public void testUnqualifiedResolve() {
+        myFixture.configureByText("unqualified.pas", "program unqualified;\nbegin\n  Write<caret>Ln('');\nend.");
+        PsiElement target = myFixture.getElementAtCaret();
+        assertTrue(PsiUtil.isFromBuiltinsUnit(target));
+        PascalModule builtins = BuiltinsParser.getBuiltinsModule(getProject());
+        PascalModule module = PsiUtil.getFileModule(myFixture.getFile());
+        assertFalse(PasReferenceUtil.isBuiltinsSkipped(builtins, NamespaceRec.fromFQN(myFixture.getFile(), "WriteLn")));
+        assertTrue(PasReferenceUtil.isBuiltinsSkipped(builtins, NamespaceRec.fromFQN(myFixture.getFile(), "NotBuiltinSymbol")));
+        assertFalse(PasReferenceUtil.isBuiltinsSkipped(module, NamespaceRec.fromFQN(myFixture.getFile(), "NotBuiltinSymbol")));
+    }
+}
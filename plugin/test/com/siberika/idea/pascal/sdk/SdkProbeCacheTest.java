@@ -0,0 +1,82 @@
+package com.siberika.idea.pascal.sdk;
+
+import com.intellij.openapi.util.SystemInfo;
+import com.intellij.openapi.util.io.FileUtil;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SdkProbeCacheTest {
+
+    private File dir;
+    private File exe;
+    private File counter;
+    private final List<Runnable> refreshes = new ArrayList<Runnable>();
+    private SdkProbeCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeTrue(SystemInfo.isUnix);
+        dir = FileUtil.createTempDirectory("sdkProbe", null);
+        exe = new File(dir, "fpc");
+        counter = new File(dir, "count");
+        writeExe("3.0.4");
+        cache = new SdkProbeCache(refreshes::add);
+    }
+
+    @After
+    public void tearDown() {
+        if (dir != null) {
+            FileUtil.delete(dir);
+        }
+    }
+
+    @Test
+    public void testCachedOutput() throws Exception {
+        assertEquals("3.0.4", cache.probe(dir.getPath(), exe.getPath(), "-iV"));
+        assertEquals("3.0.4", cache.probe(dir.getPath(), exe.getPath(), "-iV"));
+        assertEquals(1, getRuns());
+        assertEquals("3.0.4", cache.probe(dir.getPath(), exe.getPath(), "-iTP"));
+        assertEquals(2, getRuns());
+    }
+
+    @Test
+    public void testPersistedState() throws Exception {
+        cache.probe(dir.getPath(), exe.getPath(), "-iV");
+        SdkProbeCache loaded = new SdkProbeCache(refreshes::add);
+        loaded.loadState(cache.getState());
+        assertEquals("3.0.4", loaded.probe(dir.getPath(), exe.getPath(), "-iV"));
+        assertEquals(1, getRuns());
+    }
+
+    @Test
+    public void testRefreshOnChange() throws Exception {
+        cache.probe(dir.getPath(), exe.getPath(), "-iV");
+        writeExe("3.2.0");
+        assertTrue(exe.setLastModified(exe.lastModified() + 2000));
+        // stale value is returned while refresh is scheduled
+        assertEquals("3.0.4", cache.probe(dir.getPath(), exe.getPath(), "-iV"));
+        assertEquals("3.0.4", cache.probe(dir.getPath(), exe.getPath(), "-iV"));
+        assertEquals(1, refreshes.size());
+        refreshes.get(0).run();
+        assertEquals("3.2.0", cache.probe(dir.getPath(), exe.getPath(), "-iV"));
+        assertEquals(2, getRuns());
+    }
+
+    private void writeExe(String version) throws Exception {
+        FileUtil.writeToFile(exe, "#!/bin/sh\necho x >> " + counter.getPath() + "\necho " + version + "\n");
+        assertTrue(exe.setExecutable(true));
+    }
+
+    private int getRuns() throws Exception {
+        return counter.isFile() ? FileUtil.loadLines(counter).size() : 0;
+    }
+}
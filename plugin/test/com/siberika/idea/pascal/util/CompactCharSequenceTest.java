@@ -0,0 +1,40 @@
+package com.siberika.idea.pascal.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactCharSequenceTest {
+
+    @Test
+    public void testLatin1() {
+        String text = "unit system;\ninterface\n{ été }\nend.";
+        CompactCharSequence seq = CompactCharSequence.of(text);
+        Assert.assertEquals(text.length(), seq.length());
+        Assert.assertEquals(text.length(), seq.getSize());
+        Assert.assertEquals(text, seq.toString());
+        Assert.assertEquals('é', seq.charAt(text.indexOf('é')));
+    }
+
+    @Test
+    public void testUtf16() {
+        String text = "const s = 'Привет';";
+        CompactCharSequence seq = CompactCharSequence.of(text);
+        Assert.assertEquals(text.length() * 2, seq.getSize());
+        Assert.assertEquals(text, seq.toString());
+    }
+
+    @Test
+    public void testSubSequence() {
+        String text = "procedure Proc(a: Integer);";
+        CompactCharSequence seq = CompactCharSequence.of(text);
+        CharSequence sub = seq.subSequence(10, 14);
+        Assert.assertEquals("Proc", sub.toString());
+        Assert.assertEquals("roc", sub.subSequence(1, 4).toString());
+        Assert.assertSame(seq, CompactCharSequence.of(seq));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfBounds() {
+        CompactCharSequence.of("abc").subSequence(1, 3).charAt(2);
+    }
+}
@@ -0,0 +1,181 @@
+package com.siberika.idea.pascal.util;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.siberika.idea.pascal.PascalLanguage;
+import org.junit.Assert;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Wall time and allocation budget of an operation relative to a calibration run performed on the same machine in the same JVM.
+ * Budget factors are multiplied by "pascal.perf.budget.scale" system property and can be overridden per budget
+ * with "pascal.perf.budget.&lt;name&gt;.time" and "pascal.perf.budget.&lt;name&gt;.alloc" properties.
+ * Allocated bytes are summed over all threads so work done by pooled threads is accounted too.
+ * Bytes allocated by threads started and terminated within a run are not accounted.
+ */
+public class PerfBudget {
+
+    public static final String PROPERTY_PREFIX = "pascal.perf.budget.";
+    public static final String SCALE_PROPERTY = PROPERTY_PREFIX + "scale";
+
+    private static final int WARMUP = 2;
+    private static final int ITERATIONS = 5;
+    private static final long UNSUPPORTED = -1;
+
+    private final String name;
+    private final Measurement calibration;
+    private double timeFactor = Double.POSITIVE_INFINITY;
+    private double allocFactor = Double.POSITIVE_INFINITY;
+
+    public PerfBudget(String name, Measurement calibration) {
+        this.name = name;
+        this.calibration = calibration;
+    }
+
+    /**
+     * Sets maximum wall time as multiple of calibration run time
+     */
+    public PerfBudget time(double factor) {
+        this.timeFactor = getFactor("time", factor);
+        return this;
+    }
+
+    /**
+     * Sets maximum allocated bytes as multiple of bytes allocated by calibration run
+     */
+    public PerfBudget alloc(double factor) {
+        this.allocFactor = getFactor("alloc", factor);
+        return this;
+    }
+
+    /**
+     * Measures the action and fails if the best result exceeds the budget. Setup is called before each run and is not measured.
+     */
+    public Measurement check(Runnable setup, Runnable action) {
+        Measurement res = measure(setup, action);
+        if (res.ratioTime(calibration) > timeFactor) {
+            Assert.fail(String.format("%s: time budget exceeded: %s, budget %.1fx of calibration %s", name, res, timeFactor, calibration));
+        }
+        if ((res.allocated != UNSUPPORTED) && (res.ratioAlloc(calibration) > allocFactor)) {
+            Assert.fail(String.format("%s: allocation budget exceeded: %s, budget %.1fx of calibration %s", name, res, allocFactor, calibration));
+        }
+        return res;
+    }
+
+    /**
+     * Measures parsing of the text including lazy parseable elements. Used as calibration run of budgets of Pascal editor features.
+     */
+    public static Measurement calibrate(final Project project, final String text) {
+        return measure(() -> {}, () -> {
+            PsiFile file = PsiFileFactory.getInstance(project).createFileFromText("calibration.pas", PascalLanguage.INSTANCE, text);
+            file.accept(new PsiRecursiveElementWalkingVisitor() {
+            });
+        });
+    }
+
+    /**
+     * Runs the action several times after warm up and returns minimum time and allocation.
+     * Runs during which a thread terminated are not used for allocation as bytes allocated by that thread can't be accounted.
+     * Fails if no run could be used.
+     */
+    public static Measurement measure(Runnable setup, Runnable action) {
+        for (int i = 0; i < WARMUP; i++) {
+            setup.run();
+            action.run();
+        }
+        long minTime = Long.MAX_VALUE;
+        long minAlloc = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            setup.run();
+            Map<Long, Long> before = getAllocatedBytes();
+            long start = System.nanoTime();
+            action.run();
+            minTime = Math.min(minTime, System.nanoTime() - start);
+            if (null == before) {
+                minAlloc = UNSUPPORTED;
+            } else {
+                long alloc = getAllocatedSince(before);
+                if (alloc >= 0) {
+                    minAlloc = Math.min(minAlloc, alloc);
+                }
+            }
+        }
+        if (Long.MAX_VALUE == minAlloc) {
+            Assert.fail("Allocation can't be measured: threads terminated during every run");
+        }
+        return new Measurement(minTime, minAlloc);
+    }
+
+    // Returns bytes allocated by each live thread or null if the JVM doesn't support allocation measurement
+    private static Map<Long, Long> getAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = getThreadBean();
+        if (null == threads) {
+            return null;
+        }
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        Map<Long, Long> res = new HashMap<Long, Long>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) {
+                res.put(ids[i], bytes[i]);
+            }
+        }
+        return res;
+    }
+
+    // Returns bytes allocated by all threads since the snapshot or -1 if a thread from the snapshot has terminated
+    private static long getAllocatedSince(Map<Long, Long> before) {
+        Map<Long, Long> after = getAllocatedBytes();
+        if ((null == after) || !after.keySet().containsAll(before.keySet())) {
+            return -1;
+        }
+        long res = 0;
+        for (Map.Entry<Long, Long> entry : after.entrySet()) {
+            Long prev = before.get(entry.getKey());
+            res += entry.getValue() - (prev != null ? prev : 0);
+        }
+        return res;
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled() ? threads : null;
+    }
+
+    private double getFactor(String kind, double factor) {
+        String override = System.getProperty(PROPERTY_PREFIX + name + "." + kind);
+        double res = override != null ? Double.parseDouble(override) : factor;
+        return res * Double.parseDouble(System.getProperty(SCALE_PROPERTY, "1"));
+    }
+
+    public static class Measurement {
+        public final long timeNs;
+        public final long allocated;
+
+        Measurement(long timeNs, long allocated) {
+            this.timeNs = timeNs;
+            this.allocated = allocated;
+        }
+
+        double ratioTime(Measurement base) {
+            return (double) timeNs / Math.max(base.timeNs, 1);
+        }
+
+        double ratioAlloc(Measurement base) {
+            return (double) allocated / Math.max(base.allocated, 1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d ms, %d KB", timeNs / 1000000, allocated / 1024);
+        }
+    }
+}
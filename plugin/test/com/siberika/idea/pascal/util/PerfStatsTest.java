@@ -0,0 +1,77 @@
+package com.siberika.idea.pascal.util;
+
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+import com.siberika.idea.pascal.lang.psi.impl.PascalRoutineImpl;
+
+public class PerfStatsTest extends LightPlatformCodeInsightFixtureTestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        PerfStats.reset();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            PerfStats.setEnabled(false);
+            PerfStats.reset();
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testDisabled() {
+        PerfStats.setEnabled(false);
+        PerfStats.count(PerfStats.RESOLVE_STUB);
+        assertEquals(0, PerfStats.start());
+        PerfStats.stop(PerfStats.RESOLVE, 0);
+        assertEquals(0, PerfStats.getCount(PerfStats.RESOLVE_STUB));
+        assertNull(PerfStats.getHistogram(PerfStats.RESOLVE));
+    }
+
+    public void testCounters() {
+        PerfStats.setEnabled(true);
+        PerfStats.count(PerfStats.LOCK_TIMEOUT);
+        PerfStats.count(PerfStats.LOCK_TIMEOUT);
+        PerfStats.cacheAccess(this, true);
+        assertEquals(2, PerfStats.getCount(PerfStats.LOCK_TIMEOUT));
+        assertEquals(1, PerfStats.getCount("PerfStatsTest" + PerfStats.CACHE_HIT));
+        assertTrue(PerfStats.report().contains(PerfStats.LOCK_TIMEOUT));
+    }
+
+    public void testRoutineCacheHit() {
+        myFixture.configureByText("routine.pas", "unit routine;\ninterface\nimplementation\n" +
+                "procedure Test;\nvar\n  a: Integer;\nbegin\nend;\nend.");
+        PascalRoutineImpl routine = PsiTreeUtil.findChildOfType(myFixture.getFile(), PascalRoutineImpl.class);
+        assertNotNull(routine);
+        PerfStats.setEnabled(true);
+        assertNotNull(routine.getField("a"));
+        assertNotNull(routine.getField("a"));
+        String name = routine.getClass().getSimpleName();
+        assertEquals(1, PerfStats.getCount(name + PerfStats.CACHE_MISS));
+        assertEquals(1, PerfStats.getCount(name + PerfStats.CACHE_HIT));
+    }
+
+    public void testHistogram() {
+        PerfStats.setEnabled(true);
+        for (int i = 1; i <= 1000; i++) {
+            PerfStats.record(PerfStats.RECURSION_DEPTH, i);
+        }
+        PerfStats.Histogram h = PerfStats.getHistogram(PerfStats.RECURSION_DEPTH);
+        assertEquals(1000, h.getCount());
+        assertEquals(1000, h.getMax());
+        assertEquals(500, h.getMean());
+        assertEquals(500, h.getPercentile(50), 500 / 16);
+        assertEquals(990, h.getPercentile(99), 990 / 16);
+    }
+
+    public void testBuckets() {
+        for (long value : new long[] {0, 1, 15, 16, 17, 100, 12345, 1L << 40, Long.MAX_VALUE}) {
+            long low = PerfStats.Histogram.getValue(PerfStats.Histogram.getIndex(value));
+            assertTrue(low <= value);
+            assertTrue(value - low <= low / 16);
+        }
+    }
+}